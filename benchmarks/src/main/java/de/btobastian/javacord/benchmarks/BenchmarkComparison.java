@@ -0,0 +1,139 @@
+package de.btobastian.javacord.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files in json format, e.g. the baseline and the results of a new run, and prints a report.
+ * A result is a regression if it's worse than the baseline by more than the threshold (10% by default). The program
+ * exits with the status code 1 if there is at least one regression.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar de.btobastian.javacord.benchmarks.BenchmarkComparison baseline.json results.json [10]
+ * </pre>
+ */
+public class BenchmarkComparison {
+
+    /**
+     * The main method.
+     *
+     * @param args The baseline file, the results file and optionally the threshold in percent.
+     * @throws IOException If a file could not be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <results.json> [threshold in percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        Map<String, Result> baseline = readResults(new File(args[0]));
+        Map<String, Result> results = readResults(new File(args[1]));
+
+        List<String> regressions = new ArrayList<>();
+        System.out.println(String.format(Locale.ROOT, "%-80s %14s %14s %9s  %s",
+                "Benchmark", "Baseline", "Current", "Change", "Unit"));
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            Result result = entry.getValue();
+            Result baselineResult = baseline.get(entry.getKey());
+            if (baselineResult == null) {
+                System.out.println(String.format(Locale.ROOT, "%-80s %14s %14.3f %9s  %s",
+                        entry.getKey(), "-", result.score, "new", result.unit));
+                continue;
+            }
+            // Positive changes are always improvements
+            double change = (result.score - baselineResult.score) / baselineResult.score * 100;
+            if (!result.higherIsBetter) {
+                change = -change;
+            }
+            boolean regression = change < -threshold;
+            if (regression) {
+                regressions.add(entry.getKey());
+            }
+            System.out.println(String.format(Locale.ROOT, "%-80s %14.3f %14.3f %+8.1f%%  %s%s",
+                    entry.getKey(), baselineResult.score, result.score, change, result.unit,
+                    regression ? "  REGRESSION" : ""));
+        }
+        for (String key : baseline.keySet()) {
+            if (!results.containsKey(key)) {
+                System.out.println(String.format(Locale.ROOT, "%-80s %14.3f %14s %9s", key,
+                        baseline.get(key).score, "-", "missing"));
+            }
+        }
+
+        System.out.println();
+        if (regressions.isEmpty()) {
+            System.out.println(String.format(Locale.ROOT, "No regressions above %.1f%%.", threshold));
+        } else {
+            System.out.println(String.format(Locale.ROOT, "%d regression(s) above %.1f%%:", regressions.size(),
+                    threshold));
+            regressions.forEach(key -> System.out.println("  " + key));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads the results of a JMH result file.
+     *
+     * @param file The file.
+     * @return The results, including secondary metrics. The key is the name of the benchmark with its parameters.
+     * @throws IOException If the file could not be read.
+     */
+    private static Map<String, Result> readResults(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode benchmark : new ObjectMapper().readTree(file)) {
+            String name = benchmark.get("benchmark").asText().replace("de.btobastian.javacord.benchmarks.", "");
+            StringBuilder key = new StringBuilder(name);
+            if (benchmark.has("params")) {
+                Iterator<Map.Entry<String, JsonNode>> params = benchmark.get("params").fields();
+                while (params.hasNext()) {
+                    Map.Entry<String, JsonNode> param = params.next();
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            boolean higherIsBetter = benchmark.get("mode").asText().equals("thrpt");
+            results.put(key.toString(), new Result(benchmark.get("primaryMetric"), higherIsBetter));
+            if (benchmark.has("secondaryMetrics")) {
+                Iterator<Map.Entry<String, JsonNode>> metrics = benchmark.get("secondaryMetrics").fields();
+                while (metrics.hasNext()) {
+                    Map.Entry<String, JsonNode> metric = metrics.next();
+                    // Secondary metrics are footprints or allocation profiles, so lower values are better
+                    results.put(key + " :" + metric.getKey(), new Result(metric.getValue(), false));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The result of a benchmark.
+     */
+    private static class Result {
+
+        private final double score;
+        private final String unit;
+        private final boolean higherIsBetter;
+
+        /**
+         * Creates a new result.
+         *
+         * @param metric The json metric of the result.
+         * @param higherIsBetter Whether a higher score is better or not.
+         */
+        private Result(JsonNode metric, boolean higherIsBetter) {
+            this.score = metric.get("score").asDouble();
+            this.unit = metric.get("scoreUnit").asText();
+            this.higherIsBetter = higherIsBetter;
+        }
+
+    }
+
+}
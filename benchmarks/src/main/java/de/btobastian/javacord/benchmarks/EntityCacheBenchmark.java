@@ -0,0 +1,193 @@
+package de.btobastian.javacord.benchmarks;
+
+import de.btobastian.javacord.utils.cache.ConcurrentLongMap;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the <code>ConcurrentLongMap</code> of the entity caches with a
+ * <code>ConcurrentHashMap&lt;Long, V&gt;</code>. <code>footprint</code> fills a new map with one million entries and
+ * reports the retained heap of the map itself in the <code>retainedBytesPerEntry</code> counter (all entries share
+ * the same value). <code>lookup</code> measures lookups of random, present keys in a map with one million entries.
+ * The keys are snowflakes, like Discord ids.
+ * JMH only reports counters of time based modes, so the footprint runs in the average time mode.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EntityCacheBenchmark {
+
+    /**
+     * The amount of entries.
+     */
+    private static final int ENTRY_COUNT = 1_000_000;
+
+    /**
+     * The value of all entries.
+     */
+    private static final Object VALUE = new Object();
+
+    @Param({"ConcurrentHashMap", "ConcurrentLongMap"})
+    public String mapType;
+
+    private long[] keys;
+    private Cache lookupCache;
+    private Cache footprintCache;
+    private int nextKey = 0;
+
+    /**
+     * The counters which are reported by the footprint benchmark.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long retainedBytesPerEntry;
+
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        keys = new long[ENTRY_COUNT];
+        long timestamp = 1_400_000_000_000L;
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            // A snowflake is a timestamp, a worker and process id and an increment
+            timestamp += 1 + (i * 31 % 97);
+            keys[i] = (timestamp - 1_420_070_400_000L) << 22 | (i % 32) << 17 | (i % 4096);
+        }
+        lookupCache = createCache();
+        for (long key : keys) {
+            lookupCache.put(key);
+        }
+        // Shuffle the keys, so that lookups are not in insertion order
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = (int) ((i * 2654435761L) % (i + 1));
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void dropFootprintCache() {
+        footprintCache = null;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public Object lookup() {
+        long key = keys[nextKey];
+        nextKey = (nextKey + 1) % keys.length;
+        return lookupCache.get(key);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 1, time = 10)
+    public void footprint(Footprint footprint) throws InterruptedException {
+        long before = getUsedHeap();
+        footprintCache = createCache();
+        for (long key : keys) {
+            footprintCache.put(key);
+        }
+        long after = getUsedHeap();
+        footprint.retainedBytesPerEntry = (after - before) / ENTRY_COUNT;
+    }
+
+    /**
+     * Creates an empty cache of the benchmarked map type.
+     *
+     * @return The cache.
+     */
+    private Cache createCache() {
+        if (mapType.equals("ConcurrentLongMap")) {
+            ConcurrentLongMap<Object> map = new ConcurrentLongMap<>();
+            return new Cache() {
+                @Override
+                public void put(long key) {
+                    map.put(key, VALUE);
+                }
+
+                @Override
+                public Object get(long key) {
+                    return map.get(key);
+                }
+            };
+        }
+        ConcurrentHashMap<Long, Object> map = new ConcurrentHashMap<>();
+        return new Cache() {
+            @Override
+            public void put(long key) {
+                map.put(key, VALUE);
+            }
+
+            @Override
+            public Object get(long key) {
+                return map.get(key);
+            }
+        };
+    }
+
+    /**
+     * Gets the used heap after collecting all garbage.
+     *
+     * @return The used heap in bytes.
+     * @throws InterruptedException If the thread was interrupted.
+     */
+    private static long getUsedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeap = Long.MAX_VALUE;
+        // Collect until the used heap does not shrink anymore
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(50);
+            long currentUsedHeap = runtime.totalMemory() - runtime.freeMemory();
+            if (currentUsedHeap >= usedHeap) {
+                break;
+            }
+            usedHeap = currentUsedHeap;
+        }
+        return usedHeap;
+    }
+
+    /**
+     * A cache from ids to values, which hides the map type.
+     */
+    private interface Cache {
+
+        /**
+         * Adds the shared value with the given key.
+         *
+         * @param key The key.
+         */
+        void put(long key);
+
+        /**
+         * Gets the value of the given key.
+         *
+         * @param key The key.
+         * @return The value or <code>null</code>.
+         */
+        Object get(long key);
+
+    }
+
+}
@@ -0,0 +1,126 @@
+package de.btobastian.javacord.benchmarks;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.ImplDiscordApi;
+import de.btobastian.javacord.utils.DiscordWebSocketAdapter;
+import de.btobastian.javacord.utils.fake.FakeDiscord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Benchmarks the first step of every gateway packet: decompressing and parsing the frame in the websocket adapter.
+ * The frames are a recorded mix of the most common dispatch packets. They reference unknown channels and users, so
+ * the handlers return immediately and the benchmark only measures the adapter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GatewayFrameBenchmark {
+
+    /**
+     * The amount of recorded frames.
+     */
+    private static final int FRAME_COUNT = 1024;
+
+    private FakeDiscord discord;
+    private DiscordApi api;
+    private DiscordWebSocketAdapter adapter;
+    private String[] textFrames;
+    private byte[][] binaryFrames;
+    private int index = 0;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        discord = new FakeDiscord();
+        api = discord.createApiBuilder().login().get(30, TimeUnit.SECONDS);
+        adapter = ((ImplDiscordApi) api).getWebSocketAdapter();
+
+        textFrames = new String[FRAME_COUNT];
+        binaryFrames = new byte[FRAME_COUNT][];
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            ObjectNode frame = JsonNodeFactory.instance.objectNode().put("op", 0).put("s", i);
+            switch (i % 4) {
+                case 0:
+                case 1:
+                    // The channel id 1 is unknown
+                    StringBuilder content = new StringBuilder();
+                    for (int j = 0; j < i % 64; j++) {
+                        content.append("Lorem ipsum ");
+                    }
+                    frame.put("t", "MESSAGE_CREATE").set("d", discord.createMessageCreatePacket(1, content.toString()));
+                    break;
+                case 2:
+                    ObjectNode presence = frame.put("t", "PRESENCE_UPDATE").putObject("d");
+                    presence.putObject("user").put("id", "1");
+                    presence.put("guild_id", "1").put("status", "online");
+                    presence.putObject("game").put("name", "Game " + i).put("type", 0);
+                    presence.putArray("roles").add("1").add("2");
+                    break;
+                default:
+                    frame.put("t", "TYPING_START").putObject("d")
+                            .put("user_id", "1")
+                            .put("channel_id", "1")
+                            .put("timestamp", System.currentTimeMillis() / 1000);
+                    break;
+            }
+            textFrames[i] = frame.toString();
+            binaryFrames[i] = compress(textFrames[i].getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        api.disconnect();
+        discord.close();
+    }
+
+    @Benchmark
+    public void parseTextFrame() throws Exception {
+        adapter.onTextMessage(adapter.getWebSocket(), textFrames[index++ & (FRAME_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public void decompressAndParseBinaryFrame() throws Exception {
+        adapter.onBinaryMessage(adapter.getWebSocket(), binaryFrames[index++ & (FRAME_COUNT - 1)]);
+    }
+
+    /**
+     * Compresses a frame like Discord does for compressed payloads.
+     *
+     * @param data The uncompressed frame.
+     * @return The compressed frame.
+     */
+    private static byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater();
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+        byte[] buffer = new byte[1024];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+}
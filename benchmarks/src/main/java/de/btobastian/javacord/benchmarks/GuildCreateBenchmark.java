@@ -0,0 +1,89 @@
+package de.btobastian.javacord.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.ImplDiscordApi;
+import de.btobastian.javacord.entities.Server;
+import de.btobastian.javacord.utils.fake.FakeDiscord;
+import de.btobastian.javacord.utils.handler.server.GuildCreateHandler;
+import de.btobastian.javacord.utils.handler.server.GuildMembersChunkHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks loading a server: the GUILD_CREATE packet, which creates the server with its channels, roles and the
+ * first members, and the GUILD_MEMBERS_CHUNK packets with the remaining members of large servers.
+ * All entities are purged before every invocation, so every invocation creates all users again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GuildCreateBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int memberCount;
+
+    private FakeDiscord discord;
+    private FakeDiscord payloads;
+    private ImplDiscordApi api;
+    private GuildCreateHandler guildCreateHandler;
+    private GuildMembersChunkHandler guildMembersChunkHandler;
+    private long serverId;
+    private JsonNode guildCreatePacket;
+    private List<? extends JsonNode> memberChunkPackets;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        discord = new FakeDiscord();
+        DiscordApi api = discord.createApiBuilder().login().get(30, TimeUnit.SECONDS);
+        this.api = (ImplDiscordApi) api;
+        guildCreateHandler = new GuildCreateHandler(api);
+        guildMembersChunkHandler = new GuildMembersChunkHandler(api);
+
+        // The packets come from a second instance, so the logged in instance does not answer the member request
+        payloads = new FakeDiscord();
+        serverId = payloads.addServer(memberCount, 20);
+        guildCreatePacket = payloads.createGuildCreatePacket(serverId);
+        memberChunkPackets = payloads.createMemberChunkPackets(serverId);
+    }
+
+    @Setup(Level.Invocation)
+    public void purgeCache() {
+        api.purgeCache();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        api.disconnect();
+        discord.close();
+        payloads.close();
+    }
+
+    @Benchmark
+    public Optional<Server> guildCreate() {
+        guildCreateHandler.handle(guildCreatePacket);
+        for (JsonNode memberChunkPacket : memberChunkPackets) {
+            guildMembersChunkHandler.handle(memberChunkPacket);
+        }
+        return api.getServerById(serverId);
+    }
+
+}
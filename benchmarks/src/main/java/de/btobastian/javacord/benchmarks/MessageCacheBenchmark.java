@@ -0,0 +1,101 @@
+package de.btobastian.javacord.benchmarks;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.ImplDiscordApi;
+import de.btobastian.javacord.entities.channels.TextChannel;
+import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.utils.fake.FakeDiscord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the message cache: inserting messages into full caches, which evicts older messages, and looking up
+ * cached messages by their id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageCacheBenchmark {
+
+    /**
+     * The amount of text channels. Every channel has the default capacity of 50 messages.
+     */
+    private static final int CHANNEL_COUNT = 64;
+
+    private FakeDiscord discord;
+    private ImplDiscordApi api;
+    private TextChannel[] channels;
+    private ObjectNode[] packets;
+    private long[] cachedMessageIds;
+    private long nextMessageId;
+    private int index = 0;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        discord = new FakeDiscord();
+        long serverId = discord.addServer(10, CHANNEL_COUNT);
+        DiscordApi api = discord.createApiBuilder().login().get(30, TimeUnit.SECONDS);
+        this.api = (ImplDiscordApi) api;
+
+        channels = new TextChannel[CHANNEL_COUNT];
+        packets = new ObjectNode[CHANNEL_COUNT];
+        for (int i = 0; i < CHANNEL_COUNT; i++) {
+            long channelId = discord.getTextChannelIds(serverId).get(i);
+            channels[i] = api.getTextChannelById(channelId).orElseThrow(IllegalStateException::new);
+            packets[i] = discord.createMessageCreatePacket(channelId, "Hello World!");
+        }
+        nextMessageId = discord.createMessageCreatePacket(1, "").get("id").asLong();
+
+        // Fill all caches and remember the ids of the cached messages
+        cachedMessageIds = new long[CHANNEL_COUNT * api.getDefaultMessageCacheCapacity()];
+        for (int i = 0; i < cachedMessageIds.length; i++) {
+            cachedMessageIds[i] = insert().getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        api.disconnect();
+        discord.close();
+    }
+
+    @Benchmark
+    public Message insertAndEvict() {
+        return insert();
+    }
+
+    @Benchmark
+    public Optional<Message> lookup() {
+        return api.getCachedMessageById(cachedMessageIds[index++ % cachedMessageIds.length]);
+    }
+
+    /**
+     * Inserts a new message into the cache of the next channel.
+     *
+     * @return The inserted message.
+     */
+    private Message insert() {
+        int channel = index++ % CHANNEL_COUNT;
+        ObjectNode packet = packets[channel];
+        packet.put("id", String.valueOf(nextMessageId++));
+        return api.getOrCreateMessage(channels[channel], packet);
+    }
+
+}
@@ -0,0 +1,81 @@
+package de.btobastian.javacord.benchmarks;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.utils.fake.FakeDiscord;
+import de.btobastian.javacord.utils.handler.message.MessageCreateHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the dispatch of a MESSAGE_CREATE packet, from the handler to the last listener.
+ * Every invocation creates a new message, which is added to the message cache and evicts an older one once the cache
+ * is full.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageCreateBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int listenerCount;
+
+    private FakeDiscord discord;
+    private DiscordApi api;
+    private MessageCreateHandler handler;
+    private ObjectNode packet;
+    private long nextMessageId;
+    private long listenerSum = 0;
+    private volatile long lastDispatchedMessageId = 0;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        discord = new FakeDiscord();
+        long serverId = discord.addServer(10, 1);
+        long channelId = discord.getTextChannelIds(serverId).get(0);
+        api = discord.createApiBuilder().login().get(30, TimeUnit.SECONDS);
+        handler = new MessageCreateHandler(api);
+        packet = discord.createMessageCreatePacket(channelId, "Hello World!");
+        nextMessageId = packet.get("id").asLong();
+
+        // The listeners are called in the order they were added, the last one marks the event as dispatched
+        for (int i = 0; i < listenerCount - 1; i++) {
+            api.addMessageCreateListener(event -> listenerSum += event.getMessage().getId());
+        }
+        api.addMessageCreateListener(event -> lastDispatchedMessageId = event.getMessage().getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        api.disconnect();
+        discord.close();
+    }
+
+    @Benchmark
+    public long messageCreate() {
+        long messageId = ++nextMessageId;
+        packet.put("id", String.valueOf(messageId));
+        handler.handle(packet);
+        while (lastDispatchedMessageId != messageId) {
+            // Busy wait for the listener thread
+        }
+        return listenerSum;
+    }
+
+}
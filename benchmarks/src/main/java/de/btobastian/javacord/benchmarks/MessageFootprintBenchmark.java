@@ -0,0 +1,162 @@
+package de.btobastian.javacord.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.ImplDiscordApi;
+import de.btobastian.javacord.entities.channels.TextChannel;
+import de.btobastian.javacord.utils.fake.FakeDiscord;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the retained heap of cached messages, including the bookkeeping of the message cache.
+ * The messages are a mix of plain, edited messages and messages with mentions, embeds and attachments. The result is
+ * reported in the <code>retainedBytesPerMessage</code> counter. The score itself is the time to parse and cache all
+ * messages, including the garbage collections of the measurement. JMH only reports counters of time based modes, so
+ * the benchmark runs in the average time mode, although a single invocation takes about a second. The counter is
+ * summed over the measurement iterations, so there's only a single, longer one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 1, time = 15)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class MessageFootprintBenchmark {
+
+    /**
+     * The amount of cached messages.
+     */
+    private static final int MESSAGE_COUNT = 50_000;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private FakeDiscord discord;
+    private ImplDiscordApi api;
+    private TextChannel channel;
+    private String[] frames;
+
+    /**
+     * The counters which are reported by the benchmark.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long retainedBytesPerMessage;
+
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        discord = new FakeDiscord();
+        long serverId = discord.addServer(10, 1);
+        long channelId = discord.getTextChannelIds(serverId).get(0);
+        DiscordApi api = discord.createApiBuilder().login().get(30, TimeUnit.SECONDS);
+        this.api = (ImplDiscordApi) api;
+        api.setMessageCacheSize(MESSAGE_COUNT, 24 * 60 * 60);
+        api.getMessageCache().setMaximumEstimatedSize(Long.MAX_VALUE);
+        channel = api.getTextChannelById(channelId).orElseThrow(IllegalStateException::new);
+
+        // The messages are parsed from text, so they don't share strings with their packets
+        frames = new String[MESSAGE_COUNT];
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            ObjectNode message = discord.createMessageCreatePacket(channelId, "Message number " + i + " with content");
+            switch (i % 5) {
+                case 1:
+                    message.put("edited_timestamp", OffsetDateTime.now().toString());
+                    break;
+                case 2:
+                    message.putArray("mentions").addObject()
+                            .put("id", String.valueOf(discord.getBotUserId()))
+                            .put("username", "FakeBot")
+                            .put("discriminator", "0001")
+                            .putNull("avatar");
+                    break;
+                case 3:
+                    ObjectNode embed = message.putArray("embeds").addObject()
+                            .put("title", "Embed " + i)
+                            .put("type", "rich")
+                            .put("description", "The description of embed " + i)
+                            .put("color", 0x7289DA);
+                    embed.putArray("fields").addObject()
+                            .put("name", "Field")
+                            .put("value", "Value " + i)
+                            .put("inline", true);
+                    break;
+                case 4:
+                    message.putArray("attachments").addObject()
+                            .put("id", String.valueOf(i))
+                            .put("filename", "image" + i + ".png")
+                            .put("size", 1024 + i)
+                            .put("url", "https://cdn.discordapp.com/attachments/" + channelId + "/" + i + "/image.png")
+                            .put("proxy_url", "https://media.discordapp.net/attachments/" + channelId + "/" + i
+                                    + "/image.png")
+                            .put("width", 128)
+                            .put("height", 128);
+                    break;
+                default:
+                    break;
+            }
+            frames[i] = message.toString();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        api.getMessageCache().clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        api.disconnect();
+        discord.close();
+    }
+
+    @Benchmark
+    public void cacheMessages(Footprint footprint) throws Exception {
+        long before = getUsedHeap();
+        for (String frame : frames) {
+            api.getOrCreateMessage(channel, mapper.readTree(frame));
+        }
+        long after = getUsedHeap();
+        footprint.retainedBytesPerMessage = (after - before) / MESSAGE_COUNT;
+    }
+
+    /**
+     * Gets the used heap after collecting all garbage.
+     *
+     * @return The used heap in bytes.
+     * @throws InterruptedException If the thread was interrupted.
+     */
+    private static long getUsedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeap = Long.MAX_VALUE;
+        // Collect until the used heap does not shrink anymore
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(50);
+            long currentUsedHeap = runtime.totalMemory() - runtime.freeMemory();
+            if (currentUsedHeap >= usedHeap) {
+                break;
+            }
+            usedHeap = currentUsedHeap;
+        }
+        return usedHeap;
+    }
+
+}
@@ -0,0 +1,156 @@
+package de.btobastian.javacord.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.entities.Server;
+import de.btobastian.javacord.entities.User;
+import de.btobastian.javacord.entities.channels.ServerTextChannel;
+import de.btobastian.javacord.entities.permissions.PermissionType;
+import de.btobastian.javacord.entities.permissions.Permissions;
+import de.btobastian.javacord.utils.fake.FakeDiscord;
+import de.btobastian.javacord.utils.handler.server.GuildCreateHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the evaluation of permissions of members with several roles in a server and in a channel with role and
+ * member overwrites.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionBenchmark {
+
+    /**
+     * The amount of members of the server.
+     */
+    private static final int MEMBER_COUNT = 250;
+
+    /**
+     * The amount of roles of the server, excluding the @everyone role.
+     */
+    private static final int ROLE_COUNT = 20;
+
+    /**
+     * The amount of roles of every member, excluding the @everyone role.
+     */
+    private static final int ROLES_PER_MEMBER = 3;
+
+    private FakeDiscord discord;
+    private FakeDiscord payloads;
+    private DiscordApi api;
+    private Server server;
+    private ServerTextChannel channel;
+    private User[] users;
+    private int index = 0;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        discord = new FakeDiscord();
+        api = discord.createApiBuilder().login().get(30, TimeUnit.SECONDS);
+
+        payloads = new FakeDiscord();
+        long serverId = payloads.addServer(MEMBER_COUNT, 1);
+        ObjectNode guild = payloads.createGuildCreatePacket(serverId);
+        ArrayNode roles = (ArrayNode) guild.get("roles");
+        for (int i = 0; i < ROLE_COUNT; i++) {
+            roles.addObject()
+                    .put("id", String.valueOf(getRoleId(i)))
+                    .put("name", "Role " + i)
+                    .put("position", i + 1)
+                    .put("color", 0)
+                    .put("hoist", false)
+                    .put("mentionable", false)
+                    .put("permissions", i % 2 == 0 ? 0x00000400 | 0x00000800 : 0x00002000)
+                    .put("managed", false);
+        }
+        int memberIndex = 0;
+        for (JsonNode member : guild.get("members")) {
+            for (int i = 0; i < ROLES_PER_MEMBER; i++) {
+                ((ArrayNode) member.get("roles")).add(String.valueOf(getRoleId((memberIndex + i * 7) % ROLE_COUNT)));
+            }
+            memberIndex++;
+        }
+        ArrayNode overwrites = (ArrayNode) guild.get("channels").get(0).get("permission_overwrites");
+        for (int i = 0; i < ROLE_COUNT; i += 4) {
+            overwrites.addObject()
+                    .put("id", String.valueOf(getRoleId(i)))
+                    .put("type", "role")
+                    .put("allow", 0x00000040)
+                    .put("deny", 0x00000800);
+        }
+        overwrites.addObject()
+                .put("id", guild.get("members").get(1).get("user").get("id").asText())
+                .put("type", "member")
+                .put("allow", 0x00000800)
+                .put("deny", 0);
+        new GuildCreateHandler(api).handle(guild);
+
+        server = api.getServerById(serverId).orElseThrow(IllegalStateException::new);
+        channel = server.getTextChannels().get(0);
+        users = server.getMembers().toArray(new User[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        api.disconnect();
+        discord.close();
+        payloads.close();
+    }
+
+    @Benchmark
+    public Permissions serverPermissions() {
+        return server.getPermissionsOf(nextUser());
+    }
+
+    @Benchmark
+    public Permissions channelPermissions() {
+        return channel.getEffectivePermissions(nextUser());
+    }
+
+    @Benchmark
+    public boolean hasChannelPermission() {
+        return channel.hasPermissions(nextUser(), PermissionType.SEND_MESSAGES);
+    }
+
+    /**
+     * Gets the next user of the server.
+     *
+     * @return The next user.
+     */
+    private User nextUser() {
+        User user = users[index++];
+        if (index == users.length) {
+            index = 0;
+        }
+        return user;
+    }
+
+    /**
+     * Gets the id of a role of the server.
+     *
+     * @param index The index of the role.
+     * @return The id of the role.
+     */
+    private static long getRoleId(int index) {
+        return 1000 + index;
+    }
+
+}
@@ -0,0 +1,99 @@
+package de.btobastian.javacord.benchmarks;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.entities.User;
+import de.btobastian.javacord.utils.fake.FakeDiscord;
+import de.btobastian.javacord.utils.handler.user.PresenceUpdateHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the PRESENCE_UPDATE handler.
+ * Discord sends the same presence once for every server the bot shares with a user, so most presence updates don't
+ * change anything. If <code>changed</code> is <code>true</code>, every invocation changes the game of the user and
+ * waits for the game change listener instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PresenceUpdateBenchmark {
+
+    @Param({"false", "true"})
+    public boolean changed;
+
+    private FakeDiscord discord;
+    private DiscordApi api;
+    private PresenceUpdateHandler handler;
+    private ObjectNode packet;
+    private ObjectNode[] games;
+    private int nextGame = 1;
+    private volatile String lastDispatchedGame = null;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        discord = new FakeDiscord();
+        long serverId = discord.addServer(10, 1);
+        api = discord.createApiBuilder().login().get(30, TimeUnit.SECONDS);
+        handler = new PresenceUpdateHandler(api);
+        User user = api.getServerById(serverId).get().getMembers().stream()
+                .filter(member -> !member.isYourself())
+                .findAny().get();
+
+        games = new ObjectNode[2];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = JsonNodeFactory.instance.objectNode()
+                    .put("type", 0)
+                    .put("name", "Half-Life " + (i + 3));
+        }
+        packet = JsonNodeFactory.instance.objectNode();
+        packet.putObject("user").put("id", user.getIdAsString());
+        packet.put("guild_id", String.valueOf(serverId))
+                .put("status", "online")
+                .set("game", games[0]);
+        packet.putArray("roles");
+        handler.handle(packet);
+
+        api.addUserChangeGameListener(event -> lastDispatchedGame = event.getNewGame().get().getName());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        api.disconnect();
+        discord.close();
+    }
+
+    @Benchmark
+    public String presenceUpdate() {
+        if (!changed) {
+            handler.handle(packet);
+            return lastDispatchedGame;
+        }
+        ObjectNode game = games[nextGame++ % games.length];
+        packet.set("game", game);
+        handler.handle(packet);
+        String gameName = game.get("name").asText();
+        while (!gameName.equals(lastDispatchedGame)) {
+            // Busy wait for the listener thread
+        }
+        return lastDispatchedGame;
+    }
+
+}
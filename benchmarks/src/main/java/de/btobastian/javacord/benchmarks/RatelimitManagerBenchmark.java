@@ -0,0 +1,92 @@
+package de.btobastian.javacord.benchmarks;
+
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.entities.channels.TextChannel;
+import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.utils.fake.FakeDiscord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmarks queuing and executing rest requests from many threads, either all in the same ratelimit bucket or every
+ * thread in its own bucket. The fake Discord does not ratelimit the requests and the global ratelimit is raised, so
+ * the benchmark measures the overhead of the ratelimit manager and the http client instead of the waiting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class RatelimitManagerBenchmark {
+
+    /**
+     * The amount of text channels, one for every thread.
+     */
+    private static final int CHANNEL_COUNT = 8;
+
+    private FakeDiscord discord;
+    private DiscordApi api;
+    private TextChannel[] channels;
+    private final AtomicInteger nextThreadIndex = new AtomicInteger();
+
+    /**
+     * The channel of a benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadChannel {
+
+        private TextChannel channel;
+
+        @Setup(Level.Trial)
+        public void setup(RatelimitManagerBenchmark benchmark) {
+            channel = benchmark.channels[benchmark.nextThreadIndex.getAndIncrement() % CHANNEL_COUNT];
+        }
+
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        discord = new FakeDiscord();
+        long serverId = discord.addServer(10, CHANNEL_COUNT);
+        api = discord.createApiBuilder().login().get(30, TimeUnit.SECONDS);
+        api.getRatelimitManager().setGlobalRequestsPerSecond(Integer.MAX_VALUE);
+        channels = new TextChannel[CHANNEL_COUNT];
+        for (int i = 0; i < CHANNEL_COUNT; i++) {
+            channels[i] = api.getTextChannelById(discord.getTextChannelIds(serverId).get(i))
+                    .orElseThrow(IllegalStateException::new);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        api.disconnect();
+        discord.close();
+    }
+
+    @Benchmark
+    public Message sameBucket() {
+        return channels[0].sendMessage("Hello World!").join();
+    }
+
+    @Benchmark
+    public Message separateBuckets(ThreadChannel threadChannel) {
+        return threadChannel.channel.sendMessage("Hello World!").join();
+    }
+
+}
@@ -0,0 +1,128 @@
+package de.btobastian.javacord.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.ImplDiscordApi;
+import de.btobastian.javacord.entities.impl.ImplUser;
+import de.btobastian.javacord.utils.fake.FakeDiscord;
+import de.btobastian.javacord.utils.handler.user.PresenceUpdateHandler;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the retained heap of a cache with one million users, including the cache itself.
+ * Most of the users play one of a few popular games, like in large servers. The result is reported in the
+ * <code>retainedBytesPerUser</code> counter, see {@link MessageFootprintBenchmark} for the details of the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 1, time = 20)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserFootprintBenchmark {
+
+    /**
+     * The amount of cached users.
+     */
+    private static final int USER_COUNT = 1_000_000;
+
+    /**
+     * The names of the games the users play.
+     */
+    private static final String[] GAMES = {
+            "Spotify", "League of Legends", "Fortnite", "Minecraft", "Overwatch", "Counter-Strike: Global Offensive",
+            "PLAYERUNKNOWN'S BATTLEGROUNDS", "World of Warcraft", "Rocket League", "Dota 2"
+    };
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private FakeDiscord discord;
+    private ImplDiscordApi api;
+    private PresenceUpdateHandler handler;
+
+    /**
+     * The counters which are reported by the benchmark.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long retainedBytesPerUser;
+
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        discord = new FakeDiscord();
+        DiscordApi api = discord.createApiBuilder().login().get(30, TimeUnit.SECONDS);
+        this.api = (ImplDiscordApi) api;
+        handler = new PresenceUpdateHandler(api);
+    }
+
+    @Setup(Level.Invocation)
+    public void purgeCache() {
+        api.purgeCache();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        api.disconnect();
+        discord.close();
+    }
+
+    @Benchmark
+    public void cacheUsers(Footprint footprint) throws Exception {
+        long before = getUsedHeap();
+        for (int i = 0; i < USER_COUNT; i++) {
+            // The users are parsed from text, so they don't share strings with each other
+            String id = String.valueOf(1_000_000_000_000L + i);
+            new ImplUser(api, mapper.readTree("{\"id\":\"" + id + "\",\"username\":\"User " + i + "\","
+                    + "\"discriminator\":\"" + String.format("%04d", i % 9999 + 1) + "\","
+                    + "\"avatar\":\"" + Long.toHexString(i * 31L) + "a1b2c3d4e5f6a7b8c9d0\"}"));
+            if (i % 10 < 7) {
+                handler.handle(mapper.readTree("{\"user\":{\"id\":\"" + id + "\"},\"status\":\"online\","
+                        + "\"game\":{\"type\":0,\"name\":\"" + GAMES[i % GAMES.length] + "\"}}"));
+            }
+        }
+        // Wait until the listener thread handled all events, so that they don't count as retained
+        api.getThreadPool().getSingleThreadExecutorService("listeners").submit(() -> { }).get();
+        long after = getUsedHeap();
+        footprint.retainedBytesPerUser = (after - before) / USER_COUNT;
+    }
+
+    /**
+     * Gets the used heap after collecting all garbage.
+     *
+     * @return The used heap in bytes.
+     * @throws InterruptedException If the thread was interrupted.
+     */
+    private static long getUsedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeap = Long.MAX_VALUE;
+        // Collect until the used heap does not shrink anymore
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(50);
+            long currentUsedHeap = runtime.totalMemory() - runtime.freeMemory();
+            if (currentUsedHeap >= usedHeap) {
+                break;
+            }
+            usedHeap = currentUsedHeap;
+        }
+        return usedHeap;
+    }
+
+}
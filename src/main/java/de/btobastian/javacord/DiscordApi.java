@@ -7,7 +7,9 @@ import de.btobastian.javacord.entities.channels.*;
 import de.btobastian.javacord.entities.impl.ImplApplicationInfo;
 import de.btobastian.javacord.entities.impl.ImplInvite;
 import de.btobastian.javacord.entities.impl.ImplWebhook;
+import de.btobastian.javacord.entities.message.Broadcast;
 import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.entities.message.PreparedMessage;
 import de.btobastian.javacord.entities.message.emoji.CustomEmoji;
 import de.btobastian.javacord.entities.permissions.Permissions;
 import de.btobastian.javacord.entities.permissions.Role;
@@ -30,12 +32,18 @@ import de.btobastian.javacord.listeners.server.member.ServerMemberUnbanListener;
 import de.btobastian.javacord.listeners.server.role.*;
 import de.btobastian.javacord.listeners.user.*;
 import de.btobastian.javacord.utils.DiscordWebSocketAdapter;
+import de.btobastian.javacord.utils.GatewayEventCategory;
 import de.btobastian.javacord.utils.ListenerManager;
 import de.btobastian.javacord.utils.ThreadPool;
+import de.btobastian.javacord.utils.cache.GlobalMessageCache;
+import de.btobastian.javacord.utils.metrics.MetricsRecorder;
 import de.btobastian.javacord.utils.ratelimits.RatelimitManager;
+import de.btobastian.javacord.utils.rest.CdnDownloader;
+import de.btobastian.javacord.utils.rest.OriginCaptureMode;
 import de.btobastian.javacord.utils.rest.RestEndpoint;
 import de.btobastian.javacord.utils.rest.RestMethod;
 import de.btobastian.javacord.utils.rest.RestRequest;
+import de.btobastian.javacord.utils.tracing.EventTracer;
 import okhttp3.OkHttpClient;
 
 import javax.imageio.ImageIO;
@@ -68,6 +76,31 @@ public interface DiscordApi {
      */
     ThreadPool getThreadPool();
 
+    /**
+     * Gets the recorder of the internal metrics of this api instance.
+     *
+     * @return The metrics recorder.
+     * @see DiscordApiBuilder#setMetricsRecorder(MetricsRecorder)
+     */
+    MetricsRecorder getMetricsRecorder();
+
+    /**
+     * Gets the tracer of the gateway events of this api instance.
+     * It can be used to find out whether slow events are caused by the websocket thread, the handler thread or the
+     * listeners. Tracing is disabled by default.
+     *
+     * @return The event tracer.
+     */
+    EventTracer getEventTracer();
+
+    /**
+     * Gets the categories of gateway events which are ignored.
+     *
+     * @return The disabled categories of gateway events.
+     * @see DiscordApiBuilder#setDisabledEventCategories(GatewayEventCategory...)
+     */
+    Set<GatewayEventCategory> getDisabledEventCategories();
+
     /**
      * Gets the used {@link OkHttpClient http client} for this api instance.
      *
@@ -75,6 +108,15 @@ public interface DiscordApi {
      */
     OkHttpClient getHttpClient();
 
+    /**
+     * Gets the base url of the rest api which is used by this api instance.
+     * By default this is {@link Javacord#DISCORD_API_URL}.
+     *
+     * @return The base url of the rest api.
+     * @see DiscordApiBuilder#setRestBaseUrl(String)
+     */
+    String getRestBaseUrl();
+
     /**
      * Gets the object mapper used by this api instance.
      *
@@ -89,6 +131,14 @@ public interface DiscordApi {
      */
     RatelimitManager getRatelimitManager();
 
+    /**
+     * Gets the downloader which is used to download icons, avatars and attachments from Discord's cdn.
+     * It can be used to configure a disk cache for downloaded files.
+     *
+     * @return The cdn downloader.
+     */
+    CdnDownloader getCdnDownloader();
+
     /**
      * Gets the websocket adapter which is used to connect to Discord.
      *
@@ -126,6 +176,15 @@ public interface DiscordApi {
         return new BotInviteBuilder(getClientId()).setPermissions(permissions).build();
     }
 
+    /**
+     * Gets the global message cache which holds the cached messages of all channels.
+     * It's bounded by the estimated memory the messages retain, see
+     * {@link GlobalMessageCache#setMaximumEstimatedSize(long)}, and the per-channel caches are quotas on top of it.
+     *
+     * @return The global message cache.
+     */
+    GlobalMessageCache getMessageCache();
+
     /**
      * Sets the cache size of all caches.
      * This settings are applied on a per-channel basis.
@@ -283,6 +342,23 @@ public interface DiscordApi {
      */
     int getReconnectDelay(int attempt);
 
+    /**
+     * Sets how the origin of rest requests is captured.
+     * The origin is the cause of the exception if a request fails. By default, the full stack trace of every request
+     * is captured, which is expensive for bots which send a lot of requests.
+     *
+     * @param originCaptureMode The origin capture mode.
+     */
+    void setOriginCaptureMode(OriginCaptureMode originCaptureMode);
+
+    /**
+     * Gets how the origin of rest requests is captured.
+     *
+     * @return The origin capture mode.
+     * @see #setOriginCaptureMode(OriginCaptureMode)
+     */
+    OriginCaptureMode getOriginCaptureMode();
+
     /**
      * Gets the application info of the bot.
      * The method only works for bot accounts.
@@ -444,6 +520,18 @@ public interface DiscordApi {
      */
     Optional<Message> getCachedMessageById(long id);
 
+    /**
+     * Sends a message to many channels.
+     * The requests are paced to stay below Discord's global ratelimit and channels which are currently ratelimited are
+     * deferred while the message is sent to other channels. This is a lot more efficient than calling
+     * {@link TextChannel#sendMessage(PreparedMessage)} in a loop.
+     *
+     * @param message The message to send.
+     * @param channels The channels to send the message to.
+     * @return The broadcast, which can be used to track the progress.
+     */
+    Broadcast broadcast(PreparedMessage message, Collection<? extends TextChannel> channels);
+
     /**
      * Gets a cached message by it's id.
      *
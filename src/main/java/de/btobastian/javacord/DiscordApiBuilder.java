@@ -1,6 +1,14 @@
 package de.btobastian.javacord;
 
+import de.btobastian.javacord.utils.GatewayEventCategory;
+import de.btobastian.javacord.utils.ThreadPool;
+import de.btobastian.javacord.utils.metrics.MetricsRecorder;
+import okhttp3.OkHttpClient;
+
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * This class is used to login to a Discord account.
@@ -28,6 +36,41 @@ public class DiscordApiBuilder {
      */
     private int totalShards = 1;
 
+    /**
+     * The configuration of the http client. Might be <code>null</code>.
+     */
+    private HttpConfiguration httpConfiguration = null;
+
+    /**
+     * The preconfigured http client. Might be <code>null</code>.
+     */
+    private OkHttpClient httpClient = null;
+
+    /**
+     * The factory of the thread pools of the api instances.
+     */
+    private Supplier<ThreadPool> threadPoolFactory = new ThreadPoolConfiguration()::createThreadPool;
+
+    /**
+     * The recorder of the metrics of the api instances.
+     */
+    private MetricsRecorder metricsRecorder = MetricsRecorder.NOOP;
+
+    /**
+     * The disabled categories of gateway events.
+     */
+    private EnumSet<GatewayEventCategory> disabledEventCategories = EnumSet.noneOf(GatewayEventCategory.class);
+
+    /**
+     * The base url of the rest api.
+     */
+    private String restBaseUrl = Javacord.DISCORD_API_URL;
+
+    /**
+     * The url of the gateway or <code>null</code> to request it from Discord.
+     */
+    private String gatewayUrl = null;
+
     /**
      * Login to the account with the given token.
      *
@@ -39,7 +82,12 @@ public class DiscordApiBuilder {
             future.completeExceptionally(new IllegalArgumentException("You cannot login without a token!"));
             return future;
         }
-        new ImplDiscordApi(accountType, token, currentShard, totalShards, future);
+        OkHttpClient client = httpClient;
+        if (client == null) {
+            client = (httpConfiguration == null ? new HttpConfiguration() : httpConfiguration).getHttpClient();
+        }
+        new ImplDiscordApi(accountType, token, currentShard, totalShards, client, threadPoolFactory.get(),
+                metricsRecorder, EnumSet.copyOf(disabledEventCategories), restBaseUrl, gatewayUrl, future);
         return future;
     }
 
@@ -91,4 +139,125 @@ public class DiscordApiBuilder {
         return this;
     }
 
+    /**
+     * Sets the configuration of the http client which is used for requests to Discord.
+     * Api instances which use the same configuration share one http client, including its connection pool.
+     * If no configuration is set, a new client with the defaults of {@link HttpConfiguration} is used.
+     *
+     * @param httpConfiguration The configuration of the http client.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setHttpConfiguration(HttpConfiguration httpConfiguration) {
+        this.httpConfiguration = httpConfiguration;
+        this.httpClient = null;
+        return this;
+    }
+
+    /**
+     * Sets a preconfigured http client which is used for requests to Discord.
+     * The connection pool and the dispatcher of the client are shared with the api instance, so one client can be
+     * used by many api instances.
+     *
+     * @param httpClient The http client.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setHttpClient(OkHttpClient httpClient) {
+        this.httpClient = httpClient;
+        this.httpConfiguration = null;
+        return this;
+    }
+
+    /**
+     * Sets the configuration of the thread pools of the api instances.
+     * If no configuration is set, the defaults of {@link ThreadPoolConfiguration} are used.
+     *
+     * @param threadPoolConfiguration The configuration of the thread pools.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setThreadPoolConfiguration(ThreadPoolConfiguration threadPoolConfiguration) {
+        if (threadPoolConfiguration == null) {
+            throw new IllegalArgumentException("The thread pool configuration cannot be null!");
+        }
+        return setThreadPoolFactory(threadPoolConfiguration::createThreadPool);
+    }
+
+    /**
+     * Sets the factory of the thread pools of the api instances.
+     * The factory is called once for every login and must return a new thread pool, because the thread pool is shut
+     * down when the api instance disconnects.
+     *
+     * @param threadPoolFactory The factory of the thread pools.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setThreadPoolFactory(Supplier<ThreadPool> threadPoolFactory) {
+        if (threadPoolFactory == null) {
+            throw new IllegalArgumentException("The thread pool factory cannot be null!");
+        }
+        this.threadPoolFactory = threadPoolFactory;
+        return this;
+    }
+
+    /**
+     * Sets the recorder of the internal metrics, like the latency of rest requests or the sizes of the caches.
+     * By default, no metrics are recorded.
+     *
+     * @param metricsRecorder The metrics recorder.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setMetricsRecorder(MetricsRecorder metricsRecorder) {
+        if (metricsRecorder == null) {
+            throw new IllegalArgumentException("The metrics recorder cannot be null!");
+        }
+        this.metricsRecorder = metricsRecorder;
+        return this;
+    }
+
+    /**
+     * Sets the categories of gateway events which should be ignored.
+     * Disabled events are dropped as early as possible, which saves a lot of cpu time if they are frequent (e.g.
+     * presence updates), but their listeners are never called and the cache is not updated by them.
+     * If both, {@link GatewayEventCategory#PRESENCES} and {@link GatewayEventCategory#TYPING} are disabled, Discord is
+     * asked to not send them at all.
+     *
+     * @param categories The categories to disable. Replaces the previously disabled categories.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setDisabledEventCategories(GatewayEventCategory... categories) {
+        if (categories == null) {
+            throw new IllegalArgumentException("The categories cannot be null!");
+        }
+        disabledEventCategories = EnumSet.noneOf(GatewayEventCategory.class);
+        disabledEventCategories.addAll(Arrays.asList(categories));
+        return this;
+    }
+
+    /**
+     * Sets the base url of the rest api, including the protocol version.
+     * This is mainly useful to connect to a proxy or to a fake Discord for testing, e.g.
+     * the <code>FakeDiscord</code> of the tests.
+     *
+     * @param restBaseUrl The base url, e.g. <code>http://localhost:8080/api/v6</code>.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setRestBaseUrl(String restBaseUrl) {
+        if (restBaseUrl == null) {
+            throw new IllegalArgumentException("The rest base url cannot be null!");
+        }
+        this.restBaseUrl = restBaseUrl.endsWith("/") ? restBaseUrl.substring(0, restBaseUrl.length() - 1) : restBaseUrl;
+        return this;
+    }
+
+    /**
+     * Sets the url of the gateway.
+     * By default, the url is requested from Discord when logging in.
+     *
+     * @param gatewayUrl The url of the gateway, e.g. <code>ws://localhost:8081</code> or <code>null</code> to
+     *                   request it from Discord.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setGatewayUrl(String gatewayUrl) {
+        this.gatewayUrl = gatewayUrl;
+        return this;
+    }
+
 }
@@ -0,0 +1,253 @@
+package de.btobastian.javacord;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is used to configure the http client which is used for requests to Discord.
+ * All requests of a bot go to the same host, so the defaults allow many concurrent connections and requests per host.
+ * The http client is created once, when the configuration is used for the first time, and shared by all api instances
+ * which use this configuration. The configuration cannot be changed after the http client was created.
+ *
+ * @see DiscordApiBuilder#setHttpConfiguration(HttpConfiguration)
+ */
+public class HttpConfiguration {
+
+    /**
+     * The maximum amount of idle connections which are kept in the connection pool.
+     */
+    private int maxIdleConnections = 32;
+
+    /**
+     * The time in milliseconds idle connections are kept in the connection pool.
+     */
+    private long keepAliveDuration = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * The maximum amount of asynchronous requests which are executed concurrently.
+     */
+    private int maxRequests = 256;
+
+    /**
+     * The maximum amount of asynchronous requests to the same host which are executed concurrently.
+     */
+    private int maxRequestsPerHost = 64;
+
+    /**
+     * The connect timeout in milliseconds.
+     */
+    private long connectTimeout = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * The read timeout in milliseconds.
+     */
+    private long readTimeout = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * The write timeout in milliseconds.
+     */
+    private long writeTimeout = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * The interval in milliseconds in which http/2 connections are pinged or <code>0</code> to disable pings.
+     */
+    private long pingInterval = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Whether http/2 should be used or not.
+     */
+    private boolean http2 = true;
+
+    /**
+     * Whether responses should be compressed with gzip or not.
+     */
+    private boolean gzip = true;
+
+    /**
+     * The factory of the event listeners of the calls. Might be <code>null</code>.
+     */
+    private EventListener.Factory eventListenerFactory = null;
+
+    /**
+     * The http client which was created from this configuration. Might be <code>null</code>.
+     */
+    private OkHttpClient httpClient = null;
+
+    /**
+     * Sets the maximum amount of idle connections which are kept in the connection pool.
+     *
+     * @param maxIdleConnections The maximum amount of idle connections.
+     * @return The current instance in order to chain call methods.
+     */
+    public HttpConfiguration setMaxIdleConnections(int maxIdleConnections) {
+        checkNotCreated();
+        if (maxIdleConnections < 0) {
+            throw new IllegalArgumentException("maxIdleConnections cannot be less than 0!");
+        }
+        this.maxIdleConnections = maxIdleConnections;
+        return this;
+    }
+
+    /**
+     * Sets the time idle connections are kept in the connection pool.
+     *
+     * @param duration The duration.
+     * @param unit The time unit of the duration.
+     * @return The current instance in order to chain call methods.
+     */
+    public HttpConfiguration setKeepAliveDuration(long duration, TimeUnit unit) {
+        checkNotCreated();
+        if (duration <= 0) {
+            throw new IllegalArgumentException("The keep alive duration must be greater than 0!");
+        }
+        this.keepAliveDuration = unit.toMillis(duration);
+        return this;
+    }
+
+    /**
+     * Sets the maximum amount of asynchronous requests which are executed concurrently.
+     *
+     * @param maxRequests The maximum amount of requests.
+     * @param maxRequestsPerHost The maximum amount of requests to the same host.
+     * @return The current instance in order to chain call methods.
+     */
+    public HttpConfiguration setMaxRequests(int maxRequests, int maxRequestsPerHost) {
+        checkNotCreated();
+        if (maxRequests < 1 || maxRequestsPerHost < 1) {
+            throw new IllegalArgumentException("The maximum amount of requests cannot be less than 1!");
+        }
+        this.maxRequests = maxRequests;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        return this;
+    }
+
+    /**
+     * Sets the timeouts of the requests.
+     * A timeout of <code>0</code> means no timeout.
+     *
+     * @param connectTimeout The connect timeout.
+     * @param readTimeout The read timeout.
+     * @param writeTimeout The write timeout.
+     * @param unit The time unit of the timeouts.
+     * @return The current instance in order to chain call methods.
+     */
+    public HttpConfiguration setTimeouts(long connectTimeout, long readTimeout, long writeTimeout, TimeUnit unit) {
+        checkNotCreated();
+        if (connectTimeout < 0 || readTimeout < 0 || writeTimeout < 0) {
+            throw new IllegalArgumentException("Timeouts cannot be less than 0!");
+        }
+        this.connectTimeout = unit.toMillis(connectTimeout);
+        this.readTimeout = unit.toMillis(readTimeout);
+        this.writeTimeout = unit.toMillis(writeTimeout);
+        return this;
+    }
+
+    /**
+     * Sets the interval in which http/2 connections are pinged to keep them alive.
+     *
+     * @param interval The interval or <code>0</code> to disable pings.
+     * @param unit The time unit of the interval.
+     * @return The current instance in order to chain call methods.
+     */
+    public HttpConfiguration setPingInterval(long interval, TimeUnit unit) {
+        checkNotCreated();
+        if (interval < 0) {
+            throw new IllegalArgumentException("The ping interval cannot be less than 0!");
+        }
+        this.pingInterval = unit.toMillis(interval);
+        return this;
+    }
+
+    /**
+     * Sets whether http/2 should be used or not.
+     * If enabled, all requests share a single multiplexed connection, if the server supports it.
+     *
+     * @param http2 Whether http/2 should be used or not.
+     * @return The current instance in order to chain call methods.
+     */
+    public HttpConfiguration setHttp2(boolean http2) {
+        checkNotCreated();
+        this.http2 = http2;
+        return this;
+    }
+
+    /**
+     * Sets whether responses should be compressed with gzip or not.
+     *
+     * @param gzip Whether responses should be compressed with gzip or not.
+     * @return The current instance in order to chain call methods.
+     */
+    public HttpConfiguration setGzip(boolean gzip) {
+        checkNotCreated();
+        this.gzip = gzip;
+        return this;
+    }
+
+    /**
+     * Sets the factory of event listeners, which can be used to monitor the calls of the http client.
+     *
+     * @param eventListenerFactory The factory of event listeners or <code>null</code>.
+     * @return The current instance in order to chain call methods.
+     */
+    public HttpConfiguration setEventListenerFactory(EventListener.Factory eventListenerFactory) {
+        checkNotCreated();
+        this.eventListenerFactory = eventListenerFactory;
+        return this;
+    }
+
+    /**
+     * Gets the http client of this configuration.
+     * The http client is created with the first call of this method.
+     *
+     * @return The http client of this configuration.
+     */
+    public synchronized OkHttpClient getHttpClient() {
+        if (httpClient != null) {
+            return httpClient;
+        }
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveDuration, TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .connectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeout, TimeUnit.MILLISECONDS)
+                .writeTimeout(writeTimeout, TimeUnit.MILLISECONDS)
+                .pingInterval(pingInterval, TimeUnit.MILLISECONDS)
+                .protocols(http2 ?
+                        Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1) :
+                        Collections.singletonList(Protocol.HTTP_1_1));
+        if (!gzip) {
+            // OkHttp requests and decompresses gzip transparently, unless the request sets an encoding
+            builder.addInterceptor(chain -> chain.proceed(chain.request()
+                    .newBuilder()
+                    .header("Accept-Encoding", "identity")
+                    .build()));
+        }
+        if (eventListenerFactory != null) {
+            builder.eventListenerFactory(eventListenerFactory);
+        }
+        httpClient = builder.build();
+        return httpClient;
+    }
+
+    /**
+     * Checks that the http client was not created yet.
+     *
+     * @throws IllegalStateException If the http client was already created.
+     */
+    private synchronized void checkNotCreated() {
+        if (httpClient != null) {
+            throw new IllegalStateException("The configuration cannot be changed after the http client was created!");
+        }
+    }
+
+}
@@ -10,9 +10,12 @@ import de.btobastian.javacord.entities.channels.GroupChannel;
 import de.btobastian.javacord.entities.channels.TextChannel;
 import de.btobastian.javacord.entities.impl.ImplGame;
 import de.btobastian.javacord.entities.impl.ImplUser;
+import de.btobastian.javacord.entities.message.Broadcast;
 import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.entities.message.PreparedMessage;
 import de.btobastian.javacord.entities.message.emoji.CustomEmoji;
 import de.btobastian.javacord.entities.message.emoji.impl.ImplCustomEmoji;
+import de.btobastian.javacord.entities.message.impl.ImplBroadcast;
 import de.btobastian.javacord.entities.message.impl.ImplMessage;
 import de.btobastian.javacord.listeners.connection.LostConnectionListener;
 import de.btobastian.javacord.listeners.connection.ReconnectListener;
@@ -33,20 +36,31 @@ import de.btobastian.javacord.listeners.server.member.ServerMemberUnbanListener;
 import de.btobastian.javacord.listeners.server.role.*;
 import de.btobastian.javacord.listeners.user.*;
 import de.btobastian.javacord.utils.DiscordWebSocketAdapter;
+import de.btobastian.javacord.utils.EventQueueExecutor;
+import de.btobastian.javacord.utils.GatewayEventCategory;
 import de.btobastian.javacord.utils.ListenerManager;
 import de.btobastian.javacord.utils.ThreadPool;
+import de.btobastian.javacord.utils.cache.ConcurrentLongMap;
+import de.btobastian.javacord.utils.cache.GlobalMessageCache;
 import de.btobastian.javacord.utils.logging.LoggerUtil;
+import de.btobastian.javacord.utils.metrics.MetricsCache;
+import de.btobastian.javacord.utils.metrics.MetricsGauge;
+import de.btobastian.javacord.utils.metrics.MetricsRecorder;
 import de.btobastian.javacord.utils.ratelimits.RatelimitManager;
+import de.btobastian.javacord.utils.rest.CdnDownloader;
+import de.btobastian.javacord.utils.rest.OriginCaptureMode;
 import de.btobastian.javacord.utils.rest.RestEndpoint;
 import de.btobastian.javacord.utils.rest.RestMethod;
 import de.btobastian.javacord.utils.rest.RestRequest;
+import de.btobastian.javacord.utils.tracing.EventTracer;
 import okhttp3.OkHttpClient;
 import org.slf4j.Logger;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -63,13 +77,33 @@ public class ImplDiscordApi implements DiscordApi {
     /**
      * The thread pool which is used internally.
      */
-    private final ThreadPool threadPool = new ThreadPool();
+    private final ThreadPool threadPool;
+
+    /**
+     * The recorder of the metrics of this instance.
+     */
+    private final MetricsRecorder metricsRecorder;
+
+    /**
+     * The disabled categories of gateway events.
+     */
+    private final Set<GatewayEventCategory> disabledEventCategories;
+
+    /**
+     * The tracer of the gateway events.
+     */
+    private final EventTracer eventTracer = new EventTracer();
 
     /**
      * The http client for this instance.
      */
     private final OkHttpClient httpClient;
 
+    /**
+     * The base url of the rest api.
+     */
+    private final String restBaseUrl;
+
     /**
      * The object mapper for this instance.
      */
@@ -80,6 +114,11 @@ public class ImplDiscordApi implements DiscordApi {
      */
     private final RatelimitManager ratelimitManager = new RatelimitManager(this);
 
+    /**
+     * The downloader for files of Discord's cdn.
+     */
+    private final CdnDownloader cdnDownloader = new CdnDownloader(this);
+
     /**
      * The websocket adapter used to connect to Discord.
      */
@@ -125,6 +164,11 @@ public class ImplDiscordApi implements DiscordApi {
      */
     private Function<Integer, Integer> reconnectDelayProvider;
 
+    /**
+     * How the origin of rest requests is captured.
+     */
+    private volatile OriginCaptureMode originCaptureMode = OriginCaptureMode.FULL;
+
     /**
      * The current shard of the bot.
      */
@@ -158,17 +202,17 @@ public class ImplDiscordApi implements DiscordApi {
     /**
      * A map which contains all users.
      */
-    private final ConcurrentHashMap<Long, User> users = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<User> users = new ConcurrentLongMap<>();
 
     /**
      * A map which contains all servers.
      */
-    private final ConcurrentHashMap<Long, Server> servers = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<Server> servers = new ConcurrentLongMap<>();
 
     /**
      * A map which contains all group channels.
      */
-    private final ConcurrentHashMap<Long, GroupChannel> groupChannels = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<GroupChannel> groupChannels = new ConcurrentLongMap<>();
 
     /**
      * A set with all unavailable servers.
@@ -178,12 +222,12 @@ public class ImplDiscordApi implements DiscordApi {
     /**
      * A map with all known custom emoji.
      */
-    private final ConcurrentHashMap<Long, CustomEmoji> customEmojis = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<CustomEmoji> customEmojis = new ConcurrentLongMap<>();
 
     /**
-     * A map with all cached messages.
+     * The cache with all cached messages.
      */
-    private final ConcurrentHashMap<Long, Message> messages = new ConcurrentHashMap<>();
+    private final GlobalMessageCache messageCache;
 
     /**
      * A map which contains all listeners.
@@ -208,6 +252,12 @@ public class ImplDiscordApi implements DiscordApi {
      * @param token The token used to connect without any account type specific prefix.
      * @param currentShard The current shard the bot should connect to.
      * @param totalShards  The total amount of shards.
+     * @param httpClient The http client which is used for requests to Discord.
+     * @param threadPool The thread pool which is used internally.
+     * @param metricsRecorder The recorder of the metrics of this instance.
+     * @param disabledEventCategories The disabled categories of gateway events.
+     * @param restBaseUrl The base url of the rest api.
+     * @param gatewayUrl The url of the gateway or <code>null</code> to request it from Discord.
      * @param ready The future which will be completed when the connection to Discord was successful.
      */
     public ImplDiscordApi(
@@ -215,16 +265,30 @@ public class ImplDiscordApi implements DiscordApi {
             String token,
             int currentShard,
             int totalShards,
+            OkHttpClient httpClient,
+            ThreadPool threadPool,
+            MetricsRecorder metricsRecorder,
+            Set<GatewayEventCategory> disabledEventCategories,
+            String restBaseUrl,
+            String gatewayUrl,
             CompletableFuture<DiscordApi> ready
     ) {
+        this.threadPool = threadPool;
+        // The message cache schedules its cleanup with the thread pool
+        this.messageCache = new GlobalMessageCache(this, 64 * 1024 * 1024);
+        this.metricsRecorder = metricsRecorder;
+        registerGauges();
+        this.disabledEventCategories = Collections.unmodifiableSet(disabledEventCategories);
         this.accountType = accountType;
         this.token = accountType.getTokenPrefix() + token;
         this.currentShard = currentShard;
         this.totalShards = totalShards;
+        this.restBaseUrl = restBaseUrl;
         this.reconnectDelayProvider = x ->
                 (int) Math.round(Math.pow(x, 1.5)-(1/(1/(0.1*x)+1))*Math.pow(x,1.5))+(currentShard*6);
 
-        this.httpClient = new OkHttpClient.Builder()
+        // The new client shares the connection pool and the dispatcher of the given client
+        this.httpClient = httpClient.newBuilder()
                 .addInterceptor(chain -> chain.proceed(chain.request()
                         .newBuilder()
                         .addHeader("User-Agent", Javacord.USER_AGENT)
@@ -236,41 +300,39 @@ public class ImplDiscordApi implements DiscordApi {
             endpoint = RestEndpoint.GATEWAY;
         }
 
-        new RestRequest<String>(this, RestMethod.GET, endpoint)
-                .includeAuthorizationHeader(accountType == AccountType.BOT)
-                .execute(result -> result.getJsonBody().get("url").asText())
-                .whenComplete((gateway, t) -> {
-                    if (t != null) {
-                        ready.completeExceptionally(t);
-                        return;
-                    }
+        CompletableFuture<String> gatewayFuture = gatewayUrl != null ?
+                CompletableFuture.completedFuture(gatewayUrl) :
+                new RestRequest<String>(this, RestMethod.GET, endpoint)
+                        .includeAuthorizationHeader(accountType == AccountType.BOT)
+                        .execute(result -> result.getJsonBody().get("url").asText());
+        gatewayFuture.whenComplete((gateway, t) -> {
+            if (t != null) {
+                ready.completeExceptionally(t);
+                return;
+            }
 
-                    websocketAdapter = new DiscordWebSocketAdapter(this, gateway);
-                    websocketAdapter.isReady().whenComplete((readyReceived, throwable) -> {
-                        if (readyReceived) {
-                            if (accountType == AccountType.BOT) {
-                                getApplicationInfo().whenComplete((applicationInfo, exception) -> {
-                                    if (exception != null) {
-                                       logger.error("Could not access self application info on startup!", exception);
-                                    } else {
-                                        clientId = applicationInfo.getClientId();
-                                        ownerId = applicationInfo.getOwnerId();
-                                    }
-                                    ready.complete(this);
-                                });
+            websocketAdapter = new DiscordWebSocketAdapter(this, gateway);
+            websocketAdapter.isReady().whenComplete((readyReceived, throwable) -> {
+                if (readyReceived) {
+                    if (accountType == AccountType.BOT) {
+                        getApplicationInfo().whenComplete((applicationInfo, exception) -> {
+                            if (exception != null) {
+                               logger.error("Could not access self application info on startup!", exception);
                             } else {
-                                ready.complete(this);
+                                clientId = applicationInfo.getClientId();
+                                ownerId = applicationInfo.getOwnerId();
                             }
-                        } else {
-                            ready.completeExceptionally(
-                                    new IllegalStateException("Websocket closed before READY packet was received!"));
-                        }
-                    });
-
-                    getThreadPool().getScheduler().scheduleAtFixedRate(
-                            () -> messages.entrySet().removeIf(entry -> !((ImplMessage) entry.getValue()).keepCached())
-                            , 30, 30, TimeUnit.SECONDS);
-                });
+                            ready.complete(this);
+                        });
+                    } else {
+                        ready.complete(this);
+                    }
+                } else {
+                    ready.completeExceptionally(
+                            new IllegalStateException("Websocket closed before READY packet was received!"));
+                }
+            });
+        });
 
         // Add shutdown hook
         ready.thenAccept(api -> Runtime.getRuntime().addShutdownHook(new Thread(api::disconnect)));
@@ -286,7 +348,7 @@ public class ImplDiscordApi implements DiscordApi {
         groupChannels.clear();
         unavailableServers.clear();
         customEmojis.clear();
-        messages.clear();
+        messageCache.clear();
         timeOffset = null;
     }
 
@@ -372,6 +434,45 @@ public class ImplDiscordApi implements DiscordApi {
         this.timeOffset = timeOffset;
     }
 
+    /**
+     * Registers the gauges of this instance at the metrics recorder.
+     */
+    private void registerGauges() {
+        ExecutorService handlerExecutorService = threadPool.getSingleThreadExecutorService("handlers");
+        if (handlerExecutorService instanceof ThreadPoolExecutor) {
+            metricsRecorder.registerGauge(MetricsGauge.HANDLER_QUEUE_SIZE,
+                    () -> ((ThreadPoolExecutor) handlerExecutorService).getQueue().size());
+        }
+        ExecutorService listenerExecutorService = threadPool.getSingleThreadExecutorService("listeners");
+        if (listenerExecutorService instanceof ThreadPoolExecutor) {
+            metricsRecorder.registerGauge(MetricsGauge.LISTENER_QUEUE_SIZE,
+                    () -> ((ThreadPoolExecutor) listenerExecutorService).getQueue().size());
+        }
+        if (handlerExecutorService instanceof EventQueueExecutor) {
+            EventQueueExecutor executor = (EventQueueExecutor) handlerExecutorService;
+            metricsRecorder.registerGauge(MetricsGauge.HANDLER_QUEUE_HIGH_WATER_MARK, executor::getHighWaterMark);
+            metricsRecorder.registerGauge(MetricsGauge.HANDLER_QUEUE_DROPPED, executor::getDroppedTasks);
+            metricsRecorder.registerGauge(MetricsGauge.HANDLER_QUEUE_COALESCED, executor::getCoalescedTasks);
+        }
+        if (listenerExecutorService instanceof EventQueueExecutor) {
+            EventQueueExecutor executor = (EventQueueExecutor) listenerExecutorService;
+            metricsRecorder.registerGauge(MetricsGauge.LISTENER_QUEUE_HIGH_WATER_MARK, executor::getHighWaterMark);
+            metricsRecorder.registerGauge(MetricsGauge.LISTENER_QUEUE_DROPPED, executor::getDroppedTasks);
+        }
+        ExecutorService workerExecutorService = threadPool.getExecutorService();
+        if (workerExecutorService instanceof ThreadPoolExecutor) {
+            metricsRecorder.registerGauge(MetricsGauge.WORKER_QUEUE_SIZE,
+                    () -> ((ThreadPoolExecutor) workerExecutorService).getQueue().size());
+            metricsRecorder.registerGauge(MetricsGauge.WORKER_ACTIVE_THREADS,
+                    () -> ((ThreadPoolExecutor) workerExecutorService).getActiveCount());
+        }
+        metricsRecorder.registerGauge(MetricsGauge.MESSAGE_CACHE_SIZE, messageCache::getSize);
+        metricsRecorder.registerGauge(MetricsGauge.MESSAGE_CACHE_ESTIMATED_BYTES, messageCache::getEstimatedSize);
+        metricsRecorder.registerGauge(MetricsGauge.MESSAGE_CACHE_HIT_RATIO, messageCache::getHitRatio);
+        metricsRecorder.registerGauge(MetricsGauge.USER_CACHE_SIZE, users::size);
+        metricsRecorder.registerGauge(MetricsGauge.SERVER_CACHE_SIZE, servers::size);
+    }
+
     /**
      * Gets a user or creates a new one from the given data.
      *
@@ -381,12 +482,15 @@ public class ImplDiscordApi implements DiscordApi {
     public User getOrCreateUser(JsonNode data) {
         long id = Long.parseLong(data.get("id").asText());
         synchronized (this) {
-            return getUserById(id).orElseGet(() -> {
-                if (!data.has("username")) {
-                    throw new IllegalStateException("Couldn't get or created user. Please inform the developer!");
-                }
-                return new ImplUser(this, data);
-            });
+            User user = users.get(id);
+            metricsRecorder.recordCacheAccess(MetricsCache.USERS, user != null);
+            if (user != null) {
+                return user;
+            }
+            if (!data.has("username")) {
+                throw new IllegalStateException("Couldn't get or created user. Please inform the developer!");
+            }
+            return new ImplUser(this, data);
         }
     }
 
@@ -412,17 +516,19 @@ public class ImplDiscordApi implements DiscordApi {
     public Message getOrCreateMessage(TextChannel channel, JsonNode data) {
         long id = Long.parseLong(data.get("id").asText());
         // The constructor already adds the message to the cache.
-        // If we use #computeIfAbsent() here, it would cause a deadlock
-        return messages.getOrDefault(id, new ImplMessage(this, channel, data));
+        return messageCache.peekMessageById(id).orElseGet(() -> new ImplMessage(this, channel, data));
     }
 
     /**
-     * Adds a message to the cache.
+     * Gets a cached message or creates a new message object without adding it to the cache.
      *
-     * @param message The message to add.
+     * @param channel The channel of the message.
+     * @param data The data of the message.
+     * @return The message for the given json object.
      */
-    public void addMessageToCache(Message message) {
-        messages.computeIfAbsent(message.getId(), key -> message);
+    public Message getOrCreateUncachedMessage(TextChannel channel, JsonNode data) {
+        long id = Long.parseLong(data.get("id").asText());
+        return messageCache.peekMessageById(id).orElseGet(() -> new ImplMessage(this, channel, data, false));
     }
 
     /**
@@ -582,11 +688,31 @@ public class ImplDiscordApi implements DiscordApi {
         return threadPool;
     }
 
+    @Override
+    public MetricsRecorder getMetricsRecorder() {
+        return metricsRecorder;
+    }
+
+    @Override
+    public EventTracer getEventTracer() {
+        return eventTracer;
+    }
+
+    @Override
+    public Set<GatewayEventCategory> getDisabledEventCategories() {
+        return disabledEventCategories;
+    }
+
     @Override
     public OkHttpClient getHttpClient() {
         return httpClient;
     }
 
+    @Override
+    public String getRestBaseUrl() {
+        return restBaseUrl;
+    }
+
     @Override
     public ObjectMapper getObjectMapper() {
         return objectMapper;
@@ -597,6 +723,11 @@ public class ImplDiscordApi implements DiscordApi {
         return ratelimitManager;
     }
 
+    @Override
+    public CdnDownloader getCdnDownloader() {
+        return cdnDownloader;
+    }
+
     /*
      * Note: You might think the return type should be Optional<WebsocketAdapter>, because it's null till we receive
      *       the gateway from Discord. However the DiscordApi instance is only passed to the user, AFTER we connect
@@ -612,6 +743,11 @@ public class ImplDiscordApi implements DiscordApi {
         return accountType;
     }
 
+    @Override
+    public GlobalMessageCache getMessageCache() {
+        return messageCache;
+    }
+
     @Override
     public void setMessageCacheSize(int capacity, int storageTimeInSeconds) {
         this.defaultMessageCacheCapacity = capacity;
@@ -710,6 +846,19 @@ public class ImplDiscordApi implements DiscordApi {
         return reconnectDelayProvider.apply(attempt);
     }
 
+    @Override
+    public void setOriginCaptureMode(OriginCaptureMode originCaptureMode) {
+        if (originCaptureMode == null) {
+            throw new IllegalArgumentException("The origin capture mode cannot be null!");
+        }
+        this.originCaptureMode = originCaptureMode;
+    }
+
+    @Override
+    public OriginCaptureMode getOriginCaptureMode() {
+        return originCaptureMode;
+    }
+
     @Override
     public Collection<Long> getUnavailableServers() {
         return Collections.unmodifiableCollection(unavailableServers);
@@ -727,12 +876,17 @@ public class ImplDiscordApi implements DiscordApi {
 
     @Override
     public Collection<Message> getCachedMessages() {
-        return messages.values();
+        return messageCache.getMessages();
     }
 
     @Override
     public Optional<Message> getCachedMessageById(long id) {
-        return Optional.ofNullable(messages.get(id));
+        return messageCache.getMessageById(id);
+    }
+
+    @Override
+    public Broadcast broadcast(PreparedMessage message, Collection<? extends TextChannel> channels) {
+        return new ImplBroadcast(this, message, channels);
     }
 
     @Override
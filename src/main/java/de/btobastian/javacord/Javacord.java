@@ -39,6 +39,11 @@ public class Javacord {
      */
     public static final String DISCORD_GATEWAY_PROTOCOL_VERSION = "6";
 
+    /**
+     * The default base url of Discord's rest api, including the protocol version.
+     */
+    public static final String DISCORD_API_URL = "https://discordapp.com/api/v" + DISCORD_GATEWAY_PROTOCOL_VERSION;
+
     private Javacord() { }
 
     /**
@@ -0,0 +1,164 @@
+package de.btobastian.javacord;
+
+import de.btobastian.javacord.utils.EventQueueOverflowStrategy;
+import de.btobastian.javacord.utils.ImplThreadPool;
+import de.btobastian.javacord.utils.SaturationPolicy;
+import de.btobastian.javacord.utils.ThreadPool;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is used to configure the thread pools of api instances.
+ * Every api instance gets its own thread pool, which is created from the configuration when logging in.
+ * By default, the executor service starts up to 256 daemon threads and executes the tasks in the submitting thread
+ * if all of them are busy, instead of starting an unbounded amount of threads under load.
+ *
+ * @see DiscordApiBuilder#setThreadPoolConfiguration(ThreadPoolConfiguration)
+ */
+public class ThreadPoolConfiguration {
+
+    /**
+     * The maximum amount of threads of the executor service.
+     */
+    private int maxPoolSize = 256;
+
+    /**
+     * The maximum amount of queued tasks, if all threads are busy.
+     */
+    private int queueCapacity = 0;
+
+    /**
+     * The time in milliseconds idle threads are kept alive.
+     */
+    private long keepAlive = TimeUnit.SECONDS.toMillis(60);
+
+    /**
+     * The policy for tasks which are submitted while all threads are busy and the queue is full.
+     */
+    private SaturationPolicy saturationPolicy = SaturationPolicy.CALLER_RUNS;
+
+    /**
+     * Whether the executor service should use a virtual thread per task, if the jvm supports it.
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * The capacity of the queues of the handler and the listener thread.
+     */
+    private int eventQueueCapacity = Integer.MAX_VALUE;
+
+    /**
+     * The strategy for events which arrive while an event queue is full.
+     */
+    private EventQueueOverflowStrategy eventQueueOverflowStrategy = EventQueueOverflowStrategy.BLOCK;
+
+    /**
+     * Sets the maximum amount of threads of the executor service.
+     *
+     * @param maxPoolSize The maximum amount of threads.
+     * @return The current instance in order to chain call methods.
+     */
+    public ThreadPoolConfiguration setMaxPoolSize(int maxPoolSize) {
+        if (maxPoolSize < 1) {
+            throw new IllegalArgumentException("maxPoolSize cannot be less than 1!");
+        }
+        this.maxPoolSize = maxPoolSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum amount of tasks which are queued if all threads are busy.
+     * If the capacity is <code>0</code>, tasks are handed directly to a thread and new threads are started as long as
+     * the maximum pool size is not reached. Otherwise, the maximum pool size is started before tasks are queued.
+     * Please notice, that many tasks of Javacord wait for rest requests, which are executed by the same executor
+     * service. A queue can therefore delay requests which other, running tasks are waiting for.
+     *
+     * @param queueCapacity The maximum amount of queued tasks.
+     * @return The current instance in order to chain call methods.
+     */
+    public ThreadPoolConfiguration setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("queueCapacity cannot be less than 0!");
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * Sets the time idle threads are kept alive.
+     *
+     * @param keepAlive The time.
+     * @param unit The time unit of the time.
+     * @return The current instance in order to chain call methods.
+     */
+    public ThreadPoolConfiguration setKeepAlive(long keepAlive, TimeUnit unit) {
+        if (keepAlive <= 0) {
+            throw new IllegalArgumentException("The keep alive time must be greater than 0!");
+        }
+        this.keepAlive = unit.toMillis(keepAlive);
+        return this;
+    }
+
+    /**
+     * Sets the policy for tasks which are submitted while all threads are busy and the queue is full.
+     * The policy is not applied to tasks which are submitted by the scheduler thread (e.g. the ratelimit buckets).
+     * They are submitted again after a short delay, so the scheduler thread never runs them itself.
+     *
+     * @param saturationPolicy The saturation policy.
+     * @return The current instance in order to chain call methods.
+     */
+    public ThreadPoolConfiguration setSaturationPolicy(SaturationPolicy saturationPolicy) {
+        if (saturationPolicy == null) {
+            throw new IllegalArgumentException("The saturation policy cannot be null!");
+        }
+        this.saturationPolicy = saturationPolicy;
+        return this;
+    }
+
+    /**
+     * Sets whether the executor service should start a virtual thread for every task.
+     * Virtual threads are available since Java 21 and make blocking tasks, like rest requests, very cheap. If they
+     * are enabled, the pool size, the queue and the saturation policy are ignored. On older jvms, this setting is
+     * ignored and a warning is logged.
+     *
+     * @param virtualThreads Whether virtual threads should be used or not.
+     * @return The current instance in order to chain call methods.
+     */
+    public ThreadPoolConfiguration setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+
+    /**
+     * Sets the capacity of the queues of the handler and the listener thread and the strategy for events which arrive
+     * while a queue is full.
+     * By default, the queues are unbounded, which can cause an {@link OutOfMemoryError} if the handlers or listeners
+     * can't keep up with Discord for a long time.
+     *
+     * @param capacity The maximum amount of queued events per queue.
+     * @param overflowStrategy The strategy for events which arrive while a queue is full.
+     * @return The current instance in order to chain call methods.
+     */
+    public ThreadPoolConfiguration setEventQueueCapacity(int capacity, EventQueueOverflowStrategy overflowStrategy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The event queue capacity cannot be less than 1!");
+        }
+        if (overflowStrategy == null) {
+            throw new IllegalArgumentException("The overflow strategy cannot be null!");
+        }
+        this.eventQueueCapacity = capacity;
+        this.eventQueueOverflowStrategy = overflowStrategy;
+        return this;
+    }
+
+    /**
+     * Creates a new thread pool with this configuration.
+     *
+     * @return The new thread pool.
+     */
+    public ThreadPool createThreadPool() {
+        return new ImplThreadPool(maxPoolSize, queueCapacity, keepAlive, saturationPolicy, virtualThreads,
+                eventQueueCapacity, eventQueueOverflowStrategy);
+    }
+
+}
@@ -1,15 +1,17 @@
 package de.btobastian.javacord.entities;
 
-import de.btobastian.javacord.Javacord;
 import de.btobastian.javacord.entities.impl.ImplIcon;
 import de.btobastian.javacord.utils.logging.LoggerUtil;
 import org.slf4j.Logger;
 
 import javax.imageio.ImageIO;
-import javax.net.ssl.HttpsURLConnection;
 import java.awt.image.BufferedImage;
-import java.io.*;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
@@ -45,23 +47,36 @@ public interface Icon {
      * @return The icon as byte array.
      */
     default CompletableFuture<byte[]> asByteArray() {
-        return asInputStream().thenApply(stream -> {
-            try (
-                    InputStream in = new BufferedInputStream(stream);
-                    ByteArrayOutputStream out = new ByteArrayOutputStream()
-            ) {
-                byte[] buf = new byte[1024];
-                int n;
-                while (-1 != (n = in.read(buf))) {
-                    out.write(buf, 0, n);
-                }
-                return out.toByteArray();
-            } catch (IOException e) {
-                throw new CompletionException(e);
-            }
+        return asByteBuffer().thenApply(buffer -> {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
         });
     }
 
+    /**
+     * Gets the icon as a read-only byte buffer.
+     * The icon is downloaded with the {@link de.btobastian.javacord.utils.rest.CdnDownloader cdn downloader} of the
+     * api, so it's read from the disk cache, if one is set.
+     *
+     * @return The icon as byte buffer.
+     */
+    default CompletableFuture<ByteBuffer> asByteBuffer() {
+        return ((ImplIcon) this).getApi().getCdnDownloader().download(getUrl());
+    }
+
+    /**
+     * Gets the icon as a file.
+     * The file is stored in the disk cache of the {@link de.btobastian.javacord.utils.rest.CdnDownloader cdn
+     * downloader} and must not be modified. If no disk cache is set, the icon is downloaded into a new temporary file
+     * instead, which should be deleted once it's no longer needed.
+     *
+     * @return The path of the icon file.
+     */
+    default CompletableFuture<Path> asPath() {
+        return ((ImplIcon) this).getApi().getCdnDownloader().downloadToFile(getUrl());
+    }
+
     /**
      * Gets the input stream for the icon.
      * This can be used for {@link de.btobastian.javacord.entities.message.Messageable#sendMessage(InputStream, String)}
@@ -69,21 +84,7 @@ public interface Icon {
      * @return The input stream for the icon.
      */
     default CompletableFuture<InputStream> asInputStream() {
-        CompletableFuture<InputStream> future = new CompletableFuture<>();
-        ((ImplIcon) this).getApi().getThreadPool().getExecutorService().submit(() -> {
-            try {
-                logger.debug("Trying to download icon from {}", getUrl());
-                HttpsURLConnection conn = (HttpsURLConnection) getUrl().openConnection();
-                conn.setRequestMethod("GET");
-                conn.setRequestProperty("Content-Type", "application/json; charset=utf-8");
-                conn.setRequestProperty("User-Agent", Javacord.USER_AGENT);
-                future.complete(conn.getInputStream());
-                logger.debug("Downloaded icon from {} (content length: {})", getUrl(), conn.getContentLength());
-            } catch (Throwable t) {
-                future.completeExceptionally(t);
-            }
-        });
-        return future;
+        return asByteArray().thenApply(ByteArrayInputStream::new);
     }
 
     /**
@@ -40,6 +40,11 @@ public enum Region {
      */
     UNKNOWN("us-west", "Unknown", false);
 
+    /**
+     * All regions. {@link #values()} creates a new array with every call.
+     */
+    private static final Region[] VALUES = values();
+
     private final String key;
     private final String name;
     private final boolean vip;
@@ -91,7 +96,7 @@ public enum Region {
      * @return The region with the given key. {@link Region#UNKNOWN} if no region for the given key was found.
      */
     public static Region getRegionByKey(String key) {
-        for (Region region : values()) {
+        for (Region region : VALUES) {
             if (region.getKey().equalsIgnoreCase(key) && region != UNKNOWN) {
                 return region;
             }
@@ -28,6 +28,11 @@ public enum UserStatus {
      */
     OFFLINE("offline");
 
+    /**
+     * All status. {@link #values()} creates a new array with every call.
+     */
+    private static final UserStatus[] VALUES = values();
+
     private final String statusString;
 
     /**
@@ -56,7 +61,7 @@ public enum UserStatus {
      * @return The status or {@link UserStatus#OFFLINE} if unknown string.
      */
     public static UserStatus fromString(String str) {
-        for (UserStatus status : values()) {
+        for (UserStatus status : VALUES) {
             if (status.statusString.equals(str)) {
                 return status;
             }
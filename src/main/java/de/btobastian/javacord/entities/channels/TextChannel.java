@@ -1,18 +1,18 @@
 package de.btobastian.javacord.entities.channels;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import de.btobastian.javacord.ImplDiscordApi;
 import de.btobastian.javacord.entities.User;
 import de.btobastian.javacord.entities.Webhook;
 import de.btobastian.javacord.entities.impl.ImplWebhook;
 import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.entities.message.MessageBuilder;
 import de.btobastian.javacord.entities.message.MessageHistory;
 import de.btobastian.javacord.entities.message.Messageable;
+import de.btobastian.javacord.entities.message.PreparedMessage;
 import de.btobastian.javacord.entities.message.embed.EmbedBuilder;
 import de.btobastian.javacord.entities.message.impl.ImplMessageHistory;
+import de.btobastian.javacord.entities.message.impl.MessagePurger;
 import de.btobastian.javacord.entities.permissions.PermissionType;
 import de.btobastian.javacord.listeners.message.MessageCreateListener;
 import de.btobastian.javacord.listeners.message.MessageDeleteListener;
@@ -22,23 +22,25 @@ import de.btobastian.javacord.listeners.message.reaction.ReactionRemoveAllListen
 import de.btobastian.javacord.listeners.message.reaction.ReactionRemoveListener;
 import de.btobastian.javacord.listeners.user.UserStartTypingListener;
 import de.btobastian.javacord.utils.ListenerManager;
+import de.btobastian.javacord.utils.cache.ImplMessageCache;
 import de.btobastian.javacord.utils.cache.MessageCache;
 import de.btobastian.javacord.utils.logging.LoggerUtil;
 import de.btobastian.javacord.utils.rest.RestEndpoint;
 import de.btobastian.javacord.utils.rest.RestMethod;
 import de.btobastian.javacord.utils.rest.RestRequest;
+import de.btobastian.javacord.utils.rest.StreamingRequestBody;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
-import okhttp3.RequestBody;
 import org.slf4j.Logger;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLConnection;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.LongStream;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * This class represents a text channel.
@@ -53,48 +55,26 @@ public interface TextChannel extends Channel, Messageable {
     @Override
     default CompletableFuture<Message> sendMessage(
             String content, EmbedBuilder embed, boolean tts, String nonce, InputStream stream, String fileName) {
-        ObjectNode body = JsonNodeFactory.instance.objectNode()
-                .put("content", content == null ? "" : content)
-                .put("tts", tts);
-        body.putArray("mentions");
-        if (embed != null) {
-            embed.toJsonNode(body.putObject("embed"));
-        }
-        if (nonce != null) {
-            body.put("nonce", nonce);
-        }
-
-        RestRequest<Message> request = new RestRequest<Message>(getApi(), RestMethod.POST, RestEndpoint.MESSAGE)
-                .setUrlParameters(String.valueOf(getId()));
+        MessageBuilder builder = new MessageBuilder()
+                .append(content == null ? "" : content)
+                .setEmbed(embed)
+                .setTts(tts)
+                .setNonce(nonce);
         if (stream != null && fileName != null) {
-            byte[] bytes;
-            try (ByteArrayOutputStream buffer = new ByteArrayOutputStream()) {
-                int nRead;
-                byte[] data = new byte[16384];
-
-                while ((nRead = stream.read(data, 0, data.length)) != -1) {
-                    buffer.write(data, 0, nRead);
-                }
-                buffer.flush();
-                bytes = buffer.toByteArray();
-                stream.close();
-            } catch (IOException e) {
-                CompletableFuture<Message> future = new CompletableFuture<>();
-                future.completeExceptionally(e);
-                return future;
-            }
-            
-            request.setMultipartBody(new MultipartBody.Builder()
-                    .setType(MultipartBody.FORM)
-                    .addFormDataPart("payload_json", body.toString())
-                    .addFormDataPart("file", fileName,
-                            RequestBody.create(MediaType.parse(URLConnection.guessContentTypeFromName(fileName)), bytes)
-                    ).build());
-        } else {
-            request.setBody(body);
+            builder.addAttachment(stream, fileName);
         }
+        return builder.send(this);
+    }
 
-        return request.execute(result -> ((ImplDiscordApi) getApi()).getOrCreateMessage(this, result.getJsonBody()));
+    /**
+     * Sends a prepared message to this channel.
+     * The message is not encoded again, so this is cheap to call for many channels.
+     *
+     * @param message The prepared message.
+     * @return The sent message.
+     */
+    default CompletableFuture<Message> sendMessage(PreparedMessage message) {
+        return message.send(this);
     }
 
     /**
@@ -112,9 +92,8 @@ public interface TextChannel extends Channel, Messageable {
 
     /**
      * Deletes multiple messages at once.
-     * Any message given that is invalid will count towards the minimum and maximum message count
-     * (currently 2 and 100 respectively). Additionally, duplicated messages will only be counted once.
-     * If a message is older than 2 weeks, the method will fail.
+     * The messages are deleted in chunks of 100 messages with bulk delete requests. Messages which are older than two
+     * weeks cannot be bulk deleted and are deleted one by one. Duplicated messages will only be deleted once.
      *
      * @param messages The messages to delete.
      * @return A future to tell us if the deletion was successful.
@@ -127,32 +106,20 @@ public interface TextChannel extends Channel, Messageable {
 
     /**
      * Deletes multiple messages at once.
-     * Any message id given that do not exist or are invalid will count towards the minimum and maximum message count
-     * (currently 2 and 100 respectively). Additionally, duplicated ids will only be counted once.
-     * If a message is older than 2 weeks, the method will fail.
+     * The messages are deleted in chunks of 100 messages with bulk delete requests. Messages which are older than two
+     * weeks cannot be bulk deleted and are deleted one by one. Duplicated ids will only be deleted once.
      *
      * @param messageIds The ids of the messages to delete.
      * @return A future to tell us if the deletion was successful.
      */
     default CompletableFuture<Void> bulkDelete(long... messageIds) {
-        ObjectNode body = JsonNodeFactory.instance.objectNode();
-        ArrayNode messages = body.putArray("messages");
-        LongStream.of(messageIds).boxed()
-                .map(String::valueOf)
-                .forEach(messages::add);
-
-        return new RestRequest<Void>(getApi(), RestMethod.POST, RestEndpoint.MESSAGES_BULK_DELETE)
-                .setRatelimitRetries(0)
-                .setUrlParameters(String.valueOf(getId()))
-                .setBody(body)
-                .execute(result -> null);
+        return MessagePurger.delete(this, messageIds).thenApply(deletedCount -> null);
     }
 
     /**
      * Deletes multiple messages at once.
-     * Any message id given that do not exist or are invalid will count towards the minimum and maximum message count
-     * (currently 2 and 100 respectively). Additionally, duplicated ids will only be counted once.
-     * If a message is older than 2 weeks, the method will fail.
+     * The messages are deleted in chunks of 100 messages with bulk delete requests. Messages which are older than two
+     * weeks cannot be bulk deleted and are deleted one by one. Duplicated ids will only be deleted once.
      *
      * @param messageIds The ids of the messages to delete.
      * @return A future to tell us if the deletion was successful.
@@ -172,9 +139,8 @@ public interface TextChannel extends Channel, Messageable {
 
     /**
      * Deletes multiple messages at once.
-     * Any message given that is invalid will count towards the minimum and maximum message count
-     * (currently 2 and 100 respectively). Additionally, duplicated messages will only be counted once.
-     * If a message is older than 2 weeks, the method will fail.
+     * The messages are deleted in chunks of 100 messages with bulk delete requests. Messages which are older than two
+     * weeks cannot be bulk deleted and are deleted one by one. Duplicated messages will only be deleted once.
      *
      * @param messages The messages to delete.
      * @return A future to tell us if the deletion was successful.
@@ -183,6 +149,46 @@ public interface TextChannel extends Channel, Messageable {
         return bulkDelete(Arrays.asList(messages).stream().mapToLong(Message::getId).toArray());
     }
 
+    /**
+     * Deletes the newest messages in this channel.
+     * The history is fetched page by page while the messages of the previous page are deleted.
+     *
+     * @param limit The maximum amount of messages to delete.
+     * @return A future with the amount of deleted messages.
+     * @see #bulkDelete(long...)
+     */
+    default CompletableFuture<Integer> purge(int limit) {
+        return purgeBefore(-1, limit, null);
+    }
+
+    /**
+     * Deletes the newest messages in this channel which match the given filter.
+     * The history is fetched page by page while the messages of the previous page are deleted.
+     *
+     * @param limit The maximum amount of messages to check.
+     * @param filter The filter of the messages to delete.
+     * @return A future with the amount of deleted messages.
+     * @see #bulkDelete(long...)
+     */
+    default CompletableFuture<Integer> purge(int limit, Predicate<Message> filter) {
+        return purgeBefore(-1, limit, filter);
+    }
+
+    /**
+     * Deletes the messages before a given message in this channel which match the given filter.
+     * The history is fetched page by page while the messages of the previous page are deleted.
+     *
+     * @param before Delete messages before the message with this id or <code>-1</code> to start with the newest
+     *               message of the channel.
+     * @param limit The maximum amount of messages to check.
+     * @param filter The filter of the messages to delete or <code>null</code> to delete all messages.
+     * @return A future with the amount of deleted messages.
+     * @see #bulkDelete(long...)
+     */
+    default CompletableFuture<Integer> purgeBefore(long before, int limit, Predicate<Message> filter) {
+        return MessagePurger.purgeBefore(this, before, limit, filter);
+    }
+
     /**
      * Gets a message by it's id.
      *
@@ -192,9 +198,13 @@ public interface TextChannel extends Channel, Messageable {
     default CompletableFuture<Message> getMessageById(long id) {
         return getApi().getCachedMessageById(id)
                 .map(CompletableFuture::completedFuture)
-                .orElseGet(() -> new RestRequest<Message>(getApi(), RestMethod.GET, RestEndpoint.MESSAGE)
-                .setUrlParameters(String.valueOf(getId()), String.valueOf(id))
-                .execute(result -> ((ImplDiscordApi) getApi()).getOrCreateMessage(this, result.getJsonBody())));
+                .orElseGet(() -> {
+                    ((ImplMessageCache) getMessageCache()).recordMiss();
+                    return new RestRequest<Message>(getApi(), RestMethod.GET, RestEndpoint.MESSAGE)
+                            .setUrlParameters(String.valueOf(getId()), String.valueOf(id))
+                            .execute(result ->
+                                    ((ImplDiscordApi) getApi()).getOrCreateMessage(this, result.getJsonBody()));
+                });
     }
 
     /**
@@ -238,6 +248,68 @@ public interface TextChannel extends Channel, Messageable {
         return ImplMessageHistory.getHistory(this, limit);
     }
 
+    /**
+     * Gets the history of messages in this channel.
+     * Every page of up to 100 messages is passed to the consumer as soon as it arrives, starting with the newest page.
+     *
+     * @param limit The limit of messages to get.
+     * @param pageConsumer The consumer of the pages.
+     * @return The history.
+     */
+    default CompletableFuture<MessageHistory> getHistory(int limit, Consumer<List<Message>> pageConsumer) {
+        return ImplMessageHistory.getHistory(this, limit, pageConsumer);
+    }
+
+    /**
+     * Gets a stream of all messages in this channel, starting with the newest message.
+     * The messages are requested in pages of 100 when the stream consumes them, so the whole history is never held in
+     * memory at once. Consuming the stream blocks while a page is requested.
+     *
+     * @return A stream of the messages, ordered from the newest to the oldest message.
+     */
+    default Stream<Message> streamHistory() {
+        return streamHistoryBefore(-1, true);
+    }
+
+    /**
+     * Gets a stream of all messages before a given message in this channel, starting with the newest message.
+     * The messages are requested in pages of 100 when the stream consumes them, so the whole history is never held in
+     * memory at once. Consuming the stream blocks while a page is requested.
+     *
+     * @param before Get messages before the message with this id.
+     * @return A stream of the messages, ordered from the newest to the oldest message.
+     */
+    default Stream<Message> streamHistoryBefore(long before) {
+        return streamHistoryBefore(before, true);
+    }
+
+    /**
+     * Gets a stream of all messages before a given message in this channel, starting with the newest message.
+     * The messages are requested in pages of 100 when the stream consumes them, so the whole history is never held in
+     * memory at once. Consuming the stream blocks while a page is requested.
+     *
+     * @param before Get messages before this message.
+     * @return A stream of the messages, ordered from the newest to the oldest message.
+     */
+    default Stream<Message> streamHistoryBefore(Message before) {
+        return streamHistoryBefore(before.getId());
+    }
+
+    /**
+     * Gets a stream of all messages before a given message in this channel, starting with the newest message.
+     * The messages are requested in pages of 100 when the stream consumes them, so the whole history is never held in
+     * memory at once. Consuming the stream blocks while a page is requested.
+     *
+     * @param before Get messages before the message with this id or <code>-1</code> to start with the newest message
+     *               of the channel.
+     * @param cacheMessages Whether the messages should be added to the message cache or not. Archiving a large channel
+     *                      should not flush the cache, so this should usually be <code>false</code> for such tasks.
+     * @return A stream of the messages, ordered from the newest to the oldest message.
+     */
+    default Stream<Message> streamHistoryBefore(long before, boolean cacheMessages) {
+        return ImplMessageHistory.streamHistoryBefore(this, before, cacheMessages);
+    }
+
     /**
      * Gets the history of messages before a given message in this channel.
      *
@@ -249,6 +321,20 @@ public interface TextChannel extends Channel, Messageable {
         return ImplMessageHistory.getHistoryBefore(this, limit, before);
     }
 
+    /**
+     * Gets the history of messages before a given message in this channel.
+     * Every page of up to 100 messages is passed to the consumer as soon as it arrives, starting with the newest page.
+     *
+     * @param limit The limit of messages to get.
+     * @param before Get messages before the message with this id.
+     * @param pageConsumer The consumer of the pages.
+     * @return The history.
+     */
+    default CompletableFuture<MessageHistory> getHistoryBefore(
+            int limit, long before, Consumer<List<Message>> pageConsumer) {
+        return ImplMessageHistory.getHistoryBefore(this, limit, before, pageConsumer);
+    }
+
     /**
      * Gets the history of messages before a given message in this channel.
      *
@@ -271,6 +357,20 @@ public interface TextChannel extends Channel, Messageable {
         return ImplMessageHistory.getHistoryAfter(this, limit, after);
     }
 
+    /**
+     * Gets the history of messages after a given message in this channel.
+     * Every page of up to 100 messages is passed to the consumer as soon as it arrives, starting with the oldest page.
+     *
+     * @param limit The limit of messages to get.
+     * @param after Get messages after the message with this id.
+     * @param pageConsumer The consumer of the pages.
+     * @return The history.
+     */
+    default CompletableFuture<MessageHistory> getHistoryAfter(
+            int limit, long after, Consumer<List<Message>> pageConsumer) {
+        return ImplMessageHistory.getHistoryAfter(this, limit, after, pageConsumer);
+    }
+
     /**
      * Gets the history of messages after a given message in this channel.
      *
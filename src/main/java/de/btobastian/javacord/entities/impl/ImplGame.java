@@ -1,7 +1,9 @@
 package de.btobastian.javacord.entities.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import de.btobastian.javacord.entities.Game;
 import de.btobastian.javacord.entities.GameType;
+import de.btobastian.javacord.utils.Interner;
 
 import java.util.Objects;
 import java.util.Optional;
@@ -11,6 +13,11 @@ import java.util.Optional;
  */
 public class ImplGame implements Game {
 
+    /**
+     * The interner for games. Popular games are played by many users at the same time.
+     */
+    private static final Interner<ImplGame> interner = new Interner<>(4096);
+
     private final GameType type;
     private final String name;
     private final String streamingUrl;
@@ -28,6 +35,53 @@ public class ImplGame implements Game {
         this.streamingUrl = streamingUrl;
     }
 
+    /**
+     * Creates a new game object.
+     *
+     * @param data The json data of the game.
+     */
+    public ImplGame(JsonNode data) {
+        this(GameType.getGameTypeById(data.get("type").asInt()), data.get("name").asText(), getStreamingUrl(data));
+    }
+
+    /**
+     * Interns the game, so that users who play the same game share a single game object.
+     *
+     * @return An equal, interned game or this game.
+     * @see Interner
+     */
+    public ImplGame intern() {
+        return interner.intern(this);
+    }
+
+    /**
+     * Gets the streaming url from the json data of a game.
+     *
+     * @param data The json data of the game.
+     * @return The streaming url or <code>null</code> if the game has no streaming url.
+     */
+    private static String getStreamingUrl(JsonNode data) {
+        return data.has("url") && !data.get("url").isNull() ? data.get("url").asText() : null;
+    }
+
+    /**
+     * Checks if the given json data describes the given game.
+     * Discord sends the same presence once for every server the bot shares with a user, so most presence updates
+     * don't change the game. This check allows to skip them without creating a new game object.
+     *
+     * @param game The game. May be <code>null</code>.
+     * @param data The json data of the game. May be a null node.
+     * @return Whether the json data describes the given game or not.
+     */
+    public static boolean isSameGame(Game game, JsonNode data) {
+        if (game == null || data.isNull()) {
+            return game == null && data.isNull();
+        }
+        return game.getType() == GameType.getGameTypeById(data.get("type").asInt())
+                && game.getName().equals(data.get("name").asText())
+                && Objects.equals(game.getStreamingUrl().orElse(null), getStreamingUrl(data));
+    }
+
     @Override
     public String getName() {
         return name;
@@ -49,7 +103,8 @@ public class ImplGame implements Game {
             return false;
         }
         ImplGame otherGame = (ImplGame) obj;
-        return Objects.deepEquals(name, otherGame.name) && Objects.deepEquals(streamingUrl, otherGame.streamingUrl);
+        return type == otherGame.type && Objects.deepEquals(name, otherGame.name)
+                && Objects.deepEquals(streamingUrl, otherGame.streamingUrl);
     }
 
     @Override
@@ -16,13 +16,13 @@ import de.btobastian.javacord.entities.channels.impl.ImplServerVoiceChannel;
 import de.btobastian.javacord.entities.message.emoji.CustomEmoji;
 import de.btobastian.javacord.entities.permissions.Role;
 import de.btobastian.javacord.entities.permissions.impl.ImplRole;
+import de.btobastian.javacord.utils.cache.ConcurrentLongMap;
 import de.btobastian.javacord.utils.logging.LoggerUtil;
 import org.slf4j.Logger;
 
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -98,22 +98,22 @@ public class ImplServer implements Server {
     /**
      * A map with all roles of the server.
      */
-    private final ConcurrentHashMap<Long, Role> roles = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<Role> roles = new ConcurrentLongMap<>();
 
     /**
      * A map with all channels of the server.
      */
-    private final ConcurrentHashMap<Long, ServerChannel> channels = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<ServerChannel> channels = new ConcurrentLongMap<>();
 
     /**
      * A map with all members of the server.
      */
-    private final ConcurrentHashMap<Long, User> members = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<User> members = new ConcurrentLongMap<>();
 
     /**
      * A map with all nicknames. The key is the user id.
      */
-    private final ConcurrentHashMap<Long, String> nicknames = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<String> nicknames = new ConcurrentLongMap<>();
 
     /**
      * A list with all custom emojis from this server.
@@ -195,18 +195,10 @@ public class ImplServer implements Server {
             for (JsonNode presenceJson : data.get("presences")) {
                 long userId = Long.parseLong(presenceJson.get("user").get("id").asText());
                 api.getUserById(userId).map(user -> ((ImplUser) user)).ifPresent(user -> {
-                    if (presenceJson.has("game")) {
-                        Game game = null;
-                        if (!presenceJson.get("game").isNull()) {
-                            int gameType = presenceJson.get("game").get("type").asInt();
-                            String name = presenceJson.get("game").get("name").asText();
-                            String streamingUrl =
-                                    presenceJson.get("game").has("url") &&
-                                            !presenceJson.get("game").get("url").isNull() ?
-                                            presenceJson.get("game").get("url").asText() : null;
-                            game = new ImplGame(GameType.getGameTypeById(gameType), name, streamingUrl);
-                        }
-                        user.setGame(game);
+                    JsonNode gameJson = presenceJson.get("game");
+                    // Users in multiple servers have the same presence in all of them
+                    if (gameJson != null && !ImplGame.isSameGame(user.getGame().orElse(null), gameJson)) {
+                        user.setGame(gameJson.isNull() ? null : new ImplGame(gameJson).intern());
                     }
                     if (presenceJson.has("status")) {
                         UserStatus status = UserStatus.fromString(presenceJson.get("status").asText());
@@ -60,9 +60,9 @@ public class ImplUser implements User {
     private String avatarHash = null;
 
     /**
-     * The discriminator of the user.
+     * The discriminator of the user. It's always a number with four digits, so a short is enough.
      */
-    private String discriminator;
+    private final short discriminator;
 
     /**
      * Whether the user is a bot account or not.
@@ -90,7 +90,7 @@ public class ImplUser implements User {
 
         id = Long.parseLong(data.get("id").asText());
         name = data.get("username").asText();
-        discriminator = data.get("discriminator").asText();
+        discriminator = Short.parseShort(data.get("discriminator").asText());
         if (data.has("avatar") && !data.get("avatar").isNull()) {
             avatarHash = data.get("avatar").asText();
         }
@@ -99,6 +99,20 @@ public class ImplUser implements User {
         api.addUserToCache(this);
     }
 
+    /**
+     * Formats a discriminator with four digits, e.g. <code>0042</code>.
+     *
+     * @param discriminator The discriminator.
+     * @return The formatted discriminator.
+     */
+    public static String formatDiscriminator(short discriminator) {
+        char[] digits = new char[4];
+        for (int i = 3, remaining = discriminator; i >= 0; i--, remaining /= 10) {
+            digits[i] = (char) ('0' + remaining % 10);
+        }
+        return new String(digits);
+    }
+
     /**
      * Sets the private channel with the user.
      *
@@ -176,7 +190,7 @@ public class ImplUser implements User {
 
     @Override
     public String getDiscriminator() {
-        return discriminator;
+        return formatDiscriminator(discriminator);
     }
 
     @Override
@@ -196,7 +210,7 @@ public class ImplUser implements User {
 
     @Override
     public Icon getAvatar() {
-        String url = "https://cdn.discordapp.com/embed/avatars/" + Integer.parseInt(discriminator) % 5 + ".png";
+        String url = "https://cdn.discordapp.com/embed/avatars/" + discriminator % 5 + ".png";
         if (avatarHash != null) {
             url = "https://cdn.discordapp.com/avatars/" + getId() + "/" + avatarHash +
                     (avatarHash.startsWith("a_") ? ".gif" : ".png");
@@ -0,0 +1,84 @@
+package de.btobastian.javacord.entities.message;
+
+import de.btobastian.javacord.entities.channels.TextChannel;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class represents a message which is sent to many channels.
+ * It can be used to track the progress of the broadcast.
+ *
+ * @see de.btobastian.javacord.DiscordApi#broadcast(PreparedMessage, java.util.Collection)
+ */
+public interface Broadcast {
+
+    /**
+     * Gets the message which is broadcasted.
+     *
+     * @return The message which is broadcasted.
+     */
+    PreparedMessage getMessage();
+
+    /**
+     * Gets the future of the message which is sent to the given channel.
+     *
+     * @param channel The channel.
+     * @return The future of the sent message, if the channel is part of this broadcast.
+     */
+    Optional<CompletableFuture<Message>> getFuture(TextChannel channel);
+
+    /**
+     * Gets a future which is completed when the message was sent to all channels.
+     * The future is also completed normally if the message could not be sent to some channels.
+     *
+     * @return A future which is completed when the broadcast is finished.
+     */
+    CompletableFuture<Void> getCompletionFuture();
+
+    /**
+     * Gets the amount of channels the message is sent to.
+     *
+     * @return The amount of channels.
+     */
+    int getTotalCount();
+
+    /**
+     * Gets the amount of channels the message was successfully sent to.
+     *
+     * @return The amount of channels the message was successfully sent to.
+     */
+    int getSentCount();
+
+    /**
+     * Gets the amount of channels the message could not be sent to.
+     *
+     * @return The amount of channels the message could not be sent to.
+     */
+    int getFailedCount();
+
+    /**
+     * Gets the progress of the broadcast.
+     *
+     * @return The progress, between <code>0</code> and <code>1</code>.
+     */
+    default double getProgress() {
+        return getTotalCount() == 0 ? 1 : (double) (getSentCount() + getFailedCount()) / getTotalCount();
+    }
+
+    /**
+     * Checks if the broadcast is finished.
+     *
+     * @return Whether the broadcast is finished or not.
+     */
+    default boolean isDone() {
+        return getCompletionFuture().isDone();
+    }
+
+    /**
+     * Cancels the broadcast.
+     * Messages which are already on their way are still sent, the futures of all other channels are cancelled.
+     */
+    void cancel();
+
+}
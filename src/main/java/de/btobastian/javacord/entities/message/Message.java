@@ -470,7 +470,7 @@ public interface Message extends DiscordEntity, Comparable<Message> {
      * @return Whether the information of this message is still valid or not.
      */
     default boolean isValid() {
-        return getApi().getCachedMessageById(getId()).orElse(null) == this;
+        return getApi().getMessageCache().peekMessageById(getId()).orElse(null) == this;
     }
 
     /**
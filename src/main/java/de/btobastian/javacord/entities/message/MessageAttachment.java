@@ -1,19 +1,16 @@
 package de.btobastian.javacord.entities.message;
 
-import de.btobastian.javacord.Javacord;
 import de.btobastian.javacord.entities.DiscordEntity;
 import de.btobastian.javacord.utils.logging.LoggerUtil;
 import org.slf4j.Logger;
 
 import javax.imageio.ImageIO;
-import javax.net.ssl.HttpsURLConnection;
 import java.awt.image.BufferedImage;
-import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -91,34 +88,34 @@ public interface MessageAttachment extends DiscordEntity {
      * @return The attachment as byte array.
      */
     default CompletableFuture<byte[]> downloadAsByteArray() {
-        CompletableFuture<byte[]> future = new CompletableFuture<>();
-        getApi().getThreadPool().getExecutorService().submit(() -> {
-            try {
-                logger.debug("Trying to download attachment {}", this);
-                URL url = getUrl();
-                HttpsURLConnection conn = (HttpsURLConnection) url.openConnection();
-                conn.setRequestMethod("GET");
-                conn.setRequestProperty("Content-Type", "application/json; charset=utf-8");
-                conn.setRequestProperty("User-Agent", Javacord.USER_AGENT);
-
-                try (
-                        InputStream in = new BufferedInputStream(conn.getInputStream());
-                        ByteArrayOutputStream out = new ByteArrayOutputStream()
-                ) {
-                    byte[] buf = new byte[1024];
-                    int n;
-                    while (-1 != (n = in.read(buf))) {
-                        out.write(buf, 0, n);
-                    }
-                    byte[] attachment = out.toByteArray();
-                    logger.debug("Got attachment {} (size: {})", this, attachment.length);
-                    future.complete(attachment);
-                }
-            } catch (Throwable t) {
-                future.completeExceptionally(t);
-            }
+        return downloadAsByteBuffer().thenApply(buffer -> {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
         });
-        return future;
+    }
+
+    /**
+     * Gets the attachment as a read-only byte buffer.
+     * The attachment is downloaded with the {@link de.btobastian.javacord.utils.rest.CdnDownloader cdn downloader} of
+     * the api, so it's read from the disk cache, if one is set.
+     *
+     * @return The attachment as byte buffer.
+     */
+    default CompletableFuture<ByteBuffer> downloadAsByteBuffer() {
+        return getApi().getCdnDownloader().download(getUrl());
+    }
+
+    /**
+     * Downloads the attachment into a file.
+     * The file is stored in the disk cache of the {@link de.btobastian.javacord.utils.rest.CdnDownloader cdn
+     * downloader} and must not be modified. If no disk cache is set, the attachment is downloaded into a new temporary
+     * file instead, which should be deleted once it's no longer needed.
+     *
+     * @return The path of the downloaded file.
+     */
+    default CompletableFuture<Path> downloadAsPath() {
+        return getApi().getCdnDownloader().downloadToFile(getUrl());
     }
 
     /**
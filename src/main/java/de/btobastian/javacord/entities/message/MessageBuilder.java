@@ -7,9 +7,10 @@ import de.btobastian.javacord.entities.channels.TextChannel;
 import de.btobastian.javacord.entities.message.embed.EmbedBuilder;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -39,14 +40,9 @@ public class MessageBuilder {
     private String nonce = null;
 
     /**
-     * The stream for the file.
+     * The attachments of the message.
      */
-    private InputStream stream = null;
-
-    /**
-     * The name of the file.
-     */
-    private String fileName = null;
+    private final List<PreparedMessage.Attachment> attachments = new ArrayList<>();
 
     /**
      * Creates a new message builder.
@@ -176,9 +172,8 @@ public class MessageBuilder {
      * @return The current instance in order to chain call methods.
      */
     public MessageBuilder setFile(InputStream stream, String fileName) {
-        this.stream = stream;
-        this.fileName = fileName;
-        return this;
+        attachments.clear();
+        return addAttachment(stream, fileName);
     }
 
     /**
@@ -188,12 +183,33 @@ public class MessageBuilder {
      * @return The current instance in order to chain call methods.
      */
     public MessageBuilder setFile(File file) {
-        try {
-            this.stream = new FileInputStream(file);
-        } catch (FileNotFoundException e) {
-            throw new IllegalArgumentException("The provided file couldn't be found!");
-        }
-        this.fileName = file.getName();
+        attachments.clear();
+        return addAttachment(file);
+    }
+
+    /**
+     * Adds a file to the message.
+     * The stream can only be read once, so the message can only be sent or {@link #prepare() prepared} once. A
+     * prepared message can be sent many times.
+     *
+     * @param stream The stream of the file.
+     * @param fileName The name of the file.
+     * @return The current instance in order to chain call methods.
+     */
+    public MessageBuilder addAttachment(InputStream stream, String fileName) {
+        attachments.add(PreparedMessage.Attachment.ofStream(stream, fileName));
+        return this;
+    }
+
+    /**
+     * Adds a file to the message.
+     * The file is read every time the message is sent.
+     *
+     * @param file The file.
+     * @return The current instance in order to chain call methods.
+     */
+    public MessageBuilder addAttachment(File file) {
+        attachments.add(PreparedMessage.Attachment.ofFile(file));
         return this;
     }
 
@@ -224,7 +240,19 @@ public class MessageBuilder {
      * @return The sent message.
      */
     public CompletableFuture<Message> send(TextChannel channel) {
-        return channel.sendMessage(toString(), embed, tts, nonce, stream, fileName);
+        return new PreparedMessage(toString(), embed, tts, nonce, attachments).send(channel);
+    }
+
+    /**
+     * Encodes the message, so it can be sent to many channels without encoding it again.
+     * Attachments which were added as streams are read into memory once and shared by all requests.
+     * This builder is not changed, but its streams are read, so they cannot be sent with this builder anymore.
+     *
+     * @return The prepared message.
+     * @throws IOException If a stream of an attachment could not be read.
+     */
+    public PreparedMessage prepare() throws IOException {
+        return PreparedMessage.prepare(toString(), embed, tts, nonce, attachments);
     }
 
     @Override
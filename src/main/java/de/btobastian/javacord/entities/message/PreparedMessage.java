@@ -0,0 +1,289 @@
+package de.btobastian.javacord.entities.message;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.btobastian.javacord.ImplDiscordApi;
+import de.btobastian.javacord.entities.channels.TextChannel;
+import de.btobastian.javacord.entities.message.embed.EmbedBuilder;
+import de.btobastian.javacord.utils.logging.LoggerUtil;
+import de.btobastian.javacord.utils.rest.RestEndpoint;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
+import de.btobastian.javacord.utils.rest.StreamingRequestBody;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import org.slf4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A message which is encoded once and can be sent to many channels without encoding it again.
+ * The json payload is kept as bytes and the attachments are kept as read-only bytes or files, which are shared by all
+ * requests. Prepared messages are immutable and can be sent concurrently.
+ * You can create a prepared message with {@link MessageBuilder#prepare()}.
+ */
+public class PreparedMessage {
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(PreparedMessage.class);
+
+    /**
+     * The media type of the json payload.
+     */
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    /**
+     * The encoded json payload.
+     */
+    private final RequestBody payload;
+
+    /**
+     * The attachments of the message.
+     */
+    private final List<Attachment> attachments;
+
+    /**
+     * Creates a new prepared message.
+     *
+     * @param content The content of the message.
+     * @param embed The embed of the message. Might be <code>null</code>.
+     * @param tts Whether the message should be "text to speech" or not.
+     * @param nonce The nonce of the message. Might be <code>null</code>.
+     * @param attachments The attachments of the message.
+     */
+    PreparedMessage(String content, EmbedBuilder embed, boolean tts, String nonce, List<Attachment> attachments) {
+        ObjectNode body = JsonNodeFactory.instance.objectNode()
+                .put("content", content == null ? "" : content)
+                .put("tts", tts);
+        body.putArray("mentions");
+        if (embed != null) {
+            embed.toJsonNode(body.putObject("embed"));
+        }
+        if (nonce != null) {
+            body.put("nonce", nonce);
+        }
+        this.payload = RequestBody.create(JSON, body.toString().getBytes(StandardCharsets.UTF_8));
+        this.attachments = Collections.unmodifiableList(new ArrayList<>(attachments));
+    }
+
+    /**
+     * Creates a new prepared message which can be sent many times.
+     * Attachments which are read from streams are read into memory once and shared by all requests. The given list
+     * is not modified.
+     *
+     * @param content The content of the message.
+     * @param embed The embed of the message. Might be <code>null</code>.
+     * @param tts Whether the message should be "text to speech" or not.
+     * @param nonce The nonce of the message. Might be <code>null</code>.
+     * @param attachments The attachments of the message.
+     * @return The prepared message.
+     * @throws IOException If a stream of an attachment could not be read.
+     */
+    static PreparedMessage prepare(String content, EmbedBuilder embed, boolean tts, String nonce,
+                                   List<Attachment> attachments) throws IOException {
+        List<Attachment> replayableAttachments = new ArrayList<>(attachments.size());
+        for (Attachment attachment : attachments) {
+            replayableAttachments.add(attachment.toReplayable());
+        }
+        return new PreparedMessage(content, embed, tts, nonce, replayableAttachments);
+    }
+
+    /**
+     * Gets the amount of attachments of the message.
+     *
+     * @return The amount of attachments.
+     */
+    public int getAttachmentCount() {
+        return attachments.size();
+    }
+
+    /**
+     * Sends the message to the given channel.
+     *
+     * @param channel The channel to which the message should be sent.
+     * @return The sent message.
+     */
+    public CompletableFuture<Message> send(TextChannel channel) {
+        RestRequest<Message> request =
+                new RestRequest<Message>(channel.getApi(), RestMethod.POST, RestEndpoint.MESSAGE)
+                        .setUrlParameters(String.valueOf(channel.getId()));
+        if (attachments.isEmpty()) {
+            request.setEncodedBody(payload);
+            return request.execute(
+                    result -> ((ImplDiscordApi) channel.getApi()).getOrCreateMessage(channel, result.getJsonBody()));
+        }
+
+        List<StreamingRequestBody> streams = new ArrayList<>();
+        MultipartBody.Builder multipartBody = new MultipartBody.Builder()
+                .setType(MultipartBody.FORM)
+                .addFormDataPart("payload_json", null, payload);
+        try {
+            for (int i = 0; i < attachments.size(); i++) {
+                Attachment attachment = attachments.get(i);
+                RequestBody file = attachment.createBody();
+                if (file instanceof StreamingRequestBody) {
+                    streams.add((StreamingRequestBody) file);
+                }
+                multipartBody.addFormDataPart(
+                        attachments.size() == 1 ? "file" : "file" + i, attachment.getFileName(), file);
+            }
+        } catch (IOException e) {
+            closeAll(streams);
+            CompletableFuture<Message> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        request.setMultipartBody(multipartBody.build());
+        CompletableFuture<Message> future = request.execute(
+                result -> ((ImplDiscordApi) channel.getApi()).getOrCreateMessage(channel, result.getJsonBody()));
+        future.whenComplete((message, throwable) -> closeAll(streams));
+        return future;
+    }
+
+    /**
+     * Closes the given streams.
+     *
+     * @param streams The streams to close.
+     */
+    private static void closeAll(List<StreamingRequestBody> streams) {
+        for (StreamingRequestBody stream : streams) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close the stream of an uploaded file", e);
+            }
+        }
+    }
+
+    /**
+     * An attachment of a message.
+     */
+    static class Attachment {
+
+        /**
+         * The name of the file.
+         */
+        private final String fileName;
+
+        /**
+         * The media type of the file. Might be <code>null</code>.
+         */
+        private final MediaType mediaType;
+
+        /**
+         * The shared body with the content of the file, if the content is kept in memory.
+         */
+        private final RequestBody bytes;
+
+        /**
+         * The file, if the content is read from a file.
+         */
+        private final File file;
+
+        /**
+         * The stream, if the content is read from a stream which can only be read once.
+         */
+        private final InputStream stream;
+
+        /**
+         * Creates a new attachment.
+         *
+         * @param fileName The name of the file.
+         * @param bytes The content of the file.
+         * @param file The file.
+         * @param stream The stream.
+         */
+        private Attachment(String fileName, byte[] bytes, File file, InputStream stream) {
+            this.fileName = fileName;
+            String contentType = URLConnection.guessContentTypeFromName(fileName);
+            this.mediaType = contentType == null ? null : MediaType.parse(contentType);
+            this.bytes = bytes == null ? null : RequestBody.create(mediaType, bytes);
+            this.file = file;
+            this.stream = stream;
+        }
+
+        /**
+         * Creates an attachment which is read from a file every time it's sent.
+         *
+         * @param file The file.
+         * @return The attachment.
+         */
+        static Attachment ofFile(File file) {
+            if (!file.isFile() || !file.canRead()) {
+                throw new IllegalArgumentException("The provided file couldn't be found!");
+            }
+            return new Attachment(file.getName(), null, file, null);
+        }
+
+        /**
+         * Creates an attachment which is read from a stream. The attachment can only be sent once.
+         *
+         * @param stream The stream.
+         * @param fileName The name of the file.
+         * @return The attachment.
+         */
+        static Attachment ofStream(InputStream stream, String fileName) {
+            return new Attachment(fileName, null, null, stream);
+        }
+
+        /**
+         * Gets an attachment which can be sent multiple times.
+         * If this attachment is read from a stream, the stream is read into memory.
+         *
+         * @return An attachment which can be sent multiple times.
+         * @throws IOException If the stream could not be read.
+         */
+        Attachment toReplayable() throws IOException {
+            if (stream == null) {
+                return this;
+            }
+            try (InputStream in = stream) {
+                byte[] buffer = new byte[8192];
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                return new Attachment(fileName, out.toByteArray(), null, null);
+            }
+        }
+
+        /**
+         * Gets the name of the file.
+         *
+         * @return The name of the file.
+         */
+        String getFileName() {
+            return fileName;
+        }
+
+        /**
+         * Creates the body for a request.
+         * Bodies of files and streams must be closed after the request.
+         *
+         * @return The body.
+         * @throws IOException If the file could not be opened.
+         */
+        RequestBody createBody() throws IOException {
+            if (bytes != null) {
+                return bytes;
+            }
+            return new StreamingRequestBody(mediaType, file != null ? new FileInputStream(file) : stream);
+        }
+
+    }
+
+}
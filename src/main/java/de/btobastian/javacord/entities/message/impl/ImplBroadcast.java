@@ -0,0 +1,292 @@
+package de.btobastian.javacord.entities.message.impl;
+
+import de.btobastian.javacord.ImplDiscordApi;
+import de.btobastian.javacord.entities.channels.TextChannel;
+import de.btobastian.javacord.entities.message.Broadcast;
+import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.entities.message.PreparedMessage;
+import de.btobastian.javacord.utils.ratelimits.RatelimitBucket;
+import de.btobastian.javacord.utils.rest.RestEndpoint;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The implementation of {@link Broadcast}.
+ * Instead of queueing all requests at once, the broadcast paces them below the global ratelimit of the
+ * {@link de.btobastian.javacord.utils.ratelimits.RatelimitManager ratelimit manager} and only dispatches a channel when
+ * its message bucket has space. Channels whose bucket is exhausted are
+ * deferred until the bucket resets, while other channels are sent in the meantime.
+ */
+public class ImplBroadcast implements Broadcast {
+
+    /**
+     * The share of the global ratelimit which is used by a broadcast. The remaining requests are left for other
+     * requests of the bot.
+     */
+    private static final double GLOBAL_RATELIMIT_SHARE = 0.8;
+
+    /**
+     * The maximum amount of requests which are sent at the same time.
+     */
+    private static final int MAXIMUM_IN_FLIGHT = 20;
+
+    /**
+     * The discord api instance.
+     */
+    private final ImplDiscordApi api;
+
+    /**
+     * The message which is broadcasted.
+     */
+    private final PreparedMessage message;
+
+    /**
+     * The futures of all channels. The key is the id of the channel.
+     */
+    private final Map<Long, CompletableFuture<Message>> futures = new LinkedHashMap<>();
+
+    /**
+     * The channels which are ready to be sent to.
+     */
+    private final Queue<TextChannel> ready = new ArrayDeque<>();
+
+    /**
+     * The channels which are waiting for their bucket, ordered by the time their bucket resets.
+     */
+    private final PriorityQueue<DeferredChannel> deferred =
+            new PriorityQueue<>(Comparator.comparingLong(channel -> channel.readyAt));
+
+    /**
+     * The future which is completed when the broadcast is finished.
+     */
+    private final CompletableFuture<Void> completionFuture = new CompletableFuture<>();
+
+    /**
+     * The amount of channels the message was successfully sent to.
+     */
+    private final AtomicInteger sentCount = new AtomicInteger();
+
+    /**
+     * The amount of channels the message could not be sent to.
+     */
+    private final AtomicInteger failedCount = new AtomicInteger();
+
+    /**
+     * The amount of requests which are currently sent. Guarded by this.
+     */
+    private int inFlight = 0;
+
+    /**
+     * The time in nanoseconds at which the next request may be sent. Guarded by this.
+     */
+    private long nextSendTime = System.nanoTime();
+
+    /**
+     * Whether a dispatch is already scheduled or not. Guarded by this.
+     */
+    private boolean dispatchScheduled = false;
+
+    /**
+     * Creates and starts a new broadcast.
+     *
+     * @param api The discord api instance.
+     * @param message The message to broadcast.
+     * @param channels The channels to send the message to.
+     */
+    public ImplBroadcast(ImplDiscordApi api, PreparedMessage message, Collection<? extends TextChannel> channels) {
+        this.api = api;
+        this.message = message;
+        for (TextChannel channel : channels) {
+            if (!futures.containsKey(channel.getId())) {
+                futures.put(channel.getId(), new CompletableFuture<>());
+                ready.add(channel);
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Sends the message to as many channels as the ratelimits allow and schedules the next dispatch.
+     */
+    private synchronized void dispatch() {
+        dispatchScheduled = false;
+        long now = System.nanoTime();
+        while (!deferred.isEmpty() && deferred.peek().readyAt <= now) {
+            ready.add(deferred.poll().channel);
+        }
+        while (!ready.isEmpty() && inFlight < MAXIMUM_IN_FLIGHT && nextSendTime <= now) {
+            TextChannel channel = ready.poll();
+            CompletableFuture<Message> future = futures.get(channel.getId());
+            if (future.isDone()) {
+                // The future was cancelled by the user
+                failedCount.incrementAndGet();
+                continue;
+            }
+            long waitTime = getTimeTillBucketHasSpace(channel);
+            if (waitTime > 0) {
+                deferred.add(new DeferredChannel(channel, now + TimeUnit.MILLISECONDS.toNanos(waitTime)));
+                continue;
+            }
+            inFlight++;
+            nextSendTime = Math.max(nextSendTime, now) + getSendInterval();
+            message.send(channel).whenComplete((sentMessage, throwable) -> {
+                if (throwable == null) {
+                    sentCount.incrementAndGet();
+                    future.complete(sentMessage);
+                } else {
+                    failedCount.incrementAndGet();
+                    future.completeExceptionally(throwable);
+                }
+                synchronized (this) {
+                    inFlight--;
+                }
+                try {
+                    api.getThreadPool().getExecutorService().submit(this::dispatch);
+                } catch (RejectedExecutionException e) {
+                    // All threads are busy, the scheduler submits it again until a thread is available
+                    scheduleDispatch(0);
+                }
+            });
+        }
+
+        if (ready.isEmpty() && deferred.isEmpty()) {
+            if (inFlight == 0) {
+                completionFuture.complete(null);
+            }
+            return;
+        }
+        if (dispatchScheduled || (inFlight >= MAXIMUM_IN_FLIGHT && deferred.isEmpty())) {
+            // A completing request will dispatch again
+            return;
+        }
+        long nextDispatch = ready.isEmpty() ? deferred.peek().readyAt : nextSendTime;
+        if (!ready.isEmpty() && !deferred.isEmpty()) {
+            nextDispatch = Math.min(nextDispatch, deferred.peek().readyAt);
+        }
+        dispatchScheduled = true;
+        scheduleDispatch(Math.max(nextDispatch - now, 0));
+    }
+
+    /**
+     * Schedules a dispatch.
+     * The dispatch is submitted by the scheduler thread, which keeps submitting it if all threads are busy.
+     *
+     * @param delay The delay of the dispatch in nanoseconds.
+     */
+    private void scheduleDispatch(long delay) {
+        api.getThreadPool().getScheduler().schedule(
+                () -> api.getThreadPool().getExecutorService().submit(this::dispatch), delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the time between two requests of this broadcast.
+     * It's calculated from the current global ratelimit, so changes of the ratelimit apply to running broadcasts.
+     *
+     * @return The time between two requests in nanoseconds.
+     */
+    private long getSendInterval() {
+        double requestsPerSecond = api.getRatelimitManager().getGlobalRequestsPerSecond() * GLOBAL_RATELIMIT_SHARE;
+        return (long) (TimeUnit.SECONDS.toNanos(1) / Math.max(requestsPerSecond, 1));
+    }
+
+    /**
+     * Gets the time until the message bucket of the given channel has space.
+     *
+     * @param channel The channel.
+     * @return The time in milliseconds until the bucket has space.
+     */
+    private long getTimeTillBucketHasSpace(TextChannel channel) {
+        Optional<RatelimitBucket> bucket =
+                api.getRatelimitManager().getBucket(RestEndpoint.MESSAGE, String.valueOf(channel.getId()));
+        return bucket.filter(b -> !b.hasSpace()).map(RatelimitBucket::getTimeTillSpaceGetsAvailable).orElse(0);
+    }
+
+    @Override
+    public PreparedMessage getMessage() {
+        return message;
+    }
+
+    @Override
+    public synchronized Optional<CompletableFuture<Message>> getFuture(TextChannel channel) {
+        return Optional.ofNullable(futures.get(channel.getId()));
+    }
+
+    @Override
+    public CompletableFuture<Void> getCompletionFuture() {
+        return completionFuture;
+    }
+
+    @Override
+    public int getTotalCount() {
+        return futures.size();
+    }
+
+    @Override
+    public int getSentCount() {
+        return sentCount.get();
+    }
+
+    @Override
+    public int getFailedCount() {
+        return failedCount.get();
+    }
+
+    @Override
+    public synchronized void cancel() {
+        for (TextChannel channel : ready) {
+            cancel(channel);
+        }
+        for (DeferredChannel channel : deferred) {
+            cancel(channel.channel);
+        }
+        ready.clear();
+        deferred.clear();
+        if (inFlight == 0) {
+            completionFuture.complete(null);
+        }
+    }
+
+    /**
+     * Cancels the future of the given channel.
+     *
+     * @param channel The channel.
+     */
+    private void cancel(TextChannel channel) {
+        if (futures.get(channel.getId()).cancel(false)) {
+            failedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * A channel which is waiting for its bucket.
+     */
+    private static class DeferredChannel {
+
+        /**
+         * The channel.
+         */
+        private final TextChannel channel;
+
+        /**
+         * The time in nanoseconds at which the bucket of the channel has space again.
+         */
+        private final long readyAt;
+
+        /**
+         * Creates a new deferred channel.
+         *
+         * @param channel The channel.
+         * @param readyAt The time in nanoseconds at which the bucket of the channel has space again.
+         */
+        DeferredChannel(TextChannel channel, long readyAt) {
+            this.channel = channel;
+            this.readyAt = readyAt;
+        }
+
+    }
+
+}
@@ -1,33 +1,71 @@
 package de.btobastian.javacord.entities.message.impl;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import de.btobastian.javacord.DiscordApi;
 import de.btobastian.javacord.ImplDiscordApi;
 import de.btobastian.javacord.entities.User;
 import de.btobastian.javacord.entities.channels.TextChannel;
+import de.btobastian.javacord.entities.impl.ImplUser;
 import de.btobastian.javacord.entities.message.*;
 import de.btobastian.javacord.entities.message.embed.Embed;
 import de.btobastian.javacord.entities.message.embed.impl.ImplEmbed;
 import de.btobastian.javacord.entities.message.emoji.Emoji;
 import de.btobastian.javacord.entities.permissions.Role;
 import de.btobastian.javacord.utils.cache.ImplMessageCache;
+import de.btobastian.javacord.utils.logging.LoggerUtil;
+import org.slf4j.Logger;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * The implementation of {@link Message}.
+ * Messages are cached in large amounts, so this class is optimized for a small memory footprint:
+ * Embeds and attachments are kept in their serialized form and decoded on access, role mentions are stored as ids and
+ * resolved on access, and empty collections are never allocated.
  */
 public class ImplMessage implements Message {
 
     /**
-     * The discord api instance.
+     * The logger of this class.
      */
-    private final ImplDiscordApi api;
+    private static final Logger logger = LoggerUtil.getLogger(ImplMessage.class);
+
+    /**
+     * An empty array of ids which is shared by all messages without mentions.
+     */
+    private static final long[] NO_IDS = new long[0];
+
+    /**
+     * An empty array of users which is shared by all messages without mentioned users.
+     */
+    private static final User[] NO_USERS = new User[0];
+
+    /**
+     * The flag for messages which are cached forever.
+     */
+    private static final byte FLAG_CACHED_FOREVER = 1;
+
+    /**
+     * The flag for messages which were deleted.
+     */
+    private static final byte FLAG_DELETED = 1 << 1;
+
+    /**
+     * The flag for messages which were edited.
+     */
+    private static final byte FLAG_EDITED = 1 << 2;
 
     /**
      * The channel of the message.
@@ -42,7 +80,7 @@ public class ImplMessage implements Message {
     /**
      * The content of the message.
      */
-    private String content;
+    private volatile String content;
 
     /**
      * The type of the message.
@@ -50,59 +88,70 @@ public class ImplMessage implements Message {
     private final MessageType type;
 
     /**
-     * Gets the last edit time.
+     * The last edit time as epoch milliseconds. Only valid if the {@link #FLAG_EDITED} flag is set.
      */
-    private Instant lastEditTime = null;
+    private volatile long lastEditTime;
 
     /**
-     * The author of the message.
+     * The flags of the message, see the <code>FLAG_</code> constants.
      */
-    private final MessageAuthor author;
+    private volatile byte flags = 0;
 
     /**
-     * If the message should be cached forever or not.
+     * The id of the author.
      */
-    private boolean cacheForever = false;
+    private final long authorId;
 
     /**
-     * As soon as we receive a message delete event, we mark the message as deleted.
+     * The id of the webhook which sent the message or <code>-1</code> if it was sent by a user.
      */
-    private boolean deleted = false;
+    private final long webhookId;
 
     /**
-     * Whether the message should be kept in cache or not.
+     * The name of the author.
      */
-    private boolean keepCached = true;
+    private final String authorName;
 
     /**
-     * We use the counter to make sure a message is cached for at least 2 minutes!
+     * The discriminator of the author.
      */
-    private byte keepCachedCounter = 0;
+    private final short authorDiscriminator;
 
     /**
-     * A list with all embeds.
+     * The avatar hash of the author. Might be <code>null</code>.
      */
-    private List<Embed> embeds = new ArrayList<>();
+    private final String authorAvatarHash;
 
     /**
-     * A list with all reactions.
+     * The author of the message. <code>null</code> until it's requested for the first time.
      */
-    private List<Reaction> reactions = new ArrayList<>();
+    private volatile MessageAuthor author = null;
 
     /**
-     * The attachments of the message.
+     * The serialized json array of the embeds or <code>null</code> if the message has no embeds.
      */
-    private List<MessageAttachment> attachments = new ArrayList<>();
+    private volatile byte[] embeds;
+
+    /**
+     * The serialized json array of the attachments or <code>null</code> if the message has no attachments.
+     */
+    private final byte[] attachments;
+
+    /**
+     * A list with all reactions. Only allocated if the message has reactions.
+     */
+    private List<Reaction> reactions = Collections.emptyList();
 
     /**
      * The users mentioned in this message.
+     * The users are referenced instead of stored as ids, because they are not necessarily in the user cache.
      */
-    private List<User> mentions = new ArrayList<>();
+    private final User[] mentions;
 
     /**
-     * The roles mentioned in this message.
+     * The ids of the roles mentioned in this message.
      */
-    private List<Role> roleMentions = new ArrayList<>();
+    private final long[] roleMentions;
 
     /**
      * Creates a new message object.
@@ -112,82 +161,370 @@ public class ImplMessage implements Message {
      * @param data The json data of the message.
      */
     public ImplMessage(ImplDiscordApi api, TextChannel channel, JsonNode data) {
-        this.api = api;
+        this(api, channel, data, true);
+    }
+
+    /**
+     * Creates a new message object.
+     *
+     * @param api The discord api instance.
+     * @param channel The channel of the message.
+     * @param data The json data of the message.
+     * @param addToCache Whether the message should be added to the message cache or not.
+     */
+    public ImplMessage(ImplDiscordApi api, TextChannel channel, JsonNode data, boolean addToCache) {
         this.channel = channel;
 
         id = data.get("id").asLong();
         content = data.get("content").asText();
 
-        lastEditTime = data.has("edited_timestamp") && !data.get("edited_timestamp").isNull() ?
-                OffsetDateTime.parse(data.get("edited_timestamp").asText()).toInstant() : null;
+        if (data.has("edited_timestamp") && !data.get("edited_timestamp").isNull()) {
+            lastEditTime = OffsetDateTime.parse(data.get("edited_timestamp").asText()).toInstant().toEpochMilli();
+            flags |= FLAG_EDITED;
+        }
 
         type = MessageType.byType(data.get("type").asInt(), data.has("webhook_id"));
 
-        Long webhookId = data.has("webhook_id") ? data.get("webhook_id").asLong() : null;
-        author = new ImplMessageAuthor(this, webhookId, data.get("author"));
-
+        webhookId = data.has("webhook_id") ? data.get("webhook_id").asLong() : -1;
+        JsonNode authorJson = data.get("author");
+        authorId = authorJson.get("id").asLong();
+        String name = authorJson.get("username").asText();
+        String discriminator = authorJson.get("discriminator").asText();
+        String avatarHash = authorJson.has("avatar") && !authorJson.get("avatar").isNull() ?
+                authorJson.get("avatar").asText() : null;
         ImplMessageCache cache = (ImplMessageCache) channel.getMessageCache();
-        cache.addMessage(this);
+        authorName = shareAuthorString(api, cache, name, ImplUser::getName, message -> message.authorName);
+        authorDiscriminator = Short.parseShort(discriminator);
+        authorAvatarHash = shareAuthorString(
+                api, cache, avatarHash, ImplUser::getAvatarHash, message -> message.authorAvatarHash);
 
-        if (data.has("embeds")) {
-            for (JsonNode embedJson : data.get("embeds")) {
-                Embed embed = new ImplEmbed(embedJson);
-                embeds.add(embed);
-            }
-        }
+        embeds = serialize(api, data.get("embeds"));
+        attachments = serialize(api, data.get("attachments"));
 
-        if (data.has("reactions")) {
+        if (data.has("reactions") && data.get("reactions").size() > 0) {
+            reactions = new ArrayList<>(data.get("reactions").size());
             for (JsonNode reactionJson : data.get("reactions")) {
                 Reaction reaction = new ImplReaction(this, reactionJson);
                 reactions.add(reaction);
             }
         }
 
-        if (data.has("attachments")) {
-            for (JsonNode attachmentJson : data.get("attachments")) {
-                MessageAttachment attachment = new ImplMessageAttachment(this, attachmentJson);
-                attachments.add(attachment);
+        if (data.has("mentions") && data.get("mentions").size() > 0) {
+            mentions = new User[data.get("mentions").size()];
+            int i = 0;
+            for (JsonNode mentionJson : data.get("mentions")) {
+                mentions[i++] = api.getOrCreateUser(mentionJson);
             }
+        } else {
+            mentions = NO_USERS;
         }
 
-        if (data.has("mentions")) {
-            for (JsonNode mentionJson : data.get("mentions")) {
-                User user = api.getOrCreateUser(mentionJson);
-                mentions.add(user);
+        if (data.has("mention_roles") && data.get("mention_roles").size() > 0) {
+            roleMentions = new long[data.get("mention_roles").size()];
+            int i = 0;
+            for (JsonNode roleMentionJson : data.get("mention_roles")) {
+                roleMentions[i++] = roleMentionJson.asLong();
+            }
+        } else {
+            roleMentions = NO_IDS;
+        }
+
+        if (addToCache) {
+            cache.addMessage(this);
+        }
+    }
+
+    /**
+     * Creates a message object from a record which was written by {@link #writeRecord(DataOutput)}.
+     * Reactions are not part of the record.
+     *
+     * @param channel The channel of the message.
+     * @param record The record.
+     * @throws IOException If the record could not be read.
+     */
+    public ImplMessage(TextChannel channel, DataInput record) throws IOException {
+        this.channel = channel;
+        ImplDiscordApi api = (ImplDiscordApi) channel.getApi();
+
+        id = record.readLong();
+        content = record.readUTF();
+        type = MessageType.values()[record.readByte()];
+        flags = record.readByte();
+        lastEditTime = record.readLong();
+
+        authorId = record.readLong();
+        webhookId = record.readLong();
+        ImplMessageCache cache = (ImplMessageCache) channel.getMessageCache();
+        authorName = shareAuthorString(api, cache, record.readUTF(), ImplUser::getName, message -> message.authorName);
+        authorDiscriminator = record.readShort();
+        authorAvatarHash = shareAuthorString(api, cache, record.readBoolean() ? record.readUTF() : null,
+                ImplUser::getAvatarHash, message -> message.authorAvatarHash);
+
+        embeds = readBytes(record);
+        attachments = readBytes(record);
+        mentions = readUsers(api, record);
+        roleMentions = readIds(record);
+
+        cache.addMessage(this);
+    }
+
+    /**
+     * Writes this message as a compact binary record.
+     * The record can be read with {@link #ImplMessage(TextChannel, DataInput)}.
+     *
+     * @param record The output to write the record to.
+     * @throws IOException If the record could not be written.
+     */
+    public void writeRecord(DataOutput record) throws IOException {
+        record.writeLong(id);
+        record.writeUTF(content);
+        record.writeByte(type.ordinal());
+        record.writeByte(flags & ~FLAG_CACHED_FOREVER);
+        record.writeLong(lastEditTime);
+
+        record.writeLong(authorId);
+        record.writeLong(webhookId);
+        record.writeUTF(authorName);
+        record.writeShort(authorDiscriminator);
+        record.writeBoolean(authorAvatarHash != null);
+        if (authorAvatarHash != null) {
+            record.writeUTF(authorAvatarHash);
+        }
+
+        writeBytes(record, embeds);
+        writeBytes(record, attachments);
+        writeUsers(record, mentions);
+        writeIds(record, roleMentions);
+    }
+
+    /**
+     * Writes a nullable byte array.
+     *
+     * @param record The output to write to.
+     * @param bytes The bytes. Might be <code>null</code>.
+     * @throws IOException If the bytes could not be written.
+     */
+    private static void writeBytes(DataOutput record, byte[] bytes) throws IOException {
+        record.writeInt(bytes == null ? -1 : bytes.length);
+        if (bytes != null) {
+            record.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a nullable byte array which was written by {@link #writeBytes(DataOutput, byte[])}.
+     *
+     * @param record The input to read from.
+     * @return The bytes. Might be <code>null</code>.
+     * @throws IOException If the bytes could not be read.
+     */
+    private static byte[] readBytes(DataInput record) throws IOException {
+        int length = record.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes an array of ids.
+     *
+     * @param record The output to write to.
+     * @param ids The ids.
+     * @throws IOException If the ids could not be written.
+     */
+    private static void writeIds(DataOutput record, long[] ids) throws IOException {
+        record.writeInt(ids.length);
+        for (long id : ids) {
+            record.writeLong(id);
+        }
+    }
+
+    /**
+     * Reads an array of ids which was written by {@link #writeIds(DataOutput, long[])}.
+     *
+     * @param record The input to read from.
+     * @return The ids.
+     * @throws IOException If the ids could not be read.
+     */
+    private static long[] readIds(DataInput record) throws IOException {
+        int length = record.readInt();
+        if (length == 0) {
+            return NO_IDS;
+        }
+        long[] ids = new long[length];
+        for (int i = 0; i < length; i++) {
+            ids[i] = record.readLong();
+        }
+        return ids;
+    }
+
+    /**
+     * Writes an array of users with the data which is required to create them again.
+     *
+     * @param record The output to write to.
+     * @param users The users.
+     * @throws IOException If the users could not be written.
+     */
+    private static void writeUsers(DataOutput record, User[] users) throws IOException {
+        record.writeInt(users.length);
+        for (User user : users) {
+            String avatarHash = ((ImplUser) user).getAvatarHash();
+            record.writeLong(user.getId());
+            record.writeUTF(user.getName());
+            record.writeUTF(user.getDiscriminator());
+            record.writeBoolean(avatarHash != null);
+            if (avatarHash != null) {
+                record.writeUTF(avatarHash);
             }
+            record.writeBoolean(user.isBot());
         }
+    }
 
-        if (data.has("mention_roles") && !data.get("mention_roles").isNull()) {
-            getServer().ifPresent(server -> {
-                for (JsonNode roleMentionJson : data.get("mention_roles")) {
-                    server.getRoleById(roleMentionJson.asText()).ifPresent(roleMentions::add);
-                }
-            });
+    /**
+     * Reads an array of users which was written by {@link #writeUsers(DataOutput, User[])}.
+     * Users which are not cached anymore are created again.
+     *
+     * @param api The discord api instance.
+     * @param record The input to read from.
+     * @return The users.
+     * @throws IOException If the users could not be read.
+     */
+    private static User[] readUsers(ImplDiscordApi api, DataInput record) throws IOException {
+        int length = record.readInt();
+        if (length == 0) {
+            return NO_USERS;
+        }
+        User[] users = new User[length];
+        for (int i = 0; i < length; i++) {
+            ObjectNode userJson = JsonNodeFactory.instance.objectNode()
+                    .put("id", String.valueOf(record.readLong()))
+                    .put("username", record.readUTF())
+                    .put("discriminator", record.readUTF());
+            userJson.put("avatar", record.readBoolean() ? record.readUTF() : null);
+            userJson.put("bot", record.readBoolean());
+            users[i] = api.getOrCreateUser(userJson);
+        }
+        return users;
+    }
+
+    /**
+     * Shares a string of the author with the cached user or the previous message of the channel, so that only one
+     * copy of the string is retained.
+     *
+     * @param api The discord api instance.
+     * @param cache The message cache of the channel.
+     * @param value The value.
+     * @param userValue A function which gets the same value from the cached user.
+     * @param messageValue A function which gets the same value from the previous message.
+     * @return The shared string if there is an equal one, otherwise the value.
+     */
+    private String shareAuthorString(ImplDiscordApi api, ImplMessageCache cache, String value,
+                                     Function<ImplUser, String> userValue,
+                                     Function<ImplMessage, String> messageValue) {
+        if (webhookId == -1) {
+            Optional<String> userString = api.getUserById(authorId).map(ImplUser.class::cast).map(userValue);
+            if (userString.isPresent()) {
+                value = share(value, userString.get());
+            }
         }
+        Optional<String> previousString = cache.getNewestMessage()
+                .filter(ImplMessage.class::isInstance).map(ImplMessage.class::cast)
+                .filter(message -> message.authorId == authorId)
+                .map(messageValue);
+        return previousString.isPresent() ? share(value, previousString.get()) : value;
+    }
 
+    /**
+     * Returns the candidate if it is equal to the value, so that only one copy of the string is retained.
+     *
+     * @param value The value.
+     * @param candidate An already retained string. Might be <code>null</code>.
+     * @return The candidate if it is equal to the value, otherwise the value.
+     */
+    private static String share(String value, String candidate) {
+        return value != null && value.equals(candidate) ? candidate : value;
     }
 
     /**
-     * Checks if the message should be kept in cache.
+     * Serializes the given json array.
      *
-     * @return Whether the message should be kept in cache or not.
+     * @param api The discord api instance.
+     * @param array The json array.
+     * @return The serialized array or <code>null</code> if the array is missing or empty.
      */
-    public boolean keepCached() {
-        if (keepCachedCounter <= 5) {
-            // keepCached() is checked every 30 seconds.
-            // This makes sure, that messages are cached for at least 2 minutes!
-            keepCachedCounter++;
+    private static byte[] serialize(DiscordApi api, JsonNode array) {
+        if (array == null || array.size() == 0) {
+            return null;
         }
-        return keepCached || keepCachedCounter <= 5;
+        try {
+            return api.getObjectMapper().writeValueAsBytes(array);
+        } catch (IOException e) {
+            logger.warn("Could not serialize message data! Please contact the developer!", e);
+            return null;
+        }
+    }
+
+    /**
+     * Deserializes a json array which was serialized by {@link #serialize(DiscordApi, JsonNode)}.
+     *
+     * @param serialized The serialized array. Might be <code>null</code>.
+     * @return The json array or <code>null</code> if there is no data.
+     */
+    private JsonNode deserialize(byte[] serialized) {
+        if (serialized == null) {
+            return null;
+        }
+        try {
+            return getApi().getObjectMapper().readTree(serialized);
+        } catch (IOException e) {
+            logger.warn("Could not deserialize message data! Please contact the developer!", e);
+            return null;
+        }
+    }
+
+    /**
+     * Gets the estimated amount of memory in bytes which is retained by this message.
+     * This is used by the message cache to respect its memory budget.
+     *
+     * @return The estimated size of this message in bytes.
+     */
+    public int getEstimatedSize() {
+        // The message object itself
+        int size = 96;
+        // The content and the author's strings, which are usually shared with the cached user
+        size += 40 + 2 * content.length();
+        size += authorName.length() + (authorAvatarHash == null ? 0 : authorAvatarHash.length());
+        // The author object and its discriminator string, once it was requested
+        size += author == null ? 0 : 80;
+        byte[] embeds = this.embeds;
+        size += embeds == null ? 0 : 16 + embeds.length;
+        size += attachments == null ? 0 : 16 + attachments.length;
+        size += reactions.size() * 48;
+        size += (mentions.length + roleMentions.length) * 8;
+        return size;
+    }
+
+    /**
+     * Sets or clears the given flag.
+     *
+     * @param flag The flag.
+     * @param value Whether the flag should be set or cleared.
+     */
+    private synchronized void setFlag(byte flag, boolean value) {
+        flags = (byte) (value ? flags | flag : flags & ~flag);
     }
 
     /**
-     * Sets if the message should be kept in cache.
+     * Checks if the given flag is set.
      *
-     * @param keepCached Whether the message should be kept in cache or not.
+     * @param flag The flag.
+     * @return Whether the flag is set or not.
      */
-    public void setKeepCached(boolean keepCached) {
-        this.keepCached = keepCached;
+    private boolean hasFlag(byte flag) {
+        return (flags & flag) != 0;
     }
 
     /**
@@ -197,6 +534,7 @@ public class ImplMessage implements Message {
      */
     public void setContent(String content) {
         this.content = content;
+        updateEstimatedSize();
     }
 
     /**
@@ -205,16 +543,20 @@ public class ImplMessage implements Message {
      * @param lastEditTime The last edit time of the message.
      */
     public void setLastEditTime(Instant lastEditTime) {
-        this.lastEditTime = lastEditTime;
+        if (lastEditTime != null) {
+            this.lastEditTime = lastEditTime.toEpochMilli();
+        }
+        setFlag(FLAG_EDITED, lastEditTime != null);
     }
 
     /**
      * Sets the embeds of the message.
      *
-     * @param embeds The embeds to set.
+     * @param embeds The json array of the embeds to set.
      */
-    public void setEmbeds(List<Embed> embeds) {
-        this.embeds = embeds;
+    public void setEmbeds(JsonNode embeds) {
+        this.embeds = serialize(getApi(), embeds);
+        updateEstimatedSize();
     }
 
     /**
@@ -223,7 +565,7 @@ public class ImplMessage implements Message {
      * @param deleted The deleted flag.
      */
     public void setDeleted(boolean deleted) {
-        this.deleted = deleted;
+        setFlag(FLAG_DELETED, deleted);
     }
 
     /**
@@ -233,11 +575,18 @@ public class ImplMessage implements Message {
      * @param you Whether this reaction is used by you or not.
      */
     public void addReaction(Emoji emoji, boolean you) {
-        Optional<Reaction> reaction = reactions.stream().filter(r -> emoji == r.getEmoji()).findAny();
-        reaction.ifPresent(r -> ((ImplReaction) r).incrementCount(you));
-        if (!reaction.isPresent()) {
+        synchronized (this) {
+            Optional<Reaction> reaction = reactions.stream().filter(r -> emoji == r.getEmoji()).findAny();
+            reaction.ifPresent(r -> ((ImplReaction) r).incrementCount(you));
+            if (reaction.isPresent()) {
+                return;
+            }
+            if (reactions.isEmpty()) {
+                reactions = new ArrayList<>(1);
+            }
             reactions.add(new ImplReaction(this, emoji, 1, you));
         }
+        updateEstimatedSize();
     }
 
     /**
@@ -247,21 +596,38 @@ public class ImplMessage implements Message {
      * @param you Whether this reaction is used by you or not.
      */
     public void removeReaction(Emoji emoji, boolean you) {
-        Optional<Reaction> reaction = reactions.stream().filter(r -> emoji == r.getEmoji()).findAny();
-        reaction.ifPresent(r -> ((ImplReaction) r).decrementCount(you));
-        reactions.removeIf(r -> r.getCount() <= 0);
+        synchronized (this) {
+            Optional<Reaction> reaction = reactions.stream().filter(r -> emoji == r.getEmoji()).findAny();
+            reaction.ifPresent(r -> ((ImplReaction) r).decrementCount(you));
+            reactions.removeIf(r -> r.getCount() <= 0);
+            if (reactions.isEmpty()) {
+                reactions = Collections.emptyList();
+            }
+        }
+        updateEstimatedSize();
     }
 
     /**
      * Removes all reaction from this message.
      */
     public void removeAllReactionsFromCache() {
-        reactions.clear();
+        synchronized (this) {
+            reactions = Collections.emptyList();
+        }
+        updateEstimatedSize();
+    }
+
+    /**
+     * Updates the estimated size of this message in the message cache after it was changed.
+     * This is not done while holding the lock of this message, because the message cache has its own lock.
+     */
+    private void updateEstimatedSize() {
+        getApi().getMessageCache().updateEstimatedSize(this);
     }
 
     @Override
     public DiscordApi getApi() {
-        return api;
+        return channel.getApi();
     }
 
     @Override
@@ -276,11 +642,19 @@ public class ImplMessage implements Message {
 
     @Override
     public Optional<Instant> getLastEditTimestamp() {
-        return Optional.ofNullable(lastEditTime);
+        return hasFlag(FLAG_EDITED) ? Optional.of(Instant.ofEpochMilli(lastEditTime)) : Optional.empty();
     }
 
     @Override
     public List<MessageAttachment> getAttachments() {
+        JsonNode attachmentsJson = deserialize(attachments);
+        if (attachmentsJson == null) {
+            return Collections.emptyList();
+        }
+        List<MessageAttachment> attachments = new ArrayList<>(attachmentsJson.size());
+        for (JsonNode attachmentJson : attachmentsJson) {
+            attachments.add(new ImplMessageAttachment(this, attachmentJson));
+        }
         return Collections.unmodifiableList(attachments);
     }
 
@@ -296,51 +670,79 @@ public class ImplMessage implements Message {
 
     @Override
     public List<Embed> getEmbeds() {
+        JsonNode embedsJson = deserialize(embeds);
+        if (embedsJson == null) {
+            return Collections.emptyList();
+        }
+        List<Embed> embeds = new ArrayList<>(embedsJson.size());
+        for (JsonNode embedJson : embedsJson) {
+            embeds.add(new ImplEmbed(embedJson));
+        }
         return Collections.unmodifiableList(embeds);
     }
 
     @Override
     public MessageAuthor getAuthor() {
+        MessageAuthor author = this.author;
+        if (author == null) {
+            // Concurrent calls may create the author twice, which is harmless, because it's immutable
+            author = new ImplMessageAuthor(this, webhookId == -1 ? null : webhookId, authorId, authorName,
+                    ImplUser.formatDiscriminator(authorDiscriminator), authorAvatarHash);
+            this.author = author;
+        }
         return author;
     }
 
     @Override
     public Optional<User> getUserAuthor() {
-        return author.asUser();
+        return getAuthor().asUser();
     }
 
     @Override
     public boolean isCachedForever() {
-        return cacheForever;
+        return hasFlag(FLAG_CACHED_FOREVER);
     }
 
     @Override
     public void setCachedForever(boolean cachedForever) {
-        this.cacheForever = cachedForever;
+        setFlag(FLAG_CACHED_FOREVER, cachedForever);
         if (cachedForever) {
             // Just make sure it's in the cache
             ((ImplMessageCache) channel.getMessageCache()).addMessage(this);
         }
+        getApi().getMessageCache().setCachedForever(this, cachedForever);
     }
 
     @Override
     public boolean isDeleted() {
-        return deleted;
+        return hasFlag(FLAG_DELETED);
     }
 
     @Override
-    public List<Reaction> getReactions() {
+    public synchronized List<Reaction> getReactions() {
         return new ArrayList<>(reactions);
     }
 
     @Override
     public List<User> getMentionedUsers() {
-        return mentions;
+        if (mentions.length == 0) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(mentions.clone()));
     }
 
     @Override
     public List<Role> getMentionedRoles() {
-        return roleMentions;
+        if (roleMentions.length == 0) {
+            return Collections.emptyList();
+        }
+        List<Role> roles = new ArrayList<>(roleMentions.length);
+        getServer().ifPresent(server -> {
+            for (long roleId : roleMentions) {
+                server.getRoleById(roleId).ifPresent(roles::add);
+            }
+        });
+        return Collections.unmodifiableList(roles);
     }
 
     @Override
@@ -1,6 +1,5 @@
 package de.btobastian.javacord.entities.message.impl;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import de.btobastian.javacord.DiscordApi;
 import de.btobastian.javacord.entities.Icon;
 import de.btobastian.javacord.entities.impl.ImplIcon;
@@ -20,7 +19,7 @@ public class ImplMessageAuthor implements MessageAuthor {
     /**
      * The logger of this class.
      */
-    Logger logger = LoggerUtil.getLogger(ImplMessageAuthor.class);
+    private static final Logger logger = LoggerUtil.getLogger(ImplMessageAuthor.class);
 
     private final Message message;
 
@@ -36,15 +35,19 @@ public class ImplMessageAuthor implements MessageAuthor {
      *
      * @param message The message.
      * @param webhookId The id of the webhook, if the author is a webhook.
-     * @param data The json data of the author.
+     * @param id The id of the author.
+     * @param name The name of the author.
+     * @param discriminator The discriminator of the author.
+     * @param avatarId The avatar hash of the author. Might be <code>null</code>.
      */
-    public ImplMessageAuthor(Message message, Long webhookId, JsonNode data) {
+    public ImplMessageAuthor(Message message, Long webhookId, long id, String name, String discriminator,
+                             String avatarId) {
         this.message = message;
 
-        this.id = data.get("id").asLong();
-        this.name = data.get("username").asText();
-        this.discriminator = data.get("discriminator").asText();
-        this.avatarId = data.has("avatar") && !data.get("avatar").isNull() ? data.get("avatar").asText() : null;
+        this.id = id;
+        this.name = name;
+        this.discriminator = discriminator;
+        this.avatarId = avatarId;
 
         this.webhookId = webhookId;
     }
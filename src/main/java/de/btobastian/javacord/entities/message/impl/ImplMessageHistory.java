@@ -11,6 +11,9 @@ import de.btobastian.javacord.utils.rest.RestRequest;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The implementation of {@link MessageHistory}.
@@ -18,22 +21,22 @@ import java.util.concurrent.CompletableFuture;
 public class ImplMessageHistory implements MessageHistory {
 
     /**
-     * A list with all messages.
+     * The maximum amount of messages Discord returns per request.
      */
-    private final List<Message> messages = new ArrayList<>();
+    static final int PAGE_SIZE = 100;
 
     /**
-     * The text channel of the messages.
+     * A list with all messages, ordered from the newest to the oldest message.
      */
-    private final TextChannel channel;
+    private final List<Message> messages;
 
     /**
      * Creates a new message history.
      *
-     * @param channel The channel of the messages.
+     * @param messages The messages, ordered from the newest to the oldest message.
      */
-    private ImplMessageHistory(TextChannel channel) {
-        this.channel = channel;
+    private ImplMessageHistory(List<Message> messages) {
+        this.messages = messages;
     }
 
     /**
@@ -44,7 +47,21 @@ public class ImplMessageHistory implements MessageHistory {
      * @return The history.
      */
     public static CompletableFuture<MessageHistory> getHistory(TextChannel channel, int limit) {
-        return getHistory(channel, limit, -1, -1);
+        return getHistory(channel, limit, page -> {});
+    }
+
+    /**
+     * Gets the history of messages in the given channel.
+     * The pages are passed to the consumer as soon as they arrive, ordered from the newest to the oldest page.
+     *
+     * @param channel The channel of the messages.
+     * @param limit The limit of messages to get.
+     * @param pageConsumer The consumer of the pages.
+     * @return The history.
+     */
+    public static CompletableFuture<MessageHistory> getHistory(
+            TextChannel channel, int limit, Consumer<List<Message>> pageConsumer) {
+        return new PageFetcher(channel, limit, -1, -1, pageConsumer).start().thenApply(ImplMessageHistory::new);
     }
 
     /**
@@ -56,7 +73,22 @@ public class ImplMessageHistory implements MessageHistory {
      * @return The history.
      */
     public static CompletableFuture<MessageHistory> getHistoryBefore(TextChannel channel, int limit, long before) {
-        return getHistory(channel, limit, before, -1);
+        return getHistoryBefore(channel, limit, before, page -> {});
+    }
+
+    /**
+     * Gets the history of messages before a given message in the given channel.
+     * The pages are passed to the consumer as soon as they arrive, ordered from the newest to the oldest page.
+     *
+     * @param channel The channel of the messages.
+     * @param limit The limit of messages to get.
+     * @param before Get messages before the message with this id.
+     * @param pageConsumer The consumer of the pages.
+     * @return The history.
+     */
+    public static CompletableFuture<MessageHistory> getHistoryBefore(
+            TextChannel channel, int limit, long before, Consumer<List<Message>> pageConsumer) {
+        return new PageFetcher(channel, limit, before, -1, pageConsumer).start().thenApply(ImplMessageHistory::new);
     }
 
     /**
@@ -68,7 +100,22 @@ public class ImplMessageHistory implements MessageHistory {
      * @return The history.
      */
     public static CompletableFuture<MessageHistory> getHistoryAfter(TextChannel channel, int limit, long after) {
-        return getHistory(channel, limit, -1, after);
+        return getHistoryAfter(channel, limit, after, page -> {});
+    }
+
+    /**
+     * Gets the history of messages after a given message in the given channel.
+     * The pages are passed to the consumer as soon as they arrive, ordered from the oldest to the newest page.
+     *
+     * @param channel The channel of the messages.
+     * @param limit The limit of messages to get.
+     * @param after Get messages after the message with this id.
+     * @param pageConsumer The consumer of the pages.
+     * @return The history.
+     */
+    public static CompletableFuture<MessageHistory> getHistoryAfter(
+            TextChannel channel, int limit, long after, Consumer<List<Message>> pageConsumer) {
+        return new PageFetcher(channel, limit, -1, after, pageConsumer).start().thenApply(ImplMessageHistory::new);
     }
 
     /**
@@ -83,115 +130,73 @@ public class ImplMessageHistory implements MessageHistory {
      * @return The history.
      */
     public static CompletableFuture<MessageHistory> getHistoryAround(TextChannel channel, int limit, long around) {
-        CompletableFuture<MessageHistory> future = new CompletableFuture<>();
-        channel.getApi().getThreadPool().getExecutorService().submit(() -> {
-            try {
-                ImplMessageHistory history = new ImplMessageHistory(channel);
-
-                // First step: Get the messages around directly from discord.
-                Message[] msgArray = history.request(limit == 100 ? 100 : limit % 100, -1, -1, around).join();
-                history.messages.addAll(Arrays.asList(msgArray));
-                history.messages.sort(Comparable::compareTo);
-
-                if (limit / 100 == 0 || msgArray.length == 0) {
-                    future.complete(history);
-                    return;
-                }
-
-                // Second step: Calculate the amount of message to get before and after the oldest/newest message
-                int messagesToFetchAfter = (int) (((limit - (limit == 100 ? 100 : limit % 100)) / 2D) + 0.5);
-                int messagesToFetchBefore = (int) ((limit - (limit == 100 ? 100 : limit % 100)) / 2D);
-
-                // Third step: Get message history for before and after
-                MessageHistory historyBefore = null;
-                if (messagesToFetchBefore > 0) {
-                    historyBefore =
-                            getHistoryBefore(channel, messagesToFetchBefore, history.getOldestMessage().getId()).join();
-                }
-
-                MessageHistory historyAfter = null;
-                if (messagesToFetchAfter > 0) {
-                    historyAfter =
-                            getHistoryAfter(channel, messagesToFetchAfter, history.getNewestMessage().getId()).join();
-                }
-
-                // Forth step: Combine the messages of these "histories"
-                if (historyBefore != null) {
-                    history.messages.addAll(historyBefore.getMessages());
-                }
+        // First step: Get the messages around directly from discord.
+        int aroundLimit = limit % PAGE_SIZE == 0 ? Math.min(limit, PAGE_SIZE) : limit % PAGE_SIZE;
+        return requestPage(channel, aroundLimit, -1, -1, around).thenCompose(aroundJson -> {
+            List<Message> aroundMessages = parsePage(channel, aroundJson);
+            if (limit <= aroundLimit || aroundMessages.isEmpty()) {
+                return CompletableFuture.completedFuture(new ImplMessageHistory(aroundMessages));
+            }
 
-                if (historyAfter != null) {
-                    history.messages.addAll(historyAfter.getMessages());
-                }
+            // Second step: Calculate the amount of message to get before and after the oldest/newest message
+            int messagesToFetchAfter = (int) (((limit - aroundLimit) / 2D) + 0.5);
+            int messagesToFetchBefore = (int) ((limit - aroundLimit) / 2D);
 
-                history.messages.sort(Comparable::compareTo);
+            // Third step: Get message history for before and after at the same time
+            CompletableFuture<List<Message>> before = messagesToFetchBefore > 0 ?
+                    new PageFetcher(channel, messagesToFetchBefore,
+                            aroundMessages.get(aroundMessages.size() - 1).getId(), -1, page -> {}).start() :
+                    CompletableFuture.completedFuture(Collections.emptyList());
+            CompletableFuture<List<Message>> after = messagesToFetchAfter > 0 ?
+                    new PageFetcher(channel, messagesToFetchAfter,
+                            -1, aroundMessages.get(0).getId(), page -> {}).start() :
+                    CompletableFuture.completedFuture(Collections.emptyList());
 
+            // Forth step: Combine the messages of these "histories", which are already in the right order
+            return after.thenCombine(before, (afterMessages, beforeMessages) -> {
+                List<Message> messages =
+                        new ArrayList<>(afterMessages.size() + aroundMessages.size() + beforeMessages.size());
+                messages.addAll(afterMessages);
+                messages.addAll(aroundMessages);
+                messages.addAll(beforeMessages);
                 // Fifth step: We are done! The answer is 42!
-                future.complete(history);
-            } catch (Throwable t) {
-                future.completeExceptionally(t);
-            }
+                return new ImplMessageHistory(messages);
+            });
         });
-        return future;
     }
 
     /**
-     * Gets the history of messages in the given channel.
+     * Gets a lazily paged stream of the messages in the given channel, starting with the newest message.
+     * A page is only requested when the stream consumes its first message, and requesting a page blocks the thread
+     * which consumes the stream. Request failures are thrown as {@link java.util.concurrent.CompletionException}.
      *
      * @param channel The channel of the messages.
-     * @param limit The limit of messages to get.
-     * @param before Get messages before the message with this id.
-     * @param after Get messages after the message with this id.
-     *
-     * @return The history.
+     * @param before Get messages before the message with this id or <code>-1</code> to start with the newest message.
+     * @param cacheMessages Whether the messages should be added to the message cache or not.
+     * @return A stream of the messages, ordered from the newest to the oldest message.
      */
-    private static CompletableFuture<MessageHistory> getHistory(TextChannel channel, int limit, long before, long after)
-    {
-        CompletableFuture<MessageHistory> future = new CompletableFuture<>();
-        channel.getApi().getThreadPool().getExecutorService().submit(() -> {
-            try {
-                ImplMessageHistory history = new ImplMessageHistory(channel);
-
-                int step = 0;
-                while (step < (double) limit / 100D) {
-                    Message[] msgArray;
-                    if (step == 0) {
-                        msgArray = history.request((limit % 100) == 0 ? 100 : limit % 100, before, after, -1).join();
-                    } else {
-                        msgArray = history.request(
-                                100,
-                                before != -1 ? history.getOldestMessage().getId() : -1,
-                                after != -1 ? history.getNewestMessage().getId() : -1,
-                                -1
-                        ).join();
-                    }
-                    history.messages.addAll(Arrays.asList(msgArray));
-                    history.messages.sort(Comparable::compareTo);
-                    step++;
-                    if (msgArray.length == 0) {
-                        break;
-                    }
-                }
-                future.complete(history);
-            } catch (Throwable t) {
-                future.completeExceptionally(t);
-            }
-        });
-        return future;
+    public static Stream<Message> streamHistoryBefore(TextChannel channel, long before, boolean cacheMessages) {
+        Spliterator<Message> spliterator = Spliterators.spliteratorUnknownSize(
+                new PageIterator(channel, before, cacheMessages),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
     }
 
     /**
-     * Requests the messages from Discord.
+     * Requests a page of messages from Discord.
+     * The page is ordered from the newest to the oldest message.
      *
+     * @param channel The channel of the messages.
      * @param limit The limit of messages to get.
      * @param before Get messages before the message with this id.
      * @param after Get messages after the message with this id.
      * @param around Get messages around the message with this id.
-     * @return A future to check if the request was successful.
+     * @return The json array of the messages.
      */
-    private CompletableFuture<Message[]> request(int limit, long before, long after, long around) {
-        RestRequest<Message[]> restRequest =
-                new RestRequest<Message[]>(channel.getApi(), RestMethod.GET, RestEndpoint.MESSAGE)
+    static CompletableFuture<JsonNode> requestPage(
+            TextChannel channel, int limit, long before, long after, long around) {
+        RestRequest<JsonNode> restRequest =
+                new RestRequest<JsonNode>(channel.getApi(), RestMethod.GET, RestEndpoint.MESSAGE)
                 .setUrlParameters(String.valueOf(channel.getId()));
 
         if (limit != -1) {
@@ -207,17 +212,250 @@ public class ImplMessageHistory implements MessageHistory {
             restRequest.addQueryParameter("around", String.valueOf(around));
         }
 
-        return restRequest.execute(result -> {
-            Collection<Message> messages = new ArrayList<>();
-            for (JsonNode messageJson : result.getJsonBody()) {
-                messages.add(((ImplDiscordApi) channel.getApi()).getOrCreateMessage(channel, messageJson));
-            }
-            return messages.toArray(new Message[messages.size()]);
-        });
+        return restRequest.execute(result -> result.getJsonBody());
+    }
+
+    /**
+     * Creates the message objects of a page.
+     *
+     * @param channel The channel of the messages.
+     * @param page The json array of the messages.
+     * @return The messages.
+     */
+    private static List<Message> parsePage(TextChannel channel, JsonNode page) {
+        return parsePage(channel, page, true);
+    }
+
+    /**
+     * Creates the message objects of a page.
+     *
+     * @param channel The channel of the messages.
+     * @param page The json array of the messages.
+     * @param cacheMessages Whether the messages should be added to the message cache or not.
+     * @return The messages.
+     */
+    static List<Message> parsePage(TextChannel channel, JsonNode page, boolean cacheMessages) {
+        ImplDiscordApi api = (ImplDiscordApi) channel.getApi();
+        List<Message> messages = new ArrayList<>(page.size());
+        for (JsonNode messageJson : page) {
+            messages.add(cacheMessages ?
+                    api.getOrCreateMessage(channel, messageJson) :
+                    api.getOrCreateUncachedMessage(channel, messageJson));
+        }
+        return messages;
     }
 
     @Override
     public List<Message> getMessages() {
         return Collections.unmodifiableList(messages);
     }
-}
\ No newline at end of file
+
+    /**
+     * Fetches the pages of a history.
+     * The cursor for the next page is taken directly from the json of the previous page, so the next request is
+     * already in flight while the message objects of the previous page are created.
+     */
+    private static class PageFetcher {
+
+        /**
+         * The channel of the messages.
+         */
+        private final TextChannel channel;
+
+        /**
+         * Whether the history is fetched towards newer messages or not.
+         */
+        private final boolean forward;
+
+        /**
+         * The consumer of the pages.
+         */
+        private final Consumer<List<Message>> pageConsumer;
+
+        /**
+         * The pages in the order they were requested.
+         */
+        private final List<List<Message>> pages = new ArrayList<>();
+
+        /**
+         * The amount of messages which were not requested yet.
+         */
+        private volatile int remaining;
+
+        /**
+         * The cursor of the first request.
+         */
+        private final long before, after;
+
+        /**
+         * A future which is completed when all pages which arrived so far have been processed.
+         * Chaining the processing of a page onto this future keeps the pages in order.
+         */
+        private volatile CompletableFuture<Void> processing = CompletableFuture.completedFuture(null);
+
+        /**
+         * The future which is completed with the messages of all pages, ordered from the newest to the oldest message.
+         */
+        private final CompletableFuture<List<Message>> future = new CompletableFuture<>();
+
+        /**
+         * Creates a new page fetcher.
+         *
+         * @param channel The channel of the messages.
+         * @param limit The limit of messages to get.
+         * @param before Get messages before the message with this id.
+         * @param after Get messages after the message with this id.
+         * @param pageConsumer The consumer of the pages.
+         */
+        PageFetcher(TextChannel channel, int limit, long before, long after, Consumer<List<Message>> pageConsumer) {
+            this.channel = channel;
+            this.forward = after != -1;
+            this.pageConsumer = pageConsumer;
+            this.remaining = limit;
+            this.before = before;
+            this.after = after;
+        }
+
+        /**
+         * Starts fetching the pages.
+         *
+         * @return A future with the messages of all pages, ordered from the newest to the oldest message.
+         */
+        CompletableFuture<List<Message>> start() {
+            if (remaining <= 0) {
+                future.complete(new ArrayList<>());
+            } else {
+                // The first page takes the remainder, so all following pages are full pages
+                request(remaining % PAGE_SIZE == 0 ? PAGE_SIZE : remaining % PAGE_SIZE, before, after);
+            }
+            return future;
+        }
+
+        /**
+         * Requests the next page.
+         *
+         * @param limit The limit of messages to get.
+         * @param before Get messages before the message with this id.
+         * @param after Get messages after the message with this id.
+         */
+        private void request(int limit, long before, long after) {
+            remaining -= limit;
+            requestPage(channel, limit, before, after, -1).whenComplete((page, throwable) -> {
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                    return;
+                }
+                boolean lastPage = page.size() < limit || remaining <= 0;
+                processing = processing.thenRunAsync(() -> {
+                    List<Message> messages = parsePage(channel, page);
+                    pages.add(messages);
+                    pageConsumer.accept(Collections.unmodifiableList(messages));
+                }, channel.getApi().getThreadPool().getExecutorService());
+                if (lastPage) {
+                    processing.whenComplete((ignored, t) -> {
+                        if (t != null) {
+                            future.completeExceptionally(t);
+                        } else {
+                            future.complete(concatPages());
+                        }
+                    });
+                    return;
+                }
+                // Discord returns the newest message first
+                long cursor = page.get(forward ? 0 : page.size() - 1).get("id").asLong();
+                request(PAGE_SIZE, forward ? -1 : cursor, forward ? cursor : -1);
+            });
+        }
+
+        /**
+         * Concatenates all pages, ordered from the newest to the oldest message.
+         *
+         * @return The messages of all pages.
+         */
+        private List<Message> concatPages() {
+            List<Message> messages = new ArrayList<>(pages.stream().mapToInt(List::size).sum());
+            for (int i = 0; i < pages.size(); i++) {
+                messages.addAll(pages.get(forward ? pages.size() - 1 - i : i));
+            }
+            return messages;
+        }
+
+    }
+
+    /**
+     * An iterator which requests the pages of a history when they are needed, starting with the newest page.
+     */
+    private static class PageIterator implements Iterator<Message> {
+
+        /**
+         * The channel of the messages.
+         */
+        private final TextChannel channel;
+
+        /**
+         * Whether the messages should be added to the message cache or not.
+         */
+        private final boolean cacheMessages;
+
+        /**
+         * The id of the oldest message which was requested so far or <code>-1</code> if nothing was requested yet.
+         */
+        private long before;
+
+        /**
+         * The current page.
+         */
+        private List<Message> page = Collections.emptyList();
+
+        /**
+         * The index of the next message in the current page.
+         */
+        private int index = 0;
+
+        /**
+         * Whether the oldest message of the channel was reached or not.
+         */
+        private boolean exhausted = false;
+
+        /**
+         * Creates a new page iterator.
+         *
+         * @param channel The channel of the messages.
+         * @param before Get messages before the message with this id or <code>-1</code> to start with the newest
+         *               message.
+         * @param cacheMessages Whether the messages should be added to the message cache or not.
+         */
+        PageIterator(TextChannel channel, long before, boolean cacheMessages) {
+            this.channel = channel;
+            this.before = before;
+            this.cacheMessages = cacheMessages;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (index < page.size()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            page = parsePage(channel, requestPage(channel, PAGE_SIZE, before, -1, -1).join(), cacheMessages);
+            index = 0;
+            exhausted = page.size() < PAGE_SIZE;
+            if (!page.isEmpty()) {
+                before = page.get(page.size() - 1).getId();
+            }
+            return !page.isEmpty();
+        }
+
+        @Override
+        public Message next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.get(index++);
+        }
+
+    }
+
+}
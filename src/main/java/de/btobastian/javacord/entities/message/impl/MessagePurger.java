@@ -0,0 +1,217 @@
+package de.btobastian.javacord.entities.message.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.btobastian.javacord.entities.channels.TextChannel;
+import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.utils.rest.RestEndpoint;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+
+/**
+ * Deletes messages with as few requests as possible.
+ * Messages which are younger than two weeks are deleted in bulk delete requests of up to 100 messages, older messages
+ * are deleted one by one. The age of a message is calculated from its id, so the messages don't have to be fetched.
+ * When purging a channel, the next page of the history is already fetched while the messages of the previous page
+ * are deleted.
+ */
+public class MessagePurger {
+
+    /**
+     * The maximum amount of messages which can be deleted with one bulk delete request.
+     */
+    private static final int BULK_DELETE_LIMIT = 100;
+
+    /**
+     * The maximum age of messages which can be deleted with a bulk delete request.
+     * Discord allows two weeks, one minute is subtracted to tolerate a clock drift and the time the request needs.
+     */
+    private static final long MAXIMUM_BULK_DELETE_AGE = TimeUnit.DAYS.toMillis(14) - TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * The first second of 2015, which is the epoch of Discord's snowflake ids.
+     */
+    private static final long DISCORD_EPOCH = 1420070400000L;
+
+    /**
+     * The channel of the messages.
+     */
+    private final TextChannel channel;
+
+    /**
+     * The filter of the messages or <code>null</code> to delete all messages.
+     */
+    private final Predicate<Message> filter;
+
+    /**
+     * The amount of messages which were not requested yet.
+     */
+    private volatile int remaining;
+
+    /**
+     * The amount of messages which were deleted.
+     */
+    private final AtomicInteger deletedCount = new AtomicInteger();
+
+    /**
+     * A future which is completed when the messages of all pages which arrived so far have been deleted.
+     * Chaining the deletion of a page onto this future makes sure, that only one page is deleted at the same time.
+     */
+    private volatile CompletableFuture<Void> deleting = CompletableFuture.completedFuture(null);
+
+    /**
+     * The future which is completed with the amount of deleted messages.
+     */
+    private final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+    /**
+     * Creates a new message purger.
+     *
+     * @param channel The channel of the messages.
+     * @param limit The maximum amount of messages to check.
+     * @param filter The filter of the messages or <code>null</code> to delete all messages.
+     */
+    private MessagePurger(TextChannel channel, int limit, Predicate<Message> filter) {
+        this.channel = channel;
+        this.remaining = limit;
+        this.filter = filter;
+    }
+
+    /**
+     * Deletes the messages before the given message.
+     *
+     * @param channel The channel of the messages.
+     * @param before Delete messages before the message with this id or <code>-1</code> to start with the newest
+     *               message.
+     * @param limit The maximum amount of messages to check.
+     * @param filter The filter of the messages or <code>null</code> to delete all messages.
+     * @return A future with the amount of deleted messages.
+     */
+    public static CompletableFuture<Integer> purgeBefore(
+            TextChannel channel, long before, int limit, Predicate<Message> filter) {
+        MessagePurger purger = new MessagePurger(channel, limit, filter);
+        if (limit <= 0) {
+            purger.future.complete(0);
+        } else {
+            purger.request(before);
+        }
+        return purger.future;
+    }
+
+    /**
+     * Requests the next page of the history.
+     *
+     * @param before Get messages before the message with this id.
+     */
+    private void request(long before) {
+        int limit = Math.min(remaining, ImplMessageHistory.PAGE_SIZE);
+        remaining -= limit;
+        ImplMessageHistory.requestPage(channel, limit, before, -1, -1).whenComplete((page, throwable) -> {
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+                return;
+            }
+            onPage(page, limit);
+        });
+    }
+
+    /**
+     * Deletes the messages of a page and requests the next page.
+     *
+     * @param page The json array of the messages, ordered from the newest to the oldest message.
+     * @param limit The limit of the request.
+     */
+    private void onPage(JsonNode page, int limit) {
+        boolean lastPage = page.size() < limit || remaining <= 0;
+        if (!lastPage) {
+            // The next page is fetched while this page is deleted
+            request(page.get(page.size() - 1).get("id").asLong());
+        }
+
+        long[] messageIds;
+        if (filter == null) {
+            messageIds = new long[page.size()];
+            for (int i = 0; i < messageIds.length; i++) {
+                messageIds[i] = page.get(i).get("id").asLong();
+            }
+        } else {
+            messageIds = ImplMessageHistory.parsePage(channel, page, false).stream()
+                    .filter(filter)
+                    .mapToLong(Message::getId)
+                    .toArray();
+        }
+        deleting = deleting.thenCompose(ignored -> delete(channel, messageIds)).thenAccept(deletedCount::addAndGet);
+        deleting.whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+            } else if (lastPage) {
+                future.complete(deletedCount.get());
+            }
+        });
+    }
+
+    /**
+     * Deletes the given messages.
+     * Messages which are younger than two weeks are deleted in chunks of 100 messages with bulk delete requests, older
+     * messages are deleted one by one. Duplicated ids are only deleted once.
+     *
+     * @param channel The channel of the messages.
+     * @param messageIds The ids of the messages to delete.
+     * @return A future with the amount of deleted messages.
+     */
+    public static CompletableFuture<Integer> delete(TextChannel channel, long... messageIds) {
+        long[] ids = LongStream.of(messageIds).distinct().toArray();
+        long oldestBulkDeletableId =
+                (System.currentTimeMillis() - MAXIMUM_BULK_DELETE_AGE - DISCORD_EPOCH) << 22;
+        long[] recentIds = LongStream.of(ids).filter(id -> id >= oldestBulkDeletableId).toArray();
+        long[] oldIds = LongStream.of(ids).filter(id -> id < oldestBulkDeletableId).toArray();
+
+        // Bulk deletes and single deletes use different buckets, so they can run concurrently
+        CompletableFuture<Void> bulkDeletes = CompletableFuture.completedFuture(null);
+        for (int i = 0; i < recentIds.length; i += BULK_DELETE_LIMIT) {
+            long[] chunk = Arrays.copyOfRange(recentIds, i, Math.min(i + BULK_DELETE_LIMIT, recentIds.length));
+            bulkDeletes = bulkDeletes.thenCompose(ignored -> bulkDelete(channel, chunk));
+        }
+        CompletableFuture<Void> singleDeletes = CompletableFuture.completedFuture(null);
+        for (long id : oldIds) {
+            // The requests are sent one after another, so they don't flood the ratelimit queue
+            singleDeletes = singleDeletes.thenCompose(
+                    ignored -> Message.delete(channel.getApi(), channel.getId(), id));
+        }
+        return CompletableFuture.allOf(bulkDeletes, singleDeletes).thenApply(ignored -> ids.length);
+    }
+
+    /**
+     * Deletes up to 100 messages which are younger than two weeks with a single request.
+     *
+     * @param channel The channel of the messages.
+     * @param messageIds The ids of the messages to delete.
+     * @return A future to tell us if the deletion was successful.
+     */
+    private static CompletableFuture<Void> bulkDelete(TextChannel channel, long[] messageIds) {
+        if (messageIds.length == 1) {
+            // Bulk delete requests require at least two messages
+            return Message.delete(channel.getApi(), channel.getId(), messageIds[0]);
+        }
+        ObjectNode body = JsonNodeFactory.instance.objectNode();
+        ArrayNode messages = body.putArray("messages");
+        for (long id : messageIds) {
+            messages.add(String.valueOf(id));
+        }
+        return new RestRequest<Void>(channel.getApi(), RestMethod.POST, RestEndpoint.MESSAGES_BULK_DELETE)
+                .setRatelimitRetries(250)
+                .setUrlParameters(String.valueOf(channel.getId()))
+                .setBody(body)
+                .execute(result -> null);
+    }
+
+}
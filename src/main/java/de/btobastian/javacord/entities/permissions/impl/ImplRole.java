@@ -8,6 +8,7 @@ import de.btobastian.javacord.entities.User;
 import de.btobastian.javacord.entities.impl.ImplServer;
 import de.btobastian.javacord.entities.permissions.Permissions;
 import de.btobastian.javacord.entities.permissions.Role;
+import de.btobastian.javacord.utils.Interner;
 
 import java.awt.*;
 import java.util.Collection;
@@ -86,7 +87,8 @@ public class ImplRole implements Role {
         this.api = api;
         this.server = server;
         this.id = data.get("id").asLong();
-        this.name = data.get("name").asText();
+        // Servers often have roles with the same names, like "Admin" or "Moderator"
+        this.name = Interner.STRINGS.intern(data.get("name").asText());
         this.position = data.get("position").asInt();
         this.color = data.get("color").asInt(0);
         this.hoist = data.get("hoist").asBoolean(false);
@@ -1,5 +1,7 @@
 package de.btobastian.javacord.utils;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
@@ -34,6 +36,8 @@ import de.btobastian.javacord.utils.handler.user.PresenceUpdateHandler;
 import de.btobastian.javacord.utils.handler.user.TypingStartHandler;
 import de.btobastian.javacord.utils.handler.user.UserUpdateHandler;
 import de.btobastian.javacord.utils.logging.LoggerUtil;
+import de.btobastian.javacord.utils.metrics.MetricsRecorder;
+import de.btobastian.javacord.utils.tracing.EventTrace;
 import org.slf4j.Logger;
 
 import javax.net.ssl.SSLContext;
@@ -80,6 +84,11 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
 
     private final ExecutorService listenerExecutorService;
 
+    /**
+     * The types of the events which are dropped without handling them.
+     */
+    private final Set<String> disabledEventTypes = new HashSet<>();
+
     // A reconnect attempt counter
     private int reconnectAttempt = 0;
 
@@ -88,6 +97,7 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         this.gateway = gateway;
 
         this.listenerExecutorService = api.getThreadPool().getSingleThreadExecutorService("listeners");
+        api.getDisabledEventCategories().forEach(category -> disabledEventTypes.addAll(category.getEventTypes()));
 
         registerHandlers();
 
@@ -183,20 +193,104 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
 
     @Override
     public void onTextMessage(WebSocket websocket, String text) throws Exception {
+        long startTime = System.nanoTime();
         ObjectMapper mapper = api.getObjectMapper();
+        if (!disabledEventTypes.isEmpty()
+                && dropIfDisabled(mapper.getFactory().createParser(text), text.length(), false)) {
+            return;
+        }
         JsonNode packet = mapper.readTree(text);
+        long parsedTime = System.nanoTime();
+        api.getMetricsRecorder().recordGatewayParseTime(false, parsedTime - startTime);
+        handlePacket(websocket, packet, text.length(), false, startTime, parsedTime);
+    }
+
+    /**
+     * Drops the packet if it's a dispatch of a disabled event type.
+     * Only the top level fields are read and the payload is skipped, which is a lot cheaper than parsing it. The
+     * sequence number of a dropped dispatch is still remembered, because it's required for heartbeats and resuming.
+     *
+     * @param parser A parser for the packet. It's closed by this method.
+     * @param frameSize The size of the frame of the packet.
+     * @param compressed Whether the frame of the packet was compressed or not.
+     * @return Whether the packet was dropped or not.
+     * @throws IOException If the packet is not valid json.
+     */
+    private boolean dropIfDisabled(JsonParser parser, int frameSize, boolean compressed) throws IOException {
+        try (JsonParser packetParser = parser) {
+            if (packetParser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            String type = null;
+            int seq = -1;
+            boolean dispatch = false;
+            while (packetParser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = packetParser.getCurrentName();
+                JsonToken valueToken = packetParser.nextToken();
+                switch (fieldName) {
+                    case "op":
+                        if (valueToken != JsonToken.VALUE_NUMBER_INT || packetParser.getIntValue() != 0) {
+                            return false;
+                        }
+                        dispatch = true;
+                        break;
+                    case "t":
+                        if (valueToken != JsonToken.VALUE_STRING) {
+                            return false;
+                        }
+                        type = packetParser.getText();
+                        if (!disabledEventTypes.contains(type)) {
+                            return false;
+                        }
+                        break;
+                    case "s":
+                        if (valueToken != JsonToken.VALUE_NUMBER_INT) {
+                            return false;
+                        }
+                        seq = packetParser.getIntValue();
+                        break;
+                    default:
+                        packetParser.skipChildren();
+                        break;
+                }
+                if (dispatch && type != null && seq != -1) {
+                    lastSeq = seq;
+                    api.getMetricsRecorder().recordGatewayFrame(0, type, frameSize, compressed);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 
+    /**
+     * Handles a packet which was received from the gateway.
+     *
+     * @param websocket The websocket which received the packet.
+     * @param packet The packet.
+     * @param frameSize The size of the frame of the packet, see
+     *                  {@link de.btobastian.javacord.utils.metrics.MetricsRecorder#recordGatewayFrame(int, String, int,
+     *                  boolean)}.
+     * @param compressed Whether the frame of the packet was compressed or not.
+     * @param receivedTime The {@link System#nanoTime()} when the frame was received.
+     * @param parsedTime The {@link System#nanoTime()} when the packet was parsed.
+     * @throws Exception If something went wrong while handling the packet.
+     */
+    private void handlePacket(WebSocket websocket, JsonNode packet, int frameSize, boolean compressed,
+                              long receivedTime, long parsedTime) throws Exception {
         int op = packet.get("op").asInt();
+        String type = op == 0 ? packet.get("t").asText() : null;
+        api.getMetricsRecorder().recordGatewayFrame(op, type, frameSize, compressed);
 
         switch (op) {
             case 0:
                 lastSeq = packet.get("s").asInt();
-                String type = packet.get("t").asText();
                 PacketHandler handler = handlers.get(type);
                 if (handler != null) {
-                    handler.handlePacket(packet.get("d"));
+                    handler.handlePacket(
+                            packet.get("d"), api.getEventTracer().startTrace(type, receivedTime, parsedTime));
                 } else {
-                    logger.debug("Received unknown packet of type {} (packet: {})", type, packet.toString());
+                    logger.debug("Received unknown packet of type {} (packet: {})", type, packet);
                 }
 
                 if (type.equals("GUILD_MEMBERS_CHUNK")) {
@@ -283,13 +377,14 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
                 heartbeatAckReceived = true;
                 break;
             default:
-                logger.debug("Received unknown packet (op: {}, content: {})", op, packet.toString());
+                logger.debug("Received unknown packet (op: {}, content: {})", op, packet);
                 break;
         }
     }
 
     @Override
     public void onBinaryMessage(WebSocket websocket, byte[] binary) throws Exception {
+        long startTime = System.nanoTime();
         Inflater decompressor = new Inflater();
         decompressor.setInput(binary);
         ByteArrayOutputStream bos = new ByteArrayOutputStream(binary.length);
@@ -308,11 +403,20 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
             bos.close();
         } catch (IOException ignored) { }
         byte[] decompressedData = bos.toByteArray();
+        if (!disabledEventTypes.isEmpty() && dropIfDisabled(
+                api.getObjectMapper().getFactory().createParser(decompressedData), binary.length, true)) {
+            return;
+        }
+        JsonNode packet;
         try {
-            onTextMessage(websocket, new String(decompressedData, "UTF-8"));
+            packet = api.getObjectMapper().readTree(new String(decompressedData, "UTF-8"));
         } catch (UnsupportedEncodingException e) {
             logger.warn("An error occurred while decompressing data", e);
+            return;
         }
+        long parsedTime = System.nanoTime();
+        api.getMetricsRecorder().recordGatewayParseTime(true, parsedTime - startTime);
+        handlePacket(websocket, packet, binary.length, true, startTime, parsedTime);
     }
 
     /**
@@ -384,6 +488,11 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         if (api.getTotalShards() > 1) {
             data.putArray("shard").add(api.getCurrentShard()).add(api.getTotalShards());
         }
+        if (api.getDisabledEventCategories().contains(GatewayEventCategory.PRESENCES)
+                && api.getDisabledEventCategories().contains(GatewayEventCategory.TYPING)) {
+            // Discord doesn't send presence updates and typing events at all then
+            data.put("guild_subscriptions", false);
+        }
         logger.debug("Sending identify packet");
         websocket.sendText(identifyPacket.toString());
     }
@@ -473,13 +582,48 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
      * @param <T> The listener class.
      */
     protected <T> void dispatchEvent(List<T> listeners, Consumer<T> consumer) {
-        listenerExecutorService.submit(() -> listeners.stream().forEach(listener -> {
-            try {
-                consumer.accept(listener);
-            } catch (Throwable t) {
-                logger.error("An error occurred while calling a listener method!", t);
-            }
-        }));
+        dispatchEvent(listeners, consumer, false);
+    }
+
+    /**
+     * Dispatches an event in a the listener thread.
+     *
+     * @param listeners The listeners for the event.
+     * @param consumer The consumer which consumes the listeners and calls the event.
+     * @param lowPriority Whether the event may be dropped if the listener queue is full.
+     * @param <T> The listener class.
+     */
+    protected <T> void dispatchEvent(List<T> listeners, Consumer<T> consumer, boolean lowPriority) {
+        MetricsRecorder metricsRecorder = api.getMetricsRecorder();
+        Runnable task;
+        if (metricsRecorder == MetricsRecorder.NOOP) {
+            // Don't measure the time of every single listener if no one is interested in it
+            task = () -> listeners.stream().forEach(listener -> {
+                try {
+                    consumer.accept(listener);
+                } catch (Throwable t) {
+                    logger.error("An error occurred while calling a listener method!", t);
+                }
+            });
+        } else {
+            task = () -> listeners.stream().forEach(listener -> {
+                long startTime = System.nanoTime();
+                try {
+                    consumer.accept(listener);
+                } catch (Throwable t) {
+                    logger.error("An error occurred while calling a listener method!", t);
+                }
+                metricsRecorder.recordListenerTime(listener.getClass(), System.nanoTime() - startTime);
+            });
+        }
+        EventTrace trace = EventTrace.current();
+        Runnable tracedTask = trace == null ? task : trace.traceDispatch(task);
+        if (lowPriority) {
+            EventQueueExecutor.LowPriorityTask lowPriorityTask = tracedTask::run;
+            listenerExecutorService.execute(lowPriorityTask);
+        } else {
+            listenerExecutorService.execute(tracedTask);
+        }
     }
 
     /**
@@ -0,0 +1,226 @@
+package de.btobastian.javacord.utils;
+
+import de.btobastian.javacord.utils.logging.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A single thread executor with a bounded queue, which is used for the handler and the listener thread.
+ * Tasks which are submitted while the queue is full are handled according to the {@link EventQueueOverflowStrategy}.
+ * The executor keeps track of the highest amount of queued tasks (the high-water mark) and of dropped tasks.
+ */
+public class EventQueueExecutor extends ThreadPoolExecutor {
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(EventQueueExecutor.class);
+
+    /**
+     * The name of the executor, used for logging.
+     */
+    private final String name;
+
+    /**
+     * The capacity of the queue.
+     */
+    private final int capacity;
+
+    /**
+     * The overflow strategy.
+     */
+    private final EventQueueOverflowStrategy overflowStrategy;
+
+    /**
+     * The highest amount of queued tasks.
+     */
+    private final AtomicInteger highWaterMark = new AtomicInteger();
+
+    /**
+     * The amount of dropped tasks.
+     */
+    private final AtomicLong droppedTasks = new AtomicLong();
+
+    /**
+     * The amount of tasks which were merged into a pending task.
+     */
+    private final AtomicLong coalescedTasks = new AtomicLong();
+
+    /**
+     * Whether the queue was full at the last overflow. Used to only log once per overflow.
+     */
+    private volatile boolean overflowing = false;
+
+    /**
+     * The last task which was submitted to the executor. It may already have been executed.
+     */
+    private volatile Runnable lastTask = null;
+
+    /**
+     * The thread of the executor.
+     */
+    private volatile Thread thread = null;
+
+    /**
+     * Creates a new executor.
+     *
+     * @param name The name of the executor, used for logging.
+     * @param threadFactory The thread factory.
+     * @param capacity The capacity of the queue.
+     * @param overflowStrategy The overflow strategy.
+     */
+    public EventQueueExecutor(String name, ThreadFactory threadFactory, int capacity,
+                              EventQueueOverflowStrategy overflowStrategy) {
+        super(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(capacity), threadFactory);
+        setRejectedExecutionHandler(new OverflowHandler());
+        this.name = name;
+        this.capacity = capacity;
+        this.overflowStrategy = overflowStrategy;
+    }
+
+    /**
+     * Gets the capacity of the queue.
+     *
+     * @return The capacity of the queue.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the overflow strategy.
+     *
+     * @return The overflow strategy.
+     */
+    public EventQueueOverflowStrategy getOverflowStrategy() {
+        return overflowStrategy;
+    }
+
+    /**
+     * Gets the highest amount of tasks which were queued at the same time.
+     *
+     * @return The high-water mark of the queue.
+     */
+    public int getHighWaterMark() {
+        return highWaterMark.get();
+    }
+
+    /**
+     * Gets the amount of tasks which were dropped because the queue was full.
+     *
+     * @return The amount of dropped tasks.
+     */
+    public long getDroppedTasks() {
+        return droppedTasks.get();
+    }
+
+    /**
+     * Gets the amount of tasks which were merged into a task that was still waiting in the queue.
+     *
+     * @return The amount of coalesced tasks.
+     */
+    public long getCoalescedTasks() {
+        return coalescedTasks.get();
+    }
+
+    /**
+     * Counts a task which was merged into a task that was still waiting in the queue.
+     */
+    public void taskCoalesced() {
+        coalescedTasks.incrementAndGet();
+    }
+
+    /**
+     * Gets the last task which was submitted to the executor.
+     * Tasks are only appended to the queue, so a task which is still waiting can be replaced with an updated task
+     * without changing the order of the tasks.
+     *
+     * @return The last submitted task. It may already have been executed.
+     */
+    public Runnable getLastTask() {
+        return lastTask;
+    }
+
+    /**
+     * Checks if the queue is full.
+     *
+     * @return Whether the queue is full or not.
+     */
+    public boolean isFull() {
+        return getQueue().remainingCapacity() == 0;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(command);
+        lastTask = command;
+        int size = getQueue().size();
+        int currentHighWaterMark = highWaterMark.get();
+        while (size > currentHighWaterMark && !highWaterMark.compareAndSet(currentHighWaterMark, size)) {
+            currentHighWaterMark = highWaterMark.get();
+        }
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        thread = t;
+        super.beforeExecute(t, r);
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        if (overflowing && getQueue().isEmpty()) {
+            overflowing = false;
+        }
+    }
+
+    /**
+     * A task which can be dropped if the queue is full.
+     */
+    public interface LowPriorityTask extends Runnable {
+    }
+
+    /**
+     * Handles tasks which are submitted while the queue is full.
+     */
+    private class OverflowHandler implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (isShutdown()) {
+                throw new RejectedExecutionException("The " + name + " executor has been shut down!");
+            }
+            if (!overflowing) {
+                overflowing = true;
+                logger.warn("The {} queue is full ({} tasks). Using the {} strategy until it is drained!",
+                        name, capacity, overflowStrategy);
+            }
+            if (overflowStrategy == EventQueueOverflowStrategy.SHED_LOW_PRIORITY && r instanceof LowPriorityTask) {
+                droppedTasks.incrementAndGet();
+                return;
+            }
+            if (Thread.currentThread() == thread) {
+                // Waiting for our own thread would be a deadlock
+                r.run();
+                return;
+            }
+            try {
+                getQueue().put(r);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for the " + name + " queue!", e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,32 @@
+package de.btobastian.javacord.utils;
+
+/**
+ * This enum contains the strategies of the bounded event queues (the queues of the handler and the listener thread)
+ * for events which arrive while the queue is full.
+ *
+ * @see de.btobastian.javacord.ThreadPoolConfiguration#setEventQueueCapacity(int, EventQueueOverflowStrategy)
+ */
+public enum EventQueueOverflowStrategy {
+
+    /**
+     * The submitting thread waits until there's space in the queue.
+     * If the websocket thread waits, Discord has to wait for it, too (tcp backpressure). If it waits too long, the
+     * connection may time out and is resumed afterwards.
+     */
+    BLOCK,
+
+    /**
+     * Low priority events (presence updates and typing events) are dropped. Other events are handled like
+     * {@link #BLOCK}.
+     */
+    SHED_LOW_PRIORITY,
+
+    /**
+     * While the handler queue is full, a state update (presence and member updates) is merged into the last queued
+     * packet, if it's an update of the same user which is still waiting. This collapses the duplicates Discord sends
+     * for every shared server without changing the order of the packets. Other events are handled like
+     * {@link #BLOCK}.
+     */
+    COALESCE
+
+}
@@ -0,0 +1,71 @@
+package de.btobastian.javacord.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This enum contains the categories of gateway events which can be disabled.
+ * Disabled events are dropped right after their type was read. They are not parsed, not handled and don't update the
+ * cache, so the listeners of disabled events are never called and the cached state they would update (e.g. the
+ * status of users for {@link #PRESENCES}) becomes outdated.
+ *
+ * @see de.btobastian.javacord.DiscordApiBuilder#setDisabledEventCategories(GatewayEventCategory...)
+ */
+public enum GatewayEventCategory {
+
+    /**
+     * Presence updates, i.e. changes of the status and game of users.
+     * This is usually the majority of the gateway traffic of bots in large servers.
+     */
+    PRESENCES("PRESENCE_UPDATE"),
+
+    /**
+     * Users who start typing.
+     */
+    TYPING("TYPING_START"),
+
+    /**
+     * Voice state and voice server updates. Javacord does not handle them at the moment.
+     */
+    VOICE_STATES("VOICE_STATE_UPDATE", "VOICE_SERVER_UPDATE"),
+
+    /**
+     * Added and removed reactions.
+     */
+    REACTIONS("MESSAGE_REACTION_ADD", "MESSAGE_REACTION_REMOVE", "MESSAGE_REACTION_REMOVE_ALL"),
+
+    /**
+     * Created, updated and deleted messages.
+     */
+    MESSAGES("MESSAGE_CREATE", "MESSAGE_UPDATE", "MESSAGE_DELETE", "MESSAGE_DELETE_BULK"),
+
+    /**
+     * Banned and unbanned users.
+     */
+    BANS("GUILD_BAN_ADD", "GUILD_BAN_REMOVE");
+
+    /**
+     * The types of the events in this category.
+     */
+    private final List<String> eventTypes;
+
+    /**
+     * Class constructor.
+     *
+     * @param eventTypes The types of the events in this category.
+     */
+    GatewayEventCategory(String... eventTypes) {
+        this.eventTypes = Collections.unmodifiableList(Arrays.asList(eventTypes));
+    }
+
+    /**
+     * Gets the types of the events in this category, e.g. <code>PRESENCE_UPDATE</code>.
+     *
+     * @return The types of the events in this category.
+     */
+    public List<String> getEventTypes() {
+        return eventTypes;
+    }
+
+}
@@ -0,0 +1,237 @@
+package de.btobastian.javacord.utils;
+
+import de.btobastian.javacord.utils.logging.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The implementation of {@link ThreadPool}.
+ * The executor service is bounded and uses named daemon threads, or a virtual thread per task if enabled and
+ * supported by the jvm. The scheduler uses a single platform thread which is not a daemon thread, because it keeps the
+ * jvm alive while the api is connected (reconnects are scheduled with it).
+ * The single thread executor services (e.g. for the handler and the listener thread) are {@link EventQueueExecutor}s.
+ */
+public class ImplThreadPool implements ThreadPool {
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(ImplThreadPool.class);
+
+    /**
+     * The prefix of the names of all threads.
+     */
+    private static final String THREAD_NAME_PREFIX = "Javacord - ";
+
+    /**
+     * The counter which is used to give every thread pool a unique id.
+     */
+    private static final AtomicInteger poolCounter = new AtomicInteger();
+
+    /**
+     * The delay in milliseconds after which the scheduler retries to submit a task while the executor is saturated.
+     */
+    private static final long SATURATED_RESUBMIT_DELAY = 50;
+
+    /**
+     * The id of this thread pool, which is part of the names of its threads.
+     */
+    private final int poolId = poolCounter.incrementAndGet();
+
+    /**
+     * The executor service.
+     */
+    private final ExecutorService executorService;
+
+    /**
+     * The scheduler.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * The thread of the scheduler.
+     */
+    private volatile Thread schedulerThread = null;
+
+    /**
+     * The single thread executor services, mapped by their id.
+     */
+    private final ConcurrentHashMap<String, ExecutorService> executorServiceSingeThreads = new ConcurrentHashMap<>();
+
+    /**
+     * The capacity of the queues of the single thread executor services.
+     */
+    private final int eventQueueCapacity;
+
+    /**
+     * The strategy of the single thread executor services for tasks which are submitted while the queue is full.
+     */
+    private final EventQueueOverflowStrategy eventQueueOverflowStrategy;
+
+    /**
+     * Creates a new thread pool.
+     *
+     * @param maxPoolSize The maximum amount of threads of the executor service.
+     * @param queueCapacity The maximum amount of queued tasks, if all threads are busy. If <code>0</code>, tasks are
+     *                      handed directly to a thread.
+     * @param keepAlive The time in milliseconds idle threads are kept alive.
+     * @param saturationPolicy The policy for tasks which are submitted while all threads are busy and the queue is
+     *                         full.
+     * @param virtualThreads Whether the executor service should use a virtual thread per task, if the jvm supports it.
+     * @param eventQueueCapacity The capacity of the queues of the single thread executor services.
+     * @param eventQueueOverflowStrategy The strategy of the single thread executor services for tasks which are
+     *                                   submitted while the queue is full.
+     */
+    public ImplThreadPool(int maxPoolSize, int queueCapacity, long keepAlive, SaturationPolicy saturationPolicy,
+                          boolean virtualThreads, int eventQueueCapacity,
+                          EventQueueOverflowStrategy eventQueueOverflowStrategy) {
+        this.eventQueueCapacity = eventQueueCapacity;
+        this.eventQueueOverflowStrategy = eventQueueOverflowStrategy;
+        ExecutorService virtualThreadExecutorService = virtualThreads ? createVirtualThreadExecutorService() : null;
+        if (virtualThreadExecutorService != null) {
+            executorService = virtualThreadExecutorService;
+        } else {
+            RejectedExecutionHandler rejectedExecutionHandler = new SaturationHandler(saturationPolicy);
+            ThreadPoolExecutor threadPoolExecutor;
+            if (queueCapacity == 0) {
+                // Reuses idle threads and only starts new threads if all threads are busy
+                threadPoolExecutor = new ThreadPoolExecutor(1, maxPoolSize, keepAlive, TimeUnit.MILLISECONDS,
+                        new SynchronousQueue<>(), createThreadFactory("Worker", true), rejectedExecutionHandler);
+            } else {
+                // A thread pool executor only starts more than the core threads if the queue is full
+                BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>(queueCapacity);
+                threadPoolExecutor = new ThreadPoolExecutor(maxPoolSize, maxPoolSize, keepAlive, TimeUnit.MILLISECONDS,
+                        queue, createThreadFactory("Worker", true), rejectedExecutionHandler);
+                threadPoolExecutor.allowCoreThreadTimeOut(true);
+            }
+            executorService = threadPoolExecutor;
+        }
+        ThreadFactory schedulerThreadFactory = createThreadFactory("Scheduler", false);
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = schedulerThreadFactory.newThread(runnable);
+            schedulerThread = thread;
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Creates a thread factory for named threads.
+     *
+     * @param name The name of the threads. A counter is added to it.
+     * @param daemon Whether the threads should be daemon threads or not.
+     * @return The thread factory.
+     */
+    private ThreadFactory createThreadFactory(String name, boolean daemon) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable,
+                    THREAD_NAME_PREFIX + name + " " + poolId + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(daemon);
+            return thread;
+        };
+    }
+
+    /**
+     * Creates an executor service which starts a new virtual thread for every task.
+     * Virtual threads exist since Java 21, so they are created with reflection to stay compatible with Java 8.
+     *
+     * @return The executor service or <code>null</code> if the jvm does not support virtual threads.
+     */
+    private ExecutorService createVirtualThreadExecutorService() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, THREAD_NAME_PREFIX + "Virtual Worker " + poolId + "-", 1L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            Method newThreadPerTaskExecutor =
+                    Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads are not supported by this jvm (Java {}). Using platform threads instead!",
+                    System.getProperty("java.version"));
+            return null;
+        }
+    }
+
+    @Override
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    @Override
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public void shutdown() {
+        executorService.shutdown();
+        scheduler.shutdown();
+        executorServiceSingeThreads.values().forEach(ExecutorService::shutdown);
+    }
+
+    @Override
+    public ExecutorService getSingleThreadExecutorService(String id) {
+        return executorServiceSingeThreads.computeIfAbsent(id, key -> new EventQueueExecutor(
+                key, createThreadFactory(key, true), eventQueueCapacity, eventQueueOverflowStrategy));
+    }
+
+    /**
+     * Handles tasks which are submitted while all threads are busy and the queue is full.
+     * Tasks which are submitted by the scheduler thread are never executed by it or rejected, but submitted again after
+     * a short delay. Scheduled tasks, like the ratelimit buckets, usually submit long running work, which would block
+     * all other scheduled tasks (e.g. reconnects) if the scheduler thread executed it itself.
+     */
+    private class SaturationHandler implements RejectedExecutionHandler {
+
+        /**
+         * The saturation policy for all other threads.
+         */
+        private final SaturationPolicy saturationPolicy;
+
+        /**
+         * Creates a new saturation handler.
+         *
+         * @param saturationPolicy The saturation policy for all other threads.
+         */
+        private SaturationHandler(SaturationPolicy saturationPolicy) {
+            this.saturationPolicy = saturationPolicy;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("The executor service has been shut down!");
+            }
+            if (Thread.currentThread() == schedulerThread) {
+                scheduler.schedule(() -> executor.execute(r), SATURATED_RESUBMIT_DELAY, TimeUnit.MILLISECONDS);
+                return;
+            }
+            if (saturationPolicy == SaturationPolicy.CALLER_RUNS) {
+                r.run();
+                return;
+            }
+            throw new RejectedExecutionException("All threads of the executor service are busy!");
+        }
+
+    }
+
+}
@@ -0,0 +1,83 @@
+package de.btobastian.javacord.utils;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded interner for immutable values which are repeated many times in the cache, like game names.
+ * Interning a value returns an equal instance which has been interned before, if there is one, so equal values share
+ * a single instance. Unlike {@link String#intern()} or a map, the interner never grows: it's a fixed size table in
+ * which every value can be stored in one of two slots. If both slots are taken, an older value is replaced. The
+ * values are only weakly referenced, so the interner does not keep unused values alive.
+ * Because of this, the interner is lossy: equal values may still end up as different instances. This only costs
+ * memory and never affects the correctness, as long as the values are compared with <code>equals(...)</code>.
+ *
+ * @param <T> The type of the values.
+ */
+public class Interner<T> {
+
+    /**
+     * An interner for strings, which is shared by all api instances.
+     */
+    public static final Interner<String> STRINGS = new Interner<>(16384);
+
+    /**
+     * The slots of the interner.
+     */
+    private final AtomicReferenceArray<WeakReference<T>> slots;
+
+    /**
+     * The mask which is used to get the index of the first slot of a hash code.
+     */
+    private final int mask;
+
+    /**
+     * Creates a new interner.
+     *
+     * @param capacity The maximum amount of interned values. It's rounded up to the next power of two.
+     */
+    public Interner(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("The capacity of an interner cannot be less than 2!");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * Interns the given value.
+     *
+     * @param value The value to intern. May be <code>null</code>.
+     * @return An interned instance which is equal to the given value or the value itself, if no equal value is
+     *         interned at the moment.
+     */
+    public T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+        int hash = value.hashCode();
+        // Spread the higher bits, because the mask only uses the lower bits
+        hash ^= hash >>> 16;
+        int firstIndex = hash & mask;
+        int secondIndex = firstIndex ^ 1;
+
+        WeakReference<T> firstReference = slots.get(firstIndex);
+        T firstValue = firstReference == null ? null : firstReference.get();
+        if (value.equals(firstValue)) {
+            return firstValue;
+        }
+        WeakReference<T> secondReference = slots.get(secondIndex);
+        T secondValue = secondReference == null ? null : secondReference.get();
+        if (value.equals(secondValue)) {
+            return secondValue;
+        }
+
+        // Prefer a free slot, otherwise replace the value in the first slot. Concurrent interning of the same value
+        // may store it twice, which only means that another value is replaced earlier.
+        int index = firstValue != null && secondValue == null ? secondIndex : firstIndex;
+        slots.lazySet(index, new WeakReference<>(value));
+        return value;
+    }
+
+}
@@ -1,12 +1,16 @@
 package de.btobastian.javacord.utils;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import de.btobastian.javacord.DiscordApi;
 import de.btobastian.javacord.ImplDiscordApi;
 import de.btobastian.javacord.utils.logging.LoggerUtil;
+import de.btobastian.javacord.utils.tracing.EventTrace;
 import org.slf4j.Logger;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 
@@ -47,23 +51,81 @@ public abstract class PacketHandler {
      * @param packet The packet (the "d"-object).
      */
     public void handlePacket(final JsonNode packet) {
-        if (async) {
-            executorService.submit(() -> {
-                try {
-                    handle(packet);
-                } catch (Exception e) {
-                    logger.warn("Couldn't handle packet of type {}. Please contact the developer! (packet: {})",
-                            getType(), packet.toString(), e);
+        handlePacket(packet, null);
+    }
+
+    /**
+     * Handles the packet.
+     *
+     * @param packet The packet (the "d"-object).
+     * @param trace The trace of the packet. May be <code>null</code> if the packet isn't traced.
+     */
+    public void handlePacket(final JsonNode packet, final EventTrace trace) {
+        if (!async) {
+            handleAndRecord(packet, trace);
+            return;
+        }
+        String coalescingKey = null;
+        if (executorService instanceof EventQueueExecutor) {
+            EventQueueExecutor executor = (EventQueueExecutor) executorService;
+            if (executor.getOverflowStrategy() == EventQueueOverflowStrategy.COALESCE) {
+                coalescingKey = getCoalescingKey(packet);
+                if (coalescingKey != null && executor.isFull() && mergeIntoLastTask(executor, coalescingKey, packet)) {
+                    executor.taskCoalesced();
+                    return;
                 }
-            });
-        } else {
-            try {
-                handle(packet);
-            } catch (Exception e) {
-                logger.warn("Couldn't handle packet of type {}. Please contact the developer! (packet: {})",
-                        getType(), packet.toString(), e);
             }
         }
+        PacketTask task = isLowPriority()
+                ? new LowPriorityPacketTask(packet, trace, coalescingKey)
+                : new PacketTask(packet, trace, coalescingKey);
+        // Don't use #submit(...) here, it would hide whether the task has a low priority
+        executorService.execute(task);
+    }
+
+    /**
+     * Merges the packet into the last queued packet, if it has the same coalescing key and is still waiting.
+     * Only the last packet is considered, so that merged packets never overtake other packets of the queue, which
+     * might change the same state (e.g. a member add before a presence update of the new member).
+     *
+     * @param executor The handler executor.
+     * @param coalescingKey The coalescing key of the packet.
+     * @param packet The packet (the "d"-object).
+     * @return Whether the packet was merged or not.
+     */
+    private boolean mergeIntoLastTask(EventQueueExecutor executor, String coalescingKey, JsonNode packet) {
+        Runnable lastTask = executor.getLastTask();
+        if (!(lastTask instanceof PacketTask)) {
+            return false;
+        }
+        PacketTask lastPacketTask = (PacketTask) lastTask;
+        return lastPacketTask.getHandler() == this
+                && coalescingKey.equals(lastPacketTask.coalescingKey)
+                && lastPacketTask.merge(packet);
+    }
+
+    /**
+     * Handles the packet and records the time it took.
+     *
+     * @param packet The packet (the "d"-object).
+     * @param trace The trace of the packet. May be <code>null</code> if the packet isn't traced.
+     */
+    private void handleAndRecord(JsonNode packet, EventTrace trace) {
+        if (trace != null) {
+            trace.handlerStarted();
+        }
+        long startTime = System.nanoTime();
+        try {
+            handle(packet);
+        } catch (Exception e) {
+            logger.warn("Couldn't handle packet of type {}. Please contact the developer! (packet: {})",
+                    getType(), packet, e);
+        } finally {
+            if (trace != null) {
+                trace.handlerFinished();
+            }
+        }
+        api.getMetricsRecorder().recordHandlerTime(type, System.nanoTime() - startTime);
     }
 
     /**
@@ -73,6 +135,61 @@ public abstract class PacketHandler {
      */
     protected abstract void handle(JsonNode packet);
 
+    /**
+     * Checks if the packets of this handler have a low priority.
+     * Low priority packets and their events are dropped if a queue is full and uses the
+     * {@link EventQueueOverflowStrategy#SHED_LOW_PRIORITY} strategy.
+     *
+     * @return Whether the packets of this handler have a low priority or not.
+     */
+    protected boolean isLowPriority() {
+        return false;
+    }
+
+    /**
+     * Gets the key of a packet which is used to merge it with a packet that is still waiting for the handler thread.
+     * Two packets with the same key must describe the same state, so that the newer packet can replace the older one.
+     * Only used if the handler queue uses the {@link EventQueueOverflowStrategy#COALESCE} strategy.
+     *
+     * @param packet The packet (the "d"-object).
+     * @return The key of the packet or <code>null</code> if the packet can't be merged.
+     */
+    protected String getCoalescingKey(JsonNode packet) {
+        return null;
+    }
+
+    /**
+     * Merges a newer packet into an older one.
+     * Fields of the newer packet replace the fields of the older packet as a whole. Only the user object is merged,
+     * because it's partial: fields of the older user (e.g. the name) which are missing in the newer one are kept.
+     *
+     * @param olderPacket The older packet.
+     * @param newerPacket The newer packet.
+     * @return The merged packet.
+     */
+    private static JsonNode mergePackets(JsonNode olderPacket, JsonNode newerPacket) {
+        if (!olderPacket.isObject() || !newerPacket.isObject()) {
+            return newerPacket;
+        }
+        ObjectNode mergedPacket = (ObjectNode) newerPacket;
+        Iterator<Map.Entry<String, JsonNode>> fields = olderPacket.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode newerValue = mergedPacket.get(field.getKey());
+            if (newerValue == null) {
+                mergedPacket.set(field.getKey(), field.getValue());
+            } else if (field.getKey().equals("user") && newerValue.isObject() && field.getValue().isObject()) {
+                ObjectNode mergedUser = (ObjectNode) newerValue;
+                field.getValue().fields().forEachRemaining(userField -> {
+                    if (!mergedUser.has(userField.getKey())) {
+                        mergedUser.set(userField.getKey(), userField.getValue());
+                    }
+                });
+            }
+        }
+        return mergedPacket;
+    }
+
     /**
      * Dispatches an event in a the listener thread.
      *
@@ -82,7 +199,7 @@ public abstract class PacketHandler {
      * @see DiscordWebSocketAdapter#dispatchEvent(List, Consumer)
      */
     protected <T> void dispatchEvent(List<T> listeners, Consumer<T> consumer) {
-        api.getWebSocketAdapter().dispatchEvent(listeners, consumer);
+        api.getWebSocketAdapter().dispatchEvent(listeners, consumer, isLowPriority());
     }
 
     /**
@@ -104,4 +221,95 @@ public abstract class PacketHandler {
         return obj instanceof PacketHandler && ((PacketHandler) obj).getType().equals(getType());
     }
 
+    /**
+     * A packet which waits for the handler thread.
+     */
+    private class PacketTask implements Runnable {
+
+        /**
+         * The packet (the "d"-object).
+         */
+        private JsonNode packet;
+
+        /**
+         * The trace of the packet. May be <code>null</code> if the packet isn't traced.
+         */
+        private final EventTrace trace;
+
+        /**
+         * The coalescing key of the packet. May be <code>null</code> if the packet can't be merged.
+         */
+        private final String coalescingKey;
+
+        /**
+         * Whether the handler thread already started to handle the packet.
+         */
+        private boolean started = false;
+
+        /**
+         * Creates a new packet task.
+         *
+         * @param packet The packet (the "d"-object).
+         * @param trace The trace of the packet. May be <code>null</code> if the packet isn't traced.
+         * @param coalescingKey The coalescing key of the packet. May be <code>null</code>.
+         */
+        private PacketTask(JsonNode packet, EventTrace trace, String coalescingKey) {
+            this.packet = packet;
+            this.trace = trace;
+            this.coalescingKey = coalescingKey;
+        }
+
+        /**
+         * Gets the handler of the packet.
+         *
+         * @return The handler of the packet.
+         */
+        private PacketHandler getHandler() {
+            return PacketHandler.this;
+        }
+
+        /**
+         * Merges a newer packet into the packet of this task, if it hasn't been started yet.
+         *
+         * @param newerPacket The newer packet.
+         * @return Whether the packet was merged or not.
+         */
+        private synchronized boolean merge(JsonNode newerPacket) {
+            if (started) {
+                return false;
+            }
+            packet = mergePackets(packet, newerPacket);
+            return true;
+        }
+
+        @Override
+        public void run() {
+            JsonNode packetToHandle;
+            synchronized (this) {
+                started = true;
+                packetToHandle = packet;
+            }
+            handleAndRecord(packetToHandle, trace);
+        }
+
+    }
+
+    /**
+     * A packet with a low priority which waits for the handler thread.
+     */
+    private class LowPriorityPacketTask extends PacketTask implements EventQueueExecutor.LowPriorityTask {
+
+        /**
+         * Creates a new low priority packet task.
+         *
+         * @param packet The packet (the "d"-object).
+         * @param trace The trace of the packet. May be <code>null</code> if the packet isn't traced.
+         * @param coalescingKey The coalescing key of the packet. May be <code>null</code>.
+         */
+        private LowPriorityPacketTask(JsonNode packet, EventTrace trace, String coalescingKey) {
+            super(packet, trace, coalescingKey);
+        }
+
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package de.btobastian.javacord.utils;
+
+/**
+ * This enum contains the policies of a bounded {@link ThreadPool} for tasks which are submitted while all threads are
+ * busy and the queue is full.
+ * The policies don't apply to tasks which are submitted by the scheduler thread. They are submitted again after a short
+ * delay, so that the scheduler thread is never blocked by the task and scheduled tasks are never lost.
+ */
+public enum SaturationPolicy {
+
+    /**
+     * The task is executed by the thread which submitted it.
+     * This slows down the submitter instead of losing the task.
+     */
+    CALLER_RUNS,
+
+    /**
+     * The task is rejected with a {@link java.util.concurrent.RejectedExecutionException}.
+     * Asynchronous methods of Javacord complete their futures exceptionally in this case.
+     */
+    ABORT
+
+}
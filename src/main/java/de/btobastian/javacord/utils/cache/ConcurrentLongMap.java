@@ -0,0 +1,447 @@
+package de.btobastian.javacord.utils.cache;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * A thread-safe, open addressing hash map from <code>long</code> keys to objects, which is used for the entity caches.
+ * Unlike a <code>ConcurrentHashMap&lt;Long, V&gt;</code> it neither allocates a node nor a boxed key per entry and
+ * lookups don't box the key, so it only needs about 20 bytes per entry instead of about 50 bytes.
+ * Reads are lock-free. Writes are synchronized, because the caches are mostly written by the handler thread.
+ * The key <code>0</code> is reserved to mark empty slots. <code>null</code> values are not supported.
+ *
+ * @param <V> The type of the values.
+ */
+public class ConcurrentLongMap<V> {
+
+    /**
+     * The capacity of the first table.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * The current table. <code>null</code> until the first entry is added.
+     */
+    private volatile Table<V> table = null;
+
+    /**
+     * The amount of entries.
+     */
+    private volatile int size = 0;
+
+    /**
+     * The amount of slots of the current table which have a key, including the slots of removed entries.
+     */
+    private int usedSlots = 0;
+
+    /**
+     * A view of the values of this map.
+     */
+    private final Values values = new Values();
+
+    /**
+     * Gets the value of the given key.
+     *
+     * @param key The key.
+     * @return The value or <code>null</code> if the key is not present.
+     */
+    public V get(long key) {
+        Table<V> table = this.table;
+        return table == null ? null : table.get(key);
+    }
+
+    /**
+     * Checks if the map contains the given key.
+     *
+     * @param key The key.
+     * @return Whether the map contains the key or not.
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associates the given value with the given key.
+     *
+     * @param key The key. Must not be <code>0</code>.
+     * @param value The value. Must not be <code>null</code>.
+     * @return The previous value of the key or <code>null</code> if the key was not present.
+     */
+    public synchronized V put(long key, V value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("The key 0 is reserved!");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("The value cannot be null!");
+        }
+        Table<V> table = this.table;
+        if (table == null) {
+            table = new Table<>(INITIAL_CAPACITY);
+            this.table = table;
+        }
+        int slot = table.slot(key);
+        long currentKey;
+        while ((currentKey = table.keys.get(slot)) != 0 && currentKey != key) {
+            slot = (slot + 1) & table.mask;
+        }
+        if (currentKey == key) {
+            V previousValue = table.values.getAndSet(slot, value);
+            if (previousValue == null) {
+                // The key was removed before
+                size++;
+            }
+            return previousValue;
+        }
+        // The value must be visible before the key, because readers only look at the value of matching keys
+        table.values.set(slot, value);
+        table.keys.set(slot, key);
+        size++;
+        if (++usedSlots * 4 > table.capacity() * 3) {
+            resize();
+        }
+        return null;
+    }
+
+    /**
+     * Gets the value of the given key or computes and adds it, if the key is not present.
+     * The mapping function is called while holding the lock of this map, so it must not modify this map.
+     *
+     * @param key The key. Must not be <code>0</code>.
+     * @param mappingFunction The function which computes the value. Must not return <code>null</code>.
+     * @return The current value of the key.
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        synchronized (this) {
+            value = get(key);
+            if (value == null) {
+                value = mappingFunction.apply(key);
+                put(key, value);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Removes the given key.
+     *
+     * @param key The key.
+     * @return The removed value or <code>null</code> if the key was not present.
+     */
+    public synchronized V remove(long key) {
+        Table<V> table = this.table;
+        if (table == null) {
+            return null;
+        }
+        int slot = table.find(key);
+        if (slot < 0) {
+            return null;
+        }
+        // The key stays in the slot, so the probe sequences of other keys are not interrupted
+        V previousValue = table.values.getAndSet(slot, null);
+        if (previousValue != null) {
+            size--;
+        }
+        return previousValue;
+    }
+
+    /**
+     * Removes the given key if it is associated with the given value.
+     *
+     * @param key The key.
+     * @param value The expected value.
+     * @return Whether the key was removed or not.
+     */
+    public synchronized boolean remove(long key, V value) {
+        Table<V> table = this.table;
+        if (table == null || value == null) {
+            return false;
+        }
+        int slot = table.find(key);
+        if (slot < 0 || !table.values.compareAndSet(slot, value, null)) {
+            return false;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Gets the amount of entries.
+     *
+     * @return The amount of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return Whether the map is empty or not.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void clear() {
+        table = null;
+        size = 0;
+        usedSlots = 0;
+    }
+
+    /**
+     * Gets a view of the values of this map.
+     * The view is backed by the map and its iterators are weakly consistent, like the ones of a
+     * <code>ConcurrentHashMap</code>: they never throw a {@link java.util.ConcurrentModificationException} and may or
+     * may not reflect changes after their creation. Values can be removed with {@link Iterator#remove()}.
+     *
+     * @return The values of this map.
+     */
+    public Collection<V> values() {
+        return values;
+    }
+
+    /**
+     * Replaces the table with a new table which only contains the present entries.
+     * The new table is at most half full, so the removed entries are cleaned up, too.
+     */
+    private void resize() {
+        Table<V> oldTable = table;
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < size * 2) {
+            capacity *= 2;
+        }
+        Table<V> newTable = new Table<>(capacity);
+        for (int i = 0; i < oldTable.capacity(); i++) {
+            V value = oldTable.values.get(i);
+            if (value != null) {
+                long key = oldTable.keys.get(i);
+                int slot = newTable.slot(key);
+                while (newTable.keys.get(slot) != 0) {
+                    slot = (slot + 1) & newTable.mask;
+                }
+                newTable.values.lazySet(slot, value);
+                newTable.keys.lazySet(slot, key);
+            }
+        }
+        usedSlots = size;
+        // Publishing the table with a volatile write makes all of its slots visible
+        table = newTable;
+    }
+
+    /**
+     * The table of a map. The key of a slot never changes once it's set, only its value.
+     *
+     * @param <V> The type of the values.
+     */
+    private static class Table<V> {
+
+        /**
+         * The keys of the slots. <code>0</code> marks an empty slot.
+         */
+        private final AtomicLongArray keys;
+
+        /**
+         * The values of the slots. <code>null</code> marks an empty slot or a removed entry.
+         */
+        private final AtomicReferenceArray<V> values;
+
+        /**
+         * The mask which is used to map a hash to a slot.
+         */
+        private final int mask;
+
+        /**
+         * Creates a new table.
+         *
+         * @param capacity The capacity. Must be a power of two.
+         */
+        private Table(int capacity) {
+            keys = new AtomicLongArray(capacity);
+            values = new AtomicReferenceArray<>(capacity);
+            mask = capacity - 1;
+        }
+
+        /**
+         * Gets the capacity of the table.
+         *
+         * @return The capacity of the table.
+         */
+        private int capacity() {
+            return mask + 1;
+        }
+
+        /**
+         * Gets the value of the given key.
+         *
+         * @param key The key.
+         * @return The value or <code>null</code> if the key is not present.
+         */
+        private V get(long key) {
+            int slot = find(key);
+            return slot < 0 ? null : values.get(slot);
+        }
+
+        /**
+         * Finds the slot of the given key.
+         *
+         * @param key The key.
+         * @return The slot of the key or <code>-1</code> if the key is not present.
+         */
+        private int find(long key) {
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                long currentKey = keys.get(slot);
+                if (currentKey == key) {
+                    return slot;
+                }
+                if (currentKey == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        /**
+         * Gets the home slot of the given key.
+         *
+         * @param key The key.
+         * @return The home slot of the key.
+         */
+        private int slot(long key) {
+            long hash = key * 0x9e3779b97f4a7c15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+    }
+
+    /**
+     * The view of the values of a map.
+     */
+    private class Values extends AbstractCollection<V> {
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator(table);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentLongMap.this.clear();
+        }
+
+    }
+
+    /**
+     * An iterator over the values of a table.
+     */
+    private class ValueIterator implements Iterator<V> {
+
+        /**
+         * The table. May be <code>null</code> if the map was empty.
+         */
+        private final Table<V> table;
+
+        /**
+         * The slot of the next value.
+         */
+        private int nextSlot = -1;
+
+        /**
+         * The key of the next value.
+         */
+        private long nextKey;
+
+        /**
+         * The next value. <code>null</code> if there are no more values.
+         */
+        private V nextValue;
+
+        /**
+         * The key of the last returned value. <code>0</code> if no value was returned or it was removed.
+         */
+        private long lastKey = 0;
+
+        /**
+         * The last returned value.
+         */
+        private V lastValue;
+
+        /**
+         * Creates a new iterator.
+         *
+         * @param table The table. May be <code>null</code> if the map is empty.
+         */
+        private ValueIterator(Table<V> table) {
+            this.table = table;
+            advance();
+        }
+
+        /**
+         * Moves to the next present value.
+         */
+        private void advance() {
+            nextValue = null;
+            if (table == null) {
+                return;
+            }
+            while (++nextSlot < table.capacity()) {
+                V value = table.values.get(nextSlot);
+                long key = table.keys.get(nextSlot);
+                // A value without a key is just being added, so it's skipped like a value added after this slot
+                if (value != null && key != 0) {
+                    nextKey = key;
+                    nextValue = value;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextValue != null;
+        }
+
+        @Override
+        public V next() {
+            if (nextValue == null) {
+                throw new NoSuchElementException();
+            }
+            lastKey = nextKey;
+            lastValue = nextValue;
+            advance();
+            return lastValue;
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == 0) {
+                throw new IllegalStateException();
+            }
+            ConcurrentLongMap.this.remove(lastKey, lastValue);
+            lastKey = 0;
+            lastValue = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,136 @@
+package de.btobastian.javacord.utils.cache;
+
+/**
+ * A count-min sketch with 4-bit counters which is used to estimate how often a message was accessed recently.
+ * The counters are periodically halved, so the sketch "forgets" old accesses and favours recent popularity.
+ * This is the frequency part of the W-TinyLFU admission policy used by the {@link GlobalMessageCache}.
+ * The sketch is not thread-safe, it must be guarded by the cache it belongs to.
+ */
+class FrequencySketch {
+
+    /**
+     * Seeds used to calculate the four counter positions of an item.
+     */
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    /**
+     * The maximum amount of entries the sketch is sized for, which limits the table to 32 MiB.
+     */
+    private static final int MAXIMUM_ENTRIES = 1 << 22;
+
+    /**
+     * A mask to halve all 16 counters of a long at once.
+     */
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    /**
+     * The table with the counters. Every long contains 16 counters with 4 bits each.
+     */
+    private long[] table = new long[0];
+
+    /**
+     * The mask which is used to map a hash to an index of the table.
+     */
+    private int tableMask;
+
+    /**
+     * The amount of increments after which all counters are halved.
+     */
+    private int sampleSize;
+
+    /**
+     * The amount of increments since the last reset.
+     */
+    private int size;
+
+    /**
+     * Creates a new frequency sketch.
+     *
+     * @param maximumEntries The expected maximum amount of entries in the cache.
+     */
+    FrequencySketch(long maximumEntries) {
+        ensureCapacity(maximumEntries);
+    }
+
+    /**
+     * Resizes the sketch to fit the given amount of entries.
+     * Resizing clears all previously collected frequencies.
+     *
+     * @param maximumEntries The expected maximum amount of entries in the cache.
+     */
+    void ensureCapacity(long maximumEntries) {
+        int maximum = (int) Math.min(Math.max(maximumEntries, 16), MAXIMUM_ENTRIES);
+        int length = Integer.highestOneBit(maximum - 1) << 1;
+        if (table.length >= length) {
+            return;
+        }
+        table = new long[length];
+        tableMask = length - 1;
+        sampleSize = 10 * maximum;
+        size = 0;
+    }
+
+    /**
+     * Estimates how often the given message id was accessed recently.
+     *
+     * @param id The id of the message.
+     * @return The estimated frequency, between <code>0</code> and <code>15</code>.
+     */
+    int frequency(long id) {
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = hash(id, i);
+            int index = (int) (hash & tableMask);
+            int offset = (int) ((hash >>> 32) & 15) << 2;
+            frequency = Math.min(frequency, (int) ((table[index] >>> offset) & 0xfL));
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the popularity of the given message id.
+     *
+     * @param id The id of the message.
+     */
+    void increment(long id) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = hash(id, i);
+            int index = (int) (hash & tableMask);
+            int offset = (int) ((hash >>> 32) & 15) << 2;
+            long mask = 0xfL << offset;
+            if ((table[index] & mask) != mask) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Halves all counters.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size >>>= 1;
+    }
+
+    /**
+     * Calculates the i-th hash of the given id.
+     *
+     * @param id The id.
+     * @param i The index of the seed to use.
+     * @return The hash.
+     */
+    private static long hash(long id, int i) {
+        long hash = (id + SEEDS[i]) * SEEDS[i];
+        return hash ^ (hash >>> 29);
+    }
+
+}
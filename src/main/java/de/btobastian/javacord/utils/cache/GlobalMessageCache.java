@@ -0,0 +1,768 @@
+package de.btobastian.javacord.utils.cache;
+
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.entities.channels.TextChannel;
+import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.entities.message.impl.ImplMessage;
+import de.btobastian.javacord.utils.logging.LoggerUtil;
+import de.btobastian.javacord.utils.metrics.MetricsCache;
+import org.slf4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The message cache which holds all cached messages of all channels.
+ * The cache is bounded by the estimated amount of memory the messages retain and uses a W-TinyLFU policy:
+ * New messages enter a small LRU admission window. When they leave the window, they only replace a message of the
+ * main space if they were accessed more often recently, so rarely accessed messages don't flush popular ones.
+ * The per-channel {@link MessageCache message caches} are quotas which are enforced on top of this cache.
+ * Optionally, evicted and deleted messages are moved into an {@link OffHeapMessageStore} and restored from it on
+ * access.
+ * Lookups don't take the lock of this cache. Their accesses are recorded in a {@link ReadBuffer} and applied to the
+ * eviction policy in batches, either by the next write or by a task on the executor service once the buffer is full.
+ */
+public class GlobalMessageCache implements MessageCache {
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(GlobalMessageCache.class);
+
+    /**
+     * The percentage of the maximum size which is used for the admission window.
+     */
+    private static final double WINDOW_PERCENTAGE = 0.01;
+
+    /**
+     * The percentage of the main space which is used for the protected segment.
+     */
+    private static final double PROTECTED_PERCENTAGE = 0.8;
+
+    /**
+     * The average size of a message which is used to size the frequency sketch.
+     */
+    private static final int AVERAGE_MESSAGE_SIZE = 1024;
+
+    /**
+     * The discord api instance.
+     */
+    private final DiscordApi api;
+
+    /**
+     * A map with all cached messages. The key is the id of the message.
+     */
+    private final ConcurrentLongMap<MessageCacheEntry> entries = new ConcurrentLongMap<>();
+
+    /**
+     * The admission window.
+     */
+    private final EntryQueue window = new EntryQueue();
+
+    /**
+     * The probation segment of the main space.
+     */
+    private final EntryQueue probation = new EntryQueue();
+
+    /**
+     * The protected segment of the main space.
+     */
+    private final EntryQueue protectedSegment = new EntryQueue();
+
+    /**
+     * The sketch which estimates the access frequency of messages.
+     */
+    private final FrequencySketch sketch;
+
+    /**
+     * The buffer which records the accesses of lookups until they are applied to the eviction policy.
+     */
+    private final ReadBuffer<MessageCacheEntry> readBuffer = new ReadBuffer<>();
+
+    /**
+     * Whether a task which drains the read buffer is scheduled or not.
+     */
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    /**
+     * The amount of lookups which found a message.
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * The amount of lookups which didn't find a message.
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * The amount of evicted messages.
+     */
+    private volatile long evictionCount = 0;
+
+    /**
+     * The estimated size of all cached messages in bytes.
+     */
+    private volatile long estimatedSize = 0;
+
+    /**
+     * The maximum estimated size of all cached messages in bytes.
+     */
+    private volatile long maximumEstimatedSize;
+
+    /**
+     * The maximum amount of cached messages.
+     */
+    private volatile int capacity = Integer.MAX_VALUE;
+
+    /**
+     * The maximum age of cached messages.
+     */
+    private volatile int storageTimeInSeconds = Integer.MAX_VALUE;
+
+    /**
+     * The store for evicted messages. Might be <code>null</code>.
+     */
+    private volatile OffHeapMessageStore offHeapStore = null;
+
+    /**
+     * Creates a new global message cache.
+     *
+     * @param api The discord api instance.
+     * @param maximumEstimatedSize The maximum estimated size of all cached messages in bytes.
+     */
+    public GlobalMessageCache(DiscordApi api, long maximumEstimatedSize) {
+        this.api = api;
+        this.maximumEstimatedSize = Math.max(maximumEstimatedSize, 0);
+        this.sketch = new FrequencySketch(this.maximumEstimatedSize / AVERAGE_MESSAGE_SIZE);
+
+        api.getThreadPool().getScheduler().scheduleWithFixedDelay(this::clean, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Adds a message to the cache.
+     * If the message is already cached, this method does nothing.
+     *
+     * @param channelCache The message cache of the message's channel.
+     * @param message The message to add.
+     */
+    public synchronized void addMessage(ImplMessageCache channelCache, Message message) {
+        if (entries.containsKey(message.getId())) {
+            return;
+        }
+        int size = message instanceof ImplMessage ? ((ImplMessage) message).getEstimatedSize() : AVERAGE_MESSAGE_SIZE;
+        MessageCacheEntry entry = new MessageCacheEntry(message, channelCache, size);
+        entries.put(message.getId(), entry);
+        estimatedSize += size;
+        channelCache.link(entry);
+        sketch.increment(entry.getId());
+
+        if (message.isCachedForever()) {
+            entry.queue = MessageCacheEntry.PINNED;
+            channelCache.pin();
+        } else {
+            window.addLast(entry);
+            trimChannel(channelCache);
+        }
+        evict();
+    }
+
+    /**
+     * Gets a cached message by its id and records the access for the eviction policy and the statistics.
+     * If the message is not cached, but in the off-heap store, it is restored into this cache.
+     *
+     * @param id The id of the message.
+     * @return The cached message.
+     */
+    public Optional<Message> getMessageById(long id) {
+        MessageCacheEntry entry = entries.get(id);
+        if (entry == null) {
+            missCount.increment();
+            api.getMetricsRecorder().recordCacheAccess(MetricsCache.MESSAGES, false);
+            return restore(id);
+        }
+        hitCount.increment();
+        api.getMetricsRecorder().recordCacheAccess(MetricsCache.MESSAGES, true);
+        entry.channelCache.recordHit();
+        if (readBuffer.offer(entry)) {
+            scheduleDrain();
+        }
+        return Optional.of(entry.message);
+    }
+
+    /**
+     * Updates the estimated size of a cached message after it was changed, e.g. by an edit or a new reaction.
+     *
+     * @param message The changed message.
+     */
+    public synchronized void updateEstimatedSize(Message message) {
+        MessageCacheEntry entry = entries.get(message.getId());
+        if (entry == null || entry.message != message || !(message instanceof ImplMessage)) {
+            return;
+        }
+        int sizeDelta = ((ImplMessage) message).getEstimatedSize() - entry.size;
+        if (sizeDelta == 0) {
+            return;
+        }
+        if (entry.queue != MessageCacheEntry.PINNED) {
+            queueOf(entry).size += sizeDelta;
+        }
+        entry.channelCache.addEstimatedSize(sizeDelta);
+        entry.size += sizeDelta;
+        estimatedSize += sizeDelta;
+        evict();
+    }
+
+    /**
+     * Gets a cached message by its id without recording the access.
+     *
+     * @param id The id of the message.
+     * @return The cached message.
+     */
+    public Optional<Message> peekMessageById(long id) {
+        MessageCacheEntry entry = entries.get(id);
+        return entry == null ? Optional.empty() : Optional.of(entry.message);
+    }
+
+    /**
+     * Gets a collection with all cached messages.
+     *
+     * @return A collection with all cached messages.
+     */
+    public Collection<Message> getMessages() {
+        Collection<Message> messages = new ArrayList<>(entries.size());
+        for (MessageCacheEntry entry : entries.values()) {
+            messages.add(entry.message);
+        }
+        return Collections.unmodifiableCollection(messages);
+    }
+
+    /**
+     * Updates whether a cached message is cached forever.
+     * Messages which are cached forever are never evicted, but still count towards the maximum size.
+     *
+     * @param message The message.
+     * @param cachedForever Whether the message is cached forever or not.
+     */
+    public synchronized void setCachedForever(Message message, boolean cachedForever) {
+        MessageCacheEntry entry = entries.get(message.getId());
+        if (entry == null || (entry.queue == MessageCacheEntry.PINNED) == cachedForever) {
+            return;
+        }
+        if (cachedForever) {
+            queueOf(entry).unlink(entry);
+            entry.queue = MessageCacheEntry.PINNED;
+            entry.channelCache.pin();
+        } else {
+            entry.queue = MessageCacheEntry.PROBATION;
+            probation.addLast(entry);
+            entry.channelCache.unpin();
+            trimChannel(entry.channelCache);
+            evict();
+        }
+    }
+
+    /**
+     * Gets the store for evicted messages.
+     *
+     * @return The store for evicted messages.
+     */
+    public Optional<OffHeapMessageStore> getOffHeapStore() {
+        return Optional.ofNullable(offHeapStore);
+    }
+
+    /**
+     * Sets the store for evicted messages.
+     * If a store is set, messages which are evicted or deleted are moved into the store instead of being dropped.
+     *
+     * @param offHeapStore The store or <code>null</code> to drop evicted messages.
+     */
+    public void setOffHeapStore(OffHeapMessageStore offHeapStore) {
+        this.offHeapStore = offHeapStore;
+    }
+
+    /**
+     * Removes all messages from the cache.
+     * The off-heap store is not cleared.
+     */
+    public synchronized void clear() {
+        for (MessageCacheEntry entry : entries.values()) {
+            entry.channelCache.unlink(entry);
+        }
+        entries.clear();
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+        estimatedSize = 0;
+    }
+
+    /**
+     * Cleans the cache.
+     * This removes deleted messages, messages which are older than the storage time of their channel or this cache,
+     * and enforces the capacity of every channel's message cache.
+     */
+    public synchronized void clean() {
+        long now = System.currentTimeMillis();
+        Instant globalMinAge = Instant.ofEpochMilli(now - storageTimeInSeconds * 1000L);
+        Set<ImplMessageCache> channelCaches = new HashSet<>();
+        Iterator<MessageCacheEntry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            MessageCacheEntry entry = iterator.next();
+            Message message = entry.message;
+            if (message.isDeleted()) {
+                iterator.remove();
+                removeEntry(entry);
+                continue;
+            }
+            channelCaches.add(entry.channelCache);
+            if (entry.queue == MessageCacheEntry.PINNED) {
+                continue;
+            }
+            Instant channelMinAge = Instant.ofEpochMilli(now - entry.channelCache.getStorageTimeInSeconds() * 1000L);
+            Instant creation = message.getCreationTimestamp();
+            if (creation.isBefore(globalMinAge) || creation.isBefore(channelMinAge)) {
+                iterator.remove();
+                removeEntry(entry);
+                recordEviction(entry);
+            }
+        }
+        channelCaches.forEach(this::trimChannel);
+        evict();
+        OffHeapMessageStore store = offHeapStore;
+        if (store != null) {
+            store.clean();
+        }
+    }
+
+    /**
+     * Gets the maximum estimated size of all cached messages in bytes.
+     *
+     * @return The maximum estimated size of all cached messages in bytes.
+     */
+    public long getMaximumEstimatedSize() {
+        return maximumEstimatedSize;
+    }
+
+    /**
+     * Sets the maximum estimated size of all cached messages in bytes.
+     * Messages which are cached forever are included in this limit, but are never evicted.
+     *
+     * @param maximumEstimatedSize The maximum estimated size of all cached messages in bytes.
+     */
+    public synchronized void setMaximumEstimatedSize(long maximumEstimatedSize) {
+        this.maximumEstimatedSize = Math.max(maximumEstimatedSize, 0);
+        sketch.ensureCapacity(this.maximumEstimatedSize / AVERAGE_MESSAGE_SIZE);
+        evict();
+    }
+
+    /**
+     * Gets the capacity of the cache.
+     * This is the total amount of messages in all channels, not including messages which are cached forever.
+     *
+     * @return The capacity of the cache.
+     */
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public synchronized void setCapacity(int capacity) {
+        this.capacity = capacity >= 0 ? capacity : 0;
+        evict();
+    }
+
+    @Override
+    public int getStorageTimeInSeconds() {
+        return storageTimeInSeconds;
+    }
+
+    @Override
+    public void setStorageTimeInSeconds(int storageTimeInSeconds) {
+        this.storageTimeInSeconds = storageTimeInSeconds >= 0 ? storageTimeInSeconds : 0;
+    }
+
+    @Override
+    public int getSize() {
+        return entries.size();
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hits = hitCount.sum();
+        long requests = hits + missCount.sum();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    /**
+     * Schedules a task which drains the read buffer, unless one is already scheduled.
+     */
+    private void scheduleDrain() {
+        if (!drainScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            api.getThreadPool().getExecutorService().execute(() -> {
+                synchronized (this) {
+                    evict();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The buffer is drained by the next write instead
+            drainScheduled.set(false);
+        }
+    }
+
+    /**
+     * Applies the accesses which were recorded in the read buffer to the eviction policy.
+     */
+    private void drainReadBuffer() {
+        drainScheduled.set(false);
+        readBuffer.drainTo(entry -> {
+            // The entry might have been removed since it was accessed
+            if (entries.get(entry.getId()) == entry) {
+                onAccess(entry);
+            }
+        });
+    }
+
+    /**
+     * Records an access of the given entry.
+     *
+     * @param entry The accessed entry.
+     */
+    private void onAccess(MessageCacheEntry entry) {
+        sketch.increment(entry.getId());
+        switch (entry.queue) {
+            case MessageCacheEntry.WINDOW:
+                window.moveToLast(entry);
+                break;
+            case MessageCacheEntry.PROBATION:
+                // A second access promotes the entry into the protected segment
+                probation.unlink(entry);
+                entry.queue = MessageCacheEntry.PROTECTED;
+                protectedSegment.addLast(entry);
+                long protectedMaximum = (long) ((maximumEstimatedSize - getWindowMaximum()) * PROTECTED_PERCENTAGE);
+                while (protectedSegment.size > protectedMaximum && protectedSegment.head != entry) {
+                    MessageCacheEntry demoted = protectedSegment.head;
+                    protectedSegment.unlink(demoted);
+                    demoted.queue = MessageCacheEntry.PROBATION;
+                    probation.addLast(demoted);
+                }
+                break;
+            case MessageCacheEntry.PROTECTED:
+                protectedSegment.moveToLast(entry);
+                break;
+            default:
+                // Pinned entries are not part of the eviction policy
+                break;
+        }
+    }
+
+    /**
+     * Evicts messages until the cache doesn't exceed its maximum size and capacity anymore.
+     */
+    private void evict() {
+        drainReadBuffer();
+
+        // Move the overflow of the window into the probation segment, where it has to compete for admission
+        int candidates = 0;
+        while (window.size > getWindowMaximum() && window.head != null) {
+            MessageCacheEntry entry = window.head;
+            window.unlink(entry);
+            entry.queue = MessageCacheEntry.PROBATION;
+            probation.addLast(entry);
+            candidates++;
+        }
+
+        // The candidates are at the tail of the probation segment, the victims at its head
+        MessageCacheEntry victim = probation.head;
+        MessageCacheEntry candidate = candidates > 0 ? probation.tail : null;
+        while (isOverflowing()) {
+            if (victim == null && candidate == null) {
+                MessageCacheEntry entry = protectedSegment.head != null ? protectedSegment.head : window.head;
+                if (entry == null) {
+                    // Only pinned messages left
+                    return;
+                }
+                evictEntry(entry);
+                continue;
+            }
+            if (candidate == null || candidate == victim) {
+                MessageCacheEntry next = victim.next;
+                evictEntry(victim);
+                victim = next;
+                candidate = null;
+                continue;
+            }
+            if (victim == null) {
+                victim = candidate;
+                candidate = null;
+                continue;
+            }
+            // Admit the candidate only if it's more popular than the victim
+            boolean admit = sketch.frequency(candidate.getId()) > sketch.frequency(victim.getId());
+            MessageCacheEntry nextVictim = victim.next;
+            MessageCacheEntry nextCandidate = --candidates > 0 ? candidate.previous : null;
+            MessageCacheEntry evicted = admit ? victim : candidate;
+            evictEntry(evicted);
+            if (admit) {
+                victim = nextVictim;
+            }
+            candidate = nextCandidate == evicted ? null : nextCandidate;
+        }
+    }
+
+    /**
+     * Evicts the oldest messages (the ones with the smallest ids) of a channel until it doesn't exceed its capacity
+     * anymore.
+     *
+     * @param channelCache The message cache of the channel.
+     */
+    private void trimChannel(ImplMessageCache channelCache) {
+        MessageCacheEntry entry = channelCache.head;
+        while (entry != null && channelCache.getEvictableSize() > channelCache.getCapacity()) {
+            MessageCacheEntry next = entry.channelNext;
+            if (entry.queue != MessageCacheEntry.PINNED) {
+                evictEntry(entry);
+            }
+            entry = next;
+        }
+    }
+
+    /**
+     * Checks if the cache exceeds its maximum size or capacity.
+     *
+     * @return Whether the cache exceeds its maximum size or capacity.
+     */
+    private boolean isOverflowing() {
+        return estimatedSize > maximumEstimatedSize
+                || window.count + probation.count + protectedSegment.count > capacity;
+    }
+
+    /**
+     * Gets the maximum size of the admission window in bytes.
+     *
+     * @return The maximum size of the admission window.
+     */
+    private long getWindowMaximum() {
+        return Math.max(1, (long) (maximumEstimatedSize * WINDOW_PERCENTAGE));
+    }
+
+    /**
+     * Evicts the given entry.
+     *
+     * @param entry The entry to evict.
+     */
+    private void evictEntry(MessageCacheEntry entry) {
+        entries.remove(entry.getId());
+        removeEntry(entry);
+        recordEviction(entry);
+    }
+
+    /**
+     * Unlinks the given entry from all queues and lists and moves the message into the off-heap store.
+     * The entry must be removed from {@link #entries} by the caller.
+     *
+     * @param entry The entry to remove.
+     */
+    private void removeEntry(MessageCacheEntry entry) {
+        if (entry.queue != MessageCacheEntry.PINNED) {
+            queueOf(entry).unlink(entry);
+        }
+        entry.channelCache.unlink(entry);
+        estimatedSize -= entry.size;
+        spill(entry.message);
+    }
+
+    /**
+     * Moves the given message into the off-heap store, if there is one.
+     *
+     * @param message The message.
+     */
+    private void spill(Message message) {
+        OffHeapMessageStore store = offHeapStore;
+        if (store == null || !(message instanceof ImplMessage)) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream record = new DataOutputStream(bytes)) {
+            record.writeLong(message.getChannel().getId());
+            ((ImplMessage) message).writeRecord(record);
+        } catch (IOException e) {
+            logger.warn("Could not serialize message! Please contact the developer!", e);
+            return;
+        }
+        store.put(message.getId(), bytes.toByteArray());
+    }
+
+    /**
+     * Restores a message from the off-heap store into this cache.
+     *
+     * @param id The id of the message.
+     * @return The restored message.
+     */
+    private Optional<Message> restore(long id) {
+        OffHeapMessageStore store = offHeapStore;
+        Optional<byte[]> bytes = store == null ? Optional.empty() : store.get(id);
+        if (!bytes.isPresent()) {
+            return Optional.empty();
+        }
+        Message message;
+        try (DataInputStream record = new DataInputStream(new ByteArrayInputStream(bytes.get()))) {
+            Optional<TextChannel> channel = api.getTextChannelById(record.readLong());
+            if (!channel.isPresent()) {
+                return Optional.empty();
+            }
+            message = new ImplMessage(channel.get(), record);
+        } catch (IOException e) {
+            logger.warn("Could not deserialize message! Please contact the developer!", e);
+            return Optional.empty();
+        }
+        // Another thread might have restored the message at the same time
+        return Optional.of(peekMessageById(id).orElse(message));
+    }
+
+    /**
+     * Records the eviction of the given entry.
+     *
+     * @param entry The evicted entry.
+     */
+    private void recordEviction(MessageCacheEntry entry) {
+        evictionCount++;
+        entry.channelCache.recordEviction();
+    }
+
+    /**
+     * Gets the queue of the eviction policy the given entry is linked into.
+     *
+     * @param entry The entry.
+     * @return The queue of the entry.
+     */
+    private EntryQueue queueOf(MessageCacheEntry entry) {
+        switch (entry.queue) {
+            case MessageCacheEntry.WINDOW:
+                return window;
+            case MessageCacheEntry.PROBATION:
+                return probation;
+            case MessageCacheEntry.PROTECTED:
+                return protectedSegment;
+            default:
+                throw new IllegalStateException("Pinned entries are not linked into a queue!");
+        }
+    }
+
+    /**
+     * A doubly linked queue of entries which is ordered by the last access.
+     */
+    private static class EntryQueue {
+
+        /**
+         * The least recently used entry.
+         */
+        MessageCacheEntry head;
+
+        /**
+         * The most recently used entry.
+         */
+        MessageCacheEntry tail;
+
+        /**
+         * The estimated size of all entries in bytes.
+         */
+        long size;
+
+        /**
+         * The amount of entries.
+         */
+        int count;
+
+        /**
+         * Adds an entry as the most recently used entry.
+         *
+         * @param entry The entry to add.
+         */
+        void addLast(MessageCacheEntry entry) {
+            entry.previous = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+            size += entry.size;
+            count++;
+        }
+
+        /**
+         * Removes an entry from the queue.
+         *
+         * @param entry The entry to remove.
+         */
+        void unlink(MessageCacheEntry entry) {
+            if (entry.previous == null) {
+                head = entry.next;
+            } else {
+                entry.previous.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.previous;
+            } else {
+                entry.next.previous = entry.previous;
+            }
+            entry.previous = null;
+            entry.next = null;
+            size -= entry.size;
+            count--;
+        }
+
+        /**
+         * Marks an entry as the most recently used entry.
+         *
+         * @param entry The entry.
+         */
+        void moveToLast(MessageCacheEntry entry) {
+            if (tail != entry) {
+                unlink(entry);
+                addLast(entry);
+            }
+        }
+
+        /**
+         * Removes all entries from the queue.
+         */
+        void clear() {
+            head = null;
+            tail = null;
+            size = 0;
+            count = 0;
+        }
+
+    }
+
+}
@@ -1,41 +1,67 @@
 package de.btobastian.javacord.utils.cache;
 
 import de.btobastian.javacord.DiscordApi;
-import de.btobastian.javacord.ImplDiscordApi;
 import de.btobastian.javacord.entities.message.Message;
-import de.btobastian.javacord.entities.message.impl.ImplMessage;
 
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * The implementation of {@link MessageCache}.
+ * This is the message cache of a single channel. It does not store messages itself, but is a quota on top of the
+ * {@link GlobalMessageCache} which links the messages of the channel ordered by their id.
  */
 public class ImplMessageCache implements MessageCache {
 
     /**
-     * A list with all messages.
+     * The global message cache which holds the messages.
      */
-    private final List<Message> messages = new ArrayList<>();
+    private final GlobalMessageCache globalCache;
 
     /**
-     * The discord api instance.
+     * The maximum amount of stored messages.
      */
-    private final ImplDiscordApi api;
+    private volatile int capacity;
 
     /**
-     * The maximum amount of stored messages.
+     * The time how long messages should be cached.
      */
-    private int capacity;
+    private volatile int storageTimeInSeconds;
 
     /**
-     * The time how long messages should be cached.
+     * The entries with the smallest and the largest id of this channel. Guarded by the global message cache.
      */
-    private int storageTimeInSeconds;
+    MessageCacheEntry head, tail;
+
+    /**
+     * The amount of cached messages. Guarded by the global message cache.
+     */
+    private volatile int size = 0;
+
+    /**
+     * The amount of messages which are cached forever. Guarded by the global message cache.
+     */
+    private int pinnedSize = 0;
+
+    /**
+     * The estimated size of all cached messages in bytes. Guarded by the global message cache.
+     */
+    private volatile long estimatedSize = 0;
+
+    /**
+     * The amount of lookups which found a message of this channel.
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * The amount of lookups which didn't find a message of this channel.
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * The amount of evicted messages of this channel.
+     */
+    private final LongAdder evictionCount = new LongAdder();
 
     /**
      * Creates a new message cache.
@@ -45,11 +71,9 @@ public class ImplMessageCache implements MessageCache {
      * @param storageTimeInSeconds The storage time in seconds.
      */
     public ImplMessageCache(DiscordApi api, int capacity, int storageTimeInSeconds) {
-        this.api = (ImplDiscordApi) api;
+        this.globalCache = api.getMessageCache();
         this.capacity = capacity;
         this.storageTimeInSeconds = storageTimeInSeconds;
-
-        api.getThreadPool().getScheduler().scheduleWithFixedDelay(this::clean, 1, 1, TimeUnit.MINUTES);
     }
 
     /**
@@ -58,52 +82,128 @@ public class ImplMessageCache implements MessageCache {
      * @param message The message to add.
      */
     public void addMessage(Message message) {
-        synchronized (messages) {
-            api.addMessageToCache(message);
-            if (messages.contains(message)) {
-                return;
-            }
-            // Add the message in the correct order
-            int pos = Collections.binarySearch(messages, message);
-            if (pos < 0) {
-                pos = -pos-1;
-            }
-            messages.add(pos, message);
+        globalCache.addMessage(this, message);
+    }
+
+    /**
+     * Gets the newest cached message of this channel, i.e. the one with the largest id.
+     * This method does not lock the cache, so the result is only a hint which might already be outdated.
+     *
+     * @return The newest cached message.
+     */
+    public Optional<Message> getNewestMessage() {
+        MessageCacheEntry entry = tail;
+        return entry == null ? Optional.empty() : Optional.of(entry.message);
+    }
+
+    /**
+     * Records a lookup which didn't find a message of this channel.
+     */
+    public void recordMiss() {
+        missCount.increment();
+    }
+
+    /**
+     * Records a lookup which found a message of this channel.
+     */
+    void recordHit() {
+        hitCount.increment();
+    }
+
+    /**
+     * Records the eviction of a message of this channel.
+     */
+    void recordEviction() {
+        evictionCount.increment();
+    }
+
+    /**
+     * Links the given entry ordered by its id.
+     * New messages are usually the newest ones, so the position is searched from the tail. This keeps appending
+     * cheap while messages from the history are still linked before the newer ones.
+     *
+     * @param entry The entry to link.
+     */
+    void link(MessageCacheEntry entry) {
+        long id = entry.getId();
+        MessageCacheEntry previous = tail;
+        while (previous != null && previous.getId() > id) {
+            previous = previous.channelPrevious;
+        }
+        MessageCacheEntry next = previous == null ? head : previous.channelNext;
+        entry.channelPrevious = previous;
+        entry.channelNext = next;
+        if (previous == null) {
+            head = entry;
+        } else {
+            previous.channelNext = entry;
         }
+        if (next == null) {
+            tail = entry;
+        } else {
+            next.channelPrevious = entry;
+        }
+        size++;
+        estimatedSize += entry.size;
     }
 
     /**
-     * Cleans the cache.
-     */
-    public void clean() {
-        Instant minAge = Instant.ofEpochMilli(System.currentTimeMillis() - storageTimeInSeconds * 1000);
-        synchronized (messages) {
-            Iterator<Message> iterator = messages.iterator();
-            // Remove all deleted messages from the cache
-            while (iterator.hasNext()) {
-                if (iterator.next().isDeleted()) {
-                    iterator.remove();
-                }
-            }
-            long foreverCachedAmount = messages.stream().filter(Message::isCachedForever).count();
-            iterator = messages.iterator();
-            while (iterator.hasNext()) {
-                ImplMessage message = (ImplMessage) iterator.next();
-                if (message.isCachedForever()) {
-                    continue;
-                }
-                if (messages.size() > capacity + foreverCachedAmount || message.getCreationTimestamp().isBefore(minAge)) {
-                    iterator.remove();
-                    message.setKeepCached(false);
-                } else {
-                    // No need to keep iterating as the list is ordered.
-                    // If we don't remove an element now, we will also not remove the next element.
-                    return;
-                }
-            }
+     * Unlinks the given entry.
+     *
+     * @param entry The entry to unlink.
+     */
+    void unlink(MessageCacheEntry entry) {
+        if (entry.channelPrevious == null) {
+            head = entry.channelNext;
+        } else {
+            entry.channelPrevious.channelNext = entry.channelNext;
+        }
+        if (entry.channelNext == null) {
+            tail = entry.channelPrevious;
+        } else {
+            entry.channelNext.channelPrevious = entry.channelPrevious;
+        }
+        entry.channelPrevious = null;
+        entry.channelNext = null;
+        size--;
+        estimatedSize -= entry.size;
+        if (entry.queue == MessageCacheEntry.PINNED) {
+            pinnedSize--;
         }
     }
 
+    /**
+     * Changes the estimated size after the size of a linked entry changed.
+     *
+     * @param sizeDelta The difference between the new and the old size of the entry.
+     */
+    void addEstimatedSize(int sizeDelta) {
+        estimatedSize += sizeDelta;
+    }
+
+    /**
+     * Marks a linked entry as cached forever.
+     */
+    void pin() {
+        pinnedSize++;
+    }
+
+    /**
+     * Marks a linked entry as no longer cached forever.
+     */
+    void unpin() {
+        pinnedSize--;
+    }
+
+    /**
+     * Gets the amount of cached messages which are not cached forever.
+     *
+     * @return The amount of cached messages which are not cached forever.
+     */
+    int getEvictableSize() {
+        return size - pinnedSize;
+    }
+
     @Override
     public int getCapacity() {
         return capacity;
@@ -124,4 +224,26 @@ public class ImplMessageCache implements MessageCache {
         this.storageTimeInSeconds = storageTimeInSeconds >= 0 ? storageTimeInSeconds : 0;
     }
 
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hits = hitCount.sum();
+        long requests = hits + missCount.sum();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
 }
@@ -0,0 +1,176 @@
+package de.btobastian.javacord.utils.cache;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map from <code>long</code> keys to <code>long</code> values.
+ * Unlike a <code>Map&lt;Long, Long&gt;</code> it does not allocate an object per entry. Every slot holds two longs, so
+ * it needs about 32 bytes per entry at a load factor of 50%.
+ * The key <code>0</code> is reserved to mark empty slots. This class is not thread-safe.
+ */
+class LongIndex {
+
+    /**
+     * The value which is returned if a key is not present.
+     */
+    static final long NO_VALUE = -1;
+
+    /**
+     * The keys of the entries. <code>0</code> marks an empty slot.
+     */
+    private long[] keys;
+
+    /**
+     * The values of the entries.
+     */
+    private long[] values;
+
+    /**
+     * The mask which is used to map a hash to a slot.
+     */
+    private int mask;
+
+    /**
+     * The amount of entries.
+     */
+    private int size = 0;
+
+    /**
+     * Creates a new index.
+     *
+     * @param expectedSize The expected amount of entries.
+     */
+    LongIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Gets the value of the given key.
+     *
+     * @param key The key.
+     * @return The value or {@link #NO_VALUE} if the key is not present.
+     */
+    long get(long key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            if (keys[slot] == 0) {
+                return NO_VALUE;
+            }
+        }
+    }
+
+    /**
+     * Associates the given value with the given key.
+     *
+     * @param key The key. Must not be <code>0</code>.
+     * @param value The value.
+     */
+    void put(long key, long value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("The key 0 is reserved!");
+        }
+        int slot = slot(key);
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == 0) {
+            keys[slot] = key;
+            if (++size * 2 > keys.length) {
+                values[slot] = value;
+                resize();
+                return;
+            }
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Removes the given key if it is associated with the given value.
+     *
+     * @param key The key.
+     * @param value The expected value.
+     * @return Whether the key was removed or not.
+     */
+    boolean remove(long key, long value) {
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == 0) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] != value) {
+            return false;
+        }
+        // Shift back following entries of the same probe sequence, so no tombstones are needed
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Gets the amount of entries.
+     *
+     * @return The amount of entries.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    /**
+     * Doubles the capacity of the index.
+     */
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldValues.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int slot = slot(key);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Gets the home slot of the given key.
+     *
+     * @param key The key.
+     * @return The home slot of the key.
+     */
+    private int slot(long key) {
+        long hash = key * 0x9e3779b97f4a7c15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+}
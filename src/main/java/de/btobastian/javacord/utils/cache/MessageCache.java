@@ -38,4 +38,33 @@ public interface MessageCache {
      */
     void setStorageTimeInSeconds(int storageTimeInSeconds);
 
+    /**
+     * Gets the amount of cached messages, including messages which are cached forever.
+     *
+     * @return The amount of cached messages.
+     */
+    int getSize();
+
+    /**
+     * Gets the estimated amount of memory in bytes which is retained by the cached messages.
+     *
+     * @return The estimated size of the cached messages in bytes.
+     */
+    long getEstimatedSize();
+
+    /**
+     * Gets the amount of messages which were removed from this cache because of its limits or their age.
+     *
+     * @return The amount of evicted messages.
+     */
+    long getEvictionCount();
+
+    /**
+     * Gets the ratio of message lookups which were answered by this cache.
+     * Returns <code>1.0</code> if there were no lookups yet.
+     *
+     * @return The hit ratio of this cache, between <code>0.0</code> and <code>1.0</code>.
+     */
+    double getHitRatio();
+
 }
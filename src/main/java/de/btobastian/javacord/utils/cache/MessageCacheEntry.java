@@ -0,0 +1,84 @@
+package de.btobastian.javacord.utils.cache;
+
+import de.btobastian.javacord.entities.message.Message;
+
+/**
+ * An entry of the {@link GlobalMessageCache}.
+ * Every entry is linked into exactly one queue of the eviction policy and into the list of its channel's cache.
+ * All fields are guarded by the global message cache.
+ */
+class MessageCacheEntry {
+
+    /**
+     * The entry is in the admission window.
+     */
+    static final int WINDOW = 0;
+
+    /**
+     * The entry is in the probation segment of the main space.
+     */
+    static final int PROBATION = 1;
+
+    /**
+     * The entry is in the protected segment of the main space.
+     */
+    static final int PROTECTED = 2;
+
+    /**
+     * The entry is cached forever and not part of the eviction policy.
+     */
+    static final int PINNED = 3;
+
+    /**
+     * The cached message.
+     */
+    final Message message;
+
+    /**
+     * The message cache of the message's channel.
+     */
+    final ImplMessageCache channelCache;
+
+    /**
+     * The estimated size of the message in bytes.
+     */
+    int size;
+
+    /**
+     * The queue the entry is currently linked into.
+     */
+    int queue = WINDOW;
+
+    /**
+     * The previous and next entry in the queue of the eviction policy.
+     */
+    MessageCacheEntry previous, next;
+
+    /**
+     * The previous and next entry in the list of the channel's cache.
+     */
+    MessageCacheEntry channelPrevious, channelNext;
+
+    /**
+     * Creates a new entry.
+     *
+     * @param message The cached message.
+     * @param channelCache The message cache of the message's channel.
+     * @param size The estimated size of the message in bytes.
+     */
+    MessageCacheEntry(Message message, ImplMessageCache channelCache, int size) {
+        this.message = message;
+        this.channelCache = channelCache;
+        this.size = size;
+    }
+
+    /**
+     * Gets the id of the cached message.
+     *
+     * @return The id of the cached message.
+     */
+    long getId() {
+        return message.getId();
+    }
+
+}
@@ -0,0 +1,286 @@
+package de.btobastian.javacord.utils.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A store for serialized messages which lives outside of the java heap.
+ * The records are appended to a log of direct byte buffer segments. When the log reaches its maximum amount of
+ * segments, the oldest segment is recycled for new records. Segments are also dropped once they exceed the maximum
+ * age. Records are found using a primitive index from the message id to the position of its newest record.
+ * This allows to keep millions of messages, e.g. for edit and delete logging, without the memory usage and garbage
+ * collection pauses of on-heap message objects.
+ * The store is attached to the {@link GlobalMessageCache} which moves evicted messages into it.
+ */
+public class OffHeapMessageStore {
+
+    /**
+     * The size of the header of a record: The message id and the length of the record.
+     */
+    private static final int RECORD_HEADER_SIZE = Long.BYTES + Integer.BYTES;
+
+    /**
+     * The segments of the log, ordered by their sequence number.
+     */
+    private final List<Segment> segments = new ArrayList<>();
+
+    /**
+     * The index which maps message ids to the position of their newest record.
+     */
+    private final LongIndex index = new LongIndex(1024);
+
+    /**
+     * The size of a segment in bytes.
+     */
+    private final int segmentSize;
+
+    /**
+     * The maximum amount of segments.
+     */
+    private final int maximumSegments;
+
+    /**
+     * The maximum age of a segment in seconds.
+     */
+    private volatile int maximumAgeInSeconds;
+
+    /**
+     * The sequence number of the next segment.
+     */
+    private long nextSequence = 0;
+
+    /**
+     * The amount of lookups which found a message.
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * The amount of lookups which didn't find a message.
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Creates a new off-heap message store.
+     * The store allocates at most <code>segmentSize * maximumSegments</code> bytes outside of the java heap.
+     *
+     * @param segmentSize The size of a segment in bytes.
+     * @param maximumSegments The maximum amount of segments.
+     * @param maximumAgeInSeconds The maximum age of a segment in seconds.
+     */
+    public OffHeapMessageStore(int segmentSize, int maximumSegments, int maximumAgeInSeconds) {
+        if (segmentSize <= RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("The segment size must be greater than " + RECORD_HEADER_SIZE + "!");
+        }
+        if (maximumSegments < 1) {
+            throw new IllegalArgumentException("The store needs at least one segment!");
+        }
+        this.segmentSize = segmentSize;
+        this.maximumSegments = maximumSegments;
+        this.maximumAgeInSeconds = Math.max(maximumAgeInSeconds, 0);
+    }
+
+    /**
+     * Appends a record for the given message.
+     * If the store already contains a record for the message, it is replaced.
+     *
+     * @param id The id of the message.
+     * @param record The serialized message.
+     * @return Whether the record was stored or not. Records which don't fit into a segment are not stored.
+     */
+    public synchronized boolean put(long id, byte[] record) {
+        int length = RECORD_HEADER_SIZE + record.length;
+        if (length > segmentSize) {
+            return false;
+        }
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.buffer.remaining() < length) {
+            segment = nextSegment();
+        }
+        int offset = segment.buffer.position();
+        segment.buffer.putLong(id).putInt(record.length).put(record);
+        index.put(id, position(segment.sequence, offset));
+        return true;
+    }
+
+    /**
+     * Gets the newest record of the given message.
+     *
+     * @param id The id of the message.
+     * @return The serialized message.
+     */
+    public synchronized Optional<byte[]> get(long id) {
+        long position = index.get(id);
+        if (position == LongIndex.NO_VALUE) {
+            missCount.increment();
+            return Optional.empty();
+        }
+        hitCount.increment();
+        Segment segment = segments.get((int) ((position >>> 32) - segments.get(0).sequence));
+        int offset = (int) position + Long.BYTES;
+        byte[] record = new byte[segment.buffer.getInt(offset)];
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(offset + Integer.BYTES);
+        buffer.get(record);
+        return Optional.of(record);
+    }
+
+    /**
+     * Removes the record of the given message.
+     *
+     * @param id The id of the message.
+     */
+    public synchronized void remove(long id) {
+        long position = index.get(id);
+        if (position != LongIndex.NO_VALUE) {
+            index.remove(id, position);
+        }
+    }
+
+    /**
+     * Drops all segments which are older than the maximum age.
+     */
+    public synchronized void clean() {
+        long minCreation = System.currentTimeMillis() - maximumAgeInSeconds * 1000L;
+        while (!segments.isEmpty() && segments.get(0).creation < minCreation) {
+            unindex(segments.remove(0));
+        }
+    }
+
+    /**
+     * Removes all records.
+     */
+    public synchronized void clear() {
+        segments.clear();
+        index.clear();
+    }
+
+    /**
+     * Gets the amount of stored messages.
+     *
+     * @return The amount of stored messages.
+     */
+    public synchronized int getSize() {
+        return index.size();
+    }
+
+    /**
+     * Gets the amount of memory which is allocated outside of the java heap in bytes.
+     *
+     * @return The amount of allocated memory in bytes.
+     */
+    public synchronized long getAllocatedSize() {
+        return (long) segments.size() * segmentSize;
+    }
+
+    /**
+     * Gets the maximum age of a segment in seconds.
+     *
+     * @return The maximum age of a segment in seconds.
+     */
+    public int getMaximumAgeInSeconds() {
+        return maximumAgeInSeconds;
+    }
+
+    /**
+     * Sets the maximum age of a segment in seconds.
+     *
+     * @param maximumAgeInSeconds The maximum age of a segment in seconds.
+     */
+    public void setMaximumAgeInSeconds(int maximumAgeInSeconds) {
+        this.maximumAgeInSeconds = Math.max(maximumAgeInSeconds, 0);
+    }
+
+    /**
+     * Gets the ratio of lookups which found a message.
+     *
+     * @return The hit ratio, between <code>0</code> and <code>1</code>.
+     */
+    public double getHitRatio() {
+        long hits = hitCount.sum();
+        long requests = hits + missCount.sum();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    /**
+     * Starts a new segment. If the log already has the maximum amount of segments, the oldest one is recycled.
+     *
+     * @return The new segment.
+     */
+    private Segment nextSegment() {
+        ByteBuffer buffer;
+        if (segments.size() >= maximumSegments) {
+            Segment oldest = segments.remove(0);
+            unindex(oldest);
+            buffer = oldest.buffer;
+            buffer.clear();
+        } else {
+            buffer = ByteBuffer.allocateDirect(segmentSize);
+        }
+        Segment segment = new Segment(nextSequence++, buffer);
+        segments.add(segment);
+        return segment;
+    }
+
+    /**
+     * Removes all index entries which point into the given segment.
+     *
+     * @param segment The segment.
+     */
+    private void unindex(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        int offset = 0;
+        while (offset < buffer.position()) {
+            long id = buffer.getLong(offset);
+            index.remove(id, position(segment.sequence, offset));
+            offset += RECORD_HEADER_SIZE + buffer.getInt(offset + Long.BYTES);
+        }
+    }
+
+    /**
+     * Encodes the position of a record.
+     *
+     * @param sequence The sequence number of the record's segment.
+     * @param offset The offset of the record in its segment.
+     * @return The encoded position.
+     */
+    private static long position(long sequence, int offset) {
+        return sequence << 32 | offset;
+    }
+
+    /**
+     * A segment of the log.
+     */
+    private static class Segment {
+
+        /**
+         * The sequence number of the segment.
+         */
+        final long sequence;
+
+        /**
+         * The buffer which holds the records. Its position is the end of the last record.
+         */
+        final ByteBuffer buffer;
+
+        /**
+         * The time the segment was started as epoch milliseconds.
+         */
+        final long creation = System.currentTimeMillis();
+
+        /**
+         * Creates a new segment.
+         *
+         * @param sequence The sequence number of the segment.
+         * @param buffer The buffer which holds the records.
+         */
+        Segment(long sequence, ByteBuffer buffer) {
+            this.sequence = sequence;
+            this.buffer = buffer;
+        }
+
+    }
+
+}
@@ -0,0 +1,120 @@
+package de.btobastian.javacord.utils.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A striped, lossy buffer which records accesses of the {@link GlobalMessageCache} without taking its lock.
+ * Every thread writes into one of several small ring buffers, which are drained by the cache while holding its lock.
+ * If a ring buffer is full or another thread writes into the same slot at the same time, the access is dropped.
+ * This only makes the eviction policy a little less accurate, but never blocks a reading thread.
+ *
+ * @param <E> The type of the elements.
+ */
+class ReadBuffer<E> {
+
+    /**
+     * The amount of elements of a single ring buffer. Must be a power of two.
+     */
+    private static final int STRIPE_SIZE = 16;
+
+    /**
+     * The mask which is used to map a counter to an index of a ring buffer.
+     */
+    private static final int STRIPE_MASK = STRIPE_SIZE - 1;
+
+    /**
+     * The ring buffers.
+     */
+    private final Stripe<E>[] stripes;
+
+    /**
+     * The mask which is used to map a thread to a ring buffer.
+     */
+    private final int mask;
+
+    /**
+     * Creates a new read buffer with a ring buffer per processor.
+     */
+    ReadBuffer() {
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+        @SuppressWarnings("unchecked")
+        Stripe<E>[] stripes = (Stripe<E>[]) new Stripe<?>[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        this.stripes = stripes;
+        mask = count - 1;
+    }
+
+    /**
+     * Adds an element to the ring buffer of the current thread.
+     *
+     * @param element The element.
+     * @return Whether the ring buffer is full and should be drained or not.
+     */
+    boolean offer(E element) {
+        long threadId = Thread.currentThread().getId();
+        Stripe<E> stripe = stripes[(int) (threadId ^ (threadId >>> 16)) & mask];
+        long readCounter = stripe.readCounter;
+        long writeCounter = stripe.writeCounter.get();
+        if (writeCounter - readCounter >= STRIPE_SIZE) {
+            return true;
+        }
+        if (stripe.writeCounter.compareAndSet(writeCounter, writeCounter + 1)) {
+            stripe.elements.lazySet((int) writeCounter & STRIPE_MASK, element);
+            return writeCounter + 1 - readCounter >= STRIPE_SIZE;
+        }
+        // Another thread uses the same ring buffer, the element is dropped
+        return false;
+    }
+
+    /**
+     * Drains all ring buffers. Must only be called by one thread at once.
+     *
+     * @param consumer The consumer of the elements.
+     */
+    void drainTo(Consumer<E> consumer) {
+        for (Stripe<E> stripe : stripes) {
+            long readCounter = stripe.readCounter;
+            long writeCounter = stripe.writeCounter.get();
+            for (; readCounter < writeCounter; readCounter++) {
+                int index = (int) readCounter & STRIPE_MASK;
+                E element = stripe.elements.get(index);
+                if (element == null) {
+                    // The element was reserved, but not written yet
+                    break;
+                }
+                stripe.elements.lazySet(index, null);
+                consumer.accept(element);
+            }
+            stripe.readCounter = readCounter;
+        }
+    }
+
+    /**
+     * A single ring buffer.
+     *
+     * @param <E> The type of the elements.
+     */
+    private static class Stripe<E> {
+
+        /**
+         * The elements of the ring buffer.
+         */
+        private final AtomicReferenceArray<E> elements = new AtomicReferenceArray<>(STRIPE_SIZE);
+
+        /**
+         * The amount of elements which were added to the ring buffer.
+         */
+        private final AtomicLong writeCounter = new AtomicLong();
+
+        /**
+         * The amount of elements which were drained from the ring buffer.
+         */
+        private volatile long readCounter = 0;
+
+    }
+
+}
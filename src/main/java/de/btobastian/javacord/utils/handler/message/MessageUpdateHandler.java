@@ -84,8 +84,7 @@ public class MessageUpdateHandler extends PacketHandler {
                         Embed embed = new ImplEmbed(embedJson);
                         newEmbeds.add(embed);
                     }
-                    List<Embed> finalNewEmbeds = newEmbeds;
-                    message.ifPresent(msg -> msg.setEmbeds(finalNewEmbeds));
+                    message.ifPresent(msg -> msg.setEmbeds(packet.get("embeds")));
                 }
 
                 if (oldContent != null && newContent != null && !oldContent.equals(newContent)) {
@@ -30,6 +30,11 @@ public class GuildMemberUpdateHandler extends PacketHandler {
         super(api, true, "GUILD_MEMBER_UPDATE");
     }
 
+    @Override
+    protected String getCoalescingKey(JsonNode packet) {
+        return packet.get("guild_id").asText() + ":" + packet.get("user").get("id").asText();
+    }
+
     @Override
     public void handle(JsonNode packet) {
         api.getServerById(packet.get("guild_id").asText()).map(server -> (ImplServer) server).ifPresent(server -> {
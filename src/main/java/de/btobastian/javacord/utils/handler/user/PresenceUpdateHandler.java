@@ -3,7 +3,6 @@ package de.btobastian.javacord.utils.handler.user;
 import com.fasterxml.jackson.databind.JsonNode;
 import de.btobastian.javacord.DiscordApi;
 import de.btobastian.javacord.entities.Game;
-import de.btobastian.javacord.entities.GameType;
 import de.btobastian.javacord.entities.User;
 import de.btobastian.javacord.entities.UserStatus;
 import de.btobastian.javacord.entities.impl.ImplGame;
@@ -36,60 +35,60 @@ public class PresenceUpdateHandler extends PacketHandler {
         super(api, true, "PRESENCE_UPDATE");
     }
 
+    @Override
+    protected boolean isLowPriority() {
+        return true;
+    }
+
+    @Override
+    protected String getCoalescingKey(JsonNode packet) {
+        // The presence of a user is the same in every server
+        return packet.get("user").get("id").asText();
+    }
+
     @Override
     public void handle(JsonNode packet) {
-        long userId = packet.get("user").get("id").asLong();
-        api.getUserById(userId).map(user -> ((ImplUser) user)).ifPresent(user -> {
-            if (packet.has("game")) {
-                Game newGame = null;
-                if (!packet.get("game").isNull()) {
-                    int gameType = packet.get("game").get("type").asInt();
-                    String name = packet.get("game").get("name").asText();
-                    String streamingUrl =
-                            packet.get("game").has("url") && !packet.get("game").get("url").isNull() ?
-                            packet.get("game").get("url").asText() : null;
-                    newGame = new ImplGame(GameType.getGameTypeById(gameType), name, streamingUrl);
-                }
-                Game oldGame = user.getGame().orElse(null);
+        JsonNode userJson = packet.get("user");
+        long userId = userJson.get("id").asLong();
+        ImplUser user = (ImplUser) api.getUserById(userId).orElse(null);
+        if (user == null) {
+            return;
+        }
+        // Discord sends the same presence once for every shared server. The checks below don't allocate
+        // anything, so the duplicates only cost a few comparisons and don't dispatch any events.
+        JsonNode gameJson = packet.get("game");
+        if (gameJson != null) {
+            Game oldGame = user.getGame().orElse(null);
+            if (!ImplGame.isSameGame(oldGame, gameJson)) {
+                Game newGame = gameJson.isNull() ? null : new ImplGame(gameJson).intern();
                 user.setGame(newGame);
-                if (!Objects.deepEquals(newGame, oldGame)) {
-                    dispatchUserGameChangeEvent(user, newGame, oldGame);
-                }
+                dispatchUserGameChangeEvent(user, newGame, oldGame);
             }
-            if (packet.has("status")) {
-                UserStatus newStatus = UserStatus.fromString(
-                        packet.has("status") ? packet.get("status").asText(null) : null);
-                UserStatus oldStatus = user.getStatus();
+        }
+        if (packet.has("status")) {
+            UserStatus newStatus = UserStatus.fromString(packet.get("status").asText(null));
+            UserStatus oldStatus = user.getStatus();
+            if (newStatus != oldStatus) {
                 user.setStatus(newStatus);
-                if (newStatus != oldStatus) {
-                    dispatchUserStatusChangeEvent(user, newStatus, oldStatus);
-                }
-            }
-            if (packet.get("user").has("username")) {
-                String newName = packet.get("user").get("username").asText();
-                String oldName = user.getName();
-                if (!oldName.equals(newName)) {
-                    user.setName(newName);
-                    dispatchUserChangeNameEvent(user, newName, oldName);
-                }
+                dispatchUserStatusChangeEvent(user, newStatus, oldStatus);
             }
-            if (packet.get("user").has("username")) {
-                String newName = packet.get("user").get("username").asText();
-                String oldName = user.getName();
-                if (!oldName.equals(newName)) {
-                    user.setName(newName);
-                    dispatchUserChangeNameEvent(user, newName, oldName);
-                }
+        }
+        if (userJson.has("username")) {
+            String newName = userJson.get("username").asText();
+            String oldName = user.getName();
+            if (!oldName.equals(newName)) {
+                user.setName(newName);
+                dispatchUserChangeNameEvent(user, newName, oldName);
             }
-            if (packet.get("user").has("avatar")) {
-                String newAvatarHash = packet.get("user").get("avatar").asText(null);
-                String oldAvatarHash = user.getAvatarHash();
-                if (!Objects.deepEquals(newAvatarHash, oldAvatarHash)) {
-                    user.setAvatarHash(newAvatarHash);
-                    dispatchUserChangeAvatarEvent(user, newAvatarHash, oldAvatarHash);
-                }
+        }
+        if (userJson.has("avatar")) {
+            String newAvatarHash = userJson.get("avatar").asText(null);
+            String oldAvatarHash = user.getAvatarHash();
+            if (!Objects.equals(newAvatarHash, oldAvatarHash)) {
+                user.setAvatarHash(newAvatarHash);
+                dispatchUserChangeAvatarEvent(user, newAvatarHash, oldAvatarHash);
             }
-        });
+        }
     }
 
     private void dispatchUserGameChangeEvent(User user, Game newGame, Game oldGame) {
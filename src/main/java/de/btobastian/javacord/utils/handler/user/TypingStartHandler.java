@@ -24,6 +24,11 @@ public class TypingStartHandler extends PacketHandler {
         super(api, true, "TYPING_START");
     }
 
+    @Override
+    protected boolean isLowPriority() {
+        return true;
+    }
+
     @Override
     public void handle(JsonNode packet) {
         long userId = packet.get("user_id").asLong();
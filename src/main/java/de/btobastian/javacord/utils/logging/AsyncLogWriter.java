@@ -0,0 +1,161 @@
+package de.btobastian.javacord.utils.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class writes the messages of the {@link JavacordLogger} to {@link System#out} and {@link System#err}.
+ * The messages are put in a bounded ring buffer and written by a single daemon thread, so logging threads (e.g. the
+ * websocket thread) never wait for the output streams. If the buffer is full, the logging thread waits briefly for
+ * space. If there's still no space, the message is dropped and the writer thread reports the amount of dropped
+ * messages, so the order of the written messages is always kept.
+ */
+class AsyncLogWriter {
+
+    /**
+     * The maximum amount of messages which wait to be written.
+     */
+    private static final int CAPACITY = 8192;
+
+    /**
+     * The time in milliseconds a logging thread waits for space in the buffer before the message is dropped.
+     */
+    private static final long OFFER_TIMEOUT = 10;
+
+    /**
+     * The instance which is used by all loggers.
+     */
+    private static final AsyncLogWriter instance = new AsyncLogWriter();
+
+    /**
+     * The messages which wait to be written.
+     */
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(CAPACITY);
+
+    /**
+     * The amount of messages which were dropped since the last report.
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * Creates a new writer and starts its thread.
+     */
+    private AsyncLogWriter() {
+        Thread thread = new Thread(this::run, "Javacord - Logger");
+        thread.setDaemon(true);
+        thread.start();
+        // the writer thread is a daemon thread, so the remaining messages must be written before the jvm exits
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "Javacord - Logger Shutdown"));
+    }
+
+    /**
+     * Gets the instance which is used by all loggers.
+     *
+     * @return The instance.
+     */
+    static AsyncLogWriter getInstance() {
+        return instance;
+    }
+
+    /**
+     * Queues a message to be written.
+     *
+     * @param level The level of the message.
+     * @param name The name of the logger.
+     * @param msg The text of the message. May be <code>null</code>.
+     * @param t The exception. May be <code>null</code>.
+     */
+    void write(String level, String name, String msg, Throwable t) {
+        Entry entry = new Entry(level, name, msg, t);
+        try {
+            if (queue.offer(entry) || queue.offer(entry, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        droppedCount.incrementAndGet();
+    }
+
+    /**
+     * Writes the messages as soon as they are queued.
+     */
+    private void run() {
+        while (true) {
+            try {
+                Entry entry = queue.take();
+                reportDroppedMessages();
+                entry.write();
+            } catch (InterruptedException ignored) {
+                // the thread is never interrupted on purpose, so just continue
+            }
+        }
+    }
+
+    /**
+     * Writes all queued messages.
+     */
+    private void flush() {
+        List<Entry> entries = new ArrayList<>();
+        queue.drainTo(entries);
+        entries.forEach(Entry::write);
+        reportDroppedMessages();
+    }
+
+    /**
+     * Writes the amount of messages which were dropped since the last report, if any.
+     */
+    private void reportDroppedMessages() {
+        long dropped = droppedCount.getAndSet(0);
+        if (dropped > 0) {
+            new Entry("WARN", AsyncLogWriter.class.getName(), dropped + " messages dropped", null).write();
+        }
+    }
+
+    /**
+     * A message which waits to be written.
+     */
+    private static class Entry {
+
+        private final String level;
+        private final String name;
+        private final String msg;
+        private final Throwable t;
+
+        /**
+         * Creates a new entry.
+         *
+         * @param level The level of the message.
+         * @param name The name of the logger.
+         * @param msg The text of the message. May be <code>null</code>.
+         * @param t The exception. May be <code>null</code>.
+         */
+        private Entry(String level, String name, String msg, Throwable t) {
+            this.level = level;
+            this.name = name;
+            this.msg = msg;
+            this.t = t;
+        }
+
+        /**
+         * Writes messages to {@link System#out} and errors to {@link System#err}.
+         */
+        private void write() {
+            if (msg != null && t == null) {
+                System.out.println("[" + level + "][" + name + "] " + msg);
+            }
+            if (t != null) {
+                if (msg != null) {
+                    System.err.println("[" + level + "][" + name + "] " + msg);
+                }
+                t.printStackTrace();
+            }
+        }
+
+    }
+
+}
@@ -5,12 +5,12 @@ import org.slf4j.helpers.MarkerIgnoringBase;
 import org.slf4j.helpers.MessageFormatter;
 
 import java.util.logging.Level;
-import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 
 /**
  * This logger is used if no SLF4J compatible logger was found.
- * It uses the the default output stream from {@link System#out} and {@link System#err}.
+ * It uses the the default output stream from {@link System#out} and {@link System#err}, which are written
+ * asynchronously.
  * This is a really primitive implementation and not recommended in production. Use a slf4j compatible logger instead!
  */
 public class JavacordLogger extends MarkerIgnoringBase {
@@ -139,7 +139,6 @@ public class JavacordLogger extends MarkerIgnoringBase {
 
     @Override
     final public void info(String msg, Throwable t) {
-        LogRecord record = new LogRecord(Level.INFO, msg);
         log("INFO", msg, t);
     }
 
@@ -212,22 +211,15 @@ public class JavacordLogger extends MarkerIgnoringBase {
     }
 
     /**
-     * Simply logs the to the default output stream {@link System#out} and errors to {@link System#err}.
+     * Logs messages to the default output stream {@link System#out} and errors to {@link System#err}.
+     * The message is written asynchronously by the {@link AsyncLogWriter}.
      *
      * @param level The level of the log message.
      * @param msg The text of the log message.
      * @param t The exception.
      */
     private void log(String level, String msg, Throwable t) {
-        if (msg != null && t == null) {
-            System.out.println("[" + level + "][" + name + "] " + msg);
-        }
-        if (t != null) {
-            if (msg != null) {
-                System.err.println("[" + level + "][" + name + "] " + msg);
-            }
-            t.printStackTrace();
-        }
+        AsyncLogWriter.getInstance().write(level, name, msg, t);
     }
 
 }
\ No newline at end of file
@@ -3,7 +3,7 @@ package de.btobastian.javacord.utils.logging;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class is used to get a {@link Logger} instance.
@@ -14,7 +14,7 @@ public class LoggerUtil {
     // we cannot use a boolean as lock so we need an extra lock object
     private static final Object initLock = new Object();
 
-    private static final HashMap<String, Logger> loggers = new HashMap<>();
+    private static final ConcurrentHashMap<String, Logger> loggers = new ConcurrentHashMap<>();
     private static volatile boolean noLogger = false;
     private static volatile boolean debug = false;
 
@@ -25,20 +25,17 @@ public class LoggerUtil {
      * @return The logger with the given name.
      */
     public static Logger getLogger(String name) {
-        synchronized (initLock) {
-            if (!initialized) {
-                init();
+        if (!initialized) {
+            // only lock until the logger util is initialized
+            synchronized (initLock) {
+                if (!initialized) {
+                    init();
+                }
             }
         }
         if (noLogger) { // we don't want the SLF4J NOPLogger implementation
-            synchronized (loggers) {
-                Logger logger = loggers.get(name);
-                if (logger == null) {
-                    logger = new JavacordLogger(name);
-                    loggers.put(name, logger);
-                }
-                return logger;
-            }
+            Logger logger = loggers.get(name);
+            return logger != null ? logger : loggers.computeIfAbsent(name, JavacordLogger::new);
         } else {
             return LoggerFactory.getLogger(name);
         }
@@ -78,12 +75,15 @@ public class LoggerUtil {
      * Initializes the logger util.
      */
     private static void init() {
-        initialized = true;
         try {
             // if there's no library this would cause a ClassNotFoundException
             Class.forName("org.slf4j.impl.StaticLoggerBinder");
         } catch (ClassNotFoundException e) {
             noLogger = true;
+        }
+        // must be set after noLogger, because other threads don't lock once it's set
+        initialized = true;
+        if (noLogger) {
             getLogger(LoggerUtil.class)
                     .info("No SLF4J compatible logger was found. Using default javacord implementation!");
         }
@@ -0,0 +1,39 @@
+package de.btobastian.javacord.utils.metrics;
+
+/**
+ * This enum contains the caches whose lookups are recorded by a {@link MetricsRecorder}.
+ */
+public enum MetricsCache {
+
+    /**
+     * The message cache.
+     */
+    MESSAGES("messages"),
+
+    /**
+     * The user cache.
+     * A miss means that a user was created from a packet instead of being found in the cache.
+     */
+    USERS("users");
+
+    private final String name;
+
+    /**
+     * Class constructor.
+     *
+     * @param name The name of the cache.
+     */
+    MetricsCache(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the cache.
+     *
+     * @return The name of the cache.
+     */
+    public String getName() {
+        return name;
+    }
+
+}
@@ -0,0 +1,98 @@
+package de.btobastian.javacord.utils.metrics;
+
+/**
+ * This enum contains the gauges which are registered at a {@link MetricsRecorder}.
+ */
+public enum MetricsGauge {
+
+    /**
+     * The amount of packets which wait for the handler thread.
+     */
+    HANDLER_QUEUE_SIZE("javacord.executor.handlers.queue"),
+
+    /**
+     * The amount of events which wait for the listener thread.
+     */
+    LISTENER_QUEUE_SIZE("javacord.executor.listeners.queue"),
+
+    /**
+     * The highest amount of packets which waited for the handler thread at the same time.
+     */
+    HANDLER_QUEUE_HIGH_WATER_MARK("javacord.executor.handlers.queue.highwatermark"),
+
+    /**
+     * The highest amount of events which waited for the listener thread at the same time.
+     */
+    LISTENER_QUEUE_HIGH_WATER_MARK("javacord.executor.listeners.queue.highwatermark"),
+
+    /**
+     * The amount of low priority packets which were dropped because the handler queue was full.
+     */
+    HANDLER_QUEUE_DROPPED("javacord.executor.handlers.queue.dropped"),
+
+    /**
+     * The amount of low priority events which were dropped because the listener queue was full.
+     */
+    LISTENER_QUEUE_DROPPED("javacord.executor.listeners.queue.dropped"),
+
+    /**
+     * The amount of packets which were merged into a packet that was still waiting for the handler thread.
+     */
+    HANDLER_QUEUE_COALESCED("javacord.executor.handlers.queue.coalesced"),
+
+    /**
+     * The amount of tasks which wait for a worker thread.
+     */
+    WORKER_QUEUE_SIZE("javacord.executor.workers.queue"),
+
+    /**
+     * The amount of worker threads which are executing tasks.
+     */
+    WORKER_ACTIVE_THREADS("javacord.executor.workers.active"),
+
+    /**
+     * The amount of cached messages.
+     */
+    MESSAGE_CACHE_SIZE("javacord.cache.messages.size"),
+
+    /**
+     * The estimated size of the cached messages in bytes.
+     */
+    MESSAGE_CACHE_ESTIMATED_BYTES("javacord.cache.messages.bytes"),
+
+    /**
+     * The ratio of lookups in the message cache which found the message.
+     */
+    MESSAGE_CACHE_HIT_RATIO("javacord.cache.messages.hitratio"),
+
+    /**
+     * The amount of cached users.
+     */
+    USER_CACHE_SIZE("javacord.cache.users.size"),
+
+    /**
+     * The amount of cached servers.
+     */
+    SERVER_CACHE_SIZE("javacord.cache.servers.size");
+
+    private final String name;
+
+    /**
+     * Class constructor.
+     *
+     * @param name The name of the gauge.
+     */
+    MetricsGauge(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the gauge.
+     *
+     * @return The name of the gauge.
+     */
+    public String getName() {
+        return name;
+    }
+
+}
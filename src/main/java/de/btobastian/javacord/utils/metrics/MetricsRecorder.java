@@ -0,0 +1,111 @@
+package de.btobastian.javacord.utils.metrics;
+
+import de.btobastian.javacord.utils.rest.RestEndpoint;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * This interface is used to observe the internals of Javacord, e.g. with a metrics library like Micrometer.
+ * All methods do nothing by default, so implementations only have to override the metrics they are interested in.
+ * The record methods are called on hot paths, like the websocket thread, and only get primitives, constants and
+ * existing objects, so they don't allocate anything. Implementations should be fast and must be thread-safe.
+ *
+ * @see de.btobastian.javacord.DiscordApiBuilder#setMetricsRecorder(MetricsRecorder)
+ */
+public interface MetricsRecorder {
+
+    /**
+     * A metrics recorder which does nothing.
+     */
+    MetricsRecorder NOOP = new MetricsRecorder() { };
+
+    /**
+     * Records a frame which was received from the gateway.
+     *
+     * @param op The op code of the payload.
+     * @param eventType The type of the event or <code>null</code> if the payload is no dispatch (op <code>0</code>).
+     * @param bytes The size of the frame. For compressed frames, this is the compressed size in bytes, for text frames
+     *              the amount of characters.
+     * @param compressed Whether the frame was compressed or not.
+     */
+    default void recordGatewayFrame(int op, String eventType, int bytes, boolean compressed) {
+    }
+
+    /**
+     * Records the time it took to decompress and parse a frame of the gateway.
+     *
+     * @param compressed Whether the frame was compressed or not.
+     * @param nanos The time in nanoseconds.
+     */
+    default void recordGatewayParseTime(boolean compressed, long nanos) {
+    }
+
+    /**
+     * Records the time it took to handle a packet.
+     * For asynchronous handlers, the time waiting in the queue of the handler thread is not included.
+     *
+     * @param packetType The type of the packet, e.g. <code>MESSAGE_CREATE</code>.
+     * @param nanos The time in nanoseconds.
+     */
+    default void recordHandlerTime(String packetType, long nanos) {
+    }
+
+    /**
+     * Records the time it took a listener to handle an event.
+     *
+     * @param listenerClass The class of the listener.
+     * @param nanos The time in nanoseconds.
+     */
+    default void recordListenerTime(Class<?> listenerClass, long nanos) {
+    }
+
+    /**
+     * Records a rest request which was sent to Discord.
+     *
+     * @param endpoint The endpoint of the request.
+     * @param status The status code of the response or <code>0</code> if no response was received.
+     * @param nanos The time in nanoseconds from sending the request until the response was read.
+     */
+    default void recordRestRequest(RestEndpoint endpoint, int status, long nanos) {
+    }
+
+    /**
+     * Records a 429 response of Discord.
+     *
+     * @param endpoint The endpoint of the request.
+     * @param global Whether the global ratelimit was hit or not.
+     */
+    default void recordRatelimited(RestEndpoint endpoint, boolean global) {
+    }
+
+    /**
+     * Records the time a request waited for the ratelimits of its bucket before it was sent.
+     * The time the request waited behind other requests of the bucket is not included.
+     *
+     * @param endpoint The endpoint of the request.
+     * @param nanos The time in nanoseconds.
+     */
+    default void recordBucketWait(RestEndpoint endpoint, long nanos) {
+    }
+
+    /**
+     * Records a lookup in a cache.
+     *
+     * @param cache The cache.
+     * @param hit Whether the lookup found the object or not.
+     */
+    default void recordCacheAccess(MetricsCache cache, boolean hit) {
+    }
+
+    /**
+     * Registers a gauge.
+     * This is called once for every gauge when an api instance is created. The supplier can be called at any time from
+     * any thread to get the current value.
+     *
+     * @param gauge The gauge.
+     * @param supplier The supplier of the value of the gauge.
+     */
+    default void registerGauge(MetricsGauge gauge, DoubleSupplier supplier) {
+    }
+
+}
@@ -3,9 +3,16 @@ package de.btobastian.javacord.utils.ratelimits;
 import de.btobastian.javacord.DiscordApi;
 import de.btobastian.javacord.ImplDiscordApi;
 import de.btobastian.javacord.utils.rest.RestEndpoint;
+import de.btobastian.javacord.utils.rest.RestRequest;
 
 import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+/**
+ * A bucket of requests with the same endpoint and major url parameter.
+ * Each bucket has its own queue, but the ratelimit window can be shared with other buckets, if Discord reports the
+ * same bucket hash for them.
+ */
 public class RatelimitBucket {
 
     private final ImplDiscordApi api;
@@ -13,8 +20,15 @@ public class RatelimitBucket {
     private final RestEndpoint endpoint;
     private final String majorUrlParameter;
 
-    private long rateLimitResetTimestamp = 0;
-    private int rateLimitRemaining = 1;
+    /**
+     * The queued requests of this bucket.
+     */
+    private final ConcurrentLinkedQueue<RestRequest<?>> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The ratelimit window of this bucket.
+     */
+    private volatile RatelimitWindow window = new RatelimitWindow();
 
     private boolean hasActiveScheduler = false;
 
@@ -39,7 +53,7 @@ public class RatelimitBucket {
      * @return Whether a bucket created with the given parameters would equal this bucket or not.
      */
     public boolean equals(RestEndpoint endpoint, String majorUrlParameter) {
-        if (endpoint.isGlobal()) {
+        if (endpoint != null && endpoint.isGlobal()) {
             endpoint = null;
         }
         boolean endpointSame = this.endpoint == endpoint;
@@ -77,6 +91,33 @@ public class RatelimitBucket {
         this.hasActiveScheduler = hasActiveScheduler;
     }
 
+    /**
+     * Gets the queued requests of this bucket.
+     *
+     * @return The queued requests of this bucket.
+     */
+    ConcurrentLinkedQueue<RestRequest<?>> getQueue() {
+        return queue;
+    }
+
+    /**
+     * Gets the ratelimit window of this bucket.
+     *
+     * @return The ratelimit window of this bucket.
+     */
+    RatelimitWindow getWindow() {
+        return window;
+    }
+
+    /**
+     * Sets the ratelimit window of this bucket.
+     *
+     * @param window The ratelimit window.
+     */
+    void setWindow(RatelimitWindow window) {
+        this.window = window;
+    }
+
     /**
      * Checks if there is still "space" in this bucket, which means that you can still send requests without being
      * ratelimited.
@@ -84,7 +125,7 @@ public class RatelimitBucket {
      * @return Whether you can send requests without being ratelimited or not.
      */
     public boolean hasSpace() {
-        return rateLimitRemaining > 0 || getTimeTillSpaceGetsAvailable() <= 0;
+        return getTimeTillSpaceGetsAvailable() <= 0;
     }
 
     /**
@@ -93,29 +134,25 @@ public class RatelimitBucket {
      * @param rateLimitRemaining The remaining requests till ratelimit.
      */
     public void setRateLimitRemaining(int rateLimitRemaining) {
-        this.rateLimitRemaining = rateLimitRemaining;
+        window.setRemaining(rateLimitRemaining);
     }
 
     /**
      * Sets the ratelimit reset timestamp.
      *
-     * @param rateLimitResetTimestamp The rateLimit reset timestamp.
+     * @param rateLimitResetTimestamp The rateLimit reset timestamp in Discord's time.
      */
     public void setRateLimitResetTimestamp(long rateLimitResetTimestamp) {
-        this.rateLimitResetTimestamp = rateLimitResetTimestamp;
+        window.setResetTimestamp(rateLimitResetTimestamp - (api.getTimeOffset() == null ? 0 : api.getTimeOffset()));
     }
 
     /**
-     * Gets the time in seconds how long you have to wait till there's space in the bucket again.
+     * Gets the time in milliseconds how long you have to wait till there's space in the bucket again.
      *
-     * @return The time in seconds how long you have to wait till there's space in the bucket again.
+     * @return The time in milliseconds how long you have to wait till there's space in the bucket again.
      */
     public int getTimeTillSpaceGetsAvailable() {
-        if (rateLimitRemaining > 0) {
-            return 0;
-        }
-        long timestamp = System.currentTimeMillis() + (api.getTimeOffset() == null ? 0 : api.getTimeOffset());
-        return (int) (rateLimitResetTimestamp - timestamp);
+        return (int) window.getTimeTillSpaceGetsAvailable(System.currentTimeMillis());
     }
 
     @Override
@@ -1,17 +1,19 @@
 package de.btobastian.javacord.utils.ratelimits;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import de.btobastian.javacord.DiscordApi;
 import de.btobastian.javacord.ImplDiscordApi;
 import de.btobastian.javacord.exceptions.RatelimitException;
 import de.btobastian.javacord.utils.logging.LoggerUtil;
+import de.btobastian.javacord.utils.rest.RestEndpoint;
 import de.btobastian.javacord.utils.rest.RestRequest;
 import de.btobastian.javacord.utils.rest.RestRequestResult;
+import okhttp3.Response;
 import org.slf4j.Logger;
 
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Set;
+import java.util.Optional;
 import java.util.concurrent.*;
 import java.util.function.Function;
 
@@ -25,10 +27,47 @@ public class RatelimitManager {
      */
     private static final Logger logger = LoggerUtil.getLogger(RatelimitManager.class);
 
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    /**
+     * The default amount of requests per second of Discord's global ratelimit.
+     */
+    private static final int DEFAULT_GLOBAL_REQUESTS_PER_SECOND = 50;
+
+    /**
+     * The buckets of all requests. The key is the endpoint and the major url parameter of the bucket.
+     */
+    private final ConcurrentHashMap<String, RatelimitBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * The bucket hashes which Discord reported for the endpoints.
+     */
+    private final ConcurrentHashMap<RestEndpoint, String> bucketHashes = new ConcurrentHashMap<>();
+
+    /**
+     * The windows which are shared by buckets with the same bucket hash. The key is the bucket hash and the major url
+     * parameter.
+     */
+    private final ConcurrentHashMap<String, RatelimitWindow> sharedWindows = new ConcurrentHashMap<>();
+
+    /**
+     * The theoretical arrival time of the next request for the global ratelimit, a local timestamp in milliseconds.
+     * Guarded by this.
+     */
+    private double globalArrivalTime = 0;
+
+    /**
+     * The maximum amount of requests per second of the global ratelimit. Guarded by this.
+     */
+    private int globalRequestsPerSecond = DEFAULT_GLOBAL_REQUESTS_PER_SECOND;
+
+    /**
+     * The time in milliseconds between two requests if the global ratelimit is fully used. Guarded by this.
+     */
+    private double globalEmissionInterval = 1000D / DEFAULT_GLOBAL_REQUESTS_PER_SECOND;
 
-    private final Set<RatelimitBucket> buckets = ConcurrentHashMap.newKeySet();
-    private final HashMap<RatelimitBucket, ConcurrentLinkedQueue<RestRequest<?>>> queues = new HashMap<>();
+    /**
+     * The time at which a global ratelimit, which was hit, resets. A local timestamp in milliseconds.
+     */
+    private volatile long globalResetTimestamp = 0;
 
     private final ImplDiscordApi api;
 
@@ -41,6 +80,70 @@ public class RatelimitManager {
         this.api = (ImplDiscordApi) api;
     }
 
+    /**
+     * Gets the maximum amount of requests per second of the global ratelimit.
+     *
+     * @return The maximum amount of requests per second.
+     */
+    public synchronized int getGlobalRequestsPerSecond() {
+        return globalRequestsPerSecond;
+    }
+
+    /**
+     * Sets the maximum amount of requests per second of the global ratelimit.
+     * The default is 50, which is Discord's global ratelimit. Discord raises it for large bots on request.
+     *
+     * @param globalRequestsPerSecond The maximum amount of requests per second.
+     */
+    public synchronized void setGlobalRequestsPerSecond(int globalRequestsPerSecond) {
+        if (globalRequestsPerSecond < 1) {
+            throw new IllegalArgumentException("The global ratelimit cannot be less than 1 request per second!");
+        }
+        this.globalRequestsPerSecond = globalRequestsPerSecond;
+        this.globalEmissionInterval = 1000D / globalRequestsPerSecond;
+    }
+
+    /**
+     * Gets the bucket for the given endpoint and major url parameter.
+     * Buckets are only created once a request was queued for them.
+     *
+     * @param endpoint The endpoint.
+     * @param majorUrlParameter The major url parameter. Might be <code>null</code>.
+     * @return The bucket.
+     */
+    public Optional<RatelimitBucket> getBucket(RestEndpoint endpoint, String majorUrlParameter) {
+        return Optional.ofNullable(buckets.get(getBucketKey(endpoint, majorUrlParameter)));
+    }
+
+    /**
+     * Gets the key of the bucket for the given endpoint and major url parameter.
+     *
+     * @param endpoint The endpoint.
+     * @param majorUrlParameter The major url parameter. Might be <code>null</code>.
+     * @return The key of the bucket.
+     */
+    private static String getBucketKey(RestEndpoint endpoint, String majorUrlParameter) {
+        return (endpoint.isGlobal() ? "global" : endpoint.name()) + ":" + majorUrlParameter;
+    }
+
+    /**
+     * Creates a new bucket. If Discord already reported a bucket hash for the endpoint, the bucket uses the shared
+     * window of this hash.
+     *
+     * @param endpoint The endpoint.
+     * @param majorUrlParameter The major url parameter. Might be <code>null</code>.
+     * @return The new bucket.
+     */
+    private RatelimitBucket createBucket(RestEndpoint endpoint, String majorUrlParameter) {
+        RatelimitBucket bucket = new RatelimitBucket(api, endpoint, majorUrlParameter);
+        String bucketHash = bucketHashes.get(endpoint);
+        if (bucketHash != null) {
+            bucket.setWindow(sharedWindows.computeIfAbsent(
+                    bucketHash + ":" + majorUrlParameter, key -> bucket.getWindow()));
+        }
+        return bucket;
+    }
+
     /**
      * Adds a request to the queue based on the ratelimit bucket.
      * This method is automatically called when using {@link RestRequest#execute(Function)}!
@@ -49,18 +152,12 @@ public class RatelimitManager {
      */
     public void queueRequest(RestRequest<?> request) {
         // Get the bucket for the current request type.
-        RatelimitBucket bucket = buckets
-                .parallelStream()
-                .filter(b -> b.equals(request.getEndpoint(), request.getMajorUrlParameter().orElse(null)))
-                .findAny()
-                .orElse(new RatelimitBucket(api, request.getEndpoint(), request.getMajorUrlParameter().orElse(null)));
-
-        // Add bucket to list with buckets
-        buckets.add(bucket);
+        String majorUrlParameter = request.getMajorUrlParameter().orElse(null);
+        RatelimitBucket bucket = buckets.computeIfAbsent(getBucketKey(request.getEndpoint(), majorUrlParameter),
+                key -> createBucket(request.getEndpoint(), majorUrlParameter));
 
-        // Get the queue for the current bucket or create a new one if there's no one already
-        ConcurrentLinkedQueue<RestRequest<?>> queue =
-                queues.computeIfAbsent(bucket, k -> new ConcurrentLinkedQueue<>());
+        // Get the queue for the current bucket
+        ConcurrentLinkedQueue<RestRequest<?>> queue = bucket.getQueue();
 
         // Add the request to the queue and check if there's already a scheduler working on the queue
         boolean startScheduler = false;
@@ -97,9 +194,21 @@ public class RatelimitManager {
             logger.debug("Delaying requests to {} for {}ms to prevent hitting ratelimits", bucket, delay);
         }
         // Start a scheduler to work off the queue
-        scheduler.schedule(() -> api.getThreadPool().getExecutorService().submit(() -> {
+        api.getThreadPool().getScheduler().schedule(() -> api.getThreadPool().getExecutorService().submit(() -> {
             try {
-                while (!queue.isEmpty()) {
+                // The time since the request at the head of the queue is waiting for the ratelimits
+                long waitStartTime = System.nanoTime();
+                while (true) {
+                    // The scheduler must only stop while holding the locks, otherwise a request which is added after
+                    // the check would never be sent, because the bucket still has an active scheduler
+                    synchronized (bucket) {
+                        synchronized (queue) {
+                            if (queue.isEmpty()) {
+                                bucket.setHasActiveScheduler(false);
+                                break;
+                            }
+                        }
+                    }
                     if (!bucket.hasSpace()) {
                         synchronized (queue) {
                             // Remove if we retried to often
@@ -114,7 +223,7 @@ public class RatelimitManager {
                                 return false;
                             });
                             if (queue.isEmpty()) {
-                                break;
+                                continue;
                             }
                         }
                         try {
@@ -127,7 +236,25 @@ public class RatelimitManager {
                             logger.warn("We got interrupted while waiting for a rate limit!", e);
                         }
                     }
+                    // The window in which the permit is reserved. It must be released or updated by the response.
+                    RatelimitWindow window = bucket.getWindow();
+                    try {
+                        // Spread the requests evenly across the window and stay below the global ratelimit
+                        long waitTime = window.reserve(System.currentTimeMillis());
+                        if (waitTime > 0) {
+                            Thread.sleep(waitTime);
+                            continue;
+                        }
+                        waitTime = reserveGlobal(System.currentTimeMillis());
+                        if (waitTime > 0) {
+                            Thread.sleep(waitTime);
+                        }
+                    } catch (InterruptedException e) {
+                        logger.warn("We got interrupted while waiting for a rate limit!", e);
+                    }
                     RestRequest<?> restRequest = queue.peek();
+                    api.getMetricsRecorder().recordBucketWait(
+                            restRequest.getEndpoint(), System.nanoTime() - waitStartTime);
                     boolean remove = true;
                     try {
                         RestRequestResult result = restRequest.executeBlocking();
@@ -140,42 +267,22 @@ public class RatelimitManager {
 
                         if (result.getResponse().code() == 429) {
                             remove = false;
-                            logger.debug("Received a 429 response from Discord! Recalculating time offset...");
-                            api.setTimeOffset(null);
-
-                            int retryAfter =
-                                    result.getJsonBody().isNull() ? 0 : result.getJsonBody().get("retry_after").asInt();
-                            bucket.setRateLimitRemaining(0);
-                            bucket.setRateLimitResetTimestamp(currentTime + retryAfter);
+                            handleTooManyRequests(bucket, window, result, currentTime);
                         } else {
                             restRequest.getResult().complete(result);
-
-                            String remaining = result.getResponse().header("X-RateLimit-Remaining", "1");
-                            long reset = restRequest
-                                    .getEndpoint()
-                                    .getHardcodedRatelimit()
-                                    .map(ratelimit -> currentTime + api.getTimeOffset() + ratelimit)
-                                    .orElseGet(() -> Long.parseLong(result.getResponse().header("X-RateLimit-Reset")) * 1000);
-                            String global = result.getResponse().header("X-RateLimit-Global");
-
-                            if (global != null && global.equals("true")) {
-                                // Mark the endpoint as global
-                                bucket.getEndpoint().ifPresent(endpoint -> endpoint.setGlobal(true));
-                            }
-
-                            bucket.setRateLimitRemaining(Integer.parseInt(remaining));
-                            bucket.setRateLimitResetTimestamp(reset);
+                            updateWindow(bucket, window, restRequest, result, currentTime);
                         }
                     } catch (Exception e) {
+                        window.release();
                         restRequest.getResult().completeExceptionally(e);
                     }
                     if (remove) {
                         queue.remove(restRequest);
+                        waitStartTime = System.nanoTime();
                     }
                 }
             } catch (Throwable t) {
                 logger.error("Exception in RatelimitManager! Please contact the developer!", t);
-            } finally {
                 synchronized (bucket) {
                     bucket.setHasActiveScheduler(false);
                 }
@@ -183,6 +290,118 @@ public class RatelimitManager {
         }), delay, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Reserves a slot for a request in the global ratelimit.
+     * This is a generic cell rate algorithm, which allows bursts of up to {@link #getGlobalRequestsPerSecond()}
+     * requests, but never more than this amount of requests in one second.
+     *
+     * @param now The current time.
+     * @return The time in milliseconds to wait before sending the request.
+     */
+    private synchronized long reserveGlobal(long now) {
+        long waitTime = Math.max(0, globalResetTimestamp - now);
+        double arrivalTime = Math.max(globalArrivalTime, now + waitTime);
+        waitTime = Math.max(waitTime, (long) Math.ceil(arrivalTime - now - 1000 + globalEmissionInterval));
+        globalArrivalTime = arrivalTime + globalEmissionInterval;
+        return waitTime;
+    }
+
+    /**
+     * Handles a 429 response.
+     *
+     * @param bucket The bucket of the request.
+     * @param window The window in which the permit of the request was reserved.
+     * @param result The result of the request.
+     * @param currentTime The time at which the response was received.
+     */
+    private void handleTooManyRequests(
+            RatelimitBucket bucket, RatelimitWindow window, RestRequestResult result, long currentTime) {
+        JsonNode body = result.getJsonBody();
+        long retryAfter = body.has("retry_after") ? body.get("retry_after").asLong() : 0;
+        boolean global = "true".equals(result.getResponse().header("X-RateLimit-Global"))
+                || body.path("global").asBoolean(false);
+        api.getMetricsRecorder().recordRatelimited(result.getRequest().getEndpoint(), global);
+        if (global) {
+            logger.debug("Received a 429 response from Discord for the global ratelimit! Waiting {}ms", retryAfter);
+            globalResetTimestamp = Math.max(globalResetTimestamp, currentTime + retryAfter);
+            // The request is sent again, so it must not keep its permit of the bucket
+            window.release();
+            return;
+        }
+        logger.debug("Received a 429 response from Discord for {}! Waiting {}ms", bucket, retryAfter);
+        if (result.getResponse().header("X-RateLimit-Reset-After") == null) {
+            // The reset might have been calculated with a wrong time offset
+            api.setTimeOffset(null);
+        }
+        window.exhaust(currentTime + retryAfter);
+    }
+
+    /**
+     * Updates the window of a bucket with the ratelimit headers of a response.
+     *
+     * The permit of the request is either released or replaced by the headers on every path.
+     *
+     * @param bucket The bucket of the request.
+     * @param window The window in which the permit of the request was reserved.
+     * @param request The request.
+     * @param result The result of the request.
+     * @param currentTime The time at which the response was received.
+     */
+    private void updateWindow(RatelimitBucket bucket, RatelimitWindow window, RestRequest<?> request,
+                              RestRequestResult result, long currentTime) {
+        Response response = result.getResponse();
+        String remaining = response.header("X-RateLimit-Remaining");
+        if (remaining == null) {
+            // The endpoint is not ratelimited by headers, e.g. reactions which have a hardcoded ratelimit
+            Optional<Integer> hardcodedRatelimit = request.getEndpoint().getHardcodedRatelimit();
+            if (hardcodedRatelimit.isPresent()) {
+                window.update(1, 0, currentTime + hardcodedRatelimit.get(), currentTime);
+            } else {
+                window.release();
+            }
+            return;
+        }
+
+        // The headers are parsed before any window is changed, so that a malformed header leaves the permit of
+        // the request in its window and the caller releases it exactly once
+        String limit = response.header("X-RateLimit-Limit");
+        String resetAfter = response.header("X-RateLimit-Reset-After");
+        String reset = response.header("X-RateLimit-Reset");
+        int parsedLimit = limit == null ? -1 : Integer.parseInt(limit);
+        int parsedRemaining = Integer.parseInt(remaining);
+        long resetTimestamp = -1;
+        if (resetAfter != null) {
+            resetTimestamp = currentTime + (long) Math.ceil(Double.parseDouble(resetAfter) * 1000);
+        } else if (reset != null) {
+            long offset = api.getTimeOffset() == null ? 0 : api.getTimeOffset();
+            resetTimestamp = (long) Math.ceil(Double.parseDouble(reset) * 1000) - offset;
+        }
+
+        RatelimitWindow updatedWindow = window;
+        String bucketHash = response.header("X-RateLimit-Bucket");
+        if (bucketHash != null) {
+            // Buckets with the same hash share their window
+            bucketHashes.put(request.getEndpoint(), bucketHash);
+            updatedWindow = sharedWindows.computeIfAbsent(
+                    bucketHash + ":" + request.getMajorUrlParameter().orElse(null), key -> window);
+            if (updatedWindow != window) {
+                // The permit is returned to the previous window, which may still be used by other buckets. The
+                // shared window counts the request with the remaining requests of the headers instead.
+                window.release();
+                bucket.setWindow(updatedWindow);
+            }
+        }
+
+        if (resetAfter == null && reset == null) {
+            // Without a reset the headers cannot be applied, so the window must not keep the permit
+            if (updatedWindow == window) {
+                window.release();
+            }
+            return;
+        }
+        updatedWindow.update(parsedLimit, parsedRemaining, resetTimestamp, currentTime);
+    }
+
     /**
      * Calculates the offset of the local time and discord's time.
      *
@@ -197,7 +416,7 @@ public class RatelimitManager {
             long discordTimestamp = OffsetDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME)
                     .toInstant().toEpochMilli();
             api.setTimeOffset((discordTimestamp - currentTime));
-            logger.debug("Calculated an offset of " + api.getTimeOffset() + " to the Discord time.");
+            logger.debug("Calculated an offset of {} to the Discord time.", api.getTimeOffset());
         }
     }
 
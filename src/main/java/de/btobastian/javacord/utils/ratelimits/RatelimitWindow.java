@@ -0,0 +1,151 @@
+package de.btobastian.javacord.utils.ratelimits;
+
+/**
+ * The state of a ratelimit window of Discord.
+ * A window can be shared by many {@link RatelimitBucket buckets}, if Discord reports the same bucket hash for them.
+ * Requests reserve a permit before they are sent, so requests of different buckets which share a window never
+ * exceed its limit. The permits are spread evenly across the remaining time of the window instead of sending all
+ * requests at once and waiting for the reset afterwards.
+ * All timestamps are local timestamps in milliseconds.
+ */
+class RatelimitWindow {
+
+    /**
+     * The time in milliseconds to wait if the window is exhausted, but its reset is not known yet.
+     * This only happens while the first request of a shared window is in flight.
+     */
+    private static final long UNKNOWN_RESET_DELAY = 50;
+
+    /**
+     * The amount of requests per window or <code>-1</code> if it's unknown.
+     */
+    private int limit = -1;
+
+    /**
+     * The remaining requests in the current window, including requests which are reserved but not sent yet.
+     */
+    private int remaining = 1;
+
+    /**
+     * The time at which the window resets or <code>0</code> if it's unknown.
+     */
+    private long resetTimestamp = 0;
+
+    /**
+     * The length of a window in milliseconds or <code>-1</code> if it's unknown.
+     */
+    private long windowLength = -1;
+
+    /**
+     * The time at which the next request may be sent.
+     */
+    private long nextSendTimestamp = 0;
+
+    /**
+     * Tries to reserve a permit for a request.
+     *
+     * @param now The current time.
+     * @return <code>0</code> if a permit was reserved, otherwise the time in milliseconds to wait before trying again.
+     */
+    synchronized long reserve(long now) {
+        if (resetTimestamp != 0 && resetTimestamp <= now) {
+            // The window is over, predict the next one until a response tells us better
+            if (limit > 0) {
+                remaining = limit;
+                resetTimestamp = windowLength > 0 ? now + windowLength : 0;
+            } else {
+                remaining = Math.max(remaining, 1);
+                resetTimestamp = 0;
+            }
+            nextSendTimestamp = now;
+        }
+        if (remaining <= 0) {
+            return resetTimestamp == 0 ? UNKNOWN_RESET_DELAY : resetTimestamp - now;
+        }
+        if (nextSendTimestamp > now) {
+            return nextSendTimestamp - now;
+        }
+        if (resetTimestamp > now) {
+            nextSendTimestamp = now + (resetTimestamp - now) / remaining;
+        }
+        remaining--;
+        return 0;
+    }
+
+    /**
+     * Updates the window with the ratelimit headers of a response.
+     *
+     * @param limit The amount of requests per window or <code>-1</code> if it's unknown.
+     * @param remaining The remaining requests in the window.
+     * @param resetTimestamp The time at which the window resets.
+     * @param now The current time.
+     */
+    synchronized void update(int limit, int remaining, long resetTimestamp, long now) {
+        if (limit > 0) {
+            this.limit = limit;
+        }
+        if (this.resetTimestamp == 0 || this.resetTimestamp <= now) {
+            this.remaining = remaining;
+        } else {
+            // Requests which are reserved but not sent yet are not included in the remaining requests of Discord
+            this.remaining = Math.min(this.remaining, remaining);
+        }
+        this.resetTimestamp = resetTimestamp;
+        windowLength = Math.max(windowLength, resetTimestamp - now);
+    }
+
+    /**
+     * Returns the reserved permit of a request, which is not counted by the window otherwise.
+     * This is the case if the request failed, if it hit the global ratelimit or if its response didn't contain the
+     * headers to update the window. Without headers, the window is never updated, so the next request could never
+     * reserve a permit otherwise.
+     */
+    synchronized void release() {
+        // The window may have been reset after the permit was reserved, so it never exceeds the limit
+        remaining = limit > 0 ? Math.min(remaining + 1, limit) : remaining + 1;
+    }
+
+    /**
+     * Marks the window as exhausted, e.g. after receiving a 429 response.
+     *
+     * @param resetTimestamp The time at which the window resets.
+     */
+    synchronized void exhaust(long resetTimestamp) {
+        remaining = 0;
+        this.resetTimestamp = resetTimestamp;
+        nextSendTimestamp = 0;
+    }
+
+    /**
+     * Sets the remaining requests in the current window.
+     *
+     * @param remaining The remaining requests.
+     */
+    synchronized void setRemaining(int remaining) {
+        this.remaining = remaining;
+    }
+
+    /**
+     * Sets the time at which the window resets.
+     *
+     * @param resetTimestamp The time at which the window resets.
+     */
+    synchronized void setResetTimestamp(long resetTimestamp) {
+        this.resetTimestamp = resetTimestamp;
+    }
+
+    /**
+     * Gets the time in milliseconds till a request can be sent without exceeding the limit.
+     * This does not include the spacing of the requests.
+     *
+     * @param now The current time.
+     * @return The time in milliseconds till a request can be sent.
+     */
+    synchronized long getTimeTillSpaceGetsAvailable(long now) {
+        if (remaining > 0 || resetTimestamp == 0) {
+            return 0;
+        }
+        return Math.max(0, resetTimestamp - now);
+    }
+
+}
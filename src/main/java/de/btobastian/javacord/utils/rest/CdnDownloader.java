@@ -0,0 +1,287 @@
+package de.btobastian.javacord.utils.rest;
+
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.utils.logging.LoggerUtil;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.Okio;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * This class downloads files from Discord's cdn, like icons, avatars and attachments.
+ * Downloads use the http client of the api, so they share its connection pool. The urls of cdn files contain the
+ * hash or the id of the file and their content never changes, so downloaded files can be stored in a disk cache
+ * without ever revalidating them. Concurrent downloads of the same url are only requested once, except for
+ * downloads into temporary files, which are owned by their callers. Without a disk cache, nothing is kept on disk.
+ */
+public class CdnDownloader {
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(CdnDownloader.class);
+
+    /**
+     * The discord api instance.
+     */
+    private final DiscordApi api;
+
+    /**
+     * The directory of the disk cache. Might be <code>null</code> if no disk cache is used.
+     */
+    private volatile Path cacheDirectory = null;
+
+    /**
+     * The downloads to memory which are currently running. The key is the url of the file.
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<ByteBuffer>> runningDownloads =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The downloads to files which are currently running. The key is the url of the file.
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> runningFileDownloads = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new cdn downloader.
+     *
+     * @param api The discord api instance.
+     */
+    public CdnDownloader(DiscordApi api) {
+        this.api = api;
+    }
+
+    /**
+     * Gets the directory of the disk cache.
+     *
+     * @return The directory of the disk cache.
+     */
+    public Optional<Path> getCacheDirectory() {
+        return Optional.ofNullable(cacheDirectory);
+    }
+
+    /**
+     * Sets the directory of the disk cache.
+     * The directory is created if it doesn't exist. The files in the directory are never deleted by Javacord.
+     *
+     * @param cacheDirectory The directory of the disk cache or <code>null</code> to disable the disk cache.
+     * @throws IOException If the directory could not be created.
+     */
+    public void setCacheDirectory(Path cacheDirectory) throws IOException {
+        if (cacheDirectory != null) {
+            Files.createDirectories(cacheDirectory);
+        }
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Downloads the file with the given url into memory.
+     * If a disk cache is set, the file is read from the cache or stored in the cache after downloading it.
+     *
+     * @param url The url of the file.
+     * @return A read-only buffer with the content of the file. Every call gets its own buffer, which shares the
+     *         content with the buffers of concurrent calls.
+     */
+    public CompletableFuture<ByteBuffer> download(URL url) {
+        // Concurrent calls share the download, but not the position and limit of the buffer
+        return singleFlight(runningDownloads, url, key -> {
+            if (cacheDirectory == null) {
+                return request(url, body -> ByteBuffer.wrap(body.bytes()).asReadOnlyBuffer());
+            }
+            return downloadToFile(url).thenApplyAsync(path -> {
+                try {
+                    return ByteBuffer.wrap(Files.readAllBytes(path)).asReadOnlyBuffer();
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, api.getThreadPool().getExecutorService());
+        }).thenApply(ByteBuffer::duplicate);
+    }
+
+    /**
+     * Downloads the file with the given url into a file.
+     * If a disk cache is set, the file is stored in the cache directory. It's shared by all callers and must not be
+     * modified. Otherwise every call downloads the file into a new temporary file, which is owned by the caller and
+     * should be deleted by the caller once it's no longer needed. Javacord never deletes it.
+     *
+     * @param url The url of the file.
+     * @return The path of the downloaded file.
+     */
+    public CompletableFuture<Path> downloadToFile(URL url) {
+        Path directory = cacheDirectory;
+        if (directory == null) {
+            return request(url, body -> {
+                Path file = Files.createTempFile("javacord-cdn-", ".tmp");
+                try {
+                    write(body, file);
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(file);
+                    throw e;
+                }
+                return file;
+            });
+        }
+        return singleFlight(runningFileDownloads, url, key -> {
+            Path file = directory.resolve(hash(key));
+            if (Files.isRegularFile(file)) {
+                logger.debug("Found {} in the cdn cache", url);
+                return CompletableFuture.completedFuture(file);
+            }
+            return request(url, body -> {
+                // Write to a temporary file first, so other threads never see incomplete files
+                Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+                try {
+                    write(body, temporaryFile);
+                    Files.move(temporaryFile, file,
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temporaryFile);
+                }
+                return file;
+            });
+        });
+    }
+
+    /**
+     * Writes the given body into the given file.
+     *
+     * @param body The body of a response.
+     * @param file The file.
+     * @throws IOException If the body could not be read or the file could not be written.
+     */
+    private static void write(ResponseBody body, Path file) throws IOException {
+        try (BufferedSink sink = Okio.buffer(Okio.sink(file))) {
+            sink.writeAll(body.source());
+        }
+    }
+
+    /**
+     * Starts the given download, unless a download of the same url is already running.
+     *
+     * @param runningDownloads The downloads which are currently running.
+     * @param url The url of the file.
+     * @param download A function which starts the download of the given url.
+     * @param <T> The type of the downloaded file.
+     * @return The future of the download.
+     */
+    private <T> CompletableFuture<T> singleFlight(ConcurrentHashMap<String, CompletableFuture<T>> runningDownloads,
+                                                  URL url, Function<String, CompletableFuture<T>> download) {
+        String key = url.toExternalForm();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> runningDownload = runningDownloads.putIfAbsent(key, future);
+        if (runningDownload != null) {
+            return runningDownload;
+        }
+        CompletableFuture<T> started;
+        try {
+            started = download.apply(key);
+        } catch (Throwable t) {
+            // Callers which joined the download in the meantime must not wait forever
+            runningDownloads.remove(key, future);
+            future.completeExceptionally(t);
+            return future;
+        }
+        started.whenComplete((result, throwable) -> {
+            runningDownloads.remove(key, future);
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+            } else {
+                future.complete(result);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Requests the given url.
+     *
+     * @param url The url.
+     * @param bodyConsumer A function which consumes the body of a successful response.
+     * @param <T> The type of the result.
+     * @return The result of the body consumer.
+     */
+    private <T> CompletableFuture<T> request(URL url, BodyConsumer<T> bodyConsumer) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        logger.debug("Trying to download {}", url);
+        Request request = new Request.Builder().url(url).build();
+        api.getHttpClient().newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    if (!response.isSuccessful()) {
+                        throw new IOException("Received " + response.code() + " while downloading " + url);
+                    }
+                    logger.debug("Downloaded {} (content length: {})", url, body.contentLength());
+                    future.complete(bodyConsumer.accept(body));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Calculates the name of the cache file for the given url.
+     *
+     * @param url The url.
+     * @return The hex encoded sha-256 hash of the url.
+     */
+    private static String hash(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every jvm has to support sha-256
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * A function which consumes the body of a response.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    private interface BodyConsumer<T> {
+
+        /**
+         * Consumes the body of a response.
+         *
+         * @param body The body of the response.
+         * @return The result.
+         * @throws IOException If the body could not be read.
+         */
+        T accept(ResponseBody body) throws IOException;
+
+    }
+
+}
@@ -0,0 +1,38 @@
+package de.btobastian.javacord.utils.rest;
+
+/**
+ * This enum contains the ways how the origin of a rest request can be captured.
+ * The origin is the cause of the exception if a request fails, e.g. a {@link
+ * de.btobastian.javacord.exceptions.MissingPermissionsException}. The exception always contains the request and its
+ * result, no matter which mode is used.
+ *
+ * @see de.btobastian.javacord.DiscordApi#setOriginCaptureMode(OriginCaptureMode)
+ */
+public enum OriginCaptureMode {
+
+    /**
+     * Captures the full stack trace of every request.
+     * This is the most useful mode for debugging, but filling the stack trace is expensive if many requests are sent.
+     */
+    FULL,
+
+    /**
+     * Captures the full stack trace of one of 100 requests (randomly chosen).
+     * The origin of the other requests has no stack trace.
+     */
+    SAMPLED,
+
+    /**
+     * Only captures the frame which called Javacord, e.g. the listener of your bot which sent a message.
+     * Walking the stack has a fixed cost, so this is only faster than {@link #FULL} for deep stacks, but the origin of
+     * pending requests uses a lot less memory. Use {@link #SAMPLED} or {@link #OFF} if you send a lot of requests.
+     * This requires Java 9 or newer. On Java 8, the full stack trace is captured instead.
+     */
+    CALLER,
+
+    /**
+     * Does not capture any stack trace.
+     */
+    OFF
+
+}
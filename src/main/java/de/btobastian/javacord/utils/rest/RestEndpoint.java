@@ -149,7 +149,19 @@ public enum RestEndpoint {
      * @return The full url of the endpoint.
      */
     public String getFullUrl(String... parameters) {
-        String url = "https://discordapp.com/api/v" + Javacord.DISCORD_GATEWAY_PROTOCOL_VERSION + getEndpointUrl();
+        return getFullUrlWithBaseUrl(Javacord.DISCORD_API_URL, parameters);
+    }
+
+    /**
+     * Gets the full url of the endpoint for the given base url.
+     * Parameters which are "too much" are added to the end.
+     *
+     * @param baseUrl The base url of the rest api, e.g. <code>https://discordapp.com/api/v6</code>.
+     * @param parameters The parameters of the url. E.g. for channel ids.
+     * @return The full url of the endpoint.
+     */
+    public String getFullUrlWithBaseUrl(String baseUrl, String... parameters) {
+        String url = baseUrl + getEndpointUrl();
         url = String.format(url, (Object[]) parameters);
         int parameterAmount = getEndpointUrl().split("%s").length - (getEndpointUrl().endsWith("%s") ? 0 : 1);
         if (parameters.length > parameterAmount) {
@@ -171,4 +183,16 @@ public enum RestEndpoint {
         return HttpUrl.parse(getFullUrl(parameters));
     }
 
+    /**
+     * Gets the full {@link HttpUrl http url} of the endpoint for the given base url.
+     * Parameters which are "too much" are added to the end.
+     *
+     * @param baseUrl The base url of the rest api, e.g. <code>https://discordapp.com/api/v6</code>.
+     * @param parameters The parameters of the url. E.g. for channel ids.
+     * @return The full http url of the endpoint.
+     */
+    public HttpUrl getOkHttpUrlWithBaseUrl(String baseUrl, String... parameters) {
+        return HttpUrl.parse(getFullUrlWithBaseUrl(baseUrl, parameters));
+    }
+
 }
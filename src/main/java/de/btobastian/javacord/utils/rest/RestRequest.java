@@ -6,9 +6,11 @@ import de.btobastian.javacord.exceptions.CannotMessageUserException;
 import de.btobastian.javacord.exceptions.DiscordException;
 import de.btobastian.javacord.exceptions.MissingPermissionsException;
 import de.btobastian.javacord.utils.logging.LoggerUtil;
+import de.btobastian.javacord.utils.metrics.MetricsRecorder;
 import okhttp3.*;
 import org.slf4j.Logger;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -44,6 +46,11 @@ public class RestRequest<T> {
      */
     private MultipartBody multipartBody;
 
+    /**
+     * The already encoded json body of the request.
+     */
+    private RequestBody encodedBody;
+
     /**
      * The custom major parameter if it's not included in the url (e.g. for reactions)
      */
@@ -66,7 +73,7 @@ public class RestRequest<T> {
         this.method = method;
         this.endpoint = endpoint;
 
-        this.origin = new Exception();
+        this.origin = RestRequestOrigin.capture(api.getOriginCaptureMode(), method, endpoint);
     }
 
     /**
@@ -136,6 +143,8 @@ public class RestRequest<T> {
 
     /**
      * Gets the origin of the rest request.
+     * Depending on the {@link OriginCaptureMode} of the api, the origin has the full stack trace, only the frame which
+     * called Javacord or no stack trace at all.
      *
      * @return The origin of the rest request.
      */
@@ -203,6 +212,19 @@ public class RestRequest<T> {
         return this;
     }
 
+    /**
+     * Sets the already encoded json body of the request.
+     * This allows to send the same body multiple times without encoding it again.
+     * If an encoded body is set, the {@link #setBody(String)} method is ignored!
+     *
+     * @param encodedBody The encoded body of the request.
+     * @return The current instance in order to chain call methods.
+     */
+    public RestRequest<T> setEncodedBody(RequestBody encodedBody) {
+        this.encodedBody = encodedBody;
+        return this;
+    }
+
     /**
      * Sets the body of the request.
      *
@@ -284,7 +306,8 @@ public class RestRequest<T> {
      */
     public RestRequestResult executeBlocking() throws Exception {
         Request.Builder requestBuilder = new Request.Builder();
-        HttpUrl.Builder httpUrlBuilder = endpoint.getOkHttpUrl(urlParameters).newBuilder();
+        HttpUrl.Builder httpUrlBuilder =
+                endpoint.getOkHttpUrlWithBaseUrl(api.getRestBaseUrl(), urlParameters).newBuilder();
         for (String[] queryParameter : queryParameters) {
             httpUrlBuilder.addQueryParameter(queryParameter[0], queryParameter[1]);
         }
@@ -293,6 +316,8 @@ public class RestRequest<T> {
         RequestBody requestBody;
         if (multipartBody != null) {
             requestBody = multipartBody;
+        } else if (encodedBody != null) {
+            requestBody = encodedBody;
         } else if (body != null) {
             requestBody = RequestBody.create(MediaType.parse("application/json"), body);
         } else {
@@ -321,15 +346,31 @@ public class RestRequest<T> {
         if (includeAuthorizationHeader) {
             requestBuilder.addHeader("authorization", api.getToken());
         }
-        logger.debug("Trying to send {} request to {}{}",
-                method.name(), endpoint.getFullUrl(urlParameters), body != null ? " with body " + body : "");
+        if (logger.isDebugEnabled()) {
+            logger.debug("Trying to send {} request to {}{}",
+                    method.name(), endpoint.getFullUrlWithBaseUrl(api.getRestBaseUrl(), urlParameters),
+                    body != null ? " with body " + body : "");
+        }
 
-        try (Response response = getApi().getHttpClient().newCall(requestBuilder.build()).execute()) {
+        MetricsRecorder metricsRecorder = api.getMetricsRecorder();
+        long startTime = System.nanoTime();
+        Response executedResponse;
+        try {
+            executedResponse = getApi().getHttpClient().newCall(requestBuilder.build()).execute();
+        } catch (IOException e) {
+            metricsRecorder.recordRestRequest(endpoint, 0, System.nanoTime() - startTime);
+            throw e;
+        }
+        try (Response response = executedResponse) {
             RestRequestResult result = new RestRequestResult(this, response);
-            logger.debug("Sent {} request to {} and received status code {} with{} body{}",
-                    method.name(), endpoint.getFullUrl(urlParameters), response.code(),
-                    result.getBody().map(b -> "").orElse(" empty"),
-                    result.getStringBody().map(s -> " " + s).orElse(""));
+            metricsRecorder.recordRestRequest(endpoint, response.code(), System.nanoTime() - startTime);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Sent {} request to {} and received status code {} with{} body{}",
+                        method.name(), endpoint.getFullUrlWithBaseUrl(api.getRestBaseUrl(), urlParameters),
+                        response.code(),
+                        result.getBody().map(b -> "").orElse(" empty"),
+                        result.getStringBody().map(s -> " " + s).orElse(""));
+            }
             if (response.code() >= 300 || response.code() < 200) {
                 if (!result.getJsonBody().isNull() && result.getJsonBody().has("code")) {
                     int code = result.getJsonBody().get("code").asInt();
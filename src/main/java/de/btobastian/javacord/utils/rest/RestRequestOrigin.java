@@ -0,0 +1,206 @@
+package de.btobastian.javacord.utils.rest;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * The origin of a rest request.
+ * It's the cause of the exceptions of failed requests and has the stack trace which was captured when the request
+ * was created, depending on the {@link OriginCaptureMode}.
+ */
+class RestRequestOrigin extends Exception {
+
+    /**
+     * The serial version uid of this class.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * One of this many requests captures its full stack trace in {@link OriginCaptureMode#SAMPLED} mode.
+     */
+    static final int SAMPLE_INTERVAL = 100;
+
+    /**
+     * The package of Javacord. Frames of classes in this package are skipped when searching for the caller.
+     */
+    private static final String JAVACORD_PACKAGE = "de.btobastian.javacord.";
+
+    /**
+     * The package of the rest classes. Frames of classes in this package are never the caller.
+     */
+    private static final String REST_PACKAGE = "de.btobastian.javacord.utils.rest.";
+
+    /**
+     * The stack walker instance or <code>null</code> if the jvm has no stack walker (Java 8).
+     */
+    private static final Object stackWalker;
+
+    /**
+     * A handle of the <code>StackWalker#walk(Function)</code> method with the type
+     * <code>(Object, Function)Object</code>.
+     */
+    private static final MethodHandle walkHandle;
+
+    /**
+     * A handle of the <code>StackWalker.StackFrame#getClassName()</code> method with the type
+     * <code>(Object)String</code>.
+     */
+    private static final MethodHandle getClassNameHandle;
+
+    /**
+     * A handle of the <code>StackWalker.StackFrame#toStackTraceElement()</code> method with the type
+     * <code>(Object)StackTraceElement</code>.
+     */
+    private static final MethodHandle toStackTraceElementHandle;
+
+    static {
+        // The stack walker exists since Java 9, so it's accessed with method handles to stay compatible with Java 8
+        Object walker = null;
+        MethodHandle walk = null;
+        MethodHandle getClassName = null;
+        MethodHandle toStackTraceElement = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> stackWalkerClass = Class.forName("java.lang.StackWalker");
+            Class<?> stackFrameClass = Class.forName("java.lang.StackWalker$StackFrame");
+            walk = lookup.findVirtual(stackWalkerClass, "walk", MethodType.methodType(Object.class, Function.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, Function.class));
+            getClassName = lookup.findVirtual(stackFrameClass, "getClassName", MethodType.methodType(String.class))
+                    .asType(MethodType.methodType(String.class, Object.class));
+            toStackTraceElement = lookup.findVirtual(
+                    stackFrameClass, "toStackTraceElement", MethodType.methodType(StackTraceElement.class))
+                    .asType(MethodType.methodType(StackTraceElement.class, Object.class));
+            walker = stackWalkerClass.getMethod("getInstance").invoke(null);
+        } catch (ReflectiveOperationException ignored) { }
+        stackWalker = walker;
+        walkHandle = walk;
+        getClassNameHandle = getClassName;
+        toStackTraceElementHandle = toStackTraceElement;
+    }
+
+    /**
+     * Creates a new origin without a stack trace.
+     *
+     * @param message The message of the origin.
+     */
+    private RestRequestOrigin(String message) {
+        super(message);
+    }
+
+    /**
+     * Captures the origin of a request.
+     *
+     * @param mode The origin capture mode.
+     * @param method The http method of the request.
+     * @param endpoint The endpoint of the request.
+     * @return The origin of the request.
+     */
+    static Exception capture(OriginCaptureMode mode, RestMethod method, RestEndpoint endpoint) {
+        switch (mode) {
+            case SAMPLED:
+                if (ThreadLocalRandom.current().nextInt(SAMPLE_INTERVAL) == 0) {
+                    return captureFullStackTrace(method, endpoint);
+                }
+                return new RestRequestOrigin(method.name() + " request to " + endpoint.name()
+                        + " (the stack trace was not sampled, see OriginCaptureMode)");
+            case CALLER:
+                StackTraceElement caller = findCaller();
+                if (caller == null) {
+                    return captureFullStackTrace(method, endpoint);
+                }
+                RestRequestOrigin origin = new RestRequestOrigin(method.name() + " request to " + endpoint.name()
+                        + " (only the caller was captured, see OriginCaptureMode)");
+                origin.setStackTrace(new StackTraceElement[]{caller});
+                return origin;
+            case OFF:
+                return new RestRequestOrigin(method.name() + " request to " + endpoint.name()
+                        + " (the stack trace was not captured, see OriginCaptureMode)");
+            case FULL:
+            default:
+                return captureFullStackTrace(method, endpoint);
+        }
+    }
+
+    /**
+     * Creates an origin with the full stack trace.
+     *
+     * @param method The http method of the request.
+     * @param endpoint The endpoint of the request.
+     * @return The origin.
+     */
+    private static Exception captureFullStackTrace(RestMethod method, RestEndpoint endpoint) {
+        return new RestRequestOrigin(method.name() + " request to " + endpoint.name()).fillStackTrace();
+    }
+
+    /**
+     * Fills the stack trace of this origin.
+     *
+     * @return This origin.
+     */
+    private RestRequestOrigin fillStackTrace() {
+        super.fillInStackTrace();
+        return this;
+    }
+
+    /**
+     * Searches the frame which called Javacord with the stack walker.
+     * Unlike filling a stack trace, the stack walker stops walking as soon as the caller is found.
+     * This is the first frame outside of Javacord and the jdk or, if there's none (e.g. for requests which are sent
+     * by Javacord itself), the first frame outside of the rest classes.
+     *
+     * @return The frame of the caller or <code>null</code> if the jvm has no stack walker.
+     */
+    private static StackTraceElement findCaller() {
+        if (stackWalker == null) {
+            return null;
+        }
+        Function<Stream<?>, Object> findCallerFrame = frames -> {
+            Object fallback = null;
+            Iterator<?> iterator = frames.iterator();
+            while (iterator.hasNext()) {
+                Object frame = iterator.next();
+                String className = invokeGetClassName(frame);
+                if (!className.startsWith(JAVACORD_PACKAGE) && !className.startsWith("java.")
+                        && !className.startsWith("jdk.") && !className.startsWith("sun.")) {
+                    return frame;
+                }
+                if (fallback == null && !className.startsWith(REST_PACKAGE)) {
+                    fallback = frame;
+                }
+            }
+            return fallback;
+        };
+        try {
+            Object frame = (Object) walkHandle.invokeExact(stackWalker, findCallerFrame);
+            return frame == null ? null : (StackTraceElement) toStackTraceElementHandle.invokeExact(frame);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to walk the stack!", t);
+        }
+    }
+
+    /**
+     * Gets the name of the class of a stack frame.
+     *
+     * @param frame The stack frame.
+     * @return The name of the class.
+     */
+    private static String invokeGetClassName(Object frame) {
+        try {
+            return (String) getClassNameHandle.invokeExact(frame);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to walk the stack!", t);
+        }
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        // The stack trace is filled explicitly, depending on the origin capture mode
+        return this;
+    }
+
+}
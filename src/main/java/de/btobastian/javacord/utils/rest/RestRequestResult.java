@@ -1,12 +1,17 @@
 package de.btobastian.javacord.utils.rest;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.NullNode;
+import de.btobastian.javacord.utils.logging.LoggerUtil;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 /**
@@ -14,6 +19,11 @@ import java.util.Optional;
  */
 public class RestRequestResult {
 
+    /**
+     * The logger of {@link RestRequest}, which logs the string body of responses on debug level.
+     */
+    private static final Logger requestLogger = LoggerUtil.getLogger(RestRequest.class);
+
     private final RestRequest<?> request;
     private final Response response;
     private final ResponseBody body;
@@ -22,10 +32,12 @@ public class RestRequestResult {
 
     /**
      * Creates a new RestRequestResult.
+     * The body is parsed directly from the stream of the response. It's only kept as string, if the request failed
+     * or debug logging is enabled.
      *
      * @param request The request of the result.
      * @param response The response of the RestRequest.
-     * @throws IOException Passed on from {@link ResponseBody#string()}.
+     * @throws IOException If the body could not be read or parsed.
      */
     public RestRequestResult(RestRequest<?> request, Response response) throws IOException {
         this.request = request;
@@ -34,11 +46,29 @@ public class RestRequestResult {
         if (body == null) {
             stringBody = null;
             jsonBody = NullNode.getInstance();
+            return;
+        }
+        ObjectMapper mapper = request.getApi().getObjectMapper();
+        JsonNode json;
+        if (!response.isSuccessful() || requestLogger.isDebugEnabled()) {
+            byte[] bytes = body.bytes();
+            stringBody = new String(bytes, StandardCharsets.UTF_8);
+            try {
+                json = bytes.length == 0 ? null : mapper.readTree(bytes);
+            } catch (JsonProcessingException e) {
+                if (response.isSuccessful()) {
+                    throw e;
+                }
+                // Error responses are not always json, e.g. if they come from a proxy
+                json = null;
+            }
         } else {
-            stringBody = body.string();
-            ObjectMapper mapper = request.getApi().getObjectMapper();
-            jsonBody = mapper.readTree(stringBody);
+            stringBody = null;
+            try (InputStream stream = body.byteStream()) {
+                json = mapper.readTree(stream);
+            }
         }
+        jsonBody = json == null ? NullNode.getInstance() : json;
     }
 
     /**
@@ -70,6 +100,7 @@ public class RestRequestResult {
 
     /**
      * Gets the string body of the response.
+     * The string body is only present if the request failed or debug logging is enabled.
      *
      * @return The string body of the response.
      */
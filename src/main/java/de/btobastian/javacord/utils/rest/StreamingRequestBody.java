@@ -0,0 +1,120 @@
+package de.btobastian.javacord.utils.rest;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A request body which streams its content from the source when the request is sent, instead of copying the whole
+ * content into memory first.
+ * Files are transferred with {@link FileChannel#transferTo(long, long, WritableByteChannel)} and can be written
+ * multiple times, e.g. if a request has to be retried after hitting a ratelimit.
+ * Other streams are copied in small chunks and can only be written once.
+ */
+public class StreamingRequestBody extends RequestBody implements Closeable {
+
+    /**
+     * The content type of the body. Might be <code>null</code>.
+     */
+    private final MediaType contentType;
+
+    /**
+     * The stream of the content.
+     */
+    private final InputStream stream;
+
+    /**
+     * The channel of the file, if the stream is a file stream.
+     */
+    private final FileChannel fileChannel;
+
+    /**
+     * The position of the file channel when the body was created.
+     */
+    private final long startPosition;
+
+    /**
+     * Whether the body was already written or not.
+     */
+    private boolean written = false;
+
+    /**
+     * Creates a new streaming request body.
+     * The stream is read when the request is sent and closed by {@link #close()}.
+     *
+     * @param contentType The content type of the body. Might be <code>null</code>.
+     * @param stream The stream of the content.
+     */
+    public StreamingRequestBody(MediaType contentType, InputStream stream) {
+        this.contentType = contentType;
+        this.stream = stream;
+        if (stream instanceof FileInputStream) {
+            fileChannel = ((FileInputStream) stream).getChannel();
+            long position;
+            try {
+                position = fileChannel.position();
+            } catch (IOException e) {
+                position = 0;
+            }
+            startPosition = position;
+        } else {
+            fileChannel = null;
+            startPosition = 0;
+        }
+    }
+
+    /**
+     * Checks if the body can be written more than once.
+     *
+     * @return Whether the body can be written more than once or not.
+     */
+    public boolean isReplayable() {
+        return fileChannel != null;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return fileChannel == null ? -1 : fileChannel.size() - startPosition;
+    }
+
+    @Override
+    public synchronized void writeTo(BufferedSink sink) throws IOException {
+        if (fileChannel != null) {
+            WritableByteChannel target = Channels.newChannel(sink.outputStream());
+            long size = fileChannel.size();
+            long position = startPosition;
+            while (position < size) {
+                position += fileChannel.transferTo(position, size - position, target);
+            }
+            return;
+        }
+        if (written) {
+            throw new IOException("The stream of the request body was already consumed and cannot be sent again!");
+        }
+        written = true;
+        try (Source source = Okio.source(stream)) {
+            sink.writeAll(source);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+
+}
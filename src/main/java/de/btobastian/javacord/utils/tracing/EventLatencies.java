@@ -0,0 +1,63 @@
+package de.btobastian.javacord.utils.tracing;
+
+import java.util.EnumMap;
+
+/**
+ * The latency histograms of one type of gateway event, e.g. <code>MESSAGE_CREATE</code>.
+ */
+public class EventLatencies {
+
+    /**
+     * The type of the event.
+     */
+    private final String eventType;
+
+    /**
+     * The histograms of the stages.
+     */
+    private final EnumMap<EventStage, LatencyHistogram> histograms = new EnumMap<>(EventStage.class);
+
+    /**
+     * Creates a new instance of this class.
+     *
+     * @param eventType The type of the event.
+     */
+    EventLatencies(String eventType) {
+        this.eventType = eventType;
+        for (EventStage stage : EventStage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Gets the type of the event.
+     *
+     * @return The type of the event.
+     */
+    public String getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Gets the histogram of a stage.
+     *
+     * @param stage The stage.
+     * @return The histogram of the stage.
+     */
+    public LatencyHistogram getHistogram(EventStage stage) {
+        return histograms.get(stage);
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EventLatencies (type: %s, histograms: %s)", eventType, histograms);
+    }
+
+}
@@ -0,0 +1,39 @@
+package de.btobastian.javacord.utils.tracing;
+
+/**
+ * This enum contains the stages of a gateway event whose latencies are recorded by the {@link EventTracer}.
+ */
+public enum EventStage {
+
+    /**
+     * From receiving the frame until the payload is decompressed and parsed (websocket thread).
+     */
+    PARSE,
+
+    /**
+     * From the parsed payload until the packet handler starts, i.e. the time waiting for the handler thread.
+     */
+    HANDLER_QUEUE,
+
+    /**
+     * The time the packet handler needs, e.g. to update the cache.
+     */
+    HANDLER,
+
+    /**
+     * From dispatching an event until the first listener is called, i.e. the time waiting for the listener thread.
+     * Recorded once for every dispatched event.
+     */
+    LISTENER_QUEUE,
+
+    /**
+     * The time all listeners of a dispatched event need. Recorded once for every dispatched event.
+     */
+    LISTENERS,
+
+    /**
+     * From receiving the frame until the handler and the listeners of all dispatched events are done.
+     */
+    TOTAL
+
+}
@@ -0,0 +1,217 @@
+package de.btobastian.javacord.utils.tracing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The trace of a single gateway event.
+ * It's created when the payload was parsed, follows the packet to the handler thread and from there to the listener
+ * thread for every event which is dispatched by the handler. The trace is completed once the handler and all
+ * listeners are done.
+ * This class is used internally by the websocket adapter and the packet handlers.
+ */
+public class EventTrace {
+
+    /**
+     * The trace of the packet which is currently handled by this thread.
+     */
+    private static final ThreadLocal<EventTrace> currentTrace = new ThreadLocal<>();
+
+    /**
+     * The tracer which created this trace.
+     */
+    private final EventTracer tracer;
+
+    /**
+     * The latencies of the type of the event.
+     */
+    private final EventLatencies latencies;
+
+    /**
+     * The time when the frame was received.
+     */
+    private final long receivedTime;
+
+    /**
+     * The time when the payload was parsed.
+     */
+    private final long parsedTime;
+
+    /**
+     * The time when the handler started.
+     */
+    private long handlerStartTime;
+
+    /**
+     * The time when the handler finished.
+     */
+    private long handlerEndTime;
+
+    /**
+     * The sum of the time the dispatched events waited for the listener thread.
+     */
+    private long listenerQueueNanos;
+
+    /**
+     * The sum of the time the listeners of the dispatched events needed.
+     */
+    private long listenersNanos;
+
+    /**
+     * The amount of dispatched events.
+     */
+    private int dispatchedEvents;
+
+    /**
+     * The amount of unfinished parts, i.e. the handler and the dispatched events.
+     * The thread which finishes the last part completes the trace.
+     */
+    private final AtomicInteger unfinishedParts = new AtomicInteger(1);
+
+    /**
+     * Creates a new trace.
+     *
+     * @param tracer The tracer which created this trace.
+     * @param latencies The latencies of the type of the event.
+     * @param receivedTime The time when the frame was received.
+     * @param parsedTime The time when the payload was parsed.
+     */
+    EventTrace(EventTracer tracer, EventLatencies latencies, long receivedTime, long parsedTime) {
+        this.tracer = tracer;
+        this.latencies = latencies;
+        this.receivedTime = receivedTime;
+        this.parsedTime = parsedTime;
+    }
+
+    /**
+     * Gets the trace of the packet which is currently handled by this thread.
+     *
+     * @return The trace or <code>null</code> if the thread doesn't handle a traced packet at the moment.
+     */
+    public static EventTrace current() {
+        return currentTrace.get();
+    }
+
+    /**
+     * Marks the start of the handler.
+     * Must be called by the thread which handles the packet.
+     */
+    public void handlerStarted() {
+        handlerStartTime = System.nanoTime();
+        currentTrace.set(this);
+    }
+
+    /**
+     * Marks the end of the handler.
+     * Must be called by the thread which handles the packet.
+     */
+    public void handlerFinished() {
+        currentTrace.remove();
+        handlerEndTime = System.nanoTime();
+        latencies.getHistogram(EventStage.PARSE).record(parsedTime - receivedTime);
+        latencies.getHistogram(EventStage.HANDLER_QUEUE).record(handlerStartTime - parsedTime);
+        latencies.getHistogram(EventStage.HANDLER).record(handlerEndTime - handlerStartTime);
+        partFinished();
+    }
+
+    /**
+     * Wraps the task which calls the listeners of a dispatched event, so that the listeners are traced, too.
+     * Must be called by the thread which handles the packet.
+     *
+     * @param task The task which calls the listeners.
+     * @return The wrapped task.
+     */
+    public Runnable traceDispatch(Runnable task) {
+        unfinishedParts.incrementAndGet();
+        long dispatchTime = System.nanoTime();
+        return () -> {
+            long listenerStartTime = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                long listenerEndTime = System.nanoTime();
+                latencies.getHistogram(EventStage.LISTENER_QUEUE).record(listenerStartTime - dispatchTime);
+                latencies.getHistogram(EventStage.LISTENERS).record(listenerEndTime - listenerStartTime);
+                listenerQueueNanos += listenerStartTime - dispatchTime;
+                listenersNanos += listenerEndTime - listenerStartTime;
+                dispatchedEvents++;
+                partFinished();
+            }
+        };
+    }
+
+    /**
+     * Completes the trace if the last unfinished part finished.
+     * The atomic decrement makes the values of the other parts visible to the completing thread.
+     */
+    private void partFinished() {
+        if (unfinishedParts.decrementAndGet() == 0) {
+            long totalNanos = System.nanoTime() - receivedTime;
+            latencies.getHistogram(EventStage.TOTAL).record(totalNanos);
+            tracer.traceCompleted(this, totalNanos);
+        }
+    }
+
+    /**
+     * Gets the type of the event.
+     *
+     * @return The type of the event.
+     */
+    public String getEventType() {
+        return latencies.getEventType();
+    }
+
+    /**
+     * Gets the time it took to parse the payload.
+     *
+     * @return The time in nanoseconds.
+     */
+    long getParseNanos() {
+        return parsedTime - receivedTime;
+    }
+
+    /**
+     * Gets the time the packet waited for the handler thread.
+     *
+     * @return The time in nanoseconds.
+     */
+    long getHandlerQueueNanos() {
+        return handlerStartTime - parsedTime;
+    }
+
+    /**
+     * Gets the time the handler needed.
+     *
+     * @return The time in nanoseconds.
+     */
+    long getHandlerNanos() {
+        return handlerEndTime - handlerStartTime;
+    }
+
+    /**
+     * Gets the sum of the time the dispatched events waited for the listener thread.
+     *
+     * @return The time in nanoseconds.
+     */
+    long getListenerQueueNanos() {
+        return listenerQueueNanos;
+    }
+
+    /**
+     * Gets the sum of the time the listeners of the dispatched events needed.
+     *
+     * @return The time in nanoseconds.
+     */
+    long getListenersNanos() {
+        return listenersNanos;
+    }
+
+    /**
+     * Gets the amount of dispatched events.
+     *
+     * @return The amount of dispatched events.
+     */
+    int getDispatchedEvents() {
+        return dispatchedEvents;
+    }
+
+}
@@ -0,0 +1,151 @@
+package de.btobastian.javacord.utils.tracing;
+
+import de.btobastian.javacord.utils.logging.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class traces gateway events from receiving the frame until the listeners are done.
+ * The latencies of the {@link EventStage stages} are recorded in a histogram per event type. Optionally, every
+ * completed trace is emitted as a Java Flight Recorder event (<code>javacord.GatewayEvent</code>), which makes it
+ * possible to correlate slow events with gc pauses.
+ * Tracing is disabled by default.
+ */
+public class EventTracer {
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(EventTracer.class);
+
+    /**
+     * Whether tracing is enabled or not.
+     */
+    private volatile boolean enabled = false;
+
+    /**
+     * The emitter of the flight recorder events or <code>null</code> if no events are emitted.
+     */
+    private volatile JfrEventEmitter jfrEventEmitter = null;
+
+    /**
+     * The latencies, mapped by the type of the event.
+     */
+    private final ConcurrentHashMap<String, EventLatencies> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * Sets whether gateway events should be traced or not.
+     *
+     * @param enabled Whether gateway events should be traced or not.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Checks whether gateway events are traced or not.
+     *
+     * @return Whether gateway events are traced or not.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether every completed trace should be emitted as a flight recorder event or not.
+     * This requires Java 9 or newer (or a Java 8 build with <code>jdk.jfr</code>) and only has an effect if tracing is
+     * enabled and a flight recording is running.
+     *
+     * @param jfrEnabled Whether flight recorder events should be emitted or not.
+     * @return Whether flight recorder events are emitted now. Is <code>false</code> if the jvm doesn't support it.
+     */
+    public synchronized boolean setJfrEnabled(boolean jfrEnabled) {
+        if (!jfrEnabled) {
+            jfrEventEmitter = null;
+            return false;
+        }
+        if (jfrEventEmitter == null) {
+            try {
+                jfrEventEmitter = new JfrEventEmitter();
+            } catch (ReflectiveOperationException e) {
+                logger.warn("The flight recorder is not supported by this jvm (Java {})!",
+                        System.getProperty("java.version"));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether every completed trace is emitted as a flight recorder event or not.
+     *
+     * @return Whether flight recorder events are emitted or not.
+     */
+    public boolean isJfrEnabled() {
+        return jfrEventEmitter != null;
+    }
+
+    /**
+     * Starts the trace of a gateway event.
+     * This method is used internally by the websocket adapter.
+     *
+     * @param eventType The type of the event.
+     * @param receivedTime The {@link System#nanoTime()} when the frame was received.
+     * @param parsedTime The {@link System#nanoTime()} when the payload was parsed.
+     * @return The trace or <code>null</code> if tracing is disabled.
+     */
+    public EventTrace startTrace(String eventType, long receivedTime, long parsedTime) {
+        if (!enabled) {
+            return null;
+        }
+        EventLatencies eventLatencies = latencies.get(eventType);
+        if (eventLatencies == null) {
+            eventLatencies = latencies.computeIfAbsent(eventType, EventLatencies::new);
+        }
+        return new EventTrace(this, eventLatencies, receivedTime, parsedTime);
+    }
+
+    /**
+     * Called when a trace was completed.
+     *
+     * @param trace The trace.
+     * @param totalNanos The total time of the event in nanoseconds.
+     */
+    void traceCompleted(EventTrace trace, long totalNanos) {
+        JfrEventEmitter emitter = jfrEventEmitter;
+        if (emitter != null) {
+            emitter.emit(trace, totalNanos);
+        }
+    }
+
+    /**
+     * Gets the latencies of the given event type.
+     *
+     * @param eventType The type of the event, e.g. <code>MESSAGE_CREATE</code>.
+     * @return The latencies of the event type.
+     */
+    public Optional<EventLatencies> getLatencies(String eventType) {
+        return Optional.ofNullable(latencies.get(eventType));
+    }
+
+    /**
+     * Gets the latencies of all traced event types.
+     *
+     * @return The latencies of all traced event types.
+     */
+    public Collection<EventLatencies> getLatencies() {
+        return Collections.unmodifiableCollection(latencies.values());
+    }
+
+    /**
+     * Removes all recorded latencies.
+     */
+    public void reset() {
+        latencies.values().forEach(EventLatencies::reset);
+    }
+
+}
@@ -0,0 +1,147 @@
+package de.btobastian.javacord.utils.tracing;
+
+import de.btobastian.javacord.utils.logging.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class emits completed event traces as Java Flight Recorder events.
+ * The flight recorder api (<code>jdk.jfr</code>) is not available in every Java 8 jvm, so the event type is created
+ * at runtime with the <code>jdk.jfr.EventFactory</code> and all classes are accessed with reflection.
+ */
+class JfrEventEmitter {
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(JfrEventEmitter.class);
+
+    /**
+     * The event factory.
+     */
+    private final Object eventFactory;
+
+    /**
+     * The <code>EventFactory#newEvent()</code> method.
+     */
+    private final Method newEventMethod;
+
+    /**
+     * The <code>Event#begin()</code> method.
+     */
+    private final Method beginMethod;
+
+    /**
+     * The <code>Event#shouldCommit()</code> method.
+     */
+    private final Method shouldCommitMethod;
+
+    /**
+     * The <code>Event#set(int, Object)</code> method.
+     */
+    private final Method setMethod;
+
+    /**
+     * The <code>Event#commit()</code> method.
+     */
+    private final Method commitMethod;
+
+    /**
+     * Creates the event type.
+     *
+     * @throws ReflectiveOperationException If the jvm doesn't support the flight recorder.
+     */
+    JfrEventEmitter() throws ReflectiveOperationException {
+        Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+        Class<?> eventClass = Class.forName("jdk.jfr.Event");
+        Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+        Class<?> valueDescriptorClass = Class.forName("jdk.jfr.ValueDescriptor");
+        Constructor<?> annotationElementConstructor = annotationElementClass.getConstructor(Class.class, Object.class);
+        Constructor<?> valueDescriptorConstructor =
+                valueDescriptorClass.getConstructor(Class.class, String.class, List.class);
+
+        List<Object> eventAnnotations = Arrays.asList(
+                annotationElementConstructor.newInstance(getAnnotation("Name"), "javacord.GatewayEvent"),
+                annotationElementConstructor.newInstance(getAnnotation("Label"), "Gateway Event"),
+                annotationElementConstructor.newInstance(getAnnotation("Category"), new String[]{"Javacord"}),
+                annotationElementConstructor.newInstance(
+                        getAnnotation("Description"), "A gateway event from receiving the frame to the listeners"),
+                // The stack trace is always the same and would only make the events more expensive
+                annotationElementConstructor.newInstance(getAnnotation("StackTrace"), false));
+
+        // The order of the fields must match the indices in #emit(EventTrace, long)
+        List<Object> fields = new ArrayList<>();
+        fields.add(valueDescriptorConstructor.newInstance(String.class, "eventType", Collections.singletonList(
+                annotationElementConstructor.newInstance(getAnnotation("Label"), "Event Type"))));
+        String[][] timespanFields = {
+                {"parse", "Parse"},
+                {"handlerQueue", "Handler Queue"},
+                {"handler", "Handler"},
+                {"listenerQueue", "Listener Queue"},
+                {"listeners", "Listeners"},
+                {"total", "Total"}
+        };
+        for (String[] field : timespanFields) {
+            fields.add(valueDescriptorConstructor.newInstance(long.class, field[0], Arrays.asList(
+                    annotationElementConstructor.newInstance(getAnnotation("Label"), field[1]),
+                    annotationElementConstructor.newInstance(getAnnotation("Timespan"), "NANOSECONDS"))));
+        }
+        fields.add(valueDescriptorConstructor.newInstance(int.class, "dispatchedEvents", Collections.singletonList(
+                annotationElementConstructor.newInstance(getAnnotation("Label"), "Dispatched Events"))));
+
+        eventFactory = eventFactoryClass.getMethod("create", List.class, List.class)
+                .invoke(null, eventAnnotations, fields);
+        newEventMethod = eventFactoryClass.getMethod("newEvent");
+        beginMethod = eventClass.getMethod("begin");
+        shouldCommitMethod = eventClass.getMethod("shouldCommit");
+        setMethod = eventClass.getMethod("set", int.class, Object.class);
+        commitMethod = eventClass.getMethod("commit");
+    }
+
+    /**
+     * Gets a flight recorder annotation.
+     *
+     * @param name The simple name of the annotation.
+     * @return The annotation class.
+     * @throws ClassNotFoundException If the annotation doesn't exist.
+     */
+    private static Class<? extends Annotation> getAnnotation(String name) throws ClassNotFoundException {
+        return Class.forName("jdk.jfr." + name).asSubclass(Annotation.class);
+    }
+
+    /**
+     * Emits a completed trace as flight recorder event.
+     *
+     * @param trace The trace.
+     * @param totalNanos The total time of the event in nanoseconds.
+     */
+    void emit(EventTrace trace, long totalNanos) {
+        try {
+            Object event = newEventMethod.invoke(eventFactory);
+            beginMethod.invoke(event);
+            if (!(Boolean) shouldCommitMethod.invoke(event)) {
+                // No recording is running
+                return;
+            }
+            setMethod.invoke(event, 0, trace.getEventType());
+            setMethod.invoke(event, 1, trace.getParseNanos());
+            setMethod.invoke(event, 2, trace.getHandlerQueueNanos());
+            setMethod.invoke(event, 3, trace.getHandlerNanos());
+            setMethod.invoke(event, 4, trace.getListenerQueueNanos());
+            setMethod.invoke(event, 5, trace.getListenersNanos());
+            setMethod.invoke(event, 6, totalNanos);
+            setMethod.invoke(event, 7, trace.getDispatchedEvents());
+            commitMethod.invoke(event);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Failed to emit a flight recorder event. Please contact the developer!", e);
+        }
+    }
+
+}
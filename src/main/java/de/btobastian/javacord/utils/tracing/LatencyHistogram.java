@@ -0,0 +1,191 @@
+package de.btobastian.javacord.utils.tracing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies in nanoseconds, similar to a HdrHistogram.
+ * Values below {@value #LINEAR_BUCKETS} nanoseconds are counted exactly. Larger values are counted in buckets whose
+ * size doubles every {@value #SUB_BUCKETS} buckets, so every value is recorded with a relative error of less than
+ * <code>1/{@value #SUB_BUCKETS}</code>. Values above {@link #getHighestTrackableValue()} are counted as that value.
+ * Recording is thread-safe and does not allocate. Reading the histogram while values are recorded is possible, but
+ * the result is not an atomic snapshot.
+ */
+public class LatencyHistogram {
+
+    /**
+     * The amount of buckets for the values which are counted exactly.
+     */
+    private static final int LINEAR_BUCKETS = 32;
+
+    /**
+     * The amount of bits which are needed for the linear buckets.
+     */
+    private static final int LINEAR_BITS = 5;
+
+    /**
+     * The amount of buckets for every power of two above the linear buckets.
+     */
+    private static final int SUB_BUCKETS = LINEAR_BUCKETS / 2;
+
+    /**
+     * The highest power of two which is tracked. Larger values are counted in the last bucket.
+     */
+    private static final int MAX_EXPONENT = 36;
+
+    /**
+     * The counts of the buckets.
+     */
+    private final AtomicLongArray counts =
+            new AtomicLongArray(LINEAR_BUCKETS + (MAX_EXPONENT - LINEAR_BITS + 1) * SUB_BUCKETS);
+
+    /**
+     * The total amount of recorded values.
+     */
+    private final AtomicLong totalCount = new AtomicLong();
+
+    /**
+     * The sum of all recorded values.
+     */
+    private final AtomicLong totalSum = new AtomicLong();
+
+    /**
+     * The highest recorded value.
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value.
+     *
+     * @param nanos The value in nanoseconds. Negative values are counted as <code>0</code>.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, getHighestTrackableValue()));
+        counts.incrementAndGet(getIndex(value));
+        totalCount.incrementAndGet();
+        totalSum.addAndGet(value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Gets the index of the bucket of a value.
+     *
+     * @param value The value.
+     * @return The index of the bucket.
+     */
+    private static int getIndex(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - (LINEAR_BITS - 1);
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (exponent - LINEAR_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Gets the highest value which falls in the same bucket as the given index.
+     *
+     * @param index The index of the bucket.
+     * @return The highest value of the bucket.
+     */
+    private static long getHighestValue(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int exponent = LINEAR_BITS + (index - LINEAR_BUCKETS) / SUB_BUCKETS;
+        int subBucket = SUB_BUCKETS + (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        int shift = exponent - (LINEAR_BITS - 1);
+        return (((long) subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Gets the highest value which is tracked. Larger values are recorded as this value.
+     *
+     * @return The highest trackable value in nanoseconds (about 137 seconds).
+     */
+    public long getHighestTrackableValue() {
+        return (1L << (MAX_EXPONENT + 1)) - 1;
+    }
+
+    /**
+     * Gets the amount of recorded values.
+     *
+     * @return The amount of recorded values.
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @param unit The time unit of the returned value.
+     * @return The mean or <code>0</code> if no value was recorded.
+     */
+    public double getMean(TimeUnit unit) {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalSum.get() / count / unit.toNanos(1);
+    }
+
+    /**
+     * Gets the highest recorded value.
+     *
+     * @param unit The time unit of the returned value.
+     * @return The highest recorded value or <code>0</code> if no value was recorded.
+     */
+    public long getMax(TimeUnit unit) {
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the value at the given percentile.
+     * This is the highest value of the bucket which contains the percentile, like a HdrHistogram does.
+     *
+     * @param percentile The percentile, between <code>0</code> and <code>100</code>.
+     * @param unit The time unit of the returned value.
+     * @return The value at the given percentile or <code>0</code> if no value was recorded.
+     */
+    public long getValueAtPercentile(double percentile, TimeUnit unit) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100!");
+        }
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long currentCount = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            currentCount += counts.get(i);
+            if (currentCount >= countAtPercentile) {
+                return unit.convert(Math.min(getHighestValue(i), max.get()), TimeUnit.NANOSECONDS);
+            }
+        }
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalSum.set(0);
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LatencyHistogram (count: %d, mean: %.3fms, p50: %dus, p99: %dus, max: %dus)",
+                getCount(), getMean(TimeUnit.NANOSECONDS) / 1_000_000, getValueAtPercentile(50, TimeUnit.MICROSECONDS),
+                getValueAtPercentile(99, TimeUnit.MICROSECONDS), getMax(TimeUnit.MICROSECONDS));
+    }
+
+}
@@ -0,0 +1,114 @@
+package de.btobastian.javacord.entities.message.impl;
+
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.entities.channels.TextChannel;
+import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.utils.fake.FakeDiscord;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the paging of {@link ImplMessageHistory}.
+ * The fake Discord has a history of {@value #HISTORY_SIZE} messages, with the ids directly after the channel id.
+ */
+public class ImplMessageHistoryTest {
+
+    /**
+     * The amount of messages in the history of the channel.
+     */
+    private static final int HISTORY_SIZE = 250;
+
+    private static FakeDiscord discord;
+    private static DiscordApi api;
+    private static TextChannel channel;
+
+    @BeforeClass
+    public static void login() throws Exception {
+        discord = new FakeDiscord();
+        discord.setHistorySize(HISTORY_SIZE);
+        long serverId = discord.addServer(10, 1);
+        api = discord.createApiBuilder().login().get(30, TimeUnit.SECONDS);
+        channel = api.getTextChannelById(discord.getTextChannelIds(serverId).get(0)).get();
+    }
+
+    @AfterClass
+    public static void disconnect() {
+        api.disconnect();
+        discord.close();
+    }
+
+    @Test
+    public void getHistoryPagesBackwards() throws Exception {
+        List<Integer> pageSizes = new ArrayList<>();
+        List<Message> messages = channel.getHistory(HISTORY_SIZE, page -> pageSizes.add(page.size()))
+                .get(30, TimeUnit.SECONDS).getMessages();
+        assertIds(messages, HISTORY_SIZE, 1);
+        // The first page takes the remainder, so only the last page can be incomplete
+        assertEquals(Arrays.asList(50, 100, 100), pageSizes);
+    }
+
+    @Test
+    public void getHistoryStopsAtTheOldestMessage() throws Exception {
+        long requestCount = discord.getRequestCount();
+        List<Message> messages = channel.getHistory(1000).get(30, TimeUnit.SECONDS).getMessages();
+        assertIds(messages, HISTORY_SIZE, 1);
+        // The third page is incomplete, so there's no fourth request
+        assertEquals(3, discord.getRequestCount() - requestCount);
+    }
+
+    @Test
+    public void getHistoryBeforeUsesTheOldestMessageAsCursor() throws Exception {
+        List<Message> messages = channel.getHistoryBefore(120, channel.getId() + 201)
+                .get(30, TimeUnit.SECONDS).getMessages();
+        assertIds(messages, 200, 81);
+    }
+
+    @Test
+    public void getHistoryAfterUsesTheNewestMessageAsCursor() throws Exception {
+        List<Integer> pageSizes = new ArrayList<>();
+        List<Message> messages = channel.getHistoryAfter(150, channel.getId() + 10, page -> pageSizes.add(page.size()))
+                .get(30, TimeUnit.SECONDS).getMessages();
+        assertIds(messages, 160, 11);
+        assertEquals(Arrays.asList(50, 100), pageSizes);
+    }
+
+    @Test
+    public void streamHistoryOnlyRequestsConsumedPages() {
+        long requestCount = discord.getRequestCount();
+        List<Message> messages = channel.streamHistory().limit(150).collect(Collectors.toList());
+        assertIds(messages, HISTORY_SIZE, HISTORY_SIZE - 149);
+        assertEquals(2, discord.getRequestCount() - requestCount);
+    }
+
+    @Test
+    public void streamHistoryBeforeEndsAtTheOldestMessage() {
+        List<Message> messages = channel.streamHistoryBefore(channel.getId() + 151, false)
+                .collect(Collectors.toList());
+        assertIds(messages, 150, 1);
+    }
+
+    /**
+     * Asserts that the given messages are the consecutive messages of the history from the newest to the oldest.
+     *
+     * @param messages The messages, ordered from the newest to the oldest message.
+     * @param newest The position of the newest message in the history, starting with <code>1</code>.
+     * @param oldest The position of the oldest message in the history, starting with <code>1</code>.
+     */
+    private static void assertIds(List<Message> messages, int newest, int oldest) {
+        List<Long> expected = new ArrayList<>();
+        for (int position = newest; position >= oldest; position--) {
+            expected.add(channel.getId() + position);
+        }
+        assertEquals(expected, messages.stream().map(Message::getId).collect(Collectors.toList()));
+    }
+
+}
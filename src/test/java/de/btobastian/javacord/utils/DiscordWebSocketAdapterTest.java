@@ -0,0 +1,70 @@
+package de.btobastian.javacord.utils;
+
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.utils.fake.FakeDiscord;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link DiscordWebSocketAdapter}.
+ */
+public class DiscordWebSocketAdapterTest {
+
+    @Test
+    public void disabledEventsAreDroppedButKeepTheSequence() throws Exception {
+        try (FakeDiscord discord = new FakeDiscord()) {
+            long serverId = discord.addServer(10, 1);
+            long channelId = discord.getTextChannelIds(serverId).get(0);
+            DiscordApi api = discord.createApiBuilder()
+                    .setDisabledEventCategories(GatewayEventCategory.PRESENCES)
+                    .login().get(30, TimeUnit.SECONDS);
+            try {
+                AtomicInteger statusChanges = new AtomicInteger();
+                api.addUserChangeStatusListener(event -> statusChanges.incrementAndGet());
+                CountDownLatch messageReceived = new CountDownLatch(1);
+                api.addMessageCreateListener(event -> messageReceived.countDown());
+
+                discord.sendPresenceUpdates(serverId, 1000);
+                discord.sendMessages(channelId, 1);
+                assertTrue(messageReceived.await(30, TimeUnit.SECONDS));
+                assertEquals(0, statusChanges.get());
+
+                // Heartbeats and resumes need the sequence number of the dropped packets, too
+                int heartbeatSequence = discord.requestHeartbeat().get(30, TimeUnit.SECONDS);
+                assertEquals(discord.getLastSequence(), heartbeatSequence);
+            } finally {
+                api.disconnect();
+            }
+        }
+    }
+
+    @Test
+    public void enabledEventsAreHandled() throws Exception {
+        try (FakeDiscord discord = new FakeDiscord()) {
+            long serverId = discord.addServer(10, 1);
+            long channelId = discord.getTextChannelIds(serverId).get(0);
+            DiscordApi api = discord.createApiBuilder()
+                    .setDisabledEventCategories(GatewayEventCategory.TYPING)
+                    .login().get(30, TimeUnit.SECONDS);
+            try {
+                CountDownLatch statusChanged = new CountDownLatch(1);
+                api.addUserChangeStatusListener(event -> statusChanged.countDown());
+
+                discord.sendPresenceUpdates(serverId, 1);
+                discord.sendMessages(channelId, 1);
+                assertTrue(statusChanged.await(30, TimeUnit.SECONDS));
+                int heartbeatSequence = discord.requestHeartbeat().get(30, TimeUnit.SECONDS);
+                assertEquals(discord.getLastSequence(), heartbeatSequence);
+            } finally {
+                api.disconnect();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package de.btobastian.javacord.utils;
+
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.ThreadPoolConfiguration;
+import de.btobastian.javacord.entities.User;
+import de.btobastian.javacord.entities.UserStatus;
+import de.btobastian.javacord.utils.fake.FakeDiscord;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link EventQueueExecutor} and the overflow strategies of the handler and listener queues.
+ */
+public class EventQueueExecutorTest {
+
+    /**
+     * The executor of the test.
+     */
+    private EventQueueExecutor executor;
+
+    @After
+    public void shutdownExecutor() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void blockWaitsForSpaceAndKeepsTheOrder() throws InterruptedException {
+        executor = new EventQueueExecutor("test", Thread::new, 1, EventQueueOverflowStrategy.BLOCK);
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        executor.execute(() -> await(gate));
+        executor.execute(() -> executed.add(1));
+        assertTrue(executor.isFull());
+
+        CountDownLatch submitted = new CountDownLatch(1);
+        Thread submitter = new Thread(() -> {
+            executor.execute(() -> executed.add(2));
+            submitted.countDown();
+        });
+        submitter.start();
+        assertFalse("The submitter didn't wait for space", submitted.await(200, TimeUnit.MILLISECONDS));
+
+        gate.countDown();
+        assertTrue(submitted.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, executed.size());
+        assertEquals(1, (int) executed.get(0));
+        assertEquals(0, executor.getDroppedTasks());
+        assertEquals(1, executor.getHighWaterMark());
+    }
+
+    @Test
+    public void shedLowPriorityOnlyDropsLowPriorityTasks() throws InterruptedException {
+        executor = new EventQueueExecutor("test", Thread::new, 1, EventQueueOverflowStrategy.SHED_LOW_PRIORITY);
+        CountDownLatch gate = new CountDownLatch(1);
+        List<String> executed = new CopyOnWriteArrayList<>();
+        executor.execute(() -> await(gate));
+        executor.execute(() -> executed.add("queued"));
+        executor.execute((EventQueueExecutor.LowPriorityTask) () -> executed.add("low priority"));
+        assertEquals(1, executor.getDroppedTasks());
+
+        Thread submitter = new Thread(() -> executor.execute(() -> executed.add("normal")));
+        submitter.start();
+        gate.countDown();
+        submitter.join(5000);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, executed.size());
+        assertFalse(executed.contains("low priority"));
+    }
+
+    @Test
+    public void tasksOfTheExecutorThreadRunInlineIfTheQueueIsFull() throws InterruptedException {
+        executor = new EventQueueExecutor("test", Thread::new, 1, EventQueueOverflowStrategy.BLOCK);
+        CountDownLatch done = new CountDownLatch(3);
+        executor.execute(() -> {
+            // Waiting for space would be a deadlock, because only this thread drains the queue
+            for (int i = 0; i < 3; i++) {
+                executor.execute(done::countDown);
+            }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void coalesceKeepsTheNewestPresence() throws Exception {
+        try (FakeDiscord discord = new FakeDiscord()) {
+            // The server only has one member besides the bot, so all presence updates can be merged
+            long serverId = discord.addServer(2, 1);
+            DiscordApi api = discord.createApiBuilder()
+                    .setThreadPoolConfiguration(new ThreadPoolConfiguration()
+                            .setEventQueueCapacity(16, EventQueueOverflowStrategy.COALESCE))
+                    .login().get(30, TimeUnit.SECONDS);
+            try {
+                api.addUserChangeStatusListener(event -> sleep());
+                CountDownLatch messageReceived = new CountDownLatch(1);
+                api.addMessageCreateListener(event -> messageReceived.countDown());
+
+                // The status alternates, the last update (index 2000) sets it to idle
+                discord.sendPresenceUpdates(serverId, 2001);
+                discord.sendMessages(discord.getTextChannelIds(serverId).get(0), 1);
+                assertTrue(messageReceived.await(30, TimeUnit.SECONDS));
+
+                EventQueueExecutor handlers =
+                        (EventQueueExecutor) api.getThreadPool().getSingleThreadExecutorService("handlers");
+                assertTrue("No presence update was coalesced", handlers.getCoalescedTasks() > 0);
+                User member = api.getServerById(serverId).get().getMembers().stream()
+                        .filter(user -> user.getId() != discord.getBotUserId())
+                        .findAny().get();
+                assertEquals(UserStatus.IDLE, member.getStatus());
+            } finally {
+                api.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Waits for the given latch.
+     *
+     * @param latch The latch.
+     */
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sleeps a millisecond, like a slow listener.
+     */
+    private static void sleep() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,179 @@
+package de.btobastian.javacord.utils.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ConcurrentLongMap}.
+ */
+public class ConcurrentLongMapTest {
+
+    @Test
+    public void putReturnsThePreviousValue() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        assertNull(map.put(42, "a"));
+        assertEquals("a", map.put(42, "b"));
+        assertEquals("b", map.get(42));
+        assertEquals(1, map.size());
+        assertNull(map.get(43));
+    }
+
+    @Test
+    public void removeKeepsTheProbeSequencesOfOtherKeys() {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        // Keys which are multiples of a power of two collide in small tables
+        for (long key = 1024; key <= 1024 * 6; key += 1024) {
+            map.put(key, key);
+        }
+        assertEquals(Long.valueOf(1024 * 3), map.remove(1024 * 3));
+        assertNull(map.remove(1024 * 3));
+        assertFalse(map.containsKey(1024 * 3));
+        for (long key = 1024; key <= 1024 * 6; key += 1024) {
+            if (key != 1024 * 3) {
+                assertEquals(Long.valueOf(key), map.get(key));
+            }
+        }
+        assertEquals(5, map.size());
+
+        // A removed key can be added again
+        assertNull(map.put(1024 * 3, 7L));
+        assertEquals(Long.valueOf(7), map.get(1024 * 3));
+    }
+
+    @Test
+    public void removeWithValueOnlyRemovesTheGivenValue() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        map.put(1, "a");
+        assertFalse(map.remove(1, "b"));
+        assertTrue(map.remove(1, "a"));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void computeIfAbsentOnlyComputesMissingValues() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        assertEquals("1", map.computeIfAbsent(1, String::valueOf));
+        assertSame(map.get(1), map.computeIfAbsent(1, key -> "other"));
+    }
+
+    @Test
+    public void resizeKeepsAllEntries() {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextLong() & Long.MAX_VALUE | 1;
+            if (i % 3 == 0 && !expected.isEmpty()) {
+                // Remove an earlier key, which leaves removed slots behind for the next resize
+                long removedKey = expected.keySet().iterator().next();
+                assertEquals(expected.remove(removedKey), map.remove(removedKey));
+            }
+            assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void iteratorRemoveRemovesTheEntry() {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        for (long key = 1; key <= 1000; key++) {
+            map.put(key, key);
+        }
+        Set<Long> iterated = new HashSet<>();
+        for (Iterator<Long> iterator = map.values().iterator(); iterator.hasNext(); ) {
+            Long value = iterator.next();
+            iterated.add(value);
+            if (value % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(1000, iterated.size());
+        assertEquals(500, map.size());
+        assertEquals(500, map.values().size());
+        for (long key = 1; key <= 1000; key++) {
+            assertEquals(key % 2 != 0, map.containsKey(key));
+        }
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.values().iterator().hasNext());
+    }
+
+    @Test
+    public void readersSeeStableEntriesDuringConcurrentWrites() throws InterruptedException {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        int stableEntries = 10_000;
+        for (long key = 1; key <= stableEntries; key++) {
+            map.put(key, key);
+        }
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong failures = new AtomicLong();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Thread reader = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (!stop.get()) {
+                    long key = random.nextLong(1, stableEntries + 1);
+                    Long value = map.get(key);
+                    if (value == null || value != key) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        Thread iterating = new Thread(() -> {
+            while (!stop.get()) {
+                int stable = 0;
+                for (Long value : map.values()) {
+                    if (value <= stableEntries) {
+                        stable++;
+                    }
+                }
+                if (stable != stableEntries) {
+                    failures.incrementAndGet();
+                }
+            }
+        });
+        iterating.start();
+        readers.add(iterating);
+
+        // Adding and removing other keys resizes the table while the readers are running
+        Random random = new Random(1);
+        for (int i = 0; i < 200_000; i++) {
+            long key = stableEntries + 1 + random.nextInt(100_000);
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+            } else {
+                map.put(key, key);
+            }
+        }
+        stop.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertEquals(0, failures.get());
+    }
+
+}
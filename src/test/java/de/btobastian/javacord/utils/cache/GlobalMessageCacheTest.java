@@ -0,0 +1,168 @@
+package de.btobastian.javacord.utils.cache;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.btobastian.javacord.ImplDiscordApi;
+import de.btobastian.javacord.entities.channels.TextChannel;
+import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.utils.fake.FakeDiscord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link GlobalMessageCache} and the per-channel {@link ImplMessageCache}.
+ */
+public class GlobalMessageCacheTest {
+
+    private FakeDiscord discord;
+    private ImplDiscordApi api;
+    private GlobalMessageCache cache;
+    private TextChannel channel;
+    private ImplMessageCache channelCache;
+
+    @Before
+    public void login() throws Exception {
+        discord = new FakeDiscord();
+        long serverId = discord.addServer(10, 1);
+        api = (ImplDiscordApi) discord.createApiBuilder().login().get(30, TimeUnit.SECONDS);
+        cache = api.getMessageCache();
+        channel = api.getTextChannelById(discord.getTextChannelIds(serverId).get(0)).get();
+        channelCache = (ImplMessageCache) channel.getMessageCache();
+    }
+
+    @After
+    public void disconnect() {
+        api.disconnect();
+        discord.close();
+    }
+
+    @Test
+    public void frequentlyUsedMessagesSurviveAScan() {
+        channelCache.setCapacity(Integer.MAX_VALUE);
+        Message first = addMessage();
+        int messageSize = (int) cache.getEstimatedSize();
+        cache.setMaximumEstimatedSize(messageSize * 100L);
+
+        List<Message> frequentlyUsed = new ArrayList<>();
+        frequentlyUsed.add(first);
+        for (int i = 1; i < 100; i++) {
+            Message message = addMessage();
+            if (i < 10) {
+                frequentlyUsed.add(message);
+            }
+        }
+        for (int round = 0; round < 10; round++) {
+            for (Message message : frequentlyUsed) {
+                assertTrue(api.getCachedMessageById(message.getId()).isPresent());
+            }
+            // Apply the recorded reads to the eviction policy
+            cache.setMaximumEstimatedSize(messageSize * 100L);
+        }
+
+        // A least recently used cache would evict the frequently used messages
+        for (int i = 0; i < 1000; i++) {
+            addMessage();
+        }
+        for (Message message : frequentlyUsed) {
+            assertTrue("Message " + message.getId() + " was evicted",
+                    cache.peekMessageById(message.getId()).isPresent());
+        }
+        assertTrue(cache.getEstimatedSize() <= messageSize * 100L);
+        assertTrue(cache.getEvictionCount() >= 1000);
+    }
+
+    @Test
+    public void theCapacityLimitsTheAmountOfMessages() {
+        channelCache.setCapacity(Integer.MAX_VALUE);
+        cache.setCapacity(20);
+        for (int i = 0; i < 100; i++) {
+            addMessage();
+        }
+        assertEquals(20, cache.getSize());
+        assertEquals(80, cache.getEvictionCount());
+    }
+
+    @Test
+    public void channelsKeepTheirNewestMessages() {
+        channelCache.setCapacity(5);
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            messages.add(addMessage());
+        }
+        assertEquals(5, channelCache.getSize());
+        assertEquals(5, channelCache.getEvictionCount());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i >= 5, cache.peekMessageById(messages.get(i).getId()).isPresent());
+        }
+        assertEquals(messages.get(9), channelCache.getNewestMessage().get());
+    }
+
+    @Test
+    public void olderMessagesDontEvictNewerMessages() {
+        // Older messages are added, for example, when the history of the channel is requested
+        long olderId = discord.createMessageCreatePacket(channel.getId(), "").get("id").asLong();
+        channelCache.setCapacity(5);
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            messages.add(addMessage());
+        }
+        for (int i = 0; i < 3; i++) {
+            ObjectNode packet = discord.createMessageCreatePacket(channel.getId(), "Older message");
+            packet.put("id", String.valueOf(olderId + i));
+            api.getOrCreateMessage(channel, packet);
+        }
+        for (Message message : messages) {
+            assertTrue(cache.peekMessageById(message.getId()).isPresent());
+        }
+        assertFalse(cache.peekMessageById(olderId).isPresent());
+        assertEquals(messages.get(4), channelCache.getNewestMessage().get());
+    }
+
+    @Test
+    public void evictedMessagesAreRestoredFromTheOffHeapStore() {
+        OffHeapMessageStore store = new OffHeapMessageStore(1 << 16, 2, 3600);
+        cache.setOffHeapStore(store);
+        channelCache.setCapacity(1);
+        Message evicted = addMessage("Evicted message");
+        addMessage();
+        assertFalse(cache.peekMessageById(evicted.getId()).isPresent());
+        assertEquals(1, store.getSize());
+
+        Optional<Message> restored = api.getCachedMessageById(evicted.getId());
+        assertTrue(restored.isPresent());
+        assertEquals(evicted.getId(), restored.get().getId());
+        assertEquals("Evicted message", restored.get().getContent());
+        assertEquals(channel, restored.get().getChannel());
+        assertEquals(evicted.getAuthor().getId(), restored.get().getAuthor().getId());
+        assertEquals(evicted.getCreationTimestamp(), restored.get().getCreationTimestamp());
+    }
+
+    /**
+     * Adds a new message to the channel of the test.
+     *
+     * @return The message.
+     */
+    private Message addMessage() {
+        return addMessage("Hello World!");
+    }
+
+    /**
+     * Adds a new message to the channel of the test.
+     *
+     * @param content The content of the message.
+     * @return The message.
+     */
+    private Message addMessage(String content) {
+        return api.getOrCreateMessage(channel, discord.createMessageCreatePacket(channel.getId(), content));
+    }
+
+}
@@ -0,0 +1,104 @@
+package de.btobastian.javacord.utils.cache;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link OffHeapMessageStore}.
+ */
+public class OffHeapMessageStoreTest {
+
+    /**
+     * The size of the records of these tests including their header.
+     */
+    private static final int RECORD_SIZE = Long.BYTES + Integer.BYTES + 4;
+
+    @Test
+    public void getReturnsTheNewestRecord() {
+        OffHeapMessageStore store = new OffHeapMessageStore(1024, 2, 60);
+        assertTrue(store.put(1, record("aaaa")));
+        assertTrue(store.put(2, record("bbbb")));
+        assertTrue(store.put(1, record("cccc")));
+        assertArrayEquals(record("cccc"), store.get(1).get());
+        assertArrayEquals(record("bbbb"), store.get(2).get());
+        assertFalse(store.get(3).isPresent());
+        assertEquals(2, store.getSize());
+    }
+
+    @Test
+    public void removeOnlyRemovesTheGivenRecord() {
+        OffHeapMessageStore store = new OffHeapMessageStore(1024, 2, 60);
+        store.put(1, record("aaaa"));
+        store.put(2, record("bbbb"));
+        store.remove(1);
+        assertFalse(store.get(1).isPresent());
+        assertArrayEquals(record("bbbb"), store.get(2).get());
+        assertEquals(1, store.getSize());
+    }
+
+    @Test
+    public void theOldestSegmentIsRecycled() {
+        // Every segment holds two records
+        OffHeapMessageStore store = new OffHeapMessageStore(RECORD_SIZE * 2, 2, 60);
+        for (long id = 1; id <= 5; id++) {
+            assertTrue(store.put(id, record("r" + id + "xx")));
+        }
+        // The first segment with the records 1 and 2 was reused for record 5
+        assertFalse(store.get(1).isPresent());
+        assertFalse(store.get(2).isPresent());
+        for (long id = 3; id <= 5; id++) {
+            assertArrayEquals(record("r" + id + "xx"), store.get(id).get());
+        }
+        assertEquals(3, store.getSize());
+        assertEquals(RECORD_SIZE * 4, store.getAllocatedSize());
+    }
+
+    @Test
+    public void recyclingKeepsNewerRecordsOfTheSameMessage() {
+        OffHeapMessageStore store = new OffHeapMessageStore(RECORD_SIZE * 2, 2, 60);
+        store.put(1, record("old1"));
+        store.put(2, record("old2"));
+        store.put(1, record("new1"));
+        store.put(3, record("rec3"));
+        store.put(4, record("rec4"));
+        assertArrayEquals(record("new1"), store.get(1).get());
+        assertFalse(store.get(2).isPresent());
+    }
+
+    @Test
+    public void recordsWhichDontFitIntoASegmentAreNotStored() {
+        OffHeapMessageStore store = new OffHeapMessageStore(RECORD_SIZE, 1, 60);
+        assertFalse(store.put(1, record("too long")));
+        assertFalse(store.get(1).isPresent());
+    }
+
+    @Test
+    public void cleanDropsExpiredSegments() throws InterruptedException {
+        OffHeapMessageStore store = new OffHeapMessageStore(1024, 2, 60);
+        store.put(1, record("aaaa"));
+        store.clean();
+        assertTrue(store.get(1).isPresent());
+        store.setMaximumAgeInSeconds(0);
+        Thread.sleep(10);
+        store.clean();
+        assertFalse(store.get(1).isPresent());
+        assertEquals(0, store.getAllocatedSize());
+    }
+
+    /**
+     * Creates a record with the given content.
+     *
+     * @param content The content.
+     * @return The record.
+     */
+    private static byte[] record(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
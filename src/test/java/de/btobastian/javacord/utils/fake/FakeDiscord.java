@@ -0,0 +1,587 @@
+package de.btobastian.javacord.utils.fake;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.btobastian.javacord.DiscordApiBuilder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-process stand-in for Discord, which can be used for load and regression tests without network access.
+ * It consists of a websocket gateway and a rest api on the loopback interface. The gateway sends a READY packet and a
+ * GUILD_CREATE packet for every added server after identifying, answers member requests with member chunks, and can
+ * dispatch scripted presence updates and messages. The rest api serves the gateway url, the application info and
+ * message endpoints, and can simulate ratelimits with Discord's headers and 429 responses.
+ *
+ * <pre>
+ * try (FakeDiscord discord = new FakeDiscord()) {
+ *     long serverId = discord.addServer(10_000, 5);
+ *     DiscordApi api = discord.createApiBuilder().login().join();
+ *     discord.sendMessages(discord.getTextChannelIds(serverId).get(0), 100_000);
+ * }
+ * </pre>
+ */
+public class FakeDiscord implements Closeable {
+
+    /**
+     * The first second of 2015, which is the epoch of Discord's snowflake ids.
+     */
+    private static final long DISCORD_EPOCH = 1420070400000L;
+
+    /**
+     * The amount of members above which a server is large. Large servers only contain the first members in their
+     * GUILD_CREATE packet and the other members are requested by the client.
+     */
+    static final int LARGE_THRESHOLD = 250;
+
+    /**
+     * The maximum amount of members in a member chunk.
+     */
+    static final int MEMBER_CHUNK_SIZE = 1000;
+
+    /**
+     * The gap between two generated ids. The ids between them are used for the message history of channels.
+     */
+    private static final long ID_GAP = 1L << 20;
+
+    /**
+     * The next id.
+     */
+    private final AtomicLong nextId = new AtomicLong((System.currentTimeMillis() - DISCORD_EPOCH) << 22);
+
+    /**
+     * The user of the bot.
+     */
+    private final ObjectNode botUser;
+
+    /**
+     * The servers, in the order they were added.
+     */
+    private final List<FakeServer> servers = new CopyOnWriteArrayList<>();
+
+    /**
+     * The servers of all text channels. The key is the id of the channel.
+     */
+    private final Map<Long, FakeServer> channelServers = new ConcurrentHashMap<>();
+
+    /**
+     * The gateway.
+     */
+    private final FakeGateway gateway;
+
+    /**
+     * The rest api.
+     */
+    private final FakeRestServer restServer;
+
+    /**
+     * Creates and starts a new fake Discord on random ports of the loopback interface.
+     *
+     * @throws IOException If the servers could not be started.
+     */
+    public FakeDiscord() throws IOException {
+        botUser = createUser(nextId(), "FakeBot", true);
+        gateway = new FakeGateway(this);
+        try {
+            restServer = new FakeRestServer(this);
+        } catch (IOException e) {
+            gateway.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates an api builder which connects to this fake Discord.
+     *
+     * @return An api builder.
+     */
+    public DiscordApiBuilder createApiBuilder() {
+        return new DiscordApiBuilder()
+                .setToken("fake-token")
+                .setRestBaseUrl(getRestBaseUrl())
+                .setGatewayUrl(getGatewayUrl());
+    }
+
+    /**
+     * Gets the base url of the rest api.
+     *
+     * @return The base url of the rest api.
+     */
+    public String getRestBaseUrl() {
+        return restServer.getBaseUrl();
+    }
+
+    /**
+     * Gets the url of the gateway.
+     *
+     * @return The url of the gateway.
+     */
+    public String getGatewayUrl() {
+        return gateway.getUrl();
+    }
+
+    /**
+     * Gets the id of the bot user.
+     *
+     * @return The id of the bot user.
+     */
+    public long getBotUserId() {
+        return botUser.get("id").asLong();
+    }
+
+    /**
+     * Adds a server which is sent to clients after they identify.
+     * Servers should be added before logging in. Servers with more than 250 members are large, so their members are
+     * requested by the client and sent in member chunks.
+     *
+     * @param memberCount The amount of members.
+     * @param textChannelCount The amount of text channels.
+     * @return The id of the server.
+     */
+    public long addServer(int memberCount, int textChannelCount) {
+        if (memberCount >= ID_GAP) {
+            throw new IllegalArgumentException("A server cannot have more than " + (ID_GAP - 1) + " members!");
+        }
+        FakeServer server = new FakeServer(nextId(), memberCount);
+        for (int i = 0; i < textChannelCount; i++) {
+            long channelId = nextId();
+            server.textChannelIds.add(channelId);
+            channelServers.put(channelId, server);
+        }
+        servers.add(server);
+        return server.id;
+    }
+
+    /**
+     * Gets the ids of the text channels of a server.
+     *
+     * @param serverId The id of the server.
+     * @return The ids of the text channels.
+     */
+    public List<Long> getTextChannelIds(long serverId) {
+        return getServer(serverId).map(server -> Collections.unmodifiableList(server.textChannelIds))
+                .orElse(Collections.emptyList());
+    }
+
+    /**
+     * Dispatches a packet to all connected clients.
+     *
+     * @param type The type of the packet, e.g. <code>MESSAGE_CREATE</code>.
+     * @param data The data of the packet.
+     */
+    public void dispatch(String type, JsonNode data) {
+        gateway.dispatch(type, data);
+    }
+
+    /**
+     * Dispatches presence updates for the members of a server to all connected clients.
+     * The status of the members alternates between online and idle.
+     *
+     * @param serverId The id of the server.
+     * @param count The amount of presence updates.
+     */
+    public void sendPresenceUpdates(long serverId, int count) {
+        FakeServer server = getServer(serverId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown server " + serverId));
+        // The bot user is not part of the presence updates
+        int members = Math.max(server.memberCount - 1, 1);
+        for (int i = 0; i < count; i++) {
+            ObjectNode presence = JsonNodeFactory.instance.objectNode();
+            presence.putObject("user").put("id", String.valueOf(server.getMemberId(i % members)));
+            presence.put("guild_id", String.valueOf(server.id))
+                    .put("status", (i / members) % 2 == 0 ? "idle" : "online")
+                    .putNull("game");
+            presence.putArray("roles");
+            gateway.dispatch("PRESENCE_UPDATE", presence);
+        }
+    }
+
+    /**
+     * Dispatches messages of the bot user in a text channel to all connected clients.
+     *
+     * @param channelId The id of the channel.
+     * @param count The amount of messages.
+     */
+    public void sendMessages(long channelId, int count) {
+        for (int i = 0; i < count; i++) {
+            gateway.dispatch("MESSAGE_CREATE", createMessage(nextId(), channelId, "Message " + i));
+        }
+    }
+
+    /**
+     * Asks the connected client to send a heartbeat.
+     * The heartbeat contains the sequence number of the last packet the client received.
+     *
+     * @return The sequence number of the heartbeat.
+     */
+    public CompletableFuture<Integer> requestHeartbeat() {
+        return gateway.requestHeartbeat();
+    }
+
+    /**
+     * Gets the sequence number of the last packet which was dispatched to the connected client.
+     *
+     * @return The sequence number or <code>0</code> if no client is connected.
+     */
+    public int getLastSequence() {
+        return gateway.getLastSequence();
+    }
+
+    /**
+     * Creates the data of the GUILD_CREATE packet of a server, like it's sent after identifying.
+     * This can be used to feed packet handlers directly, e.g. in benchmarks.
+     *
+     * @param serverId The id of the server.
+     * @return The data of the GUILD_CREATE packet.
+     */
+    public ObjectNode createGuildCreatePacket(long serverId) {
+        return createGuild(getServer(serverId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown server " + serverId)));
+    }
+
+    /**
+     * Creates the data of the GUILD_MEMBERS_CHUNK packets of a server, like they are sent after requesting the members
+     * of a large server. The list is empty for servers which are not large.
+     *
+     * @param serverId The id of the server.
+     * @return The data of the GUILD_MEMBERS_CHUNK packets.
+     */
+    public List<ObjectNode> createMemberChunkPackets(long serverId) {
+        return createMemberChunks(getServer(serverId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown server " + serverId)), MEMBER_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates the data of the MESSAGE_CREATE packet of a new message of the bot user.
+     *
+     * @param channelId The id of the channel.
+     * @param content The content of the message.
+     * @return The data of the MESSAGE_CREATE packet.
+     */
+    public ObjectNode createMessageCreatePacket(long channelId, String content) {
+        return createMessage(nextId(), channelId, content);
+    }
+
+    /**
+     * Sets the ratelimit of every route of the rest api.
+     * Routes are ratelimited per major parameter, like Discord does.
+     *
+     * @param limit The amount of requests per window or <code>0</code> to disable the ratelimit.
+     * @param windowMillis The length of a window in milliseconds.
+     */
+    public void setRatelimit(int limit, long windowMillis) {
+        restServer.setRatelimit(limit, windowMillis);
+    }
+
+    /**
+     * Sets whether all routes with the same major parameter share one ratelimit bucket, like Discord does for some
+     * routes. The responses of these routes have the same bucket hash.
+     *
+     * @param sharedBuckets Whether the routes share their ratelimit or not.
+     */
+    public void setSharedBuckets(boolean sharedBuckets) {
+        restServer.setSharedBuckets(sharedBuckets);
+    }
+
+    /**
+     * Sets the global ratelimit of the rest api.
+     *
+     * @param requestsPerSecond The amount of requests per second or <code>0</code> to disable the global ratelimit.
+     */
+    public void setGlobalRatelimit(int requestsPerSecond) {
+        restServer.setGlobalRatelimit(requestsPerSecond);
+    }
+
+    /**
+     * Sets the amount of messages in the history of every text channel.
+     *
+     * @param historySize The amount of messages.
+     */
+    public void setHistorySize(int historySize) {
+        if (historySize < 0 || historySize >= ID_GAP) {
+            throw new IllegalArgumentException("The history size must be between 0 and " + (ID_GAP - 1) + "!");
+        }
+        restServer.setHistorySize(historySize);
+    }
+
+    /**
+     * Gets the amount of requests the rest api received.
+     *
+     * @return The amount of requests.
+     */
+    public long getRequestCount() {
+        return restServer.getRequestCount();
+    }
+
+    /**
+     * Gets the amount of 429 responses the rest api sent.
+     *
+     * @return The amount of 429 responses.
+     */
+    public long getTooManyRequestsCount() {
+        return restServer.getTooManyRequestsCount();
+    }
+
+    @Override
+    public void close() {
+        restServer.close();
+        gateway.close();
+    }
+
+    /**
+     * Generates a new snowflake id.
+     *
+     * @return A new id.
+     */
+    long nextId() {
+        return nextId.getAndAdd(ID_GAP);
+    }
+
+    /**
+     * Gets the servers.
+     *
+     * @return The servers.
+     */
+    List<FakeServer> getServers() {
+        return servers;
+    }
+
+    /**
+     * Gets a server by its id.
+     *
+     * @param id The id of the server.
+     * @return The server with the given id.
+     */
+    Optional<FakeServer> getServer(long id) {
+        return servers.stream().filter(server -> server.id == id).findAny();
+    }
+
+    /**
+     * Creates the data of the READY packet.
+     *
+     * @param sessionId The id of the session.
+     * @return The data of the READY packet.
+     */
+    ObjectNode createReady(String sessionId) {
+        ObjectNode ready = JsonNodeFactory.instance.objectNode()
+                .put("v", 6)
+                .put("session_id", sessionId);
+        ready.set("user", botUser);
+        ArrayNode guilds = ready.putArray("guilds");
+        for (FakeServer server : servers) {
+            guilds.addObject().put("id", String.valueOf(server.id)).put("unavailable", true);
+        }
+        ready.putArray("private_channels");
+        return ready;
+    }
+
+    /**
+     * Creates the data of the GUILD_CREATE packet of a server.
+     *
+     * @param server The server.
+     * @return The data of the GUILD_CREATE packet.
+     */
+    ObjectNode createGuild(FakeServer server) {
+        ObjectNode guild = JsonNodeFactory.instance.objectNode()
+                .put("id", String.valueOf(server.id))
+                .put("name", "Server " + server.id)
+                .put("region", "eu-central")
+                .put("large", server.memberCount > LARGE_THRESHOLD)
+                .put("member_count", server.memberCount)
+                .put("owner_id", botUser.get("id").asText())
+                .put("verification_level", 0)
+                .put("explicit_content_filter", 0)
+                .put("default_message_notifications", 0)
+                .putNull("icon")
+                .putNull("splash");
+        guild.putArray("roles").addObject()
+                .put("id", String.valueOf(server.id))
+                .put("name", "@everyone")
+                .put("position", 0)
+                .put("color", 0)
+                .put("hoist", false)
+                .put("mentionable", false)
+                .put("permissions", 104324161)
+                .put("managed", false);
+        ArrayNode channels = guild.putArray("channels");
+        for (int i = 0; i < server.textChannelIds.size(); i++) {
+            channels.addObject()
+                    .put("id", String.valueOf(server.textChannelIds.get(i)))
+                    .put("type", 0)
+                    .put("name", "channel-" + i)
+                    .put("position", i)
+                    .putNull("topic")
+                    .putArray("permission_overwrites");
+        }
+        ArrayNode members = guild.putArray("members");
+        ArrayNode presences = guild.putArray("presences");
+        members.add(createMember(botUser));
+        int initialMembers = Math.min(server.memberCount, LARGE_THRESHOLD) - 1;
+        for (int i = 0; i < initialMembers; i++) {
+            long userId = server.getMemberId(i);
+            members.add(createMember(createUser(userId, "User" + i, false)));
+            ObjectNode presence = presences.addObject();
+            presence.putObject("user").put("id", String.valueOf(userId));
+            presence.put("status", "online").putNull("game");
+        }
+        guild.putArray("emojis");
+        return guild;
+    }
+
+    /**
+     * Creates the data of the GUILD_MEMBERS_CHUNK packets with the members which are not part of the GUILD_CREATE
+     * packet of a server.
+     *
+     * @param server The server.
+     * @param chunkSize The maximum amount of members per chunk.
+     * @return The data of the GUILD_MEMBERS_CHUNK packets.
+     */
+    List<ObjectNode> createMemberChunks(FakeServer server, int chunkSize) {
+        List<ObjectNode> chunks = new ArrayList<>();
+        ObjectNode chunk = null;
+        for (int i = Math.min(server.memberCount, LARGE_THRESHOLD) - 1; i < server.memberCount - 1; i++) {
+            if (chunk == null || chunk.get("members").size() == chunkSize) {
+                chunk = JsonNodeFactory.instance.objectNode().put("guild_id", String.valueOf(server.id));
+                chunk.putArray("members");
+                chunks.add(chunk);
+            }
+            ((ArrayNode) chunk.get("members")).add(createMember(createUser(server.getMemberId(i), "User" + i, false)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Creates the data of a message of the bot user.
+     *
+     * @param id The id of the message.
+     * @param channelId The id of the channel.
+     * @param content The content of the message.
+     * @return The data of the message.
+     */
+    ObjectNode createMessage(long id, long channelId, String content) {
+        ObjectNode message = JsonNodeFactory.instance.objectNode()
+                .put("id", String.valueOf(id))
+                .put("channel_id", String.valueOf(channelId))
+                .put("content", content)
+                .put("type", 0)
+                .put("timestamp", OffsetDateTime.ofInstant(
+                        Instant.ofEpochMilli((id >> 22) + DISCORD_EPOCH), ZoneOffset.UTC).toString())
+                .putNull("edited_timestamp")
+                .put("tts", false)
+                .put("mention_everyone", false)
+                .put("pinned", false);
+        message.set("author", botUser);
+        message.putArray("mentions");
+        message.putArray("mention_roles");
+        message.putArray("attachments");
+        message.putArray("embeds");
+        return message;
+    }
+
+    /**
+     * Creates the data of the application of the bot.
+     *
+     * @return The data of the application.
+     */
+    ObjectNode createApplicationInfo() {
+        ObjectNode application = JsonNodeFactory.instance.objectNode()
+                .put("id", botUser.get("id").asText())
+                .put("name", "FakeBot")
+                .put("description", "")
+                .put("bot_public", true)
+                .put("bot_require_code_grant", false);
+        application.set("owner", createUser(nextId(), "Owner", false));
+        return application;
+    }
+
+    /**
+     * Creates the data of a user.
+     *
+     * @param id The id of the user.
+     * @param name The name of the user.
+     * @param bot Whether the user is a bot or not.
+     * @return The data of the user.
+     */
+    private static ObjectNode createUser(long id, String name, boolean bot) {
+        return JsonNodeFactory.instance.objectNode()
+                .put("id", String.valueOf(id))
+                .put("username", name)
+                .put("discriminator", String.format("%04d", id % 10000))
+                .putNull("avatar")
+                .put("bot", bot);
+    }
+
+    /**
+     * Creates the data of a member.
+     *
+     * @param user The data of the user.
+     * @return The data of the member.
+     */
+    private static ObjectNode createMember(ObjectNode user) {
+        ObjectNode member = JsonNodeFactory.instance.objectNode();
+        member.set("user", user);
+        member.putArray("roles");
+        member.putNull("nick");
+        return member;
+    }
+
+    /**
+     * A server of the fake Discord.
+     */
+    static class FakeServer {
+
+        /**
+         * The id of the server.
+         */
+        final long id;
+
+        /**
+         * The amount of members, including the bot user.
+         */
+        final int memberCount;
+
+        /**
+         * The ids of the text channels.
+         */
+        final List<Long> textChannelIds = new ArrayList<>();
+
+        /**
+         * Creates a new server.
+         *
+         * @param id The id of the server.
+         * @param memberCount The amount of members, including the bot user.
+         */
+        FakeServer(long id, int memberCount) {
+            this.id = id;
+            this.memberCount = Math.max(memberCount, 1);
+        }
+
+        /**
+         * Gets the id of a member of this server.
+         * The ids of the members are derived from the id of the server, so they don't have to be stored.
+         *
+         * @param index The index of the member, excluding the bot user.
+         * @return The id of the member.
+         */
+        long getMemberId(int index) {
+            return id + 1 + index;
+        }
+
+    }
+
+}
@@ -0,0 +1,464 @@
+package de.btobastian.javacord.utils.fake;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.btobastian.javacord.utils.logging.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The websocket gateway of the {@link FakeDiscord}.
+ * This is a minimal websocket server (RFC 6455) which only supports unfragmented text frames from the server to the
+ * client, which is all Javacord needs.
+ */
+class FakeGateway implements Closeable {
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(FakeGateway.class);
+
+    /**
+     * The guid which is used to calculate the accept key of the websocket handshake.
+     */
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    /**
+     * The object mapper which is used to parse packets of clients.
+     */
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * The fake Discord.
+     */
+    private final FakeDiscord discord;
+
+    /**
+     * The server socket.
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * The connected sessions.
+     */
+    private final List<Session> sessions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates and starts a new gateway on a random port of the loopback interface.
+     *
+     * @param discord The fake Discord.
+     * @throws IOException If the server socket could not be opened.
+     */
+    FakeGateway(FakeDiscord discord) throws IOException {
+        this.discord = discord;
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptThread = new Thread(this::acceptConnections, "Fake Discord Gateway");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * Gets the url of the gateway.
+     *
+     * @return The url of the gateway.
+     */
+    String getUrl() {
+        return "ws://" + serverSocket.getInetAddress().getHostAddress() + ":" + serverSocket.getLocalPort();
+    }
+
+    /**
+     * Dispatches a packet to all sessions which have identified.
+     *
+     * @param type The type of the packet.
+     * @param data The data of the packet.
+     */
+    void dispatch(String type, JsonNode data) {
+        for (Session session : sessions) {
+            if (session.identified) {
+                session.dispatch(type, data);
+            }
+        }
+    }
+
+    /**
+     * Asks the first session which has identified to send a heartbeat.
+     *
+     * @return The sequence number of the heartbeat.
+     */
+    CompletableFuture<Integer> requestHeartbeat() {
+        return getIdentifiedSession().map(Session::requestHeartbeat).orElseGet(() -> {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException("No client has identified!"));
+            return future;
+        });
+    }
+
+    /**
+     * Gets the sequence number of the last packet which was dispatched to the first session which has identified.
+     *
+     * @return The sequence number or <code>0</code> if no client has identified.
+     */
+    int getLastSequence() {
+        return getIdentifiedSession().map(session -> session.sequence.get()).orElse(0);
+    }
+
+    /**
+     * Gets the first session which has identified.
+     *
+     * @return The session.
+     */
+    private Optional<Session> getIdentifiedSession() {
+        return sessions.stream().filter(session -> session.identified).findFirst();
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) { }
+        for (Session session : sessions) {
+            session.close();
+        }
+    }
+
+    /**
+     * Accepts connections until the server socket is closed.
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Session session = new Session(serverSocket.accept());
+                Thread thread = new Thread(session::run, "Fake Discord Gateway Session");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.warn("Failed to accept a connection to the fake gateway", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * A connection to the gateway.
+     */
+    private class Session {
+
+        /**
+         * The socket of the session.
+         */
+        private final Socket socket;
+
+        /**
+         * The input stream of the socket.
+         */
+        private final DataInputStream in;
+
+        /**
+         * The output stream of the socket.
+         */
+        private final DataOutputStream out;
+
+        /**
+         * The id of the session.
+         */
+        private final String sessionId = UUID.randomUUID().toString();
+
+        /**
+         * The sequence number of the last dispatched packet.
+         */
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        /**
+         * Whether the client has identified or not.
+         */
+        private volatile boolean identified = false;
+
+        /**
+         * The requested heartbeats which were not received yet.
+         */
+        private final Queue<CompletableFuture<Integer>> heartbeatRequests = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Creates a new session.
+         *
+         * @param socket The socket of the session.
+         * @throws IOException If the streams of the socket could not be opened.
+         */
+        Session(Socket socket) throws IOException {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        /**
+         * Performs the handshake and handles packets until the connection is closed.
+         */
+        void run() {
+            try {
+                handshake();
+                sessions.add(this);
+                ObjectNode hello = JsonNodeFactory.instance.objectNode().put("op", 10);
+                hello.putObject("d").put("heartbeat_interval", 41250);
+                send(hello);
+                String text;
+                while ((text = readMessage()) != null) {
+                    handlePacket(mapper.readTree(text));
+                }
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    logger.debug("Connection to the fake gateway failed", e);
+                }
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Handles a packet of the client.
+         *
+         * @param packet The packet.
+         */
+        private void handlePacket(JsonNode packet) {
+            switch (packet.get("op").asInt()) {
+                case 1:
+                    // Heartbeat
+                    send(JsonNodeFactory.instance.objectNode().put("op", 11));
+                    CompletableFuture<Integer> heartbeatRequest = heartbeatRequests.poll();
+                    if (heartbeatRequest != null) {
+                        heartbeatRequest.complete(packet.path("d").asInt(-1));
+                    }
+                    break;
+                case 2:
+                    // Identify, the servers are sent after the READY packet like Discord does
+                    identified = true;
+                    dispatch("READY", discord.createReady(sessionId));
+                    for (FakeDiscord.FakeServer server : discord.getServers()) {
+                        dispatch("GUILD_CREATE", discord.createGuild(server));
+                    }
+                    break;
+                case 6:
+                    // Resume
+                    identified = true;
+                    dispatch("RESUMED", JsonNodeFactory.instance.objectNode());
+                    break;
+                case 8:
+                    // Request guild members
+                    long serverId = packet.get("d").get("guild_id").asLong();
+                    Optional<FakeDiscord.FakeServer> server = discord.getServer(serverId);
+                    server.ifPresent(s -> discord.createMemberChunks(s, FakeDiscord.MEMBER_CHUNK_SIZE)
+                            .forEach(chunk -> dispatch("GUILD_MEMBERS_CHUNK", chunk)));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Asks the client to send a heartbeat.
+         *
+         * @return The sequence number of the heartbeat.
+         */
+        CompletableFuture<Integer> requestHeartbeat() {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            heartbeatRequests.add(future);
+            send(JsonNodeFactory.instance.objectNode().put("op", 1).putNull("d"));
+            return future;
+        }
+
+        /**
+         * Dispatches a packet to the client.
+         *
+         * @param type The type of the packet.
+         * @param data The data of the packet.
+         */
+        void dispatch(String type, JsonNode data) {
+            ObjectNode packet = JsonNodeFactory.instance.objectNode()
+                    .put("op", 0)
+                    .put("s", sequence.incrementAndGet())
+                    .put("t", type);
+            packet.set("d", data);
+            send(packet);
+        }
+
+        /**
+         * Sends a packet to the client.
+         *
+         * @param packet The packet.
+         */
+        private void send(JsonNode packet) {
+            try {
+                sendFrame(1, packet.toString().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                logger.debug("Failed to send a packet to a client of the fake gateway", e);
+                close();
+            }
+        }
+
+        /**
+         * Reads the http upgrade request and answers it.
+         *
+         * @throws IOException If the request could not be read or is not a websocket upgrade request.
+         */
+        private void handshake() throws IOException {
+            String key = null;
+            String line;
+            while (!(line = readLine()).isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                    key = line.substring(colon + 1).trim();
+                }
+            }
+            if (key == null) {
+                throw new IOException("Received a request without a websocket key");
+            }
+            String accept;
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-1")
+                        .digest((key + WEBSOCKET_GUID).getBytes(StandardCharsets.US_ASCII));
+                accept = Base64.getEncoder().encodeToString(hash);
+            } catch (NoSuchAlgorithmException e) {
+                // Every jvm has to support sha-1
+                throw new AssertionError(e);
+            }
+            out.write(("HTTP/1.1 101 Switching Protocols\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        /**
+         * Reads a line of the http upgrade request.
+         *
+         * @return The line without the line break.
+         * @throws IOException If the connection was closed.
+         */
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != '\n') {
+                if (c == -1) {
+                    throw new IOException("The connection was closed during the handshake");
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+
+        /**
+         * Reads the next text message of the client.
+         * Pings are answered and fragmented messages are joined.
+         *
+         * @return The text message or <code>null</code> if the connection was closed.
+         * @throws IOException If the message could not be read.
+         */
+        private String readMessage() throws IOException {
+            ByteArrayOutputStream message = new ByteArrayOutputStream();
+            while (true) {
+                int header = in.read();
+                if (header == -1) {
+                    return null;
+                }
+                boolean fin = (header & 0x80) != 0;
+                int opcode = header & 0x0F;
+                int lengthByte = in.readUnsignedByte();
+                long length = lengthByte & 0x7F;
+                if (length == 126) {
+                    length = in.readUnsignedShort();
+                } else if (length == 127) {
+                    length = in.readLong();
+                }
+                byte[] mask = new byte[4];
+                if ((lengthByte & 0x80) != 0) {
+                    in.readFully(mask);
+                }
+                byte[] payload = new byte[(int) length];
+                in.readFully(payload);
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] ^= mask[i & 3];
+                }
+                switch (opcode) {
+                    case 8:
+                        // Close
+                        sendFrame(8, payload);
+                        return null;
+                    case 9:
+                        // Ping
+                        sendFrame(10, payload);
+                        break;
+                    case 10:
+                        // Pong
+                        break;
+                    default:
+                        message.write(payload);
+                        if (fin) {
+                            return new String(message.toByteArray(), StandardCharsets.UTF_8);
+                        }
+                        break;
+                }
+            }
+        }
+
+        /**
+         * Sends an unmasked frame to the client.
+         *
+         * @param opcode The opcode of the frame.
+         * @param payload The payload of the frame.
+         * @throws IOException If the frame could not be sent.
+         */
+        private synchronized void sendFrame(int opcode, byte[] payload) throws IOException {
+            out.write(0x80 | opcode);
+            if (payload.length < 126) {
+                out.write(payload.length);
+            } else if (payload.length < 65536) {
+                out.write(126);
+                out.writeShort(payload.length);
+            } else {
+                out.write(127);
+                out.writeLong(payload.length);
+            }
+            out.write(payload);
+            out.flush();
+        }
+
+        /**
+         * Closes the session.
+         */
+        void close() {
+            sessions.remove(this);
+            try {
+                socket.close();
+            } catch (IOException ignored) { }
+        }
+
+    }
+
+}
@@ -0,0 +1,767 @@
+package de.btobastian.javacord.utils.fake;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.btobastian.javacord.utils.logging.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The rest api of the {@link FakeDiscord}.
+ * This is a minimal http/1.1 server with keep-alive connections, which only implements the routes Javacord needs to
+ * log in and to send, fetch and delete messages. Every route can be ratelimited like Discord does it.
+ */
+class FakeRestServer {
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(FakeRestServer.class);
+
+    /**
+     * The path of the api.
+     */
+    private static final String API_PATH = "/api/v6";
+
+    /**
+     * The object mapper which is used to parse request bodies.
+     */
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * The fake Discord.
+     */
+    private final FakeDiscord discord;
+
+    /**
+     * The server socket.
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * The executor service which handles the connections.
+     */
+    private final ExecutorService executorService;
+
+    /**
+     * The open connections.
+     */
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The ratelimits of the routes. The key is the route template and the major parameter.
+     */
+    private final Map<String, Ratelimit> ratelimits = new ConcurrentHashMap<>();
+
+    /**
+     * The global ratelimit.
+     */
+    private final Ratelimit globalRatelimit = new Ratelimit();
+
+    /**
+     * The amount of requests per window of every route or <code>0</code> if routes are not ratelimited.
+     */
+    private volatile int limit = 0;
+
+    /**
+     * The length of a window of every route in milliseconds.
+     */
+    private volatile long windowMillis = 1000;
+
+    /**
+     * Whether all routes with the same major parameter share their ratelimit or not.
+     */
+    private volatile boolean sharedBuckets = false;
+
+    /**
+     * The amount of requests per second or <code>0</code> if there's no global ratelimit.
+     */
+    private volatile int globalLimit = 0;
+
+    /**
+     * The amount of messages in the history of every text channel.
+     */
+    private volatile int historySize = 1000;
+
+    /**
+     * The amount of received requests.
+     */
+    private final AtomicLong requestCount = new AtomicLong();
+
+    /**
+     * The amount of sent 429 responses.
+     */
+    private final AtomicLong tooManyRequestsCount = new AtomicLong();
+
+    /**
+     * Creates and starts a new rest server on a random port of the loopback interface.
+     *
+     * @param discord The fake Discord.
+     * @throws IOException If the server could not be started.
+     */
+    FakeRestServer(FakeDiscord discord) throws IOException {
+        this.discord = discord;
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executorService = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "Fake Discord Rest Server Connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Thread acceptThread = new Thread(this::acceptConnections, "Fake Discord Rest Server");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * Gets the base url of the rest api.
+     *
+     * @return The base url of the rest api.
+     */
+    String getBaseUrl() {
+        return "http://" + serverSocket.getInetAddress().getHostAddress() + ":" + serverSocket.getLocalPort()
+                + API_PATH;
+    }
+
+    /**
+     * Sets the ratelimit of every route.
+     *
+     * @param limit The amount of requests per window or <code>0</code> to disable the ratelimit.
+     * @param windowMillis The length of a window in milliseconds.
+     */
+    void setRatelimit(int limit, long windowMillis) {
+        if (limit < 0 || windowMillis <= 0) {
+            throw new IllegalArgumentException("The limit cannot be negative and the window must be positive!");
+        }
+        this.windowMillis = windowMillis;
+        this.limit = limit;
+        ratelimits.clear();
+    }
+
+    /**
+     * Sets whether all routes with the same major parameter share their ratelimit.
+     *
+     * @param sharedBuckets Whether the routes share their ratelimit or not.
+     */
+    void setSharedBuckets(boolean sharedBuckets) {
+        this.sharedBuckets = sharedBuckets;
+        ratelimits.clear();
+    }
+
+    /**
+     * Sets the global ratelimit.
+     *
+     * @param requestsPerSecond The amount of requests per second or <code>0</code> to disable the global ratelimit.
+     */
+    void setGlobalRatelimit(int requestsPerSecond) {
+        if (requestsPerSecond < 0) {
+            throw new IllegalArgumentException("The global ratelimit cannot be negative!");
+        }
+        globalLimit = requestsPerSecond;
+    }
+
+    /**
+     * Sets the amount of messages in the history of every text channel.
+     *
+     * @param historySize The amount of messages.
+     */
+    void setHistorySize(int historySize) {
+        this.historySize = historySize;
+    }
+
+    /**
+     * Gets the amount of received requests.
+     *
+     * @return The amount of received requests.
+     */
+    long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Gets the amount of sent 429 responses.
+     *
+     * @return The amount of sent 429 responses.
+     */
+    long getTooManyRequestsCount() {
+        return tooManyRequestsCount.get();
+    }
+
+    /**
+     * Stops the server.
+     */
+    void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) { }
+        for (Socket connection : connections) {
+            try {
+                connection.close();
+            } catch (IOException ignored) { }
+        }
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Accepts connections until the server socket is closed.
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.add(socket);
+                executorService.submit(() -> handleConnection(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.warn("Failed to accept a connection to the fake rest server", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Handles the requests of a connection until the client closes it.
+     *
+     * @param socket The socket of the connection.
+     */
+    private void handleConnection(Socket socket) {
+        try {
+            // Responses are written at once, but a delayed ack of the request would still delay them
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            Exchange exchange;
+            while ((exchange = Exchange.read(in)) != null) {
+                handle(exchange);
+                exchange.writeResponse(out);
+                if ("close".equalsIgnoreCase(exchange.requestHeaders.get("connection"))) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            if (!serverSocket.isClosed()) {
+                logger.debug("A connection to the fake rest server failed", e);
+            }
+        } finally {
+            connections.remove(socket);
+            try {
+                socket.close();
+            } catch (IOException ignored) { }
+        }
+    }
+
+    /**
+     * Handles a request.
+     *
+     * @param exchange The exchange of the request.
+     */
+    private void handle(Exchange exchange) {
+        requestCount.incrementAndGet();
+        try {
+            if (!exchange.path.startsWith(API_PATH + "/")) {
+                send(exchange, 404, JsonNodeFactory.instance.objectNode()
+                        .put("code", 0).put("message", "404: Not Found"));
+                return;
+            }
+            String method = exchange.method;
+            String path = exchange.path.substring(API_PATH.length());
+            String[] segments = path.split("/");
+            exchange.responseHeaders.put("Content-Type", "application/json");
+
+            long now = System.currentTimeMillis();
+            int globalLimit = this.globalLimit;
+            if (globalLimit > 0) {
+                long retryAfter = globalRatelimit.acquire(globalLimit, 1000, now);
+                if (retryAfter > 0) {
+                    exchange.responseHeaders.put("X-RateLimit-Global", "true");
+                    sendTooManyRequests(exchange, retryAfter, true);
+                    return;
+                }
+            }
+            int limit = this.limit;
+            if (limit > 0) {
+                String route = sharedBuckets ? getSharedRoute(segments) : getRoute(method, segments);
+                Ratelimit ratelimit = ratelimits.computeIfAbsent(route, key -> new Ratelimit());
+                long windowMillis = this.windowMillis;
+                long retryAfter = ratelimit.acquire(limit, windowMillis, now);
+                setRatelimitHeaders(exchange, route, ratelimit, limit, now);
+                if (retryAfter > 0) {
+                    sendTooManyRequests(exchange, retryAfter, false);
+                    return;
+                }
+            }
+
+            route(exchange, method, segments);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("The fake rest server failed to handle a request", e);
+            send(exchange, 500, JsonNodeFactory.instance.objectNode().put("code", 0).put("message", e.toString()));
+        }
+    }
+
+    /**
+     * Routes a request which is not ratelimited to its handler.
+     *
+     * @param exchange The exchange of the request.
+     * @param method The http method of the request.
+     * @param segments The segments of the path of the request, starting with an empty segment.
+     * @throws IOException If the body of the request could not be parsed.
+     */
+    private void route(Exchange exchange, String method, String[] segments) throws IOException {
+        if (method.equals("GET") && segments.length >= 2 && segments[1].equals("gateway")) {
+            send(exchange, 200, JsonNodeFactory.instance.objectNode()
+                    .put("url", discord.getGatewayUrl())
+                    .put("shards", 1));
+            return;
+        }
+        if (method.equals("GET") && segments.length == 4
+                && segments[1].equals("oauth2") && segments[2].equals("applications") && segments[3].equals("@me")) {
+            send(exchange, 200, discord.createApplicationInfo());
+            return;
+        }
+        if (segments.length >= 4 && segments[1].equals("channels") && segments[3].equals("messages")) {
+            long channelId = Long.parseLong(segments[2]);
+            if (method.equals("DELETE") || (method.equals("POST") && segments.length == 5)) {
+                // Deleting a single message or bulk deleting messages
+                send(exchange, 204, null);
+                return;
+            }
+            if (method.equals("POST") && segments.length == 4) {
+                send(exchange, 200, discord.createMessage(discord.nextId(), channelId, readContent(exchange)));
+                return;
+            }
+            if (method.equals("GET") && segments.length == 4) {
+                send(exchange, 200, getMessages(channelId, parseQuery(exchange.rawQuery)));
+                return;
+            }
+        }
+        send(exchange, 404, JsonNodeFactory.instance.objectNode().put("code", 0).put("message", "404: Not Found"));
+    }
+
+    /**
+     * Gets a page of the message history of a channel.
+     * The history consists of the ids directly after the id of the channel, so no messages have to be stored.
+     *
+     * @param channelId The id of the channel.
+     * @param query The query parameters of the request.
+     * @return The messages, newest first.
+     */
+    private ArrayNode getMessages(long channelId, Map<String, String> query) {
+        int limit = Math.max(1, Math.min(100, Integer.parseInt(query.getOrDefault("limit", "50"))));
+        long oldest = channelId + 1;
+        long newest = channelId + historySize;
+        long from;
+        long to;
+        if (query.containsKey("after")) {
+            from = Math.max(oldest, Long.parseLong(query.get("after")) + 1);
+            to = Math.min(newest, from + limit - 1);
+        } else {
+            to = query.containsKey("before") ? Math.min(newest, Long.parseLong(query.get("before")) - 1) : newest;
+            from = Math.max(oldest, to - limit + 1);
+        }
+        ArrayNode messages = JsonNodeFactory.instance.arrayNode();
+        for (long id = to; id >= from; id--) {
+            messages.add(discord.createMessage(id, channelId, "History message " + (id - channelId)));
+        }
+        return messages;
+    }
+
+    /**
+     * Reads the content of a message from the body of a request.
+     * Requests with attachments are multipart requests, which are not parsed.
+     *
+     * @param exchange The exchange of the request.
+     * @return The content of the message.
+     * @throws IOException If the body could not be parsed.
+     */
+    private String readContent(Exchange exchange) throws IOException {
+        byte[] body = exchange.requestBody;
+        String contentType = exchange.requestHeaders.get("content-type");
+        if (contentType == null || !contentType.startsWith("application/json") || body.length == 0) {
+            return "";
+        }
+        JsonNode json = mapper.readTree(body);
+        return json.has("content") ? json.get("content").asText() : "";
+    }
+
+    /**
+     * Gets the route of a request, which is the http method and the path with all ids except the major parameter
+     * replaced by a placeholder.
+     *
+     * @param method The http method of the request.
+     * @param segments The segments of the path of the request.
+     * @return The route of the request.
+     */
+    private static String getRoute(String method, String[] segments) {
+        StringBuilder route = new StringBuilder(method);
+        boolean majorParameter = true;
+        for (int i = 1; i < segments.length; i++) {
+            route.append('/');
+            if (!segments[i].isEmpty() && segments[i].chars().allMatch(Character::isDigit)) {
+                if (majorParameter) {
+                    route.append(segments[i]);
+                    majorParameter = false;
+                } else {
+                    route.append("{id}");
+                }
+            } else {
+                route.append(segments[i]);
+            }
+        }
+        return route.toString();
+    }
+
+    /**
+     * Gets the route of a request if all routes with the same major parameter share their ratelimit.
+     *
+     * @param segments The segments of the path of the request.
+     * @return The shared route of the request.
+     */
+    private static String getSharedRoute(String[] segments) {
+        for (String segment : segments) {
+            if (!segment.isEmpty() && segment.chars().allMatch(Character::isDigit)) {
+                return "SHARED/" + segment;
+            }
+        }
+        return "SHARED";
+    }
+
+    /**
+     * Sets the ratelimit headers of a response.
+     *
+     * @param exchange The exchange of the request.
+     * @param route The route of the request.
+     * @param ratelimit The ratelimit of the route.
+     * @param limit The amount of requests per window.
+     * @param now The current time.
+     */
+    private static void setRatelimitHeaders(Exchange exchange, String route, Ratelimit ratelimit, int limit,
+                                            long now) {
+        long resetTimestamp;
+        int remaining;
+        synchronized (ratelimit) {
+            resetTimestamp = ratelimit.resetTimestamp;
+            remaining = Math.max(0, limit - ratelimit.used);
+        }
+        // The bucket hash does not contain the major parameter, like Discord's hashes
+        String bucket = Integer.toHexString(route.replaceAll("/\\d+", "/{major}").hashCode());
+        exchange.responseHeaders.put("X-RateLimit-Limit", String.valueOf(limit));
+        exchange.responseHeaders.put("X-RateLimit-Remaining", String.valueOf(remaining));
+        exchange.responseHeaders.put("X-RateLimit-Reset", String.format(Locale.ROOT, "%.3f", resetTimestamp / 1000d));
+        exchange.responseHeaders.put("X-RateLimit-Reset-After",
+                String.format(Locale.ROOT, "%.3f", Math.max(0, resetTimestamp - now) / 1000d));
+        exchange.responseHeaders.put("X-RateLimit-Bucket", bucket);
+    }
+
+    /**
+     * Sends a 429 response.
+     *
+     * @param exchange The exchange of the request.
+     * @param retryAfter The time in milliseconds after which the request can be retried.
+     * @param global Whether the global ratelimit was hit or not.
+     */
+    private void sendTooManyRequests(Exchange exchange, long retryAfter, boolean global) {
+        tooManyRequestsCount.incrementAndGet();
+        exchange.responseHeaders.put("Retry-After", String.valueOf((retryAfter + 999) / 1000));
+        send(exchange, 429, JsonNodeFactory.instance.objectNode()
+                .put("message", "You are being rate limited.")
+                .put("retry_after", retryAfter)
+                .put("global", global));
+    }
+
+    /**
+     * Sets the response of a request.
+     *
+     * @param exchange The exchange of the request.
+     * @param code The status code of the response.
+     * @param body The body of the response. Might be <code>null</code> for an empty body.
+     */
+    private static void send(Exchange exchange, int code, JsonNode body) {
+        exchange.responseCode = code;
+        exchange.responseBody = body == null ? new byte[0] : body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the query of a request.
+     *
+     * @param query The raw query. Might be <code>null</code>.
+     * @return The query parameters.
+     */
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) {
+            return parameters;
+        }
+        try {
+            for (String parameter : query.split("&")) {
+                int equals = parameter.indexOf('=');
+                if (equals > 0) {
+                    parameters.put(URLDecoder.decode(parameter.substring(0, equals), "UTF-8"),
+                            URLDecoder.decode(parameter.substring(equals + 1), "UTF-8"));
+                }
+            }
+        } catch (IOException e) {
+            // Every jvm has to support utf-8
+            throw new AssertionError(e);
+        }
+        return parameters;
+    }
+
+    /**
+     * A request and its response.
+     */
+    private static class Exchange {
+
+        /**
+         * The http method of the request.
+         */
+        private final String method;
+
+        /**
+         * The path of the request.
+         */
+        private final String path;
+
+        /**
+         * The raw query of the request. Might be <code>null</code>.
+         */
+        private final String rawQuery;
+
+        /**
+         * The headers of the request with lower case names.
+         */
+        private final Map<String, String> requestHeaders;
+
+        /**
+         * The body of the request.
+         */
+        private final byte[] requestBody;
+
+        /**
+         * The headers of the response.
+         */
+        private final Map<String, String> responseHeaders = new LinkedHashMap<>();
+
+        /**
+         * The status code of the response.
+         */
+        private int responseCode = 500;
+
+        /**
+         * The body of the response.
+         */
+        private byte[] responseBody = new byte[0];
+
+        /**
+         * Creates a new exchange.
+         *
+         * @param method The http method of the request.
+         * @param target The request target, i.e. the path and the query.
+         * @param requestHeaders The headers of the request with lower case names.
+         * @param requestBody The body of the request.
+         */
+        private Exchange(String method, String target, Map<String, String> requestHeaders, byte[] requestBody) {
+            this.method = method;
+            int questionMark = target.indexOf('?');
+            this.path = questionMark < 0 ? target : target.substring(0, questionMark);
+            this.rawQuery = questionMark < 0 ? null : target.substring(questionMark + 1);
+            this.requestHeaders = requestHeaders;
+            this.requestBody = requestBody;
+        }
+
+        /**
+         * Reads the next request of a connection.
+         *
+         * @param in The input stream of the connection.
+         * @return The exchange of the request or <code>null</code> if the client closed the connection.
+         * @throws IOException If the request could not be read.
+         */
+        private static Exchange read(InputStream in) throws IOException {
+            String requestLine = readLine(in);
+            if (requestLine == null) {
+                return null;
+            }
+            String[] parts = requestLine.split(" ");
+            if (parts.length != 3) {
+                throw new IOException("Invalid request line: " + requestLine);
+            }
+            Map<String, String> headers = new HashMap<>();
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                            line.substring(colon + 1).trim());
+                }
+            }
+            if (line == null) {
+                throw new IOException("The connection was closed during the request");
+            }
+            byte[] body;
+            if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+                ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+                int chunkSize;
+                while ((chunkSize = Integer.parseInt(readLine(in).split(";")[0].trim(), 16)) > 0) {
+                    chunks.write(readFully(in, chunkSize));
+                    readLine(in);
+                }
+                // Skip the trailers
+                while (!readLine(in).isEmpty()) { }
+                body = chunks.toByteArray();
+            } else {
+                body = readFully(in, Integer.parseInt(headers.getOrDefault("content-length", "0")));
+            }
+            return new Exchange(parts[0], parts[1], headers, body);
+        }
+
+        /**
+         * Writes the response of this exchange.
+         * The status line, the headers and the body are written at once.
+         *
+         * @param out The output stream of the connection.
+         * @throws IOException If the response could not be written.
+         */
+        private void writeResponse(OutputStream out) throws IOException {
+            StringBuilder head = new StringBuilder("HTTP/1.1 ").append(responseCode).append(' ')
+                    .append(getReasonPhrase(responseCode)).append("\r\n");
+            head.append("Date: ").append(DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC)))
+                    .append("\r\n");
+            for (Map.Entry<String, String> header : responseHeaders.entrySet()) {
+                head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+            }
+            head.append("Content-Length: ").append(responseBody.length).append("\r\n\r\n");
+            out.write(head.toString().getBytes(StandardCharsets.US_ASCII));
+            out.write(responseBody);
+            out.flush();
+        }
+
+        /**
+         * Gets the reason phrase of a status code.
+         *
+         * @param code The status code.
+         * @return The reason phrase.
+         */
+        private static String getReasonPhrase(int code) {
+            switch (code) {
+                case 200:
+                    return "OK";
+                case 204:
+                    return "No Content";
+                case 404:
+                    return "Not Found";
+                case 429:
+                    return "Too Many Requests";
+                default:
+                    return "Internal Server Error";
+            }
+        }
+
+        /**
+         * Reads a line.
+         *
+         * @param in The input stream.
+         * @return The line without the line break or <code>null</code> if the stream ended before the line started.
+         * @throws IOException If the stream ended in the middle of the line.
+         */
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != '\n') {
+                if (c == -1) {
+                    if (line.length() == 0) {
+                        return null;
+                    }
+                    throw new IOException("The connection was closed in the middle of a line");
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+
+        /**
+         * Reads the given amount of bytes.
+         *
+         * @param in The input stream.
+         * @param length The amount of bytes.
+         * @return The bytes.
+         * @throws IOException If the stream ended before all bytes were read.
+         */
+        private static byte[] readFully(InputStream in, int length) throws IOException {
+            byte[] bytes = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                int read = in.read(bytes, offset, length - offset);
+                if (read == -1) {
+                    throw new IOException("The connection was closed in the middle of the body");
+                }
+                offset += read;
+            }
+            return bytes;
+        }
+
+    }
+
+    /**
+     * A fixed window ratelimit.
+     */
+    private static class Ratelimit {
+
+        /**
+         * The time at which the current window resets.
+         */
+        private long resetTimestamp = 0;
+
+        /**
+         * The amount of requests in the current window.
+         */
+        private int used = 0;
+
+        /**
+         * Tries to acquire a permit.
+         *
+         * @param limit The amount of requests per window.
+         * @param windowMillis The length of a window in milliseconds.
+         * @param now The current time.
+         * @return <code>0</code> if a permit was acquired, otherwise the time in milliseconds till the window resets.
+         */
+        synchronized long acquire(int limit, long windowMillis, long now) {
+            if (resetTimestamp <= now) {
+                resetTimestamp = now + windowMillis;
+                used = 0;
+            }
+            if (used >= limit) {
+                return resetTimestamp - now;
+            }
+            used++;
+            return 0;
+        }
+
+    }
+
+}
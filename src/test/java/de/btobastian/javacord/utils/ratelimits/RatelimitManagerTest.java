@@ -0,0 +1,121 @@
+package de.btobastian.javacord.utils.ratelimits;
+
+import de.btobastian.javacord.DiscordApi;
+import de.btobastian.javacord.entities.channels.TextChannel;
+import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.utils.fake.FakeDiscord;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link RatelimitManager}.
+ */
+public class RatelimitManagerTest {
+
+    private FakeDiscord discord;
+    private DiscordApi api;
+    private List<TextChannel> channels;
+
+    @Before
+    public void login() throws Exception {
+        discord = new FakeDiscord();
+        long serverId = discord.addServer(10, 4);
+        api = discord.createApiBuilder().login().get(30, TimeUnit.SECONDS);
+        channels = new ArrayList<>();
+        for (long channelId : discord.getTextChannelIds(serverId)) {
+            channels.add(api.getTextChannelById(channelId).get());
+        }
+    }
+
+    @After
+    public void disconnect() {
+        api.disconnect();
+        discord.close();
+    }
+
+    @Test
+    public void requestsWaitForTheResetOfTheirBucket() throws Exception {
+        discord.setRatelimit(3, 300);
+        List<CompletableFuture<Message>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(channels.get(0).sendMessage("Message " + i));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        assertEquals(0, discord.getTooManyRequestsCount());
+    }
+
+    @Test
+    public void requestsAreRetriedAfterATooManyRequestsResponse() throws Exception {
+        discord.setRatelimit(1, 500);
+        // Another client uses up the bucket, so Javacord's first request gets a 429 response
+        long channelId = channels.get(0).getId();
+        sendDirectly("POST", "/channels/" + channelId + "/messages", "{\"content\":\"Other client\"}");
+
+        Message message = channels.get(0).sendMessage("Retried").get(30, TimeUnit.SECONDS);
+        assertEquals("Retried", message.getContent());
+        assertEquals(1, discord.getTooManyRequestsCount());
+    }
+
+    @Test
+    public void requestsAreRetriedAfterTheGlobalRatelimit() throws Exception {
+        discord.setGlobalRatelimit(2);
+        // Another client of the same bot uses up the global ratelimit
+        sendDirectly("GET", "/gateway", null);
+        sendDirectly("GET", "/gateway", null);
+
+        List<CompletableFuture<Message>> futures = new ArrayList<>();
+        for (TextChannel channel : channels) {
+            futures.add(channel.sendMessage("Global"));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        assertEquals(channels.size(), futures.stream().filter(future -> !future.isCompletedExceptionally()).count());
+        assertTrue(discord.getTooManyRequestsCount() > 0);
+    }
+
+    @Test
+    public void bucketsWithTheSameHashShareTheirRatelimit() throws Exception {
+        discord.setSharedBuckets(true);
+        discord.setRatelimit(3, 500);
+        TextChannel channel = channels.get(0);
+        // Sending and deleting messages are different buckets, which only share their ratelimit by their hash
+        Message first = channel.sendMessage("First").get(30, TimeUnit.SECONDS);
+        first.delete().get(30, TimeUnit.SECONDS);
+        Message second = channel.sendMessage("Second").get(30, TimeUnit.SECONDS);
+        // The shared bucket is exhausted now, but the bucket of deletions has one remaining request on its own
+        second.delete().get(30, TimeUnit.SECONDS);
+        channel.sendMessage("Third").get(30, TimeUnit.SECONDS);
+        assertEquals(0, discord.getTooManyRequestsCount());
+    }
+
+    /**
+     * Sends a request to the fake Discord without Javacord, like another client would do.
+     *
+     * @param method The http method.
+     * @param path The path of the request, relative to the base url.
+     * @param json The json body or <code>null</code>.
+     * @throws IOException If the request failed.
+     */
+    private void sendDirectly(String method, String path, String json) throws IOException {
+        RequestBody body = json == null ? null : RequestBody.create(MediaType.parse("application/json"), json);
+        Request request = new Request.Builder().url(discord.getRestBaseUrl() + path).method(method, body).build();
+        try (Response response = new OkHttpClient().newCall(request).execute()) {
+            assertEquals(200, response.code());
+        }
+    }
+
+}